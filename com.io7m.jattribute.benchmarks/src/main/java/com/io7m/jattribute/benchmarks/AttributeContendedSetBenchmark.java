@@ -0,0 +1,162 @@
+/*
+ * Copyright © 2026 Mark Raynsford <code@io7m.com> https://www.io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+package com.io7m.jattribute.benchmarks;
+
+import com.io7m.jattribute.core.AttributeType;
+import com.io7m.jattribute.core.Attributes;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Group;
+import org.openjdk.jmh.annotations.GroupThreads;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Benchmarks for setting a single attribute from multiple threads at once.
+ */
+
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class AttributeContendedSetBenchmark
+{
+  private static final Integer VALUE_0 = Integer.valueOf(1000);
+  private static final Integer VALUE_1 = Integer.valueOf(1001);
+
+  @Param({"0", "1", "100"})
+  private int subscriberCount;
+
+  private AttributeType<Integer> attribute;
+  private LongAdder received;
+
+  /**
+   * Construct a benchmark.
+   */
+
+  public AttributeContendedSetBenchmark()
+  {
+
+  }
+
+  /**
+   * Set up the attribute and subscribers.
+   */
+
+  @Setup(Level.Trial)
+  public void setup()
+  {
+    final var attributes =
+      Attributes.create(e -> {
+        throw new IllegalStateException(e);
+      });
+
+    this.received = new LongAdder();
+    this.attribute = attributes.withValue(VALUE_0);
+    for (int index = 0; index < this.subscriberCount; ++index) {
+      this.attribute.subscribe((oldValue, newValue) -> {
+        this.received.increment();
+      });
+    }
+  }
+
+  /**
+   * Per-thread state used to alternate between values.
+   */
+
+  @State(Scope.Thread)
+  public static class Writer
+  {
+    private boolean flip;
+
+    /**
+     * Construct writer state.
+     */
+
+    public Writer()
+    {
+
+    }
+
+    Integer next()
+    {
+      this.flip = !this.flip;
+      return this.flip ? VALUE_1 : VALUE_0;
+    }
+  }
+
+  /**
+   * Four threads setting the same attribute.
+   *
+   * @param writer The per-thread writer state
+   *
+   * @return The value returned by {@code set}
+   */
+
+  @Benchmark
+  @Threads(4)
+  public Integer set4(
+    final Writer writer)
+  {
+    return this.attribute.set(writer.next());
+  }
+
+  /**
+   * A single writer competing with three readers.
+   *
+   * @param writer The per-thread writer state
+   *
+   * @return The value returned by {@code set}
+   */
+
+  @Benchmark
+  @Group("readWrite")
+  @GroupThreads(1)
+  public Integer readWriteSet(
+    final Writer writer)
+  {
+    return this.attribute.set(writer.next());
+  }
+
+  /**
+   * Three readers competing with a single writer.
+   *
+   * @return The current value
+   */
+
+  @Benchmark
+  @Group("readWrite")
+  @GroupThreads(3)
+  public Integer readWriteGet()
+  {
+    return this.attribute.get();
+  }
+}
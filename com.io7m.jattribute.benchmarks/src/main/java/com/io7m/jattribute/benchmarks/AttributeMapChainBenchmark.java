@@ -0,0 +1,139 @@
+/*
+ * Copyright © 2026 Mark Raynsford <code@io7m.com> https://www.io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+package com.io7m.jattribute.benchmarks;
+
+import com.io7m.jattribute.core.AttributeReadableType;
+import com.io7m.jattribute.core.AttributeType;
+import com.io7m.jattribute.core.Attributes;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks for reading from, and propagating through, chains of mapped
+ * attributes. The chains have the same shape as those used in the test
+ * suite: a series of {@code map} calls terminated by a {@code mapR} call.
+ */
+
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class AttributeMapChainBenchmark
+{
+  private static final Integer VALUE_0 = Integer.valueOf(1000);
+  private static final Integer VALUE_1 = Integer.valueOf(1001);
+
+  @Param({"1", "4", "16", "64"})
+  private int depth;
+
+  private AttributeType<Integer> root;
+  private AttributeReadableType<Integer> chain;
+  private AttributeReadableType<Integer> chainSubscribed;
+  private int received;
+  private boolean flip;
+
+  /**
+   * Construct a benchmark.
+   */
+
+  public AttributeMapChainBenchmark()
+  {
+
+  }
+
+  /**
+   * Set up the chains.
+   */
+
+  @Setup(Level.Trial)
+  public void setup()
+  {
+    final var attributes =
+      Attributes.create(e -> {
+        throw new IllegalStateException(e);
+      });
+
+    this.root = attributes.withValue(VALUE_0);
+    this.chain = makeChain(this.root, this.depth);
+    this.chainSubscribed = makeChain(this.root, this.depth);
+    this.chainSubscribed.subscribe((oldValue, newValue) -> {
+      this.received += newValue.intValue();
+    });
+  }
+
+  private static AttributeReadableType<Integer> makeChain(
+    final AttributeType<Integer> root,
+    final int depth)
+  {
+    AttributeType<Integer> current = root;
+    for (int index = 0; index < depth - 1; ++index) {
+      current = current.map(x -> Integer.valueOf(x.intValue() ^ 1));
+    }
+    return current.mapR(x -> Integer.valueOf(x.intValue() ^ 1));
+  }
+
+  /**
+   * Read the value at the end of a chain that has no subscribers.
+   *
+   * @return The value
+   */
+
+  @Benchmark
+  public Integer getUnsubscribed()
+  {
+    return this.chain.get();
+  }
+
+  /**
+   * Read the value at the end of a chain that has a subscriber.
+   *
+   * @return The value
+   */
+
+  @Benchmark
+  public Integer getSubscribed()
+  {
+    return this.chainSubscribed.get();
+  }
+
+  /**
+   * Set the root of the chains, propagating the value through both chains.
+   *
+   * @return The value returned by {@code set}
+   */
+
+  @Benchmark
+  public Integer setRoot()
+  {
+    this.flip = !this.flip;
+    return this.root.set(this.flip ? VALUE_1 : VALUE_0);
+  }
+}
@@ -0,0 +1,124 @@
+/*
+ * Copyright © 2026 Mark Raynsford <code@io7m.com> https://www.io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+package com.io7m.jattribute.benchmarks;
+
+import com.io7m.jattribute.core.AttributeDoubleType;
+import com.io7m.jattribute.core.AttributeType;
+import com.io7m.jattribute.core.Attributes;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks comparing the generic and primitive attributes when used as
+ * a frequently updated gauge. Run with the GC profiler to compare
+ * allocation rates.
+ */
+
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class AttributePrimitiveBenchmark
+{
+  private AttributeType<Double> boxed;
+  private AttributeDoubleType primitive;
+  private double received;
+  private double value;
+
+  /**
+   * Construct a benchmark.
+   */
+
+  public AttributePrimitiveBenchmark()
+  {
+
+  }
+
+  /**
+   * Set up the attributes and subscribers.
+   */
+
+  @Setup(Level.Trial)
+  public void setup()
+  {
+    final var attributes =
+      Attributes.create(e -> {
+        throw new IllegalStateException(e);
+      });
+
+    this.boxed = attributes.withValue(Double.valueOf(0.0));
+    this.boxed.subscribe((oldValue, newValue) -> {
+      this.received += newValue.doubleValue();
+    });
+
+    this.primitive = attributes.withDouble(0.0);
+    this.primitive.subscribe((oldValue, newValue) -> {
+      this.received += newValue;
+    });
+  }
+
+  /**
+   * Set a new value on a generic attribute.
+   *
+   * @return The old value
+   */
+
+  @Benchmark
+  public double setBoxed()
+  {
+    this.value += 1.0;
+    return this.boxed.set(Double.valueOf(this.value)).doubleValue();
+  }
+
+  /**
+   * Set a new value on a primitive attribute.
+   *
+   * @return The old value
+   */
+
+  @Benchmark
+  public double setPrimitive()
+  {
+    this.value += 1.0;
+    return this.primitive.set(this.value);
+  }
+
+  /**
+   * Add to the value of a primitive attribute.
+   *
+   * @return The new value
+   */
+
+  @Benchmark
+  public double addPrimitive()
+  {
+    return this.primitive.addAndGet(1.0);
+  }
+}
@@ -0,0 +1,156 @@
+/*
+ * Copyright © 2026 Mark Raynsford <code@io7m.com> https://www.io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+package com.io7m.jattribute.benchmarks;
+
+import com.io7m.jattribute.core.AttributeReceiverType;
+import com.io7m.jattribute.core.AttributeSubscriptionType;
+import com.io7m.jattribute.core.AttributeType;
+import com.io7m.jattribute.core.Attributes;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks for subscribing to, and unsubscribing from, attributes that
+ * already have a varying number of subscribers.
+ */
+
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class AttributeSubscribeBenchmark
+{
+  @Param({"0", "100", "10000", "100000"})
+  private int subscriberCount;
+
+  private AttributeType<Integer> attribute;
+  private AttributeSubscriptionType[] ring;
+  private AttributeReceiverType<Integer> receiver;
+  private int ringIndex;
+  private int received;
+
+  /**
+   * Construct a benchmark.
+   */
+
+  public AttributeSubscribeBenchmark()
+  {
+
+  }
+
+  /**
+   * Set up the attribute and existing subscribers.
+   */
+
+  @Setup(Level.Trial)
+  public void setup()
+  {
+    final var attributes =
+      Attributes.create(e -> {
+        throw new IllegalStateException(e);
+      });
+
+    this.receiver = (oldValue, newValue) -> {
+      this.received += newValue.intValue();
+    };
+
+    this.attribute = attributes.withValue(Integer.valueOf(23));
+    this.ring = new AttributeSubscriptionType[Math.max(1, this.subscriberCount)];
+    for (int index = 0; index < this.subscriberCount; ++index) {
+      this.ring[index] = this.attribute.subscribe(this.receiver);
+    }
+    this.ringIndex = 0;
+  }
+
+  /**
+   * Subscribe and then immediately close the new subscription. The new
+   * subscription is always the most recent, and so is at the end of the
+   * list of subscribers.
+   */
+
+  @Benchmark
+  public void subscribeCloseNewest()
+  {
+    this.attribute.subscribe(this.receiver).close();
+  }
+
+  /**
+   * Close a subscription chosen from throughout the list of subscribers
+   * and replace it with a new one. The ring is stepped with a large odd
+   * stride, so successive subscriptions are closed from scattered positions
+   * in the list.
+   */
+
+  @Benchmark
+  public void subscribeCloseScattered()
+  {
+    final var index = this.ringIndex;
+    final var existing = this.ring[index];
+    if (existing != null) {
+      existing.close();
+    }
+    this.ring[index] = this.attribute.subscribe(this.receiver);
+    this.ringIndex = (index + 7919) % this.ring.length;
+  }
+
+  /**
+   * Set a new value on the attribute whilst its subscribers churn, measuring
+   * the cost of publishing to a list that contains closed subscriptions.
+   *
+   * @return The value that the attribute held before the new value was set,
+   * returned so that the update cannot be eliminated as dead code
+   */
+
+  @Benchmark
+  public Integer subscribeClosePublish()
+  {
+    this.subscribeCloseOldest();
+    return this.attribute.set(Integer.valueOf(this.ringIndex));
+  }
+
+  /**
+   * Close the oldest subscription and replace it with a new one. The
+   * closed subscription is always the least recent, and so is at the start
+   * of the list of subscribers.
+   */
+
+  @Benchmark
+  public void subscribeCloseOldest()
+  {
+    final var index = this.ringIndex;
+    final var existing = this.ring[index];
+    if (existing != null) {
+      existing.close();
+    }
+    this.ring[index] = this.attribute.subscribe(this.receiver);
+    this.ringIndex = (index + 1) % this.ring.length;
+  }
+}
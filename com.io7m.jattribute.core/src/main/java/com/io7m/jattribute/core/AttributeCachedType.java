@@ -0,0 +1,53 @@
+/*
+ * Copyright © 2026 Mark Raynsford <code@io7m.com> https://www.io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+package com.io7m.jattribute.core;
+
+import net.jcip.annotations.ThreadSafe;
+
+/**
+ * An attribute that caches the values of a function. The function is
+ * evaluated when the attribute is first read, and the resulting value is
+ * cached; subsequent reads return the cached value without evaluating the
+ * function until the value is invalidated with {@link #invalidate()}, or
+ * until the value expires if the attribute was created with a time-to-live.
+ * Setting the attribute stores the new value in the cache, and the new value
+ * is returned by reads until it is invalidated or expires.
+ *
+ * When a cached value is replaced by a value evaluated from the function,
+ * subscribers are notified only if the new value is not equal to the cached
+ * value (according to {@link Object#equals(Object)}), and is not equivalent
+ * to the cached value according to the attribute's equivalence. Refreshing
+ * an unchanged value therefore publishes nothing, even with the default
+ * equivalence.
+ *
+ * @param <A> The type of underlying values
+ *
+ * @see Attributes#fromFunctionCached(java.util.function.Supplier)
+ */
+
+@ThreadSafe
+public interface AttributeCachedType<A> extends AttributeType<A>
+{
+  /**
+   * Invalidate the cached value. If the attribute has subscribers, the
+   * function is evaluated immediately so that subscribers can be notified
+   * of any change. Otherwise, the function is evaluated when the attribute
+   * is next read.
+   */
+
+  void invalidate();
+}
@@ -0,0 +1,110 @@
+/*
+ * Copyright © 2026 Mark Raynsford <code@io7m.com> https://www.io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+package com.io7m.jattribute.core;
+
+import net.jcip.annotations.ThreadSafe;
+
+import java.util.concurrent.Executor;
+
+/**
+ * A collection attribute: an observable collection that publishes each
+ * individual change made to it, rather than publishing a whole new
+ * collection each time it is modified. Subscribers receive compact change
+ * records, and so the cost of an update is proportional to the size of the
+ * change rather than the size of the collection.
+ *
+ * Upon subscription, a receiver receives the current contents of the
+ * collection as a series of additions, in iteration order, and then
+ * receives every subsequent change in the order in which the changes were
+ * made. A receiver that applies each change it receives to an empty
+ * collection therefore reproduces the contents of the attribute. Changes
+ * are delivered whilst the attribute's lock is held, and so changes made
+ * concurrently by several threads are received in a single, consistent
+ * order. Changes are delivered immediately, even inside a transaction.
+ *
+ * Because changes are delivered whilst the lock is held, a receiver that is
+ * called on the thread that made a change must not modify the collection
+ * from which it is receiving changes: doing so would deliver the nested
+ * change to some subscribers before the change that caused it. Such
+ * modifications are rejected with an {@link IllegalStateException}, and so
+ * the receiver is unsubscribed and the exception is passed to the error
+ * consumer, in the same way as any other receiver that raises an exception.
+ *
+ * @param <S> The type of snapshots of the collection
+ * @param <C> The type of changes
+ */
+
+@ThreadSafe
+public interface AttributeCollectionReadableType<S, C>
+{
+  /**
+   * Take an immutable snapshot of the collection. The snapshot is cached
+   * until the collection next changes, and so taking a snapshot costs time
+   * proportional to the size of the collection only for the first snapshot
+   * after each change.
+   *
+   * @return An immutable snapshot of the current contents
+   */
+
+  S snapshot();
+
+  /**
+   * @return The number of elements in the collection
+   */
+
+  int size();
+
+  /**
+   * @return The version of the collection, which increases each time the
+   * collection changes
+   *
+   * @see AttributeReadableType#version()
+   */
+
+  long version();
+
+  /**
+   * Subscribe to changes in the collection. The given receiver will be
+   * evaluated for each element currently in the collection, and then
+   * evaluated each time the collection changes. If the receiver throws an
+   * exception, the subscription is automatically closed.
+   *
+   * @param receiver The receiver
+   *
+   * @return A subscription
+   */
+
+  AttributeSubscriptionType subscribe(
+    AttributeDeltaReceiverType<? super C> receiver);
+
+  /**
+   * Subscribe to changes in the collection, delivering changes
+   * asynchronously on the given executor. Changes are delivered in order,
+   * and the receiver is never evaluated concurrently with itself.
+   *
+   * @param executor The executor on which the receiver will be evaluated
+   * @param receiver The receiver
+   *
+   * @return A subscription
+   *
+   * @see #subscribe(AttributeDeltaReceiverType)
+   */
+
+  AttributeSubscriptionType subscribe(
+    Executor executor,
+    AttributeDeltaReceiverType<? super C> receiver);
+}
@@ -0,0 +1,43 @@
+/*
+ * Copyright © 2026 Mark Raynsford <code@io7m.com> https://www.io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+package com.io7m.jattribute.core;
+
+/**
+ * The manner in which values are delivered to subscribers that receive
+ * values asynchronously on an executor.
+ */
+
+public enum AttributeDeliveryMode
+{
+  /**
+   * Every value is delivered to the subscriber, in the order in which the
+   * values were published.
+   */
+
+  ORDERED,
+
+  /**
+   * Values published whilst a subscriber is busy or waiting to run are
+   * conflated: the subscriber keeps a single pending update, and each newly
+   * published value replaces the new value of the pending update. When the
+   * subscriber runs, it receives a single update whose old value is the
+   * value before the first update in the burst, and whose new value is the
+   * latest value. Intermediate values are never delivered.
+   */
+
+  CONFLATED
+}
@@ -0,0 +1,106 @@
+/*
+ * Copyright © 2026 Mark Raynsford <code@io7m.com> https://www.io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+package com.io7m.jattribute.core;
+
+import java.util.Comparator;
+import java.util.Objects;
+
+/**
+ * An equivalence relation used by attributes to decide whether a new value
+ * is a change from an old value. If a new value is equivalent to the current
+ * value of an attribute, the attribute is not updated and subscribers are
+ * not notified.
+ *
+ * @param <A> The type of values
+ */
+
+@FunctionalInterface
+public interface AttributeEquivalenceType<A>
+{
+  /**
+   * Determine whether two values are equivalent.
+   *
+   * @param x The first value
+   * @param y The second value
+   *
+   * @return {@code true} if the values are equivalent
+   */
+
+  boolean isEquivalent(
+    A x,
+    A y);
+
+  /**
+   * An equivalence under which no two values are equivalent. An attribute
+   * using this equivalence notifies subscribers on every update, even if the
+   * new value is the same as the old value. This is the default.
+   *
+   * @param <A> The type of values
+   *
+   * @return An equivalence
+   */
+
+  static <A> AttributeEquivalenceType<A> never()
+  {
+    return (x, y) -> false;
+  }
+
+  /**
+   * An equivalence under which two values are equivalent if they are the
+   * same object.
+   *
+   * @param <A> The type of values
+   *
+   * @return An equivalence
+   */
+
+  static <A> AttributeEquivalenceType<A> identity()
+  {
+    return (x, y) -> x == y;
+  }
+
+  /**
+   * An equivalence under which two values are equivalent if they are equal
+   * according to {@link Object#equals(Object)}.
+   *
+   * @param <A> The type of values
+   *
+   * @return An equivalence
+   */
+
+  static <A> AttributeEquivalenceType<A> equality()
+  {
+    return Objects::equals;
+  }
+
+  /**
+   * An equivalence under which two values are equivalent if the given
+   * comparator considers them equal.
+   *
+   * @param comparator The comparator
+   * @param <A>        The type of values
+   *
+   * @return An equivalence
+   */
+
+  static <A> AttributeEquivalenceType<A> comparing(
+    final Comparator<? super A> comparator)
+  {
+    Objects.requireNonNull(comparator, "comparator");
+    return (x, y) -> comparator.compare(x, y) == 0;
+  }
+}
@@ -0,0 +1,37 @@
+/*
+ * Copyright © 2026 Mark Raynsford <code@io7m.com> https://www.io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+package com.io7m.jattribute.core;
+
+import java.util.concurrent.Flow;
+
+/**
+ * A {@link Flow.Subscriber} that sets the value of an attribute to each item
+ * that it receives. The subscriber requests one item at a time, and requests
+ * the next item only once the attribute has published the previous one, and
+ * so an upstream publisher cannot outpace the attribute's subscribers.
+ * Closing the subscriber cancels its upstream subscription.
+ *
+ * @param <A> The type of values
+ *
+ * @see Attributes#toSubscriber(AttributeType)
+ */
+
+public interface AttributeFlowSubscriberType<A>
+  extends Flow.Subscriber<A>, AttributeSubscriptionType
+{
+
+}
@@ -0,0 +1,195 @@
+/*
+ * Copyright © 2026 Mark Raynsford <code@io7m.com> https://www.io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+package com.io7m.jattribute.core;
+
+import net.jcip.annotations.ThreadSafe;
+
+import java.util.concurrent.Executor;
+import java.util.function.IntFunction;
+import java.util.function.IntToDoubleFunction;
+import java.util.function.IntToLongFunction;
+import java.util.function.IntUnaryOperator;
+
+/**
+ * A readable attribute holding a {@code int} value. Primitive attributes
+ * store and deliver values without boxing them, and are otherwise identical
+ * to {@link AttributeReadableType}. Primitive attributes do not notify
+ * subscribers of updates that leave the value unchanged, comparing values
+ * with {@code ==} rather than any configured equivalence. The
+ * {@link #boxed()} method bridges a primitive attribute to the generic API.
+ *
+ * @see AttributeReadableType
+ */
+
+@ThreadSafe
+public interface AttributeIntReadableType
+{
+  /**
+   * @return The current value
+   */
+
+  int get();
+
+  /**
+   * The version of the attribute. The version increases each time the value
+   * of the attribute is stored, and so a caller that polls the attribute
+   * can compare the version with the version it last saw in order to
+   * determine whether anything might have changed, without subscribing and
+   * without allocating. The version of an attribute derived from other
+   * attributes increases each time the version of the attribute from which
+   * it was derived increases. The version may increase without the value
+   * changing, but the value never changes without the version increasing.
+   *
+   * A caller that reads the version and then reads the value never misses a
+   * change; the value is at least as recent as the version. Use
+   * {@link #getVersioned()} to read a value together with exactly the
+   * version at which it was current.
+   *
+   * @return The version
+   */
+
+  long version();
+
+  /**
+   * Read the value and the version of the attribute consistently: the
+   * returned value was the value of the attribute at the returned version.
+   * This method does not take a lock; if the attribute is being updated
+   * concurrently, the read is retried.
+   *
+   * @return The value and the version
+   *
+   * @see #version()
+   */
+
+  AttributeVersionedValue<Integer> getVersioned();
+
+  /**
+   * Subscribe to the attribute. The given receiver function will be evaluated
+   * once upon subscription, and then evaluated each time the attribute's value
+   * changes. If the receiver function throws an exception, the subscription is
+   * automatically closed.
+   *
+   * @param receiver The receiver function
+   *
+   * @return A subscription
+   */
+
+  AttributeSubscriptionType subscribe(
+    AttributeIntReceiverType receiver);
+
+  /**
+   * Subscribe to the attribute, delivering values asynchronously on the
+   * given executor. The given receiver function will be evaluated once upon
+   * subscription, and then evaluated each time the attribute's value
+   * changes. Values are delivered to the receiver in the order in which they
+   * were published, and the receiver is never evaluated concurrently with
+   * itself; the thread that updates the attribute only queues the values.
+   * This is equivalent to subscribing with
+   * {@link AttributeDeliveryMode#ORDERED}. If the receiver function throws
+   * an exception, the subscription is automatically closed.
+   *
+   * @param executor The executor on which the receiver will be evaluated
+   * @param receiver The receiver function
+   *
+   * @return A subscription
+   */
+
+  AttributeSubscriptionType subscribe(
+    Executor executor,
+    AttributeIntReceiverType receiver);
+
+  /**
+   * Subscribe to the attribute, delivering values asynchronously on the
+   * given executor using the given delivery mode. The given receiver
+   * function will be evaluated once upon subscription, and then evaluated
+   * each time the attribute's value changes, subject to the delivery mode.
+   * The receiver is never evaluated concurrently with itself, and the thread
+   * that updates the attribute only stores the values. If the receiver
+   * function throws an exception, the subscription is automatically closed.
+   *
+   * @param executor The executor on which the receiver will be evaluated
+   * @param mode     The delivery mode
+   * @param receiver The receiver function
+   *
+   * @return A subscription
+   *
+   * @see AttributeDeliveryMode
+   */
+
+  AttributeSubscriptionType subscribe(
+    Executor executor,
+    AttributeDeliveryMode mode,
+    AttributeIntReceiverType receiver);
+
+  /**
+   * Create a new read-only attribute that is subscribed to this attribute and
+   * has its values transformed with {@code f}.
+   *
+   * @param f A transform function
+   *
+   * @return A new attribute
+   */
+
+  AttributeIntReadableType mapToInt(
+    IntUnaryOperator f);
+
+  /**
+   * Create a new read-only attribute that is subscribed to this attribute and
+   * has its values transformed with {@code f}.
+   *
+   * @param f A transform function
+   *
+   * @return A new attribute
+   */
+
+  AttributeLongReadableType mapToLong(
+    IntToLongFunction f);
+
+  /**
+   * Create a new read-only attribute that is subscribed to this attribute and
+   * has its values transformed with {@code f}.
+   *
+   * @param f A transform function
+   *
+   * @return A new attribute
+   */
+
+  AttributeDoubleReadableType mapToDouble(
+    IntToDoubleFunction f);
+
+  /**
+   * Create a new read-only attribute that is subscribed to this attribute and
+   * has its values transformed with {@code f}.
+   *
+   * @param f   A transform function
+   * @param <B> The type of transformed values
+   *
+   * @return A new attribute
+   */
+
+  <B> AttributeReadableType<B> mapToObj(
+    IntFunction<B> f);
+
+  /**
+   * Create a new read-only attribute that is subscribed to this attribute and
+   * holds boxed values.
+   *
+   * @return A new attribute
+   */
+
+  AttributeReadableType<Integer> boxed();
+}
@@ -0,0 +1,137 @@
+/*
+ * Copyright © 2026 Mark Raynsford <code@io7m.com> https://www.io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+package com.io7m.jattribute.core;
+
+import net.jcip.annotations.ThreadSafe;
+
+import java.util.Optional;
+import java.util.concurrent.Executor;
+
+/**
+ * A concurrent map in which each key can be observed individually. Keys and
+ * values must not be {@code null}.
+ *
+ * Subscribers subscribe to a single key, and receive the value associated
+ * with that key (or {@link Optional#empty()} if there is no value) whenever
+ * it changes; each key behaves like an independent attribute of type
+ * {@code Optional<V>}. Changing the value of a key notifies only the
+ * subscribers of that key, and so the cost of an update does not depend on
+ * the size of the map, or on the number of subscribers of other keys.
+ * Changing the value of a key that has no subscribers publishes nothing and
+ * allocates nothing beyond the map entry itself.
+ *
+ * The per-key state that holds subscriptions is created when the first
+ * subscriber of a key subscribes, and is discarded when the last
+ * subscription to that key is closed, and so a map with millions of keys
+ * pays only for the keys that are currently being observed.
+ *
+ * Replacing a value with a value that is equivalent to it, according to the
+ * equivalence of the {@link Attributes} instance that created the map,
+ * publishes nothing. Changes made inside a transaction are published when
+ * the transaction closes, in the same way as changes to ordinary attributes.
+ *
+ * @param <K> The type of keys
+ * @param <V> The type of values
+ */
+
+@ThreadSafe
+public interface AttributeKeyedMapType<K, V>
+{
+  /**
+   * @param key The key
+   *
+   * @return The value associated with the key, if any
+   */
+
+  Optional<V> get(K key);
+
+  /**
+   * @param key The key
+   *
+   * @return {@code true} if the map contains the key
+   */
+
+  boolean containsKey(K key);
+
+  /**
+   * @return The number of entries in the map
+   */
+
+  int size();
+
+  /**
+   * @return The number of keys that currently have at least one subscriber
+   */
+
+  int subscribedKeys();
+
+  /**
+   * Associate a value with a key, notifying the subscribers of the key.
+   *
+   * @param key   The key
+   * @param value The value
+   *
+   * @return The value previously associated with the key, if any
+   */
+
+  Optional<V> put(
+    K key,
+    V value);
+
+  /**
+   * Remove the entry for a key, notifying the subscribers of the key.
+   *
+   * @param key The key
+   *
+   * @return The value previously associated with the key, if any
+   */
+
+  Optional<V> remove(K key);
+
+  /**
+   * Subscribe to the value of a single key. The receiver immediately
+   * receives the current value of the key as both the old and the new
+   * value.
+   *
+   * @param key      The key
+   * @param receiver The receiver
+   *
+   * @return A subscription
+   */
+
+  AttributeSubscriptionType subscribe(
+    K key,
+    AttributeReceiverType<Optional<V>> receiver);
+
+  /**
+   * Subscribe to the value of a single key, receiving values on the given
+   * executor in the order in which they were published. The receiver
+   * receives the current value of the key as both the old and the new
+   * value before receiving any other values.
+   *
+   * @param key      The key
+   * @param executor The executor
+   * @param receiver The receiver
+   *
+   * @return A subscription
+   */
+
+  AttributeSubscriptionType subscribe(
+    K key,
+    Executor executor,
+    AttributeReceiverType<Optional<V>> receiver);
+}
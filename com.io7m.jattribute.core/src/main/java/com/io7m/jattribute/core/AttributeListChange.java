@@ -0,0 +1,143 @@
+/*
+ * Copyright © 2026 Mark Raynsford <code@io7m.com> https://www.io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+package com.io7m.jattribute.core;
+
+import java.util.Objects;
+
+/**
+ * A change made to a list attribute. Indices refer to positions in the list
+ * immediately before the change was applied (for removals and
+ * replacements), or immediately after (for additions).
+ *
+ * @param <E> The type of elements
+ *
+ * @see AttributeListType
+ */
+
+public sealed interface AttributeListChange<E>
+{
+  /**
+   * An element was inserted at the given index.
+   *
+   * @param index   The index
+   * @param element The element
+   * @param <E>     The type of elements
+   */
+
+  record Added<E>(
+    int index,
+    E element)
+    implements AttributeListChange<E>
+  {
+    /**
+     * An element was inserted at the given index.
+     *
+     * @param index   The index
+     * @param element The element
+     */
+
+    public Added
+    {
+      Objects.requireNonNull(element, "element");
+    }
+  }
+
+  /**
+   * An element was removed from the given index.
+   *
+   * @param index   The index
+   * @param element The removed element
+   * @param <E>     The type of elements
+   */
+
+  record Removed<E>(
+    int index,
+    E element)
+    implements AttributeListChange<E>
+  {
+    /**
+     * An element was removed from the given index.
+     *
+     * @param index   The index
+     * @param element The removed element
+     */
+
+    public Removed
+    {
+      Objects.requireNonNull(element, "element");
+    }
+  }
+
+  /**
+   * The element at the given index was replaced.
+   *
+   * @param index      The index
+   * @param oldElement The old element
+   * @param newElement The new element
+   * @param <E>        The type of elements
+   */
+
+  record Replaced<E>(
+    int index,
+    E oldElement,
+    E newElement)
+    implements AttributeListChange<E>
+  {
+    /**
+     * The element at the given index was replaced.
+     *
+     * @param index      The index
+     * @param oldElement The old element
+     * @param newElement The new element
+     */
+
+    public Replaced
+    {
+      Objects.requireNonNull(oldElement, "oldElement");
+      Objects.requireNonNull(newElement, "newElement");
+    }
+  }
+
+  /**
+   * All elements were removed from the list. A single change is published
+   * however many elements the list held, and so clearing a large list costs
+   * one call per subscriber.
+   *
+   * @param size The number of elements that were removed
+   * @param <E>  The type of elements
+   */
+
+  record Cleared<E>(
+    int size)
+    implements AttributeListChange<E>
+  {
+    /**
+     * All elements were removed from the list.
+     *
+     * @param size The number of elements that were removed
+     */
+
+    public Cleared
+    {
+      if (size <= 0) {
+        throw new IllegalArgumentException(
+          String.format("Size %d must be positive", size)
+        );
+      }
+    }
+  }
+}
@@ -0,0 +1,115 @@
+/*
+ * Copyright © 2026 Mark Raynsford <code@io7m.com> https://www.io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+package com.io7m.jattribute.core;
+
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * A list attribute. Elements must not be {@code null}.
+ *
+ * Replacing an element with an element that is equivalent to it, according
+ * to the equivalence of the {@link Attributes} instance that created the
+ * attribute, does not change the list and publishes nothing.
+ *
+ * @param <E> The type of elements
+ *
+ * @see AttributeCollectionReadableType
+ */
+
+public interface AttributeListType<E>
+  extends AttributeCollectionReadableType<List<E>, AttributeListChange<E>>
+{
+  /**
+   * @param index The index
+   *
+   * @return The element at the given index
+   *
+   * @throws IndexOutOfBoundsException If the index is out of range
+   */
+
+  E get(int index)
+    throws IndexOutOfBoundsException;
+
+  /**
+   * Append an element to the list.
+   *
+   * @param element The element
+   */
+
+  void add(E element);
+
+  /**
+   * Insert an element into the list at the given index.
+   *
+   * @param index   The index
+   * @param element The element
+   *
+   * @throws IndexOutOfBoundsException If the index is out of range
+   */
+
+  void add(
+    int index,
+    E element)
+    throws IndexOutOfBoundsException;
+
+  /**
+   * Append all the given elements to the list. Each element is published as
+   * a separate addition.
+   *
+   * @param elements The elements
+   */
+
+  void addAll(Collection<? extends E> elements);
+
+  /**
+   * Replace the element at the given index.
+   *
+   * @param index   The index
+   * @param element The new element
+   *
+   * @return The old element
+   *
+   * @throws IndexOutOfBoundsException If the index is out of range
+   */
+
+  E set(
+    int index,
+    E element)
+    throws IndexOutOfBoundsException;
+
+  /**
+   * Remove the element at the given index.
+   *
+   * @param index The index
+   *
+   * @return The removed element
+   *
+   * @throws IndexOutOfBoundsException If the index is out of range
+   */
+
+  E remove(int index)
+    throws IndexOutOfBoundsException;
+
+  /**
+   * Remove all elements from the list. A single
+   * {@link AttributeListChange.Cleared} change is published, rather than one
+   * removal per element. Nothing is published if the list is empty.
+   */
+
+  void clear();
+}
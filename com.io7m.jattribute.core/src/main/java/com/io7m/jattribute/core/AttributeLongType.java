@@ -0,0 +1,125 @@
+/*
+ * Copyright © 2026 Mark Raynsford <code@io7m.com> https://www.io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+package com.io7m.jattribute.core;
+
+import net.jcip.annotations.ThreadSafe;
+
+import java.util.function.LongBinaryOperator;
+import java.util.function.LongUnaryOperator;
+
+/**
+ * A readable and writable attribute holding a {@code long} value. All
+ * updates are atomic; each successful update publishes exactly one old/new
+ * pair of values to subscribers.
+ *
+ * @see AttributeType
+ */
+
+@ThreadSafe
+public interface AttributeLongType extends AttributeLongReadableType
+{
+  /**
+   * Set the value of this attribute. Any subscribers of this observable
+   * are notified of the change in value.
+   *
+   * @param y The new value
+   *
+   * @return The old value
+   */
+
+  long set(long y);
+
+  /**
+   * Atomically set the value of this attribute to {@code newValue} if the
+   * current value is {@code expected}.
+   *
+   * @param expected The expected current value
+   * @param newValue The new value
+   *
+   * @return {@code true} if the current value was {@code expected}
+   */
+
+  boolean compareAndSet(
+    long expected,
+    long newValue);
+
+  /**
+   * Atomically update the value of this attribute with the results of
+   * applying {@code f} to the current value. The function may be evaluated
+   * multiple times if other threads update the attribute concurrently, and
+   * so should be free of side effects.
+   *
+   * @param f The update function
+   *
+   * @return The old value
+   */
+
+  long getAndUpdate(
+    LongUnaryOperator f);
+
+  /**
+   * Atomically update the value of this attribute with the results of
+   * applying {@code f} to the current value. The function may be evaluated
+   * multiple times if other threads update the attribute concurrently, and
+   * so should be free of side effects.
+   *
+   * @param f The update function
+   *
+   * @return The new value
+   */
+
+  long updateAndGet(
+    LongUnaryOperator f);
+
+  /**
+   * Atomically update the value of this attribute with the results of
+   * applying {@code f} to the current value and {@code x}. The function
+   * may be evaluated multiple times if other threads update the attribute
+   * concurrently, and so should be free of side effects.
+   *
+   * @param x The update value
+   * @param f The accumulator function
+   *
+   * @return The new value
+   */
+
+  long accumulateAndGet(
+    long x,
+    LongBinaryOperator f);
+
+  /**
+   * Atomically add {@code x} to the value of this attribute.
+   *
+   * @param x The value to add
+   *
+   * @return The old value
+   */
+
+  long getAndAdd(
+    long x);
+
+  /**
+   * Atomically add {@code x} to the value of this attribute.
+   *
+   * @param x The value to add
+   *
+   * @return The new value
+   */
+
+  long addAndGet(
+    long x);
+}
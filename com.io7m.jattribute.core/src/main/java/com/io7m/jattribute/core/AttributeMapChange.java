@@ -0,0 +1,149 @@
+/*
+ * Copyright © 2026 Mark Raynsford <code@io7m.com> https://www.io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+package com.io7m.jattribute.core;
+
+import java.util.Objects;
+
+/**
+ * A change made to a map attribute.
+ *
+ * @param <K> The type of keys
+ * @param <V> The type of values
+ *
+ * @see AttributeMapType
+ */
+
+public sealed interface AttributeMapChange<K, V>
+{
+  /**
+   * An entry was added to the map.
+   *
+   * @param key   The key
+   * @param value The value
+   * @param <K>   The type of keys
+   * @param <V>   The type of values
+   */
+
+  record Added<K, V>(
+    K key,
+    V value)
+    implements AttributeMapChange<K, V>
+  {
+    /**
+     * An entry was added to the map.
+     *
+     * @param key   The key
+     * @param value The value
+     */
+
+    public Added
+    {
+      Objects.requireNonNull(key, "key");
+      Objects.requireNonNull(value, "value");
+    }
+  }
+
+  /**
+   * An entry was removed from the map.
+   *
+   * @param key   The key
+   * @param value The removed value
+   * @param <K>   The type of keys
+   * @param <V>   The type of values
+   */
+
+  record Removed<K, V>(
+    K key,
+    V value)
+    implements AttributeMapChange<K, V>
+  {
+    /**
+     * An entry was removed from the map.
+     *
+     * @param key   The key
+     * @param value The removed value
+     */
+
+    public Removed
+    {
+      Objects.requireNonNull(key, "key");
+      Objects.requireNonNull(value, "value");
+    }
+  }
+
+  /**
+   * The value of an existing entry was replaced.
+   *
+   * @param key      The key
+   * @param oldValue The old value
+   * @param newValue The new value
+   * @param <K>      The type of keys
+   * @param <V>      The type of values
+   */
+
+  record Replaced<K, V>(
+    K key,
+    V oldValue,
+    V newValue)
+    implements AttributeMapChange<K, V>
+  {
+    /**
+     * The value of an existing entry was replaced.
+     *
+     * @param key      The key
+     * @param oldValue The old value
+     * @param newValue The new value
+     */
+
+    public Replaced
+    {
+      Objects.requireNonNull(key, "key");
+      Objects.requireNonNull(oldValue, "oldValue");
+      Objects.requireNonNull(newValue, "newValue");
+    }
+  }
+
+  /**
+   * All entries were removed from the map. A single change is published
+   * however many entries the map held, and so clearing a large map costs
+   * one call per subscriber.
+   *
+   * @param size The number of entries that were removed
+   * @param <K>  The type of keys
+   * @param <V>  The type of values
+   */
+
+  record Cleared<K, V>(
+    int size)
+    implements AttributeMapChange<K, V>
+  {
+    /**
+     * All entries were removed from the map.
+     *
+     * @param size The number of entries that were removed
+     */
+
+    public Cleared
+    {
+      if (size <= 0) {
+        throw new IllegalArgumentException(
+          String.format("Size %d must be positive", size)
+        );
+      }
+    }
+  }
+}
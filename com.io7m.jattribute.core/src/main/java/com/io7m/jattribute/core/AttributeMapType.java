@@ -0,0 +1,94 @@
+/*
+ * Copyright © 2026 Mark Raynsford <code@io7m.com> https://www.io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+package com.io7m.jattribute.core;
+
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * A map attribute. Keys and values must not be {@code null}. The map
+ * preserves the order in which keys were added.
+ *
+ * Replacing a value with a value that is equivalent to it, according to the
+ * equivalence of the {@link Attributes} instance that created the attribute,
+ * does not change the map and publishes nothing.
+ *
+ * @param <K> The type of keys
+ * @param <V> The type of values
+ *
+ * @see AttributeCollectionReadableType
+ */
+
+public interface AttributeMapType<K, V>
+  extends AttributeCollectionReadableType<Map<K, V>, AttributeMapChange<K, V>>
+{
+  /**
+   * @param key The key
+   *
+   * @return The value associated with the key, if any
+   */
+
+  Optional<V> get(K key);
+
+  /**
+   * @param key The key
+   *
+   * @return {@code true} if the map contains the key
+   */
+
+  boolean containsKey(K key);
+
+  /**
+   * Associate a value with a key.
+   *
+   * @param key   The key
+   * @param value The value
+   *
+   * @return The value previously associated with the key, if any
+   */
+
+  Optional<V> put(
+    K key,
+    V value);
+
+  /**
+   * Put all the entries of the given map. Each entry is published as a
+   * separate change.
+   *
+   * @param entries The entries
+   */
+
+  void putAll(Map<? extends K, ? extends V> entries);
+
+  /**
+   * Remove the entry for a key.
+   *
+   * @param key The key
+   *
+   * @return The value previously associated with the key, if any
+   */
+
+  Optional<V> remove(K key);
+
+  /**
+   * Remove all entries from the map. A single
+   * {@link AttributeMapChange.Cleared} change is published, rather than one
+   * removal per entry. Nothing is published if the map is empty.
+   */
+
+  void clear();
+}
@@ -0,0 +1,147 @@
+/*
+ * Copyright © 2026 Mark Raynsford <code@io7m.com> https://www.io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+package com.io7m.jattribute.core;
+
+/**
+ * A receiver of metrics about attributes and their subscriptions.
+ *
+ * A metrics implementation can be supplied with
+ * {@link Attributes.Builder#setMetrics(AttributeMetricsType)}, and is then
+ * called by every attribute created by the resulting {@link Attributes}
+ * instance. Each method identifies the attribute concerned by passing the
+ * attribute itself, so an implementation can key counters on attribute
+ * identity (for example, with an {@link java.util.IdentityHashMap} or by
+ * attaching names to attributes it knows about).
+ *
+ * Methods are called on the thread that performs the operation being
+ * measured, which may be a publishing thread or an executor thread, and so
+ * implementations must be thread-safe and should be fast; a slow metrics
+ * implementation slows every update. Implementations must not raise
+ * exceptions. All methods do nothing by default.
+ *
+ * If no metrics implementation is supplied, attributes do not measure
+ * anything, and in particular do not read the clock when delivering values.
+ */
+
+public interface AttributeMetricsType
+{
+  /**
+   * An attribute stored a new value. This is called for each update that
+   * was not suppressed, including updates of derived attributes, and
+   * including updates made inside a transaction (which may later be
+   * suppressed when the transaction commits).
+   *
+   * @param attribute The attribute
+   */
+
+  default void onUpdated(
+    final Object attribute)
+  {
+
+  }
+
+  /**
+   * An attribute discarded an update because the new value was equivalent
+   * to the old value, and so subscribers were not notified.
+   *
+   * @param attribute The attribute
+   */
+
+  default void onSuppressed(
+    final Object attribute)
+  {
+
+  }
+
+  /**
+   * An attribute published a value to its subscribers.
+   *
+   * @param attribute   The attribute
+   * @param subscribers The number of subscribers at the time of publication
+   */
+
+  default void onPublished(
+    final Object attribute,
+    final int subscribers)
+  {
+
+  }
+
+  /**
+   * A subscription to an attribute was opened.
+   *
+   * @param attribute   The attribute
+   * @param subscribers The number of subscribers after the subscription was
+   *                    opened
+   */
+
+  default void onSubscribed(
+    final Object attribute,
+    final int subscribers)
+  {
+
+  }
+
+  /**
+   * A subscription to an attribute was closed.
+   *
+   * @param attribute   The attribute
+   * @param subscribers The number of subscribers after the subscription was
+   *                    closed
+   */
+
+  default void onUnsubscribed(
+    final Object attribute,
+    final int subscribers)
+  {
+
+  }
+
+  /**
+   * A receiver completed receiving a value.
+   *
+   * @param attribute The attribute
+   * @param receiver  The receiver
+   * @param nanos     The time taken by the receiver, in nanoseconds
+   */
+
+  default void onReceived(
+    final Object attribute,
+    final Object receiver,
+    final long nanos)
+  {
+
+  }
+
+  /**
+   * A receiver raised an exception. The receiver's subscription is closed,
+   * and the exception is passed to the error consumer after this method
+   * returns.
+   *
+   * @param attribute The attribute
+   * @param receiver  The receiver
+   * @param exception The exception
+   */
+
+  default void onReceiverFailed(
+    final Object attribute,
+    final Object receiver,
+    final Throwable exception)
+  {
+
+  }
+}
@@ -0,0 +1,51 @@
+/*
+ * Copyright © 2026 Mark Raynsford <code@io7m.com> https://www.io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+package com.io7m.jattribute.core;
+
+/**
+ * The manner in which a {@link java.util.concurrent.Flow.Publisher} created
+ * from an attribute handles values that are published by the attribute
+ * faster than its subscriber requests them.
+ *
+ * @see Attributes#toPublisher(AttributeReadableType, AttributeOverflowStrategy, int)
+ */
+
+public enum AttributeOverflowStrategy
+{
+  /**
+   * At most one undelivered value is held for the subscriber; each newly
+   * published value replaces the held value. The subscriber always
+   * eventually receives the latest value, but intermediate values are lost.
+   */
+
+  CONFLATE,
+
+  /**
+   * Values that are published when the subscriber has no outstanding demand
+   * are discarded.
+   */
+
+  DROP,
+
+  /**
+   * Undelivered values are held in a buffer of bounded capacity. If the
+   * buffer overflows, the subscriber receives {@code onError} with an
+   * {@link IllegalStateException} and the subscription is cancelled.
+   */
+
+  BUFFER
+}
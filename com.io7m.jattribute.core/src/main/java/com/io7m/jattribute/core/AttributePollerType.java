@@ -0,0 +1,103 @@
+/*
+ * Copyright © 2026 Mark Raynsford <code@io7m.com> https://www.io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+package com.io7m.jattribute.core;
+
+import net.jcip.annotations.ThreadSafe;
+
+import java.util.function.Supplier;
+
+/**
+ * A poller that re-evaluates the functions of the attributes it creates
+ * each time it ticks. The attributes created by a poller are cached
+ * function attributes (see {@link AttributeCachedType}); reading an
+ * attribute between ticks returns the value cached by the most recent tick,
+ * and each tick invalidates every attribute so that subscribers are
+ * notified of any values that have changed. Attributes without subscribers
+ * are not evaluated by ticks; their functions are evaluated when they are
+ * next read.
+ *
+ * A poller ticks when {@link #tick()} is called, and, if it was created
+ * with a period, at a fixed rate on the scheduler of the {@link Attributes}
+ * instance that created it. A single poller can serve any number of
+ * attributes with one scheduled task. The changes found by a single tick
+ * are published as a transaction.
+ *
+ * A poller holds strong references to its attributes until it is closed.
+ * Closing a poller stops any scheduled ticks; the attributes remain usable,
+ * but are no longer polled.
+ *
+ * @see Attributes#poller()
+ * @see Attributes#poller(java.time.Duration)
+ */
+
+@ThreadSafe
+public interface AttributePollerType extends AutoCloseable
+{
+  /**
+   * Create a new attribute that evaluates the given function to retrieve
+   * values, and is polled by this poller.
+   *
+   * @param f   The evaluated function
+   * @param <A> The type of attributes
+   *
+   * @return A new attribute
+   *
+   * @throws IllegalStateException If the poller is closed
+   */
+
+  <A> AttributeCachedType<A> fromFunction(
+    Supplier<A> f)
+    throws IllegalStateException;
+
+  /**
+   * Create a new attribute that evaluates the given function to retrieve
+   * values, and is polled by this poller. The attribute uses the given
+   * equivalence to decide whether new values are changes from old values.
+   *
+   * @param f           The evaluated function
+   * @param equivalence The equivalence
+   * @param <A>         The type of attributes
+   *
+   * @return A new attribute
+   *
+   * @throws IllegalStateException If the poller is closed
+   */
+
+  <A> AttributeCachedType<A> fromFunction(
+    Supplier<A> f,
+    AttributeEquivalenceType<? super A> equivalence)
+    throws IllegalStateException;
+
+  /**
+   * Poll all attributes now. Exceptions raised by the functions of the
+   * attributes are passed to the error consumer, and do not prevent the
+   * remaining attributes from being polled. Ticking a closed poller has no
+   * effect.
+   */
+
+  void tick();
+
+  @Override
+  void close()
+    throws RuntimeException;
+
+  /**
+   * @return {@code true} if the poller is closed
+   */
+
+  boolean isClosed();
+}
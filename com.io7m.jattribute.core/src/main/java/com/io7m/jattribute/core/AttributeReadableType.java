@@ -18,7 +18,10 @@ package com.io7m.jattribute.core;
 
 import net.jcip.annotations.ThreadSafe;
 
+import java.time.Duration;
+import java.util.concurrent.Executor;
 import java.util.function.Function;
+import java.util.function.Predicate;
 
 /**
  * An _attribute_ is an observable value to which one can subscribe and receive
@@ -45,6 +48,42 @@ public interface AttributeReadableType<A>
 
   A get();
 
+  /**
+   * The version of the attribute. The version increases each time the value
+   * of the attribute is stored, and so a caller that polls the attribute
+   * can compare the version with the version it last saw in order to
+   * determine whether anything might have changed, without subscribing and
+   * without allocating. The version of an attribute derived from other
+   * attributes increases each time the version of any of those attributes
+   * increases. The version may increase without the value changing, but the
+   * value never changes without the version increasing, except that the
+   * version of an attribute created with {@code fromFunction} only increases
+   * when the attribute is set, and the version of a rate-limited attribute
+   * only increases whilst it has subscribers.
+   *
+   * A caller that reads the version and then reads the value never misses a
+   * change; the value is at least as recent as the version. Use
+   * {@link #getVersioned()} to read a value together with exactly the
+   * version at which it was current.
+   *
+   * @return The version
+   */
+
+  long version();
+
+  /**
+   * Read the value and the version of the attribute consistently: the
+   * returned value was the value of the attribute at the returned version.
+   * This method does not take a lock; if the attribute is being updated
+   * concurrently, the read is retried.
+   *
+   * @return The value and the version
+   *
+   * @see #version()
+   */
+
+  AttributeVersionedValue<A> getVersioned();
+
   /**
    * Create a new read-only attribute that is subscribed to this attribute and
    * has its values transformed with {@code f}.
@@ -58,6 +97,92 @@ public interface AttributeReadableType<A>
   <B> AttributeReadableType<B> mapR(
     Function<A, B> f);
 
+  /**
+   * Create a new read-only attribute that holds the most recent value of
+   * this attribute that passed {@code predicate}. The new attribute
+   * publishes a value only when a new value of this attribute passes the
+   * predicate; values that fail the predicate are dropped without being
+   * published, and so cost nothing to attributes derived from the new
+   * attribute. The new attribute initially holds the current value of this
+   * attribute, whether or not it passes the predicate.
+   *
+   * The new attribute is only subscribed to this attribute whilst it has
+   * subscribers of its own; whilst unsubscribed, the current value of this
+   * attribute is tested each time the new attribute is read, and values
+   * that this attribute held between reads are never seen.
+   *
+   * @param predicate The predicate
+   *
+   * @return A new attribute
+   */
+
+  AttributeReadableType<A> filter(
+    Predicate<? super A> predicate);
+
+  /**
+   * Create a new read-only attribute that publishes the values of this
+   * attribute at most once per {@code window}. A value is published
+   * immediately if no value has been published in the current window, and
+   * starts a new window; the latest of the values that arrive during a
+   * window is published at the end of the window.
+   *
+   * Time is measured and windows are ended by the scheduler of the
+   * {@link Attributes} instance that created this attribute (see
+   * {@link AttributeSchedulerType}), and so values may be published on the
+   * scheduler's threads. The new attribute is only subscribed to this
+   * attribute whilst it has subscribers of its own; whilst unsubscribed, it
+   * returns the current value of this attribute.
+   *
+   * @param window The window
+   *
+   * @return A new attribute
+   *
+   * @throws IllegalArgumentException If the window is negative
+   */
+
+  AttributeReadableType<A> throttle(
+    Duration window)
+    throws IllegalArgumentException;
+
+  /**
+   * Create a new read-only attribute that publishes the latest value of this
+   * attribute once this attribute has not changed for {@code quiet}.
+   * Intermediate values are never published.
+   *
+   * The scheduler and subscription behaviour is as described for
+   * {@link #throttle(Duration)}.
+   *
+   * @param quiet The quiet period
+   *
+   * @return A new attribute
+   *
+   * @throws IllegalArgumentException If the period is negative
+   */
+
+  AttributeReadableType<A> debounce(
+    Duration quiet)
+    throws IllegalArgumentException;
+
+  /**
+   * Create a new read-only attribute that publishes the latest value of this
+   * attribute at the end of each {@code period}. A period starts when this
+   * attribute changes and no period is in progress, and so nothing is
+   * published, and no timers run, whilst this attribute is unchanged.
+   *
+   * The scheduler and subscription behaviour is as described for
+   * {@link #throttle(Duration)}.
+   *
+   * @param period The period
+   *
+   * @return A new attribute
+   *
+   * @throws IllegalArgumentException If the period is negative
+   */
+
+  AttributeReadableType<A> sample(
+    Duration period)
+    throws IllegalArgumentException;
+
   /**
    * Subscribe to the attribute. The given receiver function will be evaluated
    * once upon subscription, and then evaluated each time the attribute's value
@@ -71,4 +196,48 @@ public interface AttributeReadableType<A>
 
   AttributeSubscriptionType subscribe(
     AttributeReceiverType<A> receiver);
+
+  /**
+   * Subscribe to the attribute, delivering values asynchronously on the
+   * given executor. The given receiver function will be evaluated once upon
+   * subscription, and then evaluated each time the attribute's value
+   * changes. Values are delivered to the receiver in the order in which they
+   * were published, and the receiver is never evaluated concurrently with
+   * itself; the thread that updates the attribute only queues the values.
+   * This is equivalent to subscribing with
+   * {@link AttributeDeliveryMode#ORDERED}. If the receiver function throws
+   * an exception, the subscription is automatically closed.
+   *
+   * @param executor The executor on which the receiver will be evaluated
+   * @param receiver The receiver function
+   *
+   * @return A subscription
+   */
+
+  AttributeSubscriptionType subscribe(
+    Executor executor,
+    AttributeReceiverType<A> receiver);
+
+  /**
+   * Subscribe to the attribute, delivering values asynchronously on the
+   * given executor using the given delivery mode. The given receiver
+   * function will be evaluated once upon subscription, and then evaluated
+   * each time the attribute's value changes, subject to the delivery mode.
+   * The receiver is never evaluated concurrently with itself, and the thread
+   * that updates the attribute only stores the values. If the receiver
+   * function throws an exception, the subscription is automatically closed.
+   *
+   * @param executor The executor on which the receiver will be evaluated
+   * @param mode     The delivery mode
+   * @param receiver The receiver function
+   *
+   * @return A subscription
+   *
+   * @see AttributeDeliveryMode
+   */
+
+  AttributeSubscriptionType subscribe(
+    Executor executor,
+    AttributeDeliveryMode mode,
+    AttributeReceiverType<A> receiver);
 }
@@ -0,0 +1,84 @@
+/*
+ * Copyright © 2026 Mark Raynsford <code@io7m.com> https://www.io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+package com.io7m.jattribute.core;
+
+import com.io7m.jattribute.core.internal.AttributeSchedulers;
+
+import java.util.concurrent.ScheduledExecutorService;
+
+/**
+ * A clock and a scheduler of delayed tasks, used by the time-based operators
+ * {@link AttributeReadableType#throttle(java.time.Duration)},
+ * {@link AttributeReadableType#debounce(java.time.Duration)}, and
+ * {@link AttributeReadableType#sample(java.time.Duration)}, and by the
+ * pollers created with {@link Attributes#poller(java.time.Duration)}.
+ *
+ * A single scheduler is shared by all attributes created by an
+ * {@link Attributes} instance, and can be replaced with
+ * {@link Attributes.Builder#setScheduler(AttributeSchedulerType)}; tests can
+ * supply a scheduler with a manually advanced clock in order to drive the
+ * operators deterministically.
+ */
+
+public interface AttributeSchedulerType
+{
+  /**
+   * @return The current time of the clock, in nanoseconds, measured from an
+   * arbitrary origin (as with {@link System#nanoTime()})
+   */
+
+  long nanoTime();
+
+  /**
+   * Schedule a task to run once, after the given delay has elapsed on the
+   * clock. The task may run on any thread.
+   *
+   * @param delayNanos The delay in nanoseconds
+   * @param task       The task
+   */
+
+  void schedule(
+    long delayNanos,
+    Runnable task);
+
+  /**
+   * A scheduler that uses {@link System#nanoTime()} and runs tasks on the
+   * common fork-join pool. This is the default.
+   *
+   * @return A scheduler
+   */
+
+  static AttributeSchedulerType system()
+  {
+    return AttributeSchedulers.system();
+  }
+
+  /**
+   * A scheduler that uses {@link System#nanoTime()} and runs tasks on the
+   * given executor.
+   *
+   * @param executor The executor
+   *
+   * @return A scheduler
+   */
+
+  static AttributeSchedulerType ofExecutor(
+    final ScheduledExecutorService executor)
+  {
+    return AttributeSchedulers.ofExecutor(executor);
+  }
+}
@@ -0,0 +1,105 @@
+/*
+ * Copyright © 2026 Mark Raynsford <code@io7m.com> https://www.io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+package com.io7m.jattribute.core;
+
+import java.util.Objects;
+
+/**
+ * A change made to a set attribute.
+ *
+ * @param <E> The type of elements
+ *
+ * @see AttributeSetType
+ */
+
+public sealed interface AttributeSetChange<E>
+{
+  /**
+   * An element was added to the set.
+   *
+   * @param element The element
+   * @param <E>     The type of elements
+   */
+
+  record Added<E>(
+    E element)
+    implements AttributeSetChange<E>
+  {
+    /**
+     * An element was added to the set.
+     *
+     * @param element The element
+     */
+
+    public Added
+    {
+      Objects.requireNonNull(element, "element");
+    }
+  }
+
+  /**
+   * An element was removed from the set.
+   *
+   * @param element The element
+   * @param <E>     The type of elements
+   */
+
+  record Removed<E>(
+    E element)
+    implements AttributeSetChange<E>
+  {
+    /**
+     * An element was removed from the set.
+     *
+     * @param element The element
+     */
+
+    public Removed
+    {
+      Objects.requireNonNull(element, "element");
+    }
+  }
+
+  /**
+   * All elements were removed from the set. A single change is published
+   * however many elements the set held, and so clearing a large set costs
+   * one call per subscriber.
+   *
+   * @param size The number of elements that were removed
+   * @param <E>  The type of elements
+   */
+
+  record Cleared<E>(
+    int size)
+    implements AttributeSetChange<E>
+  {
+    /**
+     * All elements were removed from the set.
+     *
+     * @param size The number of elements that were removed
+     */
+
+    public Cleared
+    {
+      if (size <= 0) {
+        throw new IllegalArgumentException(
+          String.format("Size %d must be positive", size)
+        );
+      }
+    }
+  }
+}
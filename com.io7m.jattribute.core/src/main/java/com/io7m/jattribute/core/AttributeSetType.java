@@ -0,0 +1,78 @@
+/*
+ * Copyright © 2026 Mark Raynsford <code@io7m.com> https://www.io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+package com.io7m.jattribute.core;
+
+import java.util.Collection;
+import java.util.Set;
+
+/**
+ * A set attribute. Elements must not be {@code null}. The set preserves the
+ * order in which elements were added.
+ *
+ * @param <E> The type of elements
+ *
+ * @see AttributeCollectionReadableType
+ */
+
+public interface AttributeSetType<E>
+  extends AttributeCollectionReadableType<Set<E>, AttributeSetChange<E>>
+{
+  /**
+   * @param element The element
+   *
+   * @return {@code true} if the set contains the element
+   */
+
+  boolean contains(E element);
+
+  /**
+   * Add an element to the set.
+   *
+   * @param element The element
+   *
+   * @return {@code true} if the element was not already present
+   */
+
+  boolean add(E element);
+
+  /**
+   * Add all the given elements to the set. Each element that was not
+   * already present is published as a separate addition.
+   *
+   * @param elements The elements
+   */
+
+  void addAll(Collection<? extends E> elements);
+
+  /**
+   * Remove an element from the set.
+   *
+   * @param element The element
+   *
+   * @return {@code true} if the element was present
+   */
+
+  boolean remove(E element);
+
+  /**
+   * Remove all elements from the set. A single
+   * {@link AttributeSetChange.Cleared} change is published, rather than one
+   * removal per element. Nothing is published if the set is empty.
+   */
+
+  void clear();
+}
@@ -0,0 +1,51 @@
+/*
+ * Copyright © 2026 Mark Raynsford <code@io7m.com> https://www.io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+package com.io7m.jattribute.core;
+
+/**
+ * The action taken when a receiver that is called on the publishing thread
+ * takes longer than its time budget to receive a value.
+ *
+ * @see Attributes.Builder#setSlowReceiverBudget(java.time.Duration,
+ * AttributeSlowReceiverAction)
+ */
+
+public enum AttributeSlowReceiverAction
+{
+  /**
+   * The overrun is reported to the error consumer, and the receiver
+   * continues to be called on the publishing thread.
+   */
+
+  REPORT,
+
+  /**
+   * The overrun is reported to the error consumer, and the receiver is moved
+   * to an isolated asynchronous lane: it receives all subsequent values in
+   * order on the slow receiver executor, and no longer delays the
+   * publishing thread or the subscribers after it.
+   */
+
+  ISOLATE,
+
+  /**
+   * The overrun is reported to the error consumer, and the receiver's
+   * subscription is closed.
+   */
+
+  CLOSE
+}
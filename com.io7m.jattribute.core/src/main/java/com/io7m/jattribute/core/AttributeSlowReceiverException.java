@@ -0,0 +1,89 @@
+/*
+ * Copyright © 2026 Mark Raynsford <code@io7m.com> https://www.io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+package com.io7m.jattribute.core;
+
+import java.time.Duration;
+import java.util.Objects;
+
+/**
+ * The exception passed to the error consumer when a receiver takes longer
+ * than its time budget to receive a value.
+ */
+
+public final class AttributeSlowReceiverException
+  extends RuntimeException
+{
+  private static final long serialVersionUID = 1L;
+
+  private final Duration elapsed;
+  private final Duration budget;
+  private final AttributeSlowReceiverAction action;
+
+  /**
+   * Construct an exception.
+   *
+   * @param inElapsed The time taken by the receiver
+   * @param inBudget  The receiver's time budget
+   * @param inAction  The action taken
+   */
+
+  public AttributeSlowReceiverException(
+    final Duration inElapsed,
+    final Duration inBudget,
+    final AttributeSlowReceiverAction inAction)
+  {
+    super(
+      String.format(
+        "A receiver took %s to receive a value (budget %s); action %s",
+        Objects.requireNonNull(inElapsed, "elapsed"),
+        Objects.requireNonNull(inBudget, "budget"),
+        Objects.requireNonNull(inAction, "action")
+      )
+    );
+
+    this.elapsed = inElapsed;
+    this.budget = inBudget;
+    this.action = inAction;
+  }
+
+  /**
+   * @return The time taken by the receiver
+   */
+
+  public Duration elapsed()
+  {
+    return this.elapsed;
+  }
+
+  /**
+   * @return The receiver's time budget
+   */
+
+  public Duration budget()
+  {
+    return this.budget;
+  }
+
+  /**
+   * @return The action taken
+   */
+
+  public AttributeSlowReceiverAction action()
+  {
+    return this.action;
+  }
+}
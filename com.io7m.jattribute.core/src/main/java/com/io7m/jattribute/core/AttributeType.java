@@ -18,9 +18,20 @@ package com.io7m.jattribute.core;
 
 import net.jcip.annotations.ThreadSafe;
 
+import java.util.function.BinaryOperator;
 import java.util.function.Function;
+import java.util.function.UnaryOperator;
 
 /**
+ * A readable and writable attribute.
+ *
+ * Attributes created with {@link Attributes#withValue(Object)} are updated
+ * atomically; each successful update publishes exactly one old/new pair of
+ * values to subscribers. Attributes that do not store their own values
+ * (such as those created with {@link Attributes#fromFunction} or
+ * {@link #map(Function)}) have nothing to update atomically, and so every
+ * update is considered to have succeeded.
+ *
  * @param <A> The type of underlying values
  *
  * @see AttributeReadableType
@@ -40,6 +51,71 @@ public interface AttributeType<A> extends AttributeReadableType<A>
 
   A set(A y);
 
+  /**
+   * Atomically set the value of this attribute to {@code newValue} if the
+   * current value is {@code expected}. Values are compared by identity, as
+   * with {@link java.util.concurrent.atomic.AtomicReference}. If the value
+   * is updated, subscribers are notified exactly once with
+   * {@code expected} as the old value.
+   *
+   * @param expected The expected current value
+   * @param newValue The new value
+   *
+   * @return {@code true} if the current value was {@code expected}
+   */
+
+  boolean compareAndSet(
+    A expected,
+    A newValue);
+
+  /**
+   * Atomically update the value of this attribute with the results of
+   * applying {@code f} to the current value. The function may be evaluated
+   * multiple times if other threads update the attribute concurrently, and
+   * so should be free of side effects. Subscribers are notified exactly
+   * once, with the value to which {@code f} was applied as the old value.
+   *
+   * @param f The update function
+   *
+   * @return The old value
+   */
+
+  A getAndUpdate(
+    UnaryOperator<A> f);
+
+  /**
+   * Atomically update the value of this attribute with the results of
+   * applying {@code f} to the current value. The function may be evaluated
+   * multiple times if other threads update the attribute concurrently, and
+   * so should be free of side effects. Subscribers are notified exactly
+   * once, with the value to which {@code f} was applied as the old value.
+   *
+   * @param f The update function
+   *
+   * @return The new value
+   */
+
+  A updateAndGet(
+    UnaryOperator<A> f);
+
+  /**
+   * Atomically update the value of this attribute with the results of
+   * applying {@code f} to the current value and {@code x}. The function
+   * may be evaluated multiple times if other threads update the attribute
+   * concurrently, and so should be free of side effects. Subscribers are
+   * notified exactly once, with the value to which {@code f} was applied
+   * as the old value.
+   *
+   * @param x The update value
+   * @param f The accumulator function
+   *
+   * @return The new value
+   */
+
+  A accumulateAndGet(
+    A x,
+    BinaryOperator<A> f);
+
   /**
    * Create a new attribute that is subscribed to this attribute and has its
    * values transformed with {@code f}.
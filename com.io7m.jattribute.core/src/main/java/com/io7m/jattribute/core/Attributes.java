@@ -18,10 +18,34 @@
 package com.io7m.jattribute.core;
 
 import com.io7m.jattribute.core.internal.Attribute;
+import com.io7m.jattribute.core.internal.AttributeCached;
+import com.io7m.jattribute.core.internal.AttributeCollectionList;
+import com.io7m.jattribute.core.internal.AttributeCollectionMap;
+import com.io7m.jattribute.core.internal.AttributeCollectionSet;
+import com.io7m.jattribute.core.internal.AttributeCombine;
+import com.io7m.jattribute.core.internal.AttributeContext;
+import com.io7m.jattribute.core.internal.AttributeDouble;
+import com.io7m.jattribute.core.internal.AttributeFlowPublisher;
+import com.io7m.jattribute.core.internal.AttributeFlowSubscriber;
 import com.io7m.jattribute.core.internal.AttributeFunction;
+import com.io7m.jattribute.core.internal.AttributeInt;
+import com.io7m.jattribute.core.internal.AttributeKeyedMap;
+import com.io7m.jattribute.core.internal.AttributeLong;
+import com.io7m.jattribute.core.internal.AttributePoller;
+import com.io7m.jattribute.core.internal.AttributePropagation;
+import com.io7m.jattribute.core.internal.AttributeReceiverBudget;
 
+import java.time.Duration;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
 import java.util.Objects;
+import java.util.Optional;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Flow;
+import java.util.function.BiFunction;
 import java.util.function.Consumer;
+import java.util.function.Function;
 import java.util.function.Supplier;
 
 /**
@@ -30,20 +54,19 @@ import java.util.function.Supplier;
 
 public final class Attributes
 {
-  private final Consumer<Throwable> errorConsumer;
+  private final AttributeContext context;
 
   /**
    * Construct a new attributes class.
    *
-   * @param inErrorConsumer A function that will receive any exceptions raised
-   *                        by subscribers of attributes.
+   * @param inContext The configuration shared by all created attributes
    */
 
   private Attributes(
-    final Consumer<Throwable> inErrorConsumer)
+    final AttributeContext inContext)
   {
-    this.errorConsumer =
-      Objects.requireNonNull(inErrorConsumer, "errorConsumer");
+    this.context =
+      Objects.requireNonNull(inContext, "context");
   }
 
   /**
@@ -58,7 +81,22 @@ public final class Attributes
   public static Attributes create(
     final Consumer<Throwable> inErrorConsumer)
   {
-    return new Attributes(inErrorConsumer);
+    return builder(inErrorConsumer).build();
+  }
+
+  /**
+   * Create a builder for configuring a new attributes class.
+   *
+   * @param inErrorConsumer A function that will receive any exceptions raised
+   *                        by subscribers of attributes.
+   *
+   * @return A new builder
+   */
+
+  public static Builder builder(
+    final Consumer<Throwable> inErrorConsumer)
+  {
+    return new Builder(inErrorConsumer);
   }
 
   /**
@@ -73,7 +111,27 @@ public final class Attributes
   public <A> AttributeType<A> withValue(
     final A initial)
   {
-    return new Attribute<>(this.errorConsumer, initial);
+    return this.withValue(initial, this.context.equivalence());
+  }
+
+  /**
+   * Create a new attribute with the given initial value. The attribute
+   * uses the given equivalence to decide whether new values are changes
+   * from old values; subscribers are not notified of updates that set a
+   * value equivalent to the current value.
+   *
+   * @param initial     The initial value
+   * @param equivalence The equivalence
+   * @param <A>         The type of attributes
+   *
+   * @return A new attribute
+   */
+
+  public <A> AttributeType<A> withValue(
+    final A initial,
+    final AttributeEquivalenceType<? super A> equivalence)
+  {
+    return new Attribute<>(this.context, equivalence, initial);
   }
 
   /**
@@ -89,6 +147,715 @@ public final class Attributes
   public <A> AttributeType<A> fromFunction(
     final Supplier<A> f)
   {
-    return new AttributeFunction<>(this.errorConsumer, f);
+    return this.fromFunction(f, this.context.equivalence());
+  }
+
+  /**
+   * Create a new attribute that evaluates the given function to retrieve
+   * values. The attribute uses the given equivalence to decide whether new
+   * values are changes from old values; subscribers are not notified of
+   * updates that set a value equivalent to the current value.
+   *
+   * @param f           The evaluated function
+   * @param equivalence The equivalence
+   * @param <A>         The type of attributes
+   *
+   * @return A new attribute
+   */
+
+  public <A> AttributeType<A> fromFunction(
+    final Supplier<A> f,
+    final AttributeEquivalenceType<? super A> equivalence)
+  {
+    return new AttributeFunction<>(this.context, equivalence, f);
+  }
+
+  /**
+   * Create a new attribute that evaluates the given function to retrieve
+   * values, and caches the values until they are invalidated or the
+   * attribute is set.
+   *
+   * @param f   The evaluated function
+   * @param <A> The type of attributes
+   *
+   * @return A new attribute
+   *
+   * @see AttributeCachedType
+   */
+
+  public <A> AttributeCachedType<A> fromFunctionCached(
+    final Supplier<A> f)
+  {
+    return this.fromFunctionCached(f, this.context.equivalence());
+  }
+
+  /**
+   * Create a new attribute that evaluates the given function to retrieve
+   * values, and caches the values until they are invalidated or the
+   * attribute is set. The attribute uses the given equivalence to decide
+   * whether new values are changes from old values; subscribers are not
+   * notified of values equivalent to the cached value.
+   *
+   * @param f           The evaluated function
+   * @param equivalence The equivalence
+   * @param <A>         The type of attributes
+   *
+   * @return A new attribute
+   *
+   * @see AttributeCachedType
+   */
+
+  public <A> AttributeCachedType<A> fromFunctionCached(
+    final Supplier<A> f,
+    final AttributeEquivalenceType<? super A> equivalence)
+  {
+    return new AttributeCached<>(
+      this.context,
+      equivalence,
+      f,
+      Optional.empty()
+    );
+  }
+
+  /**
+   * Create a new attribute that evaluates the given function to retrieve
+   * values, and caches the values until they are invalidated, the attribute
+   * is set, or the given time-to-live has elapsed. An expired value is
+   * replaced when the attribute is next read. Time is measured with the
+   * scheduler of this {@code Attributes} instance.
+   *
+   * @param f          The evaluated function
+   * @param timeToLive The time-to-live of cached values
+   * @param <A>        The type of attributes
+   *
+   * @return A new attribute
+   *
+   * @throws IllegalArgumentException If the time-to-live is not positive
+   * @see AttributeCachedType
+   */
+
+  public <A> AttributeCachedType<A> fromFunctionCached(
+    final Supplier<A> f,
+    final Duration timeToLive)
+    throws IllegalArgumentException
+  {
+    return this.fromFunctionCached(f, timeToLive, this.context.equivalence());
+  }
+
+  /**
+   * Create a new attribute that evaluates the given function to retrieve
+   * values, and caches the values until they are invalidated, the attribute
+   * is set, or the given time-to-live has elapsed. The attribute uses the
+   * given equivalence to decide whether new values are changes from old
+   * values; subscribers are not notified of values equivalent to the cached
+   * value.
+   *
+   * @param f           The evaluated function
+   * @param timeToLive  The time-to-live of cached values
+   * @param equivalence The equivalence
+   * @param <A>         The type of attributes
+   *
+   * @return A new attribute
+   *
+   * @throws IllegalArgumentException If the time-to-live is not positive
+   * @see #fromFunctionCached(Supplier, Duration)
+   */
+
+  public <A> AttributeCachedType<A> fromFunctionCached(
+    final Supplier<A> f,
+    final Duration timeToLive,
+    final AttributeEquivalenceType<? super A> equivalence)
+    throws IllegalArgumentException
+  {
+    Objects.requireNonNull(timeToLive, "timeToLive");
+    return new AttributeCached<>(
+      this.context,
+      equivalence,
+      f,
+      Optional.of(timeToLive)
+    );
+  }
+
+  /**
+   * Create a new poller that only ticks when it is explicitly ticked with
+   * {@link AttributePollerType#tick()}.
+   *
+   * @return A new poller
+   *
+   * @see AttributePollerType
+   */
+
+  public AttributePollerType poller()
+  {
+    return new AttributePoller(this.context, Optional.empty());
+  }
+
+  /**
+   * Create a new poller that ticks at the given fixed rate, using the
+   * scheduler of this {@code Attributes} instance, until it is closed. Ticks
+   * that are missed because a previous tick overran are skipped rather than
+   * run late.
+   *
+   * @param period The period
+   *
+   * @return A new poller
+   *
+   * @throws IllegalArgumentException If the period is not positive
+   * @see AttributePollerType
+   */
+
+  public AttributePollerType poller(
+    final Duration period)
+    throws IllegalArgumentException
+  {
+    Objects.requireNonNull(period, "period");
+    return new AttributePoller(this.context, Optional.of(period));
+  }
+
+  /**
+   * Create a new {@code int} attribute with the given initial value. The
+   * attribute stores and publishes values without boxing them.
+   *
+   * @param initial The initial value
+   *
+   * @return A new attribute
+   */
+
+  public AttributeIntType withInt(
+    final int initial)
+  {
+    return new AttributeInt(this.context, initial);
+  }
+
+  /**
+   * Create a new {@code long} attribute with the given initial value. The
+   * attribute stores and publishes values without boxing them.
+   *
+   * @param initial The initial value
+   *
+   * @return A new attribute
+   */
+
+  public AttributeLongType withLong(
+    final long initial)
+  {
+    return new AttributeLong(this.context, initial);
+  }
+
+  /**
+   * Create a new {@code double} attribute with the given initial value. The
+   * attribute stores and publishes values without boxing them.
+   *
+   * @param initial The initial value
+   *
+   * @return A new attribute
+   */
+
+  public AttributeDoubleType withDouble(
+    final double initial)
+  {
+    return new AttributeDouble(this.context, initial);
+  }
+
+  /**
+   * Create a new list attribute with the given initial elements. The
+   * attribute publishes each change made to the list, rather than the whole
+   * list.
+   *
+   * @param initial The initial elements
+   * @param <E>     The type of elements
+   *
+   * @return A new attribute
+   *
+   * @see AttributeCollectionReadableType
+   */
+
+  public <E> AttributeListType<E> withList(
+    final Collection<? extends E> initial)
+  {
+    Objects.requireNonNull(initial, "initial");
+    return new AttributeCollectionList<>(this.context, initial);
+  }
+
+  /**
+   * Create a new set attribute with the given initial elements. The
+   * attribute publishes each change made to the set, rather than the whole
+   * set.
+   *
+   * @param initial The initial elements
+   * @param <E>     The type of elements
+   *
+   * @return A new attribute
+   *
+   * @see AttributeCollectionReadableType
+   */
+
+  public <E> AttributeSetType<E> withSet(
+    final Collection<? extends E> initial)
+  {
+    Objects.requireNonNull(initial, "initial");
+    return new AttributeCollectionSet<>(this.context, initial);
+  }
+
+  /**
+   * Create a new map attribute with the given initial entries. The
+   * attribute publishes each change made to the map, rather than the whole
+   * map.
+   *
+   * @param initial The initial entries
+   * @param <K>     The type of keys
+   * @param <V>     The type of values
+   *
+   * @return A new attribute
+   *
+   * @see AttributeCollectionReadableType
+   */
+
+  public <K, V> AttributeMapType<K, V> withMap(
+    final Map<? extends K, ? extends V> initial)
+  {
+    Objects.requireNonNull(initial, "initial");
+    return new AttributeCollectionMap<>(this.context, initial);
+  }
+
+  /**
+   * Create a new keyed map with the given initial entries. Subscribers of a
+   * keyed map subscribe to individual keys, and a change to the value of a
+   * key notifies only the subscribers of that key.
+   *
+   * @param initial The initial entries
+   * @param <K>     The type of keys
+   * @param <V>     The type of values
+   *
+   * @return A new keyed map
+   *
+   * @see AttributeKeyedMapType
+   */
+
+  public <K, V> AttributeKeyedMapType<K, V> withKeyedMap(
+    final Map<? extends K, ? extends V> initial)
+  {
+    Objects.requireNonNull(initial, "initial");
+    return new AttributeKeyedMap<>(this.context, initial);
+  }
+
+  /**
+   * Create a new read-only attribute that combines the values of two
+   * attributes with {@code f}. The attribute is updated each time either of
+   * the attributes changes. Changes are propagated in order of the height of
+   * each attribute in the graph of derived attributes, so a combined
+   * attribute is evaluated once per change even if both of its inputs are
+   * derived from the attribute that changed, and never observes a
+   * combination of updated and stale input values.
+   *
+   * The attributes must have been created by this {@code Attributes}
+   * instance, or derived from attributes that were.
+   *
+   * @param a   The first attribute
+   * @param b   The second attribute
+   * @param f   The combining function
+   * @param <A> The type of values of the first attribute
+   * @param <B> The type of values of the second attribute
+   * @param <C> The type of combined values
+   *
+   * @return A new attribute
+   *
+   * @throws IllegalArgumentException If an attribute was not created by
+   *                                  this instance
+   */
+
+  public <A, B, C> AttributeReadableType<C> combine(
+    final AttributeReadableType<A> a,
+    final AttributeReadableType<B> b,
+    final BiFunction<A, B, C> f)
+    throws IllegalArgumentException
+  {
+    return AttributeCombine.combine(this.context, a, b, f);
+  }
+
+  /**
+   * Create a new read-only attribute that combines the values of the given
+   * list of attributes with {@code f}. The values are passed to {@code f} in
+   * the order in which the attributes appear in the list.
+   *
+   * @param attributes The attributes
+   * @param f          The combining function
+   * @param <A>        The type of values of the attributes
+   * @param <B>        The type of combined values
+   *
+   * @return A new attribute
+   *
+   * @throws IllegalArgumentException If an attribute was not created by
+   *                                  this instance
+   * @see #combine(AttributeReadableType, AttributeReadableType, BiFunction)
+   */
+
+  public <A, B> AttributeReadableType<B> combine(
+    final List<? extends AttributeReadableType<A>> attributes,
+    final Function<List<A>, B> f)
+    throws IllegalArgumentException
+  {
+    return AttributeCombine.combine(this.context, attributes, f);
+  }
+
+  /**
+   * Evaluate {@code f} inside a transaction. Attributes updated by
+   * {@code f} on the current thread store their new values immediately, but
+   * no subscribers are notified until the transaction completes. When the
+   * transaction completes, each attribute that was updated is published
+   * exactly once, with the value it held before the transaction as the old
+   * value and the value it held at the end of the transaction as the new
+   * value. Attributes whose final value is equivalent to their value before
+   * the transaction are not published at all.
+   *
+   * Transactions apply only to attributes created by this
+   * {@code Attributes} instance, and only to updates made on the current
+   * thread. Attributes derived with {@code map} and {@code mapR} are not
+   * updated until the transaction completes. Transactions may be nested;
+   * values are published when the outermost transaction completes. Updates
+   * are not undone if {@code f} raises an exception; they are published,
+   * and the exception is then propagated.
+   *
+   * @param f The function
+   */
+
+  public void transaction(
+    final Runnable f)
+  {
+    this.context.propagation().transaction(f);
+  }
+
+  /**
+   * Expose an attribute as a {@link Flow.Publisher}. Each subscriber of the
+   * publisher is subscribed to the attribute, and receives the current value
+   * of the attribute followed by each subsequent value, but only as many
+   * values as it has requested; values published by the attribute whilst the
+   * subscriber has no outstanding demand are handled by the given overflow
+   * strategy. Values may be delivered on the thread that updates the
+   * attribute or on the thread that requests values. The attribute need not
+   * have been created by this {@code Attributes} instance; exceptions raised
+   * by subscribers are passed to this instance's error consumer.
+   *
+   * The buffer of {@link AttributeOverflowStrategy#BUFFER} has a capacity of
+   * {@link Flow#defaultBufferSize()}.
+   *
+   * @param attribute The attribute
+   * @param strategy  The overflow strategy
+   * @param <A>       The type of values
+   *
+   * @return A publisher
+   */
+
+  public <A> Flow.Publisher<A> toPublisher(
+    final AttributeReadableType<A> attribute,
+    final AttributeOverflowStrategy strategy)
+  {
+    return this.toPublisher(attribute, strategy, Flow.defaultBufferSize());
+  }
+
+  /**
+   * Expose an attribute as a {@link Flow.Publisher}.
+   *
+   * @param attribute The attribute
+   * @param strategy  The overflow strategy
+   * @param capacity  The capacity of the buffer used by
+   *                  {@link AttributeOverflowStrategy#BUFFER}
+   * @param <A>       The type of values
+   *
+   * @return A publisher
+   *
+   * @throws IllegalArgumentException If the capacity is not positive
+   * @see #toPublisher(AttributeReadableType, AttributeOverflowStrategy)
+   */
+
+  public <A> Flow.Publisher<A> toPublisher(
+    final AttributeReadableType<A> attribute,
+    final AttributeOverflowStrategy strategy,
+    final int capacity)
+    throws IllegalArgumentException
+  {
+    return new AttributeFlowPublisher<>(
+      this.context,
+      attribute,
+      strategy,
+      capacity
+    );
+  }
+
+  /**
+   * Create a {@link Flow.Subscriber} that sets the value of the given
+   * attribute to each item it receives. The subscriber requests one item at
+   * a time, and requests the next item only once the previous item has been
+   * published to the attribute's subscribers, and so a fast upstream
+   * publisher is held back by the attribute. Errors signalled by the
+   * upstream publisher are passed to the error consumer.
+   *
+   * @param target The attribute
+   * @param <A>    The type of values
+   *
+   * @return A subscriber
+   */
+
+  public <A> AttributeFlowSubscriberType<A> toSubscriber(
+    final AttributeType<A> target)
+  {
+    return new AttributeFlowSubscriber<>(this.context, target);
+  }
+
+  /**
+   * A builder for configuring a new attributes class.
+   */
+
+  public static final class Builder
+  {
+    private final Consumer<Throwable> errorConsumer;
+    private boolean weakDerivedAttributes;
+    private AttributeEquivalenceType<Object> equivalence;
+    private Optional<Executor> executor;
+    private Optional<AttributeMetricsType> metrics;
+    private Optional<Duration> receiverBudget;
+    private AttributeSlowReceiverAction slowReceiverAction;
+    private Optional<Executor> slowReceiverExecutor;
+    private AttributeSchedulerType scheduler;
+
+    private Builder(
+      final Consumer<Throwable> inErrorConsumer)
+    {
+      this.errorConsumer =
+        Objects.requireNonNull(inErrorConsumer, "errorConsumer");
+      this.weakDerivedAttributes =
+        false;
+      this.equivalence =
+        AttributeEquivalenceType.never();
+      this.executor =
+        Optional.empty();
+      this.metrics =
+        Optional.empty();
+      this.receiverBudget =
+        Optional.empty();
+      this.slowReceiverAction =
+        AttributeSlowReceiverAction.REPORT;
+      this.slowReceiverExecutor =
+        Optional.empty();
+      this.scheduler =
+        AttributeSchedulerType.system();
+    }
+
+    /**
+     * Set the clock and scheduler used by the time-based operators
+     * {@code throttle}, {@code debounce}, and {@code sample}, by cached
+     * attributes with a time-to-live, and by periodic pollers. The default is
+     * {@link AttributeSchedulerType#system()}.
+     *
+     * @param inScheduler The scheduler
+     *
+     * @return this
+     */
+
+    public Builder setScheduler(
+      final AttributeSchedulerType inScheduler)
+    {
+      this.scheduler =
+        Objects.requireNonNull(inScheduler, "scheduler");
+      return this;
+    }
+
+    /**
+     * Set the time budget of receivers that are called on the publishing
+     * thread. A receiver that takes longer than the budget to receive a value
+     * is reported to the error consumer with an
+     * {@link AttributeSlowReceiverException}, and then the given action is
+     * taken. By default, receivers have no budget and are not timed.
+     *
+     * Receivers that already receive values asynchronously are not
+     * budgeted. A receiver is only found to be slow after it returns, and so
+     * a receiver that never returns is never detected.
+     *
+     * @param budget The time budget
+     * @param action The action taken when a receiver exceeds the budget
+     *
+     * @return this
+     *
+     * @throws IllegalArgumentException If the budget is negative
+     * @see #setSlowReceiverExecutor(Executor)
+     */
+
+    public Builder setSlowReceiverBudget(
+      final Duration budget,
+      final AttributeSlowReceiverAction action)
+      throws IllegalArgumentException
+    {
+      Objects.requireNonNull(budget, "budget");
+      Objects.requireNonNull(action, "action");
+
+      if (budget.isNegative()) {
+        throw new IllegalArgumentException(
+          String.format("Budget %s must be non-negative", budget)
+        );
+      }
+
+      this.receiverBudget = Optional.of(budget);
+      this.slowReceiverAction = action;
+      return this;
+    }
+
+    /**
+     * Set the executor on which receivers isolated by
+     * {@link AttributeSlowReceiverAction#ISOLATE} receive values. If no
+     * executor is set, the executor set with {@link #setExecutor(Executor)}
+     * is used.
+     *
+     * @param inExecutor The executor
+     *
+     * @return this
+     */
+
+    public Builder setSlowReceiverExecutor(
+      final Executor inExecutor)
+    {
+      this.slowReceiverExecutor =
+        Optional.of(Objects.requireNonNull(inExecutor, "executor"));
+      return this;
+    }
+
+    /**
+     * Set the metrics implementation that will be informed of updates,
+     * publications, subscriptions, and receiver timings and failures for
+     * every attribute. By default, no metrics are collected, and attributes
+     * do not read the clock when delivering values.
+     *
+     * @param inMetrics The metrics implementation
+     *
+     * @return this
+     */
+
+    public Builder setMetrics(
+      final AttributeMetricsType inMetrics)
+    {
+      this.metrics =
+        Optional.of(Objects.requireNonNull(inMetrics, "metrics"));
+      return this;
+    }
+
+    /**
+     * Set the executor on which subscribers receive values. By default,
+     * subscribers are evaluated on the thread that updates an attribute, and
+     * so a slow subscriber delays the updating thread and every subscriber
+     * after it. If an executor is set, each subscription created with
+     * {@code subscribe(receiver)} receives values asynchronously on the
+     * executor: an updating thread only queues values, and each subscriber
+     * receives its values in order and never concurrently with itself. Any
+     * executor may be used, including a virtual-thread-per-task executor.
+     *
+     * Attributes derived with {@code map} and {@code mapR} are always
+     * updated on the updating thread; only their subscribers are notified
+     * asynchronously.
+     *
+     * @param inExecutor The executor
+     *
+     * @return this
+     */
+
+    public Builder setExecutor(
+      final Executor inExecutor)
+    {
+      this.executor =
+        Optional.of(Objects.requireNonNull(inExecutor, "executor"));
+      return this;
+    }
+
+    /**
+     * Set the default equivalence used by attributes to decide whether new
+     * values are changes from old values. Subscribers are not notified of
+     * updates that set a value equivalent to the current value. The
+     * equivalence is also used by attributes derived with {@code map} and
+     * {@code mapR}, so a derived attribute whose transformed value does not
+     * change stops the update from propagating any further.
+     *
+     * The default is {@link AttributeEquivalenceType#never()}; every update
+     * is published.
+     *
+     * @param inEquivalence The equivalence
+     *
+     * @return this
+     */
+
+    public Builder setEquivalence(
+      final AttributeEquivalenceType<Object> inEquivalence)
+    {
+      this.equivalence =
+        Objects.requireNonNull(inEquivalence, "equivalence");
+      return this;
+    }
+
+    /**
+     * Set whether attributes hold only weak references to the attributes
+     * derived from them with {@code map} and {@code mapR}.
+     *
+     * By default, a subscribed derived attribute is strongly referenced by
+     * the attribute from which it was derived, and so it remains reachable
+     * (and its subscribers continue to be notified) for as long as the
+     * original attribute is reachable. If weak references are enabled, a
+     * derived attribute (along with any attributes derived from it in turn)
+     * can be garbage collected as soon as the application holds no
+     * references to it or to any of its subscriptions. The links to
+     * collected attributes are removed the next time the original attribute
+     * publishes a value.
+     *
+     * @param weak {@code true} if derived attributes should be weakly held
+     *
+     * @return this
+     */
+
+    public Builder setWeakDerivedAttributes(
+      final boolean weak)
+    {
+      this.weakDerivedAttributes = weak;
+      return this;
+    }
+
+    /**
+     * @return A new attributes class
+     *
+     * @throws IllegalStateException If slow receivers are to be isolated, but
+     *                               no executor has been set
+     */
+
+    public Attributes build()
+      throws IllegalStateException
+    {
+      final var isolationExecutor =
+        this.slowReceiverExecutor.or(() -> this.executor);
+
+      if (this.receiverBudget.isPresent()
+          && this.slowReceiverAction == AttributeSlowReceiverAction.ISOLATE
+          && isolationExecutor.isEmpty()) {
+        throw new IllegalStateException(
+          "Isolating slow receivers requires an executor."
+        );
+      }
+
+      final var budget =
+        this.receiverBudget.map(b -> {
+          return new AttributeReceiverBudget(
+            b,
+            this.slowReceiverAction,
+            isolationExecutor
+          );
+        });
+
+      return new Attributes(
+        new AttributeContext(
+          this.errorConsumer,
+          this.weakDerivedAttributes,
+          this.equivalence,
+          this.executor,
+          this.metrics,
+          budget,
+          this.scheduler,
+          new AttributePropagation()
+        )
+      );
+    }
   }
 }
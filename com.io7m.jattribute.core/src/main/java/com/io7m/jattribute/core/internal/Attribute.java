@@ -16,65 +16,104 @@
 
 package com.io7m.jattribute.core.internal;
 
+import com.io7m.jattribute.core.AttributeEquivalenceType;
 import com.io7m.jattribute.core.AttributeReadableType;
 import com.io7m.jattribute.core.AttributeType;
 
 import java.util.Objects;
 import java.util.concurrent.atomic.AtomicReference;
-import java.util.function.Consumer;
 import java.util.function.Function;
 
 /**
  * An identity attribute that stores a value in an atomic reference.
  *
+ * The value and the version of the attribute are held together in an
+ * immutable holder, and a store replaces the holder with a single
+ * compare-and-set. Writers therefore never wait for each other, and the
+ * version always advances with the value that it describes. The sequence of
+ * the attribute is twice its version, and so it is always even (see
+ * {@link AttributeSequence}).
+ *
  * @param <A> The type of underlying values
  */
 
 public final class Attribute<A> extends AttributeAbstract<A>
 {
-  private final AtomicReference<A> value;
+  private final AtomicReference<Stored<A>> stored;
 
   /**
    * Construct a new attribute.
    *
-   * @param inErrorConsumer The error consumer
-   * @param initial         The initial value
+   * @param inContext     The attribute context
+   * @param inEquivalence The equivalence used to suppress updates
+   * @param initial       The initial value
    */
 
   public Attribute(
-    final Consumer<Throwable> inErrorConsumer,
+    final AttributeContext inContext,
+    final AttributeEquivalenceType<? super A> inEquivalence,
     final A initial)
   {
-    super(inErrorConsumer);
+    super(inContext, inEquivalence);
 
-    this.value =
+    this.stored =
       new AtomicReference<>(
-        Objects.requireNonNull(initial, "initial"));
+        new Stored<>(Objects.requireNonNull(initial, "initial"), 0L));
   }
 
   @Override
   public A get()
   {
-    return this.value.get();
+    return this.stored.get().value();
+  }
+
+  @Override
+  long sequence()
+  {
+    return this.stored.get().version() << 1;
+  }
+
+  @Override
+  A current()
+  {
+    return this.stored.get().value();
   }
 
   @Override
   public <B> AttributeReadableType<B> mapR(
     final Function<A, B> f)
   {
-    return new AttributeMap<>(this.errors(), this, f);
+    return new AttributeMap<>(this.context(), this, f);
   }
 
   @Override
-  protected void store(final A a)
+  protected boolean compareAndStore(
+    final A expected,
+    final A newValue)
   {
-    this.value.set(a);
+    while (true) {
+      final var current = this.stored.get();
+      if (current.value() != expected) {
+        return false;
+      }
+      final var next = new Stored<>(newValue, current.version() + 1L);
+      if (this.stored.compareAndSet(current, next)) {
+        return true;
+      }
+    }
   }
 
   @Override
   public <B> AttributeType<B> map(
     final Function<A, B> f)
   {
-    return new AttributeMap<>(this.errors(), this, f);
+    return new AttributeMap<>(this.context(), this, f);
+  }
+
+  private record Stored<A>(
+    A value,
+    long version)
+  {
+
   }
 }
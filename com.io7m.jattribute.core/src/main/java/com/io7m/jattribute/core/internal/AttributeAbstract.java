@@ -16,14 +16,21 @@
 
 package com.io7m.jattribute.core.internal;
 
+import com.io7m.jattribute.core.AttributeDeliveryMode;
+import com.io7m.jattribute.core.AttributeEquivalenceType;
+import com.io7m.jattribute.core.AttributeReadableType;
 import com.io7m.jattribute.core.AttributeReceiverType;
 import com.io7m.jattribute.core.AttributeSubscriptionType;
 import com.io7m.jattribute.core.AttributeType;
+import com.io7m.jattribute.core.AttributeVersionedValue;
 
+import java.time.Duration;
 import java.util.Objects;
-import java.util.concurrent.CopyOnWriteArrayList;
-import java.util.concurrent.atomic.AtomicBoolean;
-import java.util.function.Consumer;
+import java.util.concurrent.Executor;
+import java.util.function.BiConsumer;
+import java.util.function.BinaryOperator;
+import java.util.function.Predicate;
+import java.util.function.UnaryOperator;
 
 /**
  * An abstract base attribute.
@@ -32,44 +39,299 @@ import java.util.function.Consumer;
  */
 
 abstract class AttributeAbstract<A>
-  implements AttributeType<A>
+  implements AttributeType<A>, AttributePublisherType
 {
-  private final CopyOnWriteArrayList<Subscription<A>> subscribers;
-  private final Consumer<Throwable> errorConsumer;
+  private final AttributeSubscribers<AttributeReceiverType<A>> subscribers;
+  private final AttributeContext context;
+  private final AttributeEquivalenceType<? super A> equivalence;
+  private final int height;
 
   protected AttributeAbstract(
-    final Consumer<Throwable> inErrorConsumer)
+    final AttributeContext inContext)
   {
-    this.errorConsumer =
-      Objects.requireNonNull(inErrorConsumer, "errorConsumer");
+    this(inContext, inContext.equivalence(), 0);
+  }
+
+  protected AttributeAbstract(
+    final AttributeContext inContext,
+    final int inHeight)
+  {
+    this(inContext, inContext.equivalence(), inHeight);
+  }
+
+  protected AttributeAbstract(
+    final AttributeContext inContext,
+    final AttributeEquivalenceType<? super A> inEquivalence)
+  {
+    this(inContext, inEquivalence, 0);
+  }
+
+  protected AttributeAbstract(
+    final AttributeContext inContext,
+    final AttributeEquivalenceType<? super A> inEquivalence,
+    final int inHeight)
+  {
+    this.context =
+      Objects.requireNonNull(inContext, "context");
+    this.height =
+      inHeight;
+    this.equivalence =
+      Objects.requireNonNull(inEquivalence, "equivalence");
     this.subscribers =
-      new CopyOnWriteArrayList<>();
+      new AttributeSubscribers<>(
+        inContext,
+        this,
+        AttributeAbstract::delivery,
+        this::onSubscriptionOpened,
+        this::onSubscriptionClosed
+      );
+  }
+
+  /**
+   * Determine whether a new value would be considered a change from an
+   * old value.
+   *
+   * @param oldValue The old value
+   * @param newValue The new value
+   *
+   * @return {@code true} if the values are equivalent, and so subscribers
+   * should not be notified; the suppressed update is reported to the
+   * metrics implementation, if any
+   */
+
+  protected final boolean isEquivalent(
+    final A oldValue,
+    final A newValue)
+  {
+    if (this.equivalence.isEquivalent(oldValue, newValue)) {
+      this.subscribers.suppressed();
+      return true;
+    }
+    return false;
+  }
+
+  /**
+   * Report to the metrics implementation, if any, that an update was
+   * suppressed for a reason other than this attribute's equivalence.
+   */
+
+  protected final void suppressed()
+  {
+    this.subscribers.suppressed();
+  }
+
+  /**
+   * @return The height of this attribute in the graph of attributes; an
+   * attribute that is not derived from other attributes has height zero,
+   * and a derived attribute is higher than each of its sources
+   */
+
+  final int height()
+  {
+    return this.height;
+  }
+
+  protected final AttributeContext context()
+  {
+    return this.context;
+  }
+
+  /**
+   * @return The sequence of this attribute (see {@link AttributeSequence});
+   * the version of the attribute is half of the sequence, and the sequence is
+   * odd whilst a store is in progress
+   */
+
+  abstract long sequence();
+
+  /**
+   * @return The current value, computed from the attribute's sources if the
+   * attribute is derived from other attributes (rather than taken from any
+   * cached value), so that it is consistent with {@link #sequence()}
+   */
+
+  abstract A current();
+
+  @Override
+  public final long version()
+  {
+    return this.sequence() >>> 1;
+  }
+
+  @Override
+  public final AttributeVersionedValue<A> getVersioned()
+  {
+    while (true) {
+      final var before = this.sequence();
+      if ((before & 1L) == 0L) {
+        final var current = this.current();
+        if (this.sequence() == before) {
+          return new AttributeVersionedValue<>(current, before >>> 1);
+        }
+      }
+      Thread.onSpinWait();
+    }
   }
 
-  protected final Consumer<Throwable> errors()
+  @Override
+  public final AttributeReadableType<A> filter(
+    final Predicate<? super A> predicate)
   {
-    return this.errorConsumer;
+    return new AttributeFilter<>(this.context, this, predicate);
+  }
+
+  @Override
+  public final AttributeReadableType<A> throttle(
+    final Duration window)
+  {
+    return new AttributeTimed<>(
+      this.context,
+      this,
+      AttributeTimed.Mode.THROTTLE,
+      window
+    );
+  }
+
+  @Override
+  public final AttributeReadableType<A> debounce(
+    final Duration quiet)
+  {
+    return new AttributeTimed<>(
+      this.context,
+      this,
+      AttributeTimed.Mode.DEBOUNCE,
+      quiet
+    );
+  }
+
+  @Override
+  public final AttributeReadableType<A> sample(
+    final Duration period)
+  {
+    return new AttributeTimed<>(
+      this.context,
+      this,
+      AttributeTimed.Mode.SAMPLE,
+      period
+    );
+  }
+
+  @Override
+  public final AttributeSubscriptionType subscribe(
+    final AttributeReceiverType<A> receiver)
+  {
+    final var executor = this.context.executor();
+    if (executor.isPresent()) {
+      return this.subscribe(
+        executor.get(),
+        AttributeDeliveryMode.ORDERED,
+        receiver
+      );
+    }
+    return this.subscribeExpirable(receiver, null);
   }
 
   @Override
   public final AttributeSubscriptionType subscribe(
+    final Executor executor,
+    final AttributeReceiverType<A> receiver)
+  {
+    return this.subscribe(executor, AttributeDeliveryMode.ORDERED, receiver);
+  }
+
+  @Override
+  public final AttributeSubscriptionType subscribe(
+    final Executor executor,
+    final AttributeDeliveryMode mode,
     final AttributeReceiverType<A> receiver)
   {
     Objects.requireNonNull(receiver, "receiver");
 
-    final var subscription = new Subscription<A>(this, receiver);
-    this.subscribers.add(subscription);
-    final var current = this.get();
+    final var subscription =
+      this.subscribers.addAsynchronous(
+        receiver,
+        executor,
+        mode,
+        delivery(receiver)
+      );
+    final var current =
+      this.get();
+
+    subscription.dispatcher().dispatch(current, current);
+    return subscription;
+  }
+
+  @SuppressWarnings("unchecked")
+  private static <A> BiConsumer<Object, Object> delivery(
+    final AttributeReceiverType<A> receiver)
+  {
+    return (oldValue, newValue) -> {
+      receiver.receive((A) oldValue, (A) newValue);
+    };
+  }
+
+  /**
+   * Subscribe to the attribute with a subscription that will be closed
+   * instead of receiving values once it has expired. The subscription
+   * always receives values on the publishing thread.
+   *
+   * @param receiver  The receiver function
+   * @param expirable The expiry check, if any
+   *
+   * @return A subscription
+   */
+
+  final AttributeSubscriptionType subscribeExpirable(
+    final AttributeReceiverType<A> receiver,
+    final AttributeExpirableType expirable)
+  {
+    Objects.requireNonNull(receiver, "receiver");
+
+    final var subscription =
+      this.subscribers.add(receiver, expirable);
+    final var current =
+      this.get();
 
     try {
       receiver.receive(current, current);
     } catch (final Throwable e) {
-      this.consumeException(subscription, e);
+      this.subscribers.fail(subscription, e);
     }
     return subscription;
   }
 
-  protected abstract void store(A a);
+  /**
+   * A subscription is about to be added to this attribute. This is called
+   * before the new subscriber receives any values.
+   */
+
+  protected void onSubscriptionOpened()
+  {
+
+  }
+
+  /**
+   * A subscription has been removed from this attribute.
+   */
+
+  protected void onSubscriptionClosed()
+  {
+
+  }
+
+  /**
+   * Atomically store {@code newValue} if the currently stored value is
+   * {@code expected}. Attributes that do not store values always succeed.
+   *
+   * @param expected The expected current value
+   * @param newValue The new value
+   *
+   * @return {@code true} if the value was stored
+   */
+
+  protected abstract boolean compareAndStore(
+    A expected,
+    A newValue);
 
   @Override
   public final A set(
@@ -77,70 +339,165 @@ abstract class AttributeAbstract<A>
   {
     Objects.requireNonNull(newValue, "y");
 
-    final var oldValue = this.get();
-    this.store(newValue);
-    this.publish(oldValue, newValue);
-    return newValue;
+    final var event = AttributeEvents.beginSet();
+    final var oldValue = this.store(newValue);
+    if (event != null) {
+      event.finish(this.subscribers);
+    }
+    return oldValue;
   }
 
-  protected final void publish(
-    final A oldValue,
+  private A store(
     final A newValue)
   {
-    for (final var subscriber : this.subscribers) {
-      try {
-        if (!subscriber.isClosed()) {
-          subscriber.receiver.receive(oldValue, newValue);
-        }
-      } catch (final Throwable e) {
-        this.consumeException(subscriber, e);
+    while (true) {
+      final var oldValue = this.get();
+      if (this.isEquivalent(oldValue, newValue)) {
+        return oldValue;
+      }
+      if (this.compareAndStore(oldValue, newValue)) {
+        this.publish(oldValue, newValue);
+        return oldValue;
       }
     }
   }
 
-  private void consumeException(
-    final Subscription<A> subscriber,
-    final Throwable e)
+  @Override
+  public final boolean compareAndSet(
+    final A expected,
+    final A newValue)
   {
-    try (subscriber) {
-      this.errorConsumer.accept(e);
-    } catch (final Throwable ignored) {
-      // Nothing we can do.
+    Objects.requireNonNull(newValue, "newValue");
+
+    final var current = this.get();
+    if (current != expected) {
+      return false;
+    }
+    if (this.isEquivalent(current, newValue)) {
+      return true;
     }
+    if (this.compareAndStore(current, newValue)) {
+      this.publish(current, newValue);
+      return true;
+    }
+    return false;
   }
 
-  private static final class Subscription<A>
-    implements AttributeSubscriptionType
+  @Override
+  public final A getAndUpdate(
+    final UnaryOperator<A> f)
   {
-    private final AttributeAbstract<A> attribute;
-    private final AttributeReceiverType<A> receiver;
-    private final AtomicBoolean closed;
+    Objects.requireNonNull(f, "f");
 
-    private Subscription(
-      final AttributeAbstract<A> inAttribute,
-      final AttributeReceiverType<A> inReceiver)
-    {
-      this.attribute =
-        Objects.requireNonNull(inAttribute, "attribute");
-      this.receiver =
-        Objects.requireNonNull(inReceiver, "receiver");
-      this.closed =
-        new AtomicBoolean(false);
+    while (true) {
+      final var oldValue = this.get();
+      final var newValue =
+        Objects.requireNonNull(f.apply(oldValue), "newValue");
+
+      if (this.isEquivalent(oldValue, newValue)) {
+        return oldValue;
+      }
+      if (this.compareAndStore(oldValue, newValue)) {
+        this.publish(oldValue, newValue);
+        return oldValue;
+      }
     }
+  }
 
-    @Override
-    public void close()
-      throws RuntimeException
-    {
-      if (this.closed.compareAndSet(false, true)) {
-        this.attribute.subscribers.remove(this);
+  @Override
+  public final A updateAndGet(
+    final UnaryOperator<A> f)
+  {
+    Objects.requireNonNull(f, "f");
+
+    while (true) {
+      final var oldValue = this.get();
+      final var newValue =
+        Objects.requireNonNull(f.apply(oldValue), "newValue");
+
+      if (this.isEquivalent(oldValue, newValue)) {
+        return oldValue;
+      }
+      if (this.compareAndStore(oldValue, newValue)) {
+        this.publish(oldValue, newValue);
+        return newValue;
       }
     }
+  }
+
+  @Override
+  public final A accumulateAndGet(
+    final A x,
+    final BinaryOperator<A> f)
+  {
+    Objects.requireNonNull(f, "f");
+    return this.updateAndGet(v -> f.apply(v, x));
+  }
+
+  /**
+   * Publish a value change to subscribers. If the current thread has an
+   * open transaction, the change is recorded and published when the
+   * transaction closes.
+   *
+   * @param oldValue The old value
+   * @param newValue The new value
+   */
+
+  protected final void publish(
+    final A oldValue,
+    final A newValue)
+  {
+    this.subscribers.updated();
+
+    if (this.context.propagation().isDeferring()) {
+      this.context.propagation().defer(this, oldValue, newValue);
+      return;
+    }
+    this.publishNow(oldValue, newValue);
+  }
+
+  @Override
+  @SuppressWarnings("unchecked")
+  public final void publishDeferred(
+    final Object oldValue,
+    final Object newValue)
+  {
+    final var oldCast = (A) oldValue;
+    final var newCast = (A) newValue;
+    if (this.isEquivalent(oldCast, newCast)) {
+      return;
+    }
+    this.publishNow(oldCast, newCast);
+  }
+
+  private void publishNow(
+    final A oldValue,
+    final A newValue)
+  {
+    final var propagation = this.context.propagation();
+    if (!propagation.isScheduling()) {
+      this.deliver(oldValue, newValue);
+      return;
+    }
 
-    @Override
-    public boolean isClosed()
-    {
-      return this.closed.get();
+    final var wave = propagation.enter();
+    try {
+      this.deliver(oldValue, newValue);
+    } finally {
+      wave.exit();
     }
   }
+
+  @SuppressWarnings("unchecked")
+  private void deliver(
+    final A oldValue,
+    final A newValue)
+  {
+    this.subscribers.deliver(
+      oldValue,
+      newValue,
+      (receiver, o, n) -> receiver.receive((A) o, (A) n)
+    );
+  }
 }
+
@@ -0,0 +1,247 @@
+/*
+ * Copyright © 2026 Mark Raynsford <code@io7m.com> https://www.io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+package com.io7m.jattribute.core.internal;
+
+import com.io7m.jattribute.core.AttributeCachedType;
+import com.io7m.jattribute.core.AttributeEquivalenceType;
+import com.io7m.jattribute.core.AttributeReadableType;
+import com.io7m.jattribute.core.AttributeSchedulerType;
+import com.io7m.jattribute.core.AttributeType;
+
+import java.time.Duration;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * A function attribute that caches the values of its function.
+ *
+ * Reading a valid, unexpired value costs a pair of volatile reads (and a
+ * clock read if the attribute has a time-to-live). The function is evaluated
+ * whilst holding the attribute's lock, so concurrent readers of a stale
+ * attribute evaluate the function once between them. Values evaluated from
+ * the function are published to subscribers outside the lock, and only if
+ * they are neither equal nor equivalent to the values they replace; the
+ * default equivalence considers no values equivalent, and would otherwise
+ * publish every refresh.
+ *
+ * @param <A> The type of underlying values
+ */
+
+public final class AttributeCached<A>
+  extends AttributeAbstract<A>
+  implements AttributeCachedType<A>
+{
+  private final Supplier<A> supplier;
+  private final AttributeSchedulerType scheduler;
+  private final long timeToLive;
+  private final boolean expiring;
+  private final AttributeSequence sequence;
+  private final AtomicInteger subscriptions;
+  private final Object lock;
+  private volatile A value;
+  private volatile boolean valid;
+  private volatile long expires;
+
+  /**
+   * Construct a new attribute.
+   *
+   * @param inContext     The attribute context
+   * @param inEquivalence The equivalence used to suppress updates
+   * @param inSupplier    The supplier function
+   * @param inTimeToLive  The time-to-live of cached values, if any
+   *
+   * @throws IllegalArgumentException If the time-to-live is not positive
+   */
+
+  public AttributeCached(
+    final AttributeContext inContext,
+    final AttributeEquivalenceType<? super A> inEquivalence,
+    final Supplier<A> inSupplier,
+    final Optional<Duration> inTimeToLive)
+    throws IllegalArgumentException
+  {
+    super(inContext, inEquivalence);
+
+    this.supplier =
+      Objects.requireNonNull(inSupplier, "supplier");
+    this.scheduler =
+      inContext.scheduler();
+
+    Objects.requireNonNull(inTimeToLive, "timeToLive");
+    if (inTimeToLive.isPresent()) {
+      final var duration = inTimeToLive.get();
+      if (duration.isNegative() || duration.isZero()) {
+        throw new IllegalArgumentException(
+          String.format("Time-to-live %s must be positive", duration)
+        );
+      }
+      this.timeToLive = duration.toNanos();
+      this.expiring = true;
+    } else {
+      this.timeToLive = 0L;
+      this.expiring = false;
+    }
+
+    this.sequence =
+      new AttributeSequence();
+    this.subscriptions =
+      new AtomicInteger(0);
+    this.lock =
+      new Object();
+  }
+
+  private boolean isFresh()
+  {
+    if (!this.valid) {
+      return false;
+    }
+    if (this.expiring) {
+      return this.scheduler.nanoTime() - this.expires < 0L;
+    }
+    return true;
+  }
+
+  @Override
+  public A get()
+  {
+    if (this.isFresh()) {
+      return this.value;
+    }
+    return this.refresh();
+  }
+
+  /**
+   * Evaluate the function and store the result, publishing it if it is a
+   * change from the value it replaces.
+   *
+   * @return The current value
+   */
+
+  private A refresh()
+  {
+    final A oldValue;
+    final A newValue;
+
+    synchronized (this.lock) {
+      if (this.isFresh()) {
+        return this.value;
+      }
+
+      newValue = Objects.requireNonNull(this.supplier.get(), "supplier.get()");
+      oldValue = this.value;
+      this.write(newValue);
+    }
+
+    if (oldValue != null && this.isChange(oldValue, newValue)) {
+      this.publish(oldValue, newValue);
+    }
+    return newValue;
+  }
+
+  private boolean isChange(
+    final A oldValue,
+    final A newValue)
+  {
+    if (Objects.equals(oldValue, newValue)) {
+      this.suppressed();
+      return false;
+    }
+    return !this.isEquivalent(oldValue, newValue);
+  }
+
+  private void write(
+    final A newValue)
+  {
+    final var now =
+      this.expiring ? this.scheduler.nanoTime() : 0L;
+
+    final var start = this.sequence.beginWrite();
+    if (this.expiring) {
+      this.expires = now + this.timeToLive;
+    }
+    this.value = newValue;
+    this.valid = true;
+    this.sequence.endWrite(start, true);
+  }
+
+  @Override
+  public void invalidate()
+  {
+    synchronized (this.lock) {
+      this.valid = false;
+    }
+
+    if (this.subscriptions.get() > 0) {
+      this.refresh();
+    }
+  }
+
+  @Override
+  protected void onSubscriptionOpened()
+  {
+    this.subscriptions.incrementAndGet();
+  }
+
+  @Override
+  protected void onSubscriptionClosed()
+  {
+    this.subscriptions.decrementAndGet();
+  }
+
+  @Override
+  long sequence()
+  {
+    return this.sequence.get();
+  }
+
+  @Override
+  A current()
+  {
+    return this.get();
+  }
+
+  @Override
+  public <B> AttributeReadableType<B> mapR(
+    final Function<A, B> f)
+  {
+    return new AttributeMap<>(this.context(), this, f);
+  }
+
+  @Override
+  protected boolean compareAndStore(
+    final A expected,
+    final A newValue)
+  {
+    synchronized (this.lock) {
+      if (this.value != expected) {
+        return false;
+      }
+      this.write(newValue);
+      return true;
+    }
+  }
+
+  @Override
+  public <B> AttributeType<B> map(
+    final Function<A, B> f)
+  {
+    return new AttributeMap<>(this.context(), this, f);
+  }
+}
@@ -0,0 +1,261 @@
+/*
+ * Copyright © 2026 Mark Raynsford <code@io7m.com> https://www.io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+package com.io7m.jattribute.core.internal;
+
+import com.io7m.jattribute.core.AttributeCollectionReadableType;
+import com.io7m.jattribute.core.AttributeDeliveryMode;
+import com.io7m.jattribute.core.AttributeDeltaReceiverType;
+import com.io7m.jattribute.core.AttributeSubscriptionType;
+
+import java.util.Objects;
+import java.util.concurrent.Executor;
+import java.util.function.BiConsumer;
+import java.util.function.Consumer;
+
+/**
+ * An abstract base collection attribute.
+ *
+ * The collection is held in a mutable collection guarded by the attribute's
+ * lock. Each mutation is applied and then published to subscribers whilst
+ * the lock is held, so that every subscriber receives changes in the order
+ * in which they were applied; publishing a change costs one call per
+ * subscriber, regardless of the size of the collection. Snapshots are
+ * immutable copies, taken lazily and cached until the next change.
+ *
+ * Receivers that are called with the lock held could otherwise modify the
+ * collection re-entrantly, publishing a nested change to the subscribers
+ * that follow them before the change being delivered. The attribute
+ * therefore records when it is delivering, and every mutator calls
+ * {@link #checkModifiable()} before modifying the collection.
+ *
+ * Subscribers are held in the same structure as the subscribers of ordinary
+ * attributes (see {@link AttributeSubscribers}), and so subscriptions are
+ * measured, timed, and isolated in the same way. Subscribers that receive
+ * changes asynchronously always use {@link AttributeDeliveryMode#ORDERED}
+ * delivery, because conflating changes would lose them.
+ *
+ * @param <S> The type of snapshots
+ * @param <C> The type of changes
+ */
+
+abstract class AttributeCollectionAbstract<S, C>
+  implements AttributeCollectionReadableType<S, C>
+{
+  private final AttributeContext context;
+  private final AttributeSubscribers<AttributeDeltaReceiverType<? super C>> subscribers;
+  private volatile S snapshot;
+  private volatile long version;
+  private boolean delivering;
+
+  /**
+   * The lock that guards the collection.
+   */
+
+  protected final Object lock;
+
+  protected AttributeCollectionAbstract(
+    final AttributeContext inContext)
+  {
+    this.context =
+      Objects.requireNonNull(inContext, "context");
+    this.lock =
+      new Object();
+    this.subscribers =
+      new AttributeSubscribers<>(
+        inContext,
+        this,
+        AttributeCollectionAbstract::delivery,
+        () -> { },
+        () -> { }
+      );
+  }
+
+  @SuppressWarnings("unchecked")
+  private static <C> BiConsumer<Object, Object> delivery(
+    final AttributeDeltaReceiverType<? super C> receiver)
+  {
+    return (ignored, change) -> receiver.receive((C) change);
+  }
+
+  protected final AttributeContext context()
+  {
+    return this.context;
+  }
+
+  /**
+   * Determine whether a new element would be considered a change from an
+   * old element, according to the context's equivalence.
+   *
+   * @param oldValue The old element
+   * @param newValue The new element
+   *
+   * @return {@code true} if the elements are equivalent
+   */
+
+  protected final boolean isEquivalent(
+    final Object oldValue,
+    final Object newValue)
+  {
+    if (this.context.equivalence().isEquivalent(oldValue, newValue)) {
+      this.subscribers.suppressed();
+      return true;
+    }
+    return false;
+  }
+
+  /**
+   * Check that the collection may be modified. Called with the lock held,
+   * before the collection is modified. As the lock is held, the collection
+   * can only be delivering a change if the caller is one of its own
+   * receivers.
+   *
+   * @throws IllegalStateException If the collection is delivering a change
+   */
+
+  protected final void checkModifiable()
+    throws IllegalStateException
+  {
+    if (this.delivering) {
+      throw new IllegalStateException(
+        "A collection attribute cannot be modified by its own receivers"
+      );
+    }
+  }
+
+  /**
+   * Copy the collection. Called with the lock held.
+   *
+   * @return An immutable copy of the collection
+   */
+
+  protected abstract S copy();
+
+  /**
+   * Produce a change that adds each element currently in the collection, in
+   * iteration order. Called with the lock held.
+   *
+   * @param receiver The receiver of changes
+   */
+
+  protected abstract void contents(
+    Consumer<C> receiver);
+
+  @Override
+  public final S snapshot()
+  {
+    final var current = this.snapshot;
+    if (current != null) {
+      return current;
+    }
+
+    synchronized (this.lock) {
+      final var existing = this.snapshot;
+      if (existing != null) {
+        return existing;
+      }
+      final var copy = this.copy();
+      this.snapshot = copy;
+      return copy;
+    }
+  }
+
+  @Override
+  public final long version()
+  {
+    return this.version;
+  }
+
+  @Override
+  public final AttributeSubscriptionType subscribe(
+    final AttributeDeltaReceiverType<? super C> receiver)
+  {
+    final var executor = this.context.executor();
+    if (executor.isPresent()) {
+      return this.subscribe(executor.get(), receiver);
+    }
+
+    Objects.requireNonNull(receiver, "receiver");
+    synchronized (this.lock) {
+      final var subscription =
+        this.subscribers.add(receiver, null);
+
+      this.delivering = true;
+      try {
+        this.contents(receiver::receive);
+      } catch (final Throwable e) {
+        this.subscribers.fail(subscription, e);
+      } finally {
+        this.delivering = false;
+      }
+      return subscription;
+    }
+  }
+
+  @Override
+  public final AttributeSubscriptionType subscribe(
+    final Executor executor,
+    final AttributeDeltaReceiverType<? super C> receiver)
+  {
+    Objects.requireNonNull(receiver, "receiver");
+
+    synchronized (this.lock) {
+      final var subscription =
+        this.subscribers.addAsynchronous(
+          receiver,
+          executor,
+          AttributeDeliveryMode.ORDERED,
+          delivery(receiver)
+        );
+
+      final var dispatcher = subscription.dispatcher();
+      this.delivering = true;
+      try {
+        this.contents(change -> dispatcher.dispatch(change, change));
+      } finally {
+        this.delivering = false;
+      }
+      return subscription;
+    }
+  }
+
+  /**
+   * Record and publish a change that has been applied to the collection.
+   * Called with the lock held.
+   *
+   * @param change The change
+   */
+
+  @SuppressWarnings("unchecked")
+  protected final void publish(
+    final C change)
+  {
+    this.snapshot = null;
+    ++this.version;
+    this.subscribers.updated();
+
+    this.delivering = true;
+    try {
+      this.subscribers.deliver(
+        change,
+        change,
+        (receiver, o, n) -> receiver.receive((C) n)
+      );
+    } finally {
+      this.delivering = false;
+    }
+  }
+}
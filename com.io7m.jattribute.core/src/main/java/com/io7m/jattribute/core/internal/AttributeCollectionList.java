@@ -0,0 +1,185 @@
+/*
+ * Copyright © 2026 Mark Raynsford <code@io7m.com> https://www.io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+package com.io7m.jattribute.core.internal;
+
+import com.io7m.jattribute.core.AttributeListChange;
+import com.io7m.jattribute.core.AttributeListType;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Objects;
+import java.util.function.Consumer;
+
+/**
+ * A list attribute.
+ *
+ * @param <E> The type of elements
+ */
+
+public final class AttributeCollectionList<E>
+  extends AttributeCollectionAbstract<List<E>, AttributeListChange<E>>
+  implements AttributeListType<E>
+{
+  private final ArrayList<E> list;
+
+  /**
+   * Construct a list attribute.
+   *
+   * @param inContext The attribute context
+   * @param initial   The initial elements
+   */
+
+  public AttributeCollectionList(
+    final AttributeContext inContext,
+    final Collection<? extends E> initial)
+  {
+    super(inContext);
+
+    this.list = new ArrayList<>(initial.size());
+    for (final var element : initial) {
+      this.list.add(Objects.requireNonNull(element, "element"));
+    }
+  }
+
+  @Override
+  protected List<E> copy()
+  {
+    return List.copyOf(this.list);
+  }
+
+  @Override
+  protected void contents(
+    final Consumer<AttributeListChange<E>> receiver)
+  {
+    final var size = this.list.size();
+    for (int index = 0; index < size; ++index) {
+      receiver.accept(
+        new AttributeListChange.Added<>(index, this.list.get(index))
+      );
+    }
+  }
+
+  @Override
+  public int size()
+  {
+    synchronized (this.lock) {
+      return this.list.size();
+    }
+  }
+
+  @Override
+  public E get(
+    final int index)
+  {
+    synchronized (this.lock) {
+      return this.list.get(index);
+    }
+  }
+
+  @Override
+  public void add(
+    final E element)
+  {
+    Objects.requireNonNull(element, "element");
+
+    synchronized (this.lock) {
+      this.checkModifiable();
+      final var index = this.list.size();
+      this.list.add(element);
+      this.publish(new AttributeListChange.Added<>(index, element));
+    }
+  }
+
+  @Override
+  public void add(
+    final int index,
+    final E element)
+  {
+    Objects.requireNonNull(element, "element");
+
+    synchronized (this.lock) {
+      this.checkModifiable();
+      this.list.add(index, element);
+      this.publish(new AttributeListChange.Added<>(index, element));
+    }
+  }
+
+  @Override
+  public void addAll(
+    final Collection<? extends E> elements)
+  {
+    final var copy = List.<E>copyOf(elements);
+
+    synchronized (this.lock) {
+      this.checkModifiable();
+      this.list.ensureCapacity(this.list.size() + copy.size());
+      for (final var element : copy) {
+        final var index = this.list.size();
+        this.list.add(element);
+        this.publish(new AttributeListChange.Added<>(index, element));
+      }
+    }
+  }
+
+  @Override
+  public E set(
+    final int index,
+    final E element)
+  {
+    Objects.requireNonNull(element, "element");
+
+    synchronized (this.lock) {
+      this.checkModifiable();
+      final var existing = this.list.get(index);
+      if (this.isEquivalent(existing, element)) {
+        return existing;
+      }
+      this.list.set(index, element);
+      this.publish(
+        new AttributeListChange.Replaced<>(index, existing, element)
+      );
+      return existing;
+    }
+  }
+
+  @Override
+  public E remove(
+    final int index)
+  {
+    synchronized (this.lock) {
+      this.checkModifiable();
+      final var existing = this.list.remove(index);
+      this.publish(new AttributeListChange.Removed<>(index, existing));
+      return existing;
+    }
+  }
+
+  @Override
+  public void clear()
+  {
+    synchronized (this.lock) {
+      this.checkModifiable();
+      final var size = this.list.size();
+      if (size == 0) {
+        return;
+      }
+      this.list.clear();
+      this.publish(new AttributeListChange.Cleared<>(size));
+    }
+  }
+}
@@ -0,0 +1,191 @@
+/*
+ * Copyright © 2026 Mark Raynsford <code@io7m.com> https://www.io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+package com.io7m.jattribute.core.internal;
+
+import com.io7m.jattribute.core.AttributeMapChange;
+import com.io7m.jattribute.core.AttributeMapType;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.function.Consumer;
+
+/**
+ * A map attribute.
+ *
+ * @param <K> The type of keys
+ * @param <V> The type of values
+ */
+
+public final class AttributeCollectionMap<K, V>
+  extends AttributeCollectionAbstract<Map<K, V>, AttributeMapChange<K, V>>
+  implements AttributeMapType<K, V>
+{
+  private final LinkedHashMap<K, V> map;
+
+  /**
+   * Construct a map attribute.
+   *
+   * @param inContext The attribute context
+   * @param initial   The initial entries
+   */
+
+  public AttributeCollectionMap(
+    final AttributeContext inContext,
+    final Map<? extends K, ? extends V> initial)
+  {
+    super(inContext);
+
+    this.map = new LinkedHashMap<>();
+    for (final var entry : initial.entrySet()) {
+      this.map.put(
+        Objects.requireNonNull(entry.getKey(), "key"),
+        Objects.requireNonNull(entry.getValue(), "value")
+      );
+    }
+  }
+
+  @Override
+  protected Map<K, V> copy()
+  {
+    return Collections.unmodifiableMap(new LinkedHashMap<>(this.map));
+  }
+
+  @Override
+  protected void contents(
+    final Consumer<AttributeMapChange<K, V>> receiver)
+  {
+    for (final var entry : this.map.entrySet()) {
+      receiver.accept(
+        new AttributeMapChange.Added<>(entry.getKey(), entry.getValue())
+      );
+    }
+  }
+
+  @Override
+  public int size()
+  {
+    synchronized (this.lock) {
+      return this.map.size();
+    }
+  }
+
+  @Override
+  public Optional<V> get(
+    final K key)
+  {
+    Objects.requireNonNull(key, "key");
+
+    synchronized (this.lock) {
+      return Optional.ofNullable(this.map.get(key));
+    }
+  }
+
+  @Override
+  public boolean containsKey(
+    final K key)
+  {
+    Objects.requireNonNull(key, "key");
+
+    synchronized (this.lock) {
+      return this.map.containsKey(key);
+    }
+  }
+
+  @Override
+  public Optional<V> put(
+    final K key,
+    final V value)
+  {
+    Objects.requireNonNull(key, "key");
+    Objects.requireNonNull(value, "value");
+
+    synchronized (this.lock) {
+      this.checkModifiable();
+      return Optional.ofNullable(this.store(key, value));
+    }
+  }
+
+  private V store(
+    final K key,
+    final V value)
+  {
+    final var existing = this.map.get(key);
+    if (existing == null) {
+      this.map.put(key, value);
+      this.publish(new AttributeMapChange.Added<>(key, value));
+      return null;
+    }
+    if (this.isEquivalent(existing, value)) {
+      return existing;
+    }
+    this.map.put(key, value);
+    this.publish(new AttributeMapChange.Replaced<>(key, existing, value));
+    return existing;
+  }
+
+  @Override
+  public void putAll(
+    final Map<? extends K, ? extends V> entries)
+  {
+    final var copy = new ArrayList<Map.Entry<K, V>>(entries.size());
+    for (final var entry : entries.entrySet()) {
+      copy.add(Map.entry(entry.getKey(), entry.getValue()));
+    }
+
+    synchronized (this.lock) {
+      this.checkModifiable();
+      for (final var entry : copy) {
+        this.store(entry.getKey(), entry.getValue());
+      }
+    }
+  }
+
+  @Override
+  public Optional<V> remove(
+    final K key)
+  {
+    Objects.requireNonNull(key, "key");
+
+    synchronized (this.lock) {
+      this.checkModifiable();
+      final var existing = this.map.remove(key);
+      if (existing == null) {
+        return Optional.empty();
+      }
+      this.publish(new AttributeMapChange.Removed<>(key, existing));
+      return Optional.of(existing);
+    }
+  }
+
+  @Override
+  public void clear()
+  {
+    synchronized (this.lock) {
+      this.checkModifiable();
+      final var size = this.map.size();
+      if (size == 0) {
+        return;
+      }
+      this.map.clear();
+      this.publish(new AttributeMapChange.Cleared<>(size));
+    }
+  }
+}
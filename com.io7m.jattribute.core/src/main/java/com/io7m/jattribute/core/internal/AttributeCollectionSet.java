@@ -0,0 +1,156 @@
+/*
+ * Copyright © 2026 Mark Raynsford <code@io7m.com> https://www.io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+package com.io7m.jattribute.core.internal;
+
+import com.io7m.jattribute.core.AttributeSetChange;
+import com.io7m.jattribute.core.AttributeSetType;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Objects;
+import java.util.Set;
+import java.util.function.Consumer;
+
+/**
+ * A set attribute.
+ *
+ * @param <E> The type of elements
+ */
+
+public final class AttributeCollectionSet<E>
+  extends AttributeCollectionAbstract<Set<E>, AttributeSetChange<E>>
+  implements AttributeSetType<E>
+{
+  private final LinkedHashSet<E> set;
+
+  /**
+   * Construct a set attribute.
+   *
+   * @param inContext The attribute context
+   * @param initial   The initial elements
+   */
+
+  public AttributeCollectionSet(
+    final AttributeContext inContext,
+    final Collection<? extends E> initial)
+  {
+    super(inContext);
+
+    this.set = new LinkedHashSet<>();
+    for (final var element : initial) {
+      this.set.add(Objects.requireNonNull(element, "element"));
+    }
+  }
+
+  @Override
+  protected Set<E> copy()
+  {
+    return Collections.unmodifiableSet(new LinkedHashSet<>(this.set));
+  }
+
+  @Override
+  protected void contents(
+    final Consumer<AttributeSetChange<E>> receiver)
+  {
+    for (final var element : this.set) {
+      receiver.accept(new AttributeSetChange.Added<>(element));
+    }
+  }
+
+  @Override
+  public int size()
+  {
+    synchronized (this.lock) {
+      return this.set.size();
+    }
+  }
+
+  @Override
+  public boolean contains(
+    final E element)
+  {
+    Objects.requireNonNull(element, "element");
+
+    synchronized (this.lock) {
+      return this.set.contains(element);
+    }
+  }
+
+  @Override
+  public boolean add(
+    final E element)
+  {
+    Objects.requireNonNull(element, "element");
+
+    synchronized (this.lock) {
+      this.checkModifiable();
+      if (!this.set.add(element)) {
+        return false;
+      }
+      this.publish(new AttributeSetChange.Added<>(element));
+      return true;
+    }
+  }
+
+  @Override
+  public void addAll(
+    final Collection<? extends E> elements)
+  {
+    final var copy = List.<E>copyOf(elements);
+
+    synchronized (this.lock) {
+      this.checkModifiable();
+      for (final var element : copy) {
+        if (this.set.add(element)) {
+          this.publish(new AttributeSetChange.Added<>(element));
+        }
+      }
+    }
+  }
+
+  @Override
+  public boolean remove(
+    final E element)
+  {
+    Objects.requireNonNull(element, "element");
+
+    synchronized (this.lock) {
+      this.checkModifiable();
+      if (!this.set.remove(element)) {
+        return false;
+      }
+      this.publish(new AttributeSetChange.Removed<>(element));
+      return true;
+    }
+  }
+
+  @Override
+  public void clear()
+  {
+    synchronized (this.lock) {
+      this.checkModifiable();
+      final var size = this.set.size();
+      if (size == 0) {
+        return;
+      }
+      this.set.clear();
+      this.publish(new AttributeSetChange.Cleared<>(size));
+    }
+  }
+}
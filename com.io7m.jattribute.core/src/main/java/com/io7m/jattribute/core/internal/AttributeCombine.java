@@ -0,0 +1,411 @@
+/*
+ * Copyright © 2026 Mark Raynsford <code@io7m.com> https://www.io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+package com.io7m.jattribute.core.internal;
+
+import com.io7m.jattribute.core.AttributeReadableType;
+import com.io7m.jattribute.core.AttributeSubscriptionType;
+import com.io7m.jattribute.core.AttributeType;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.BiFunction;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * An attribute that combines the values of any number of input attributes.
+ *
+ * The attribute is only subscribed to its inputs whilst it has subscribers
+ * of its own (see {@link AttributeLink}). Whilst subscribed, a change to any
+ * input marks the attribute as dirty and schedules it for recomputation with
+ * the {@link AttributePropagation} of the thread that published the change.
+ * Scheduled attributes are recomputed in order of height once the change has
+ * been published, so an attribute is recomputed exactly once per change
+ * regardless of how many of its inputs were affected, and never observes a
+ * combination of updated and stale inputs. Whilst unsubscribed, values are
+ * computed from the inputs on demand.
+ *
+ * @param <B> The type of combined values
+ */
+
+public final class AttributeCombine<B>
+  extends AttributeAbstract<B>
+{
+  private final List<AttributeAbstract<?>> inputs;
+  private final Supplier<B> evaluate;
+  private final Supplier<B> pull;
+  private final AtomicReference<B> value;
+  private final AtomicBoolean dirty;
+  private final AttributeLink<AttributeCombine<B>> link;
+
+  /**
+   * Construct an attribute.
+   *
+   * @param inContext  The attribute context
+   * @param inInputs   The input attributes
+   * @param inEvaluate A function that computes a value from the current
+   *                   values of the inputs
+   * @param inPull     A function that computes a value from the values of
+   *                   the inputs computed from their own sources (see
+   *                   {@link AttributeAbstract#current()})
+   */
+
+  private AttributeCombine(
+    final AttributeContext inContext,
+    final List<? extends AttributeAbstract<?>> inInputs,
+    final Supplier<B> inEvaluate,
+    final Supplier<B> inPull)
+  {
+    super(inContext, heightOf(inInputs));
+
+    this.inputs =
+      List.copyOf(inInputs);
+    this.evaluate =
+      Objects.requireNonNull(inEvaluate, "evaluate");
+    this.pull =
+      Objects.requireNonNull(inPull, "pull");
+    this.value =
+      new AtomicReference<>();
+    this.dirty =
+      new AtomicBoolean(false);
+    this.link =
+      new AttributeLink<>(inContext, this, AttributeCombine::connect);
+  }
+
+  /**
+   * Create an attribute that combines the values of two attributes.
+   *
+   * @param context The attribute context
+   * @param a       The first attribute
+   * @param b       The second attribute
+   * @param f       The combining function
+   * @param <A>     The type of values of the first attribute
+   * @param <B>     The type of values of the second attribute
+   * @param <C>     The type of combined values
+   *
+   * @return A new attribute
+   */
+
+  public static <A, B, C> AttributeReadableType<C> combine(
+    final AttributeContext context,
+    final AttributeReadableType<A> a,
+    final AttributeReadableType<B> b,
+    final BiFunction<A, B, C> f)
+  {
+    Objects.requireNonNull(f, "f");
+
+    final var inputA = checkInput(context, a);
+    final var inputB = checkInput(context, b);
+    return new AttributeCombine<>(
+      context,
+      List.of(inputA, inputB),
+      () -> f.apply(inputA.get(), inputB.get()),
+      () -> f.apply(inputA.current(), inputB.current())
+    );
+  }
+
+  /**
+   * Create an attribute that combines the values of a list of attributes.
+   *
+   * @param context    The attribute context
+   * @param attributes The attributes
+   * @param f          The combining function
+   * @param <A>        The type of values of the attributes
+   * @param <B>        The type of combined values
+   *
+   * @return A new attribute
+   */
+
+  public static <A, B> AttributeReadableType<B> combine(
+    final AttributeContext context,
+    final List<? extends AttributeReadableType<A>> attributes,
+    final Function<List<A>, B> f)
+  {
+    Objects.requireNonNull(attributes, "attributes");
+    Objects.requireNonNull(f, "f");
+
+    final var inputs = new ArrayList<AttributeAbstract<A>>(attributes.size());
+    for (final var attribute : attributes) {
+      inputs.add(checkInput(context, attribute));
+    }
+
+    return new AttributeCombine<>(
+      context,
+      List.copyOf(inputs),
+      () -> apply(inputs, f, AttributeAbstract::get),
+      () -> apply(inputs, f, AttributeAbstract::current)
+    );
+  }
+
+  private static <A, B> B apply(
+    final List<AttributeAbstract<A>> inputs,
+    final Function<List<A>, B> f,
+    final Function<AttributeAbstract<A>, A> read)
+  {
+    final var values = new ArrayList<A>(inputs.size());
+    for (final var input : inputs) {
+      values.add(read.apply(input));
+    }
+    return f.apply(Collections.unmodifiableList(values));
+  }
+
+  /**
+   * Check that the given attribute can be used as an input to a combined
+   * attribute in the given context.
+   *
+   * @param context   The context
+   * @param attribute The attribute
+   * @param <A>       The type of values
+   *
+   * @return The attribute
+   */
+
+  @SuppressWarnings("unchecked")
+  private static <A> AttributeAbstract<A> checkInput(
+    final AttributeContext context,
+    final AttributeReadableType<A> attribute)
+  {
+    Objects.requireNonNull(attribute, "attribute");
+
+    if (attribute instanceof final AttributeAbstract<?> abstractAttribute) {
+      if (abstractAttribute.context() == context) {
+        return (AttributeAbstract<A>) abstractAttribute;
+      }
+    }
+    throw new IllegalArgumentException(
+      "Combined attributes must be created by the same Attributes instance as their inputs."
+    );
+  }
+
+  private static int heightOf(
+    final List<? extends AttributeAbstract<?>> inputs)
+  {
+    int height = 0;
+    for (final var input : inputs) {
+      height = Math.max(height, input.height());
+    }
+    return height + 1;
+  }
+
+  private static <B> AttributeSubscriptionType connect(
+    final AttributeLink.Connection<AttributeCombine<B>> connection)
+  {
+    final var target = connection.target();
+    final var subscriptions =
+      new Subscriptions(target.context().propagation());
+
+    for (final var input : target.inputs) {
+      subscriptions.add(
+        input.subscribeExpirable(
+          (oldValue, newValue) -> onInputChanged(connection),
+          connection
+        )
+      );
+    }
+
+    /*
+     * The initial values delivered by the inputs upon subscription are
+     * ignored; the value is computed once all inputs are subscribed. If the
+     * value cannot be computed, the inputs are unsubscribed again so that
+     * the failed connection leaves nothing behind, and the exception is
+     * rethrown so that the subscription that caused the connection fails.
+     */
+
+    final B initial;
+    try {
+      initial = target.evaluate.get();
+    } catch (final Throwable e) {
+      subscriptions.close();
+      try {
+        target.context().errorConsumer().accept(e);
+      } catch (final Throwable ignored) {
+        // Nothing we can do.
+      }
+      throw e;
+    }
+
+    target.value.set(initial);
+    connection.initialize();
+    return subscriptions;
+  }
+
+  private static <B> void onInputChanged(
+    final AttributeLink.Connection<AttributeCombine<B>> connection)
+  {
+    if (!connection.isInitialized()) {
+      return;
+    }
+
+    final var target = connection.target();
+    if (target == null) {
+      return;
+    }
+
+    if (target.dirty.compareAndSet(false, true)) {
+      target.context().propagation().schedule(target);
+    }
+  }
+
+  /**
+   * Recompute the value of this attribute from the current values of its
+   * inputs, and publish the new value.
+   */
+
+  void recompute()
+  {
+    this.dirty.set(false);
+
+    final B newValue;
+    try {
+      newValue = this.evaluate.get();
+    } catch (final Throwable e) {
+      try {
+        this.context().errorConsumer().accept(e);
+      } catch (final Throwable ignored) {
+        // Nothing we can do.
+      }
+      return;
+    }
+
+    final var oldValue = this.value.getAndSet(newValue);
+    if (this.isEquivalent(oldValue, newValue)) {
+      return;
+    }
+    this.publish(oldValue, newValue);
+  }
+
+  @Override
+  protected void onSubscriptionOpened()
+  {
+    this.link.acquire();
+  }
+
+  @Override
+  protected void onSubscriptionClosed()
+  {
+    this.link.release();
+  }
+
+  @Override
+  public B get()
+  {
+    if (this.link.isCached()) {
+      return this.value.get();
+    }
+    return this.evaluate.get();
+  }
+
+  /**
+   * The sequence of a combined attribute is derived from the sequences of
+   * its inputs: the version is the sum of the versions of the inputs, and
+   * the sequence is odd whilst a store to any input is in progress.
+   */
+
+  @Override
+  long sequence()
+  {
+    long total = 0L;
+    boolean busy = false;
+    for (final var input : this.inputs) {
+      final var inputSequence = input.sequence();
+      total += inputSequence >>> 1;
+      busy |= (inputSequence & 1L) != 0L;
+    }
+    return AttributeSequence.combine(total, busy);
+  }
+
+  @Override
+  B current()
+  {
+    return this.pull.get();
+  }
+
+  @Override
+  public <C> AttributeReadableType<C> mapR(
+    final Function<B, C> f)
+  {
+    return new AttributeMap<>(this.context(), this, f);
+  }
+
+  @Override
+  protected boolean compareAndStore(
+    final B expected,
+    final B newValue)
+  {
+    return true;
+  }
+
+  @Override
+  public <C> AttributeType<C> map(
+    final Function<B, C> f)
+  {
+    return new AttributeMap<>(this.context(), this, f);
+  }
+
+  /**
+   * The subscriptions to all of the inputs of a connected attribute.
+   */
+
+  private static final class Subscriptions
+    implements AttributeSubscriptionType
+  {
+    private final AttributePropagation propagation;
+    private final ArrayList<AttributeSubscriptionType> subscriptions;
+    private final AtomicBoolean closed;
+
+    Subscriptions(
+      final AttributePropagation inPropagation)
+    {
+      this.propagation =
+        inPropagation;
+      this.subscriptions =
+        new ArrayList<>();
+      this.closed =
+        new AtomicBoolean(false);
+
+      this.propagation.onScheduledAttributeConnected();
+    }
+
+    void add(
+      final AttributeSubscriptionType subscription)
+    {
+      this.subscriptions.add(subscription);
+    }
+
+    @Override
+    public void close()
+      throws RuntimeException
+    {
+      if (this.closed.compareAndSet(false, true)) {
+        for (final var subscription : this.subscriptions) {
+          subscription.close();
+        }
+        this.propagation.onScheduledAttributeDisconnected();
+      }
+    }
+
+    @Override
+    public boolean isClosed()
+    {
+      return this.closed.get();
+    }
+  }
+}
@@ -0,0 +1,96 @@
+/*
+ * Copyright © 2026 Mark Raynsford <code@io7m.com> https://www.io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+package com.io7m.jattribute.core.internal;
+
+import com.io7m.jattribute.core.AttributeEquivalenceType;
+import com.io7m.jattribute.core.AttributeMetricsType;
+import com.io7m.jattribute.core.AttributeSchedulerType;
+
+import java.util.Objects;
+import java.util.Optional;
+import java.util.concurrent.Executor;
+import java.util.function.Consumer;
+
+/**
+ * The configuration shared by all attributes created by a single
+ * {@code Attributes} instance.
+ *
+ * @param errorConsumer         A function that will receive any exceptions
+ *                              raised by subscribers of attributes
+ * @param weakDerivedAttributes {@code true} if attributes should only hold
+ *                              weak references to the attributes derived
+ *                              from them
+ * @param equivalence           The default equivalence used to suppress
+ *                              updates that do not change values
+ * @param executor              The default executor on which subscribers
+ *                              receive values, if subscribers are not
+ *                              called on the publishing thread
+ * @param metrics               The metrics implementation, if attributes
+ *                              should be measured
+ * @param receiverBudget        The time budget of receivers called on the
+ *                              publishing thread, if any
+ * @param scheduler             The clock and scheduler used by time-based
+ *                              operators
+ * @param propagation           The propagation state, including any open
+ *                              transactions
+ */
+
+public record AttributeContext(
+  Consumer<Throwable> errorConsumer,
+  boolean weakDerivedAttributes,
+  AttributeEquivalenceType<Object> equivalence,
+  Optional<Executor> executor,
+  Optional<AttributeMetricsType> metrics,
+  Optional<AttributeReceiverBudget> receiverBudget,
+  AttributeSchedulerType scheduler,
+  AttributePropagation propagation)
+{
+  /**
+   * The configuration shared by all attributes created by a single
+   * {@code Attributes} instance.
+   *
+   * @param errorConsumer         A function that will receive any exceptions
+   *                              raised by subscribers of attributes
+   * @param weakDerivedAttributes {@code true} if attributes should only hold
+   *                              weak references to the attributes derived
+   *                              from them
+   * @param equivalence           The default equivalence used to suppress
+   *                              updates that do not change values
+   * @param executor              The default executor on which subscribers
+   *                              receive values, if subscribers are not
+   *                              called on the publishing thread
+   * @param metrics               The metrics implementation, if attributes
+   *                              should be measured
+   * @param receiverBudget        The time budget of receivers called on the
+   *                              publishing thread, if any
+   * @param scheduler             The clock and scheduler used by time-based
+   *                              operators
+   * @param propagation           The propagation state, including any open
+   *                              transactions
+   */
+
+  public AttributeContext
+  {
+    Objects.requireNonNull(errorConsumer, "errorConsumer");
+    Objects.requireNonNull(equivalence, "equivalence");
+    Objects.requireNonNull(executor, "executor");
+    Objects.requireNonNull(metrics, "metrics");
+    Objects.requireNonNull(receiverBudget, "receiverBudget");
+    Objects.requireNonNull(scheduler, "scheduler");
+    Objects.requireNonNull(propagation, "propagation");
+  }
+}
@@ -0,0 +1,161 @@
+/*
+ * Copyright © 2026 Mark Raynsford <code@io7m.com> https://www.io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+package com.io7m.jattribute.core.internal;
+
+import com.io7m.jattribute.core.AttributeReadableType;
+import com.io7m.jattribute.core.AttributeSubscriptionType;
+import com.io7m.jattribute.core.AttributeType;
+
+import java.util.Objects;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Function;
+import java.util.function.LongSupplier;
+import java.util.function.Supplier;
+
+/**
+ * An attribute derived from an arbitrary source, such as a primitive
+ * attribute. The attribute is only subscribed to the source whilst it has
+ * subscribers of its own (see {@link AttributeLink}). Whilst subscribed, the
+ * most recently received value is cached. Whilst unsubscribed, values are
+ * pulled from the source on demand.
+ *
+ * @param <B> The type of values
+ */
+
+final class AttributeDerived<B>
+  extends AttributeAbstract<B>
+{
+  private final Supplier<B> pull;
+  private final LongSupplier sequence;
+  private final AtomicReference<B> value;
+  private final AttributeLink<AttributeDerived<B>> link;
+
+  /**
+   * Construct an attribute.
+   *
+   * @param inContext   The attribute context
+   * @param inHeight    The height of the attribute
+   * @param inSequence  A function that returns the sequence of the source
+   * @param inPull      A function that pulls the current value from the
+   *                    source
+   * @param inConnector A function that subscribes to the source, delivering
+   *                    values to {@link #receive}
+   */
+
+  AttributeDerived(
+    final AttributeContext inContext,
+    final int inHeight,
+    final LongSupplier inSequence,
+    final Supplier<B> inPull,
+    final Function<AttributeLink.Connection<AttributeDerived<B>>, AttributeSubscriptionType> inConnector)
+  {
+    super(inContext, inHeight);
+
+    this.pull =
+      Objects.requireNonNull(inPull, "pull");
+    this.sequence =
+      Objects.requireNonNull(inSequence, "sequence");
+    this.value =
+      new AtomicReference<>();
+    this.link =
+      new AttributeLink<>(inContext, this, inConnector);
+  }
+
+  /**
+   * Receive a value from the source.
+   *
+   * @param connection The connection on which the value arrived
+   * @param newValue   The new value
+   */
+
+  static <B> void receive(
+    final AttributeLink.Connection<AttributeDerived<B>> connection,
+    final B newValue)
+  {
+    final var target = connection.target();
+    if (target == null) {
+      return;
+    }
+
+    if (!connection.isInitialized()) {
+      target.value.set(newValue);
+      connection.initialize();
+      return;
+    }
+
+    final var oldValue = target.value.getAndSet(newValue);
+    if (target.isEquivalent(oldValue, newValue)) {
+      return;
+    }
+    target.publish(oldValue, newValue);
+  }
+
+  @Override
+  protected void onSubscriptionOpened()
+  {
+    this.link.acquire();
+  }
+
+  @Override
+  protected void onSubscriptionClosed()
+  {
+    this.link.release();
+  }
+
+  @Override
+  public B get()
+  {
+    if (this.link.isCached()) {
+      return this.value.get();
+    }
+    return this.pull.get();
+  }
+
+  @Override
+  public <C> AttributeReadableType<C> mapR(
+    final Function<B, C> f)
+  {
+    return new AttributeMap<>(this.context(), this, f);
+  }
+
+  @Override
+  protected boolean compareAndStore(
+    final B expected,
+    final B newValue)
+  {
+    return true;
+  }
+
+  @Override
+  public <C> AttributeType<C> map(
+    final Function<B, C> f)
+  {
+    return new AttributeMap<>(this.context(), this, f);
+  }
+
+  @Override
+  long sequence()
+  {
+    return this.sequence.getAsLong();
+  }
+
+  @Override
+  B current()
+  {
+    return this.pull.get();
+  }
+}
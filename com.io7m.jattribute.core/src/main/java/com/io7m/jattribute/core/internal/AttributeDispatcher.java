@@ -0,0 +1,255 @@
+/*
+ * Copyright © 2026 Mark Raynsford <code@io7m.com> https://www.io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+package com.io7m.jattribute.core.internal;
+
+import com.io7m.jattribute.core.AttributeDeliveryMode;
+
+import java.util.Objects;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.BiConsumer;
+
+/**
+ * A dispatcher that delivers values to a single subscription on an
+ * executor. Updates are held by the dispatcher and then delivered in order by
+ * at most one executor task at a time, so a subscriber always observes values
+ * in the order in which they were published. No locks are held whilst
+ * updates are offered or delivered; a publishing thread pays for storing the
+ * update and, if the subscription was idle, for submitting a single task to
+ * the executor.
+ */
+
+abstract class AttributeDispatcher implements Runnable
+{
+  private final Executor executor;
+  private final AttributeSubscribers.Subscription<?> subscription;
+  private final BiConsumer<Object, Object> receiver;
+  private final AtomicInteger pending;
+
+  private AttributeDispatcher(
+    final Executor inExecutor,
+    final AttributeSubscribers.Subscription<?> inSubscription,
+    final BiConsumer<Object, Object> inReceiver)
+  {
+    this.executor =
+      Objects.requireNonNull(inExecutor, "executor");
+    this.subscription =
+      Objects.requireNonNull(inSubscription, "subscription");
+    this.receiver =
+      Objects.requireNonNull(inReceiver, "receiver");
+    this.pending =
+      new AtomicInteger(0);
+  }
+
+  /**
+   * Create a dispatcher.
+   *
+   * @param executor     The executor on which deliveries will run
+   * @param mode         The delivery mode
+   * @param subscription The subscription to which values are delivered
+   * @param receiver     A function that passes values to the subscription's
+   *                     receiver
+   *
+   * @return A new dispatcher
+   */
+
+  static AttributeDispatcher create(
+    final Executor executor,
+    final AttributeDeliveryMode mode,
+    final AttributeSubscribers.Subscription<?> subscription,
+    final BiConsumer<Object, Object> receiver)
+  {
+    return switch (mode) {
+      case ORDERED -> new Ordered(executor, subscription, receiver);
+      case CONFLATED -> new Conflated(executor, subscription, receiver);
+    };
+  }
+
+  /**
+   * Store an update.
+   *
+   * @param oldValue The old value
+   * @param newValue The new value
+   */
+
+  protected abstract void offer(
+    Object oldValue,
+    Object newValue);
+
+  /**
+   * @return The next stored update, or {@code null} if there are none
+   */
+
+  protected abstract Update poll();
+
+  /**
+   * Store an update, and schedule a task to deliver stored updates if one is
+   * not already scheduled.
+   *
+   * @param oldValue The old value
+   * @param newValue The new value
+   */
+
+  final void dispatch(
+    final Object oldValue,
+    final Object newValue)
+  {
+    this.offer(oldValue, newValue);
+    if (this.pending.getAndIncrement() == 0) {
+      try {
+        this.executor.execute(this);
+      } catch (final RejectedExecutionException e) {
+        this.subscription.fail(e);
+      }
+    }
+  }
+
+  @Override
+  public final void run()
+  {
+    int missed = 1;
+    while (true) {
+      while (true) {
+        final var update = this.poll();
+        if (update == null) {
+          break;
+        }
+        this.deliver(update);
+      }
+
+      missed = this.pending.addAndGet(-missed);
+      if (missed == 0) {
+        return;
+      }
+    }
+  }
+
+  private void deliver(
+    final Update update)
+  {
+    if (this.subscription.isClosed()) {
+      return;
+    }
+
+    try {
+      if (this.subscription.isTimed()) {
+        final var event = new AttributeEvents.Receiver();
+        event.begin();
+        final var time = System.nanoTime();
+        this.receiver.accept(update.oldValue(), update.newValue());
+        this.subscription.received(event, System.nanoTime() - time);
+      } else {
+        this.receiver.accept(update.oldValue(), update.newValue());
+      }
+    } catch (final Throwable e) {
+      this.subscription.fail(e);
+    }
+  }
+
+  /**
+   * A stored update.
+   *
+   * @param oldValue The old value
+   * @param newValue The new value
+   */
+
+  protected record Update(
+    Object oldValue,
+    Object newValue)
+  {
+
+  }
+
+  /**
+   * A dispatcher that delivers every update.
+   */
+
+  private static final class Ordered extends AttributeDispatcher
+  {
+    private final Queue<Update> queue;
+
+    Ordered(
+      final Executor inExecutor,
+      final AttributeSubscribers.Subscription<?> inSubscription,
+      final BiConsumer<Object, Object> inReceiver)
+    {
+      super(inExecutor, inSubscription, inReceiver);
+      this.queue = new ConcurrentLinkedQueue<>();
+    }
+
+    @Override
+    protected void offer(
+      final Object oldValue,
+      final Object newValue)
+    {
+      this.queue.offer(new Update(oldValue, newValue));
+    }
+
+    @Override
+    protected Update poll()
+    {
+      return this.queue.poll();
+    }
+  }
+
+  /**
+   * A dispatcher that conflates updates into a single pending update.
+   */
+
+  private static final class Conflated extends AttributeDispatcher
+  {
+    private final AtomicReference<Update> slot;
+
+    Conflated(
+      final Executor inExecutor,
+      final AttributeSubscribers.Subscription<?> inSubscription,
+      final BiConsumer<Object, Object> inReceiver)
+    {
+      super(inExecutor, inSubscription, inReceiver);
+      this.slot = new AtomicReference<>();
+    }
+
+    @Override
+    protected void offer(
+      final Object oldValue,
+      final Object newValue)
+    {
+      while (true) {
+        final var existing = this.slot.get();
+        final Update update;
+        if (existing == null) {
+          update = new Update(oldValue, newValue);
+        } else {
+          update = new Update(existing.oldValue(), newValue);
+        }
+        if (this.slot.compareAndSet(existing, update)) {
+          return;
+        }
+      }
+    }
+
+    @Override
+    protected Update poll()
+    {
+      return this.slot.getAndSet(null);
+    }
+  }
+}
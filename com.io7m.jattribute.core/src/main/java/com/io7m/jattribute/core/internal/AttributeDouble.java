@@ -0,0 +1,211 @@
+/*
+ * Copyright © 2026 Mark Raynsford <code@io7m.com> https://www.io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+package com.io7m.jattribute.core.internal;
+
+import com.io7m.jattribute.core.AttributeDoubleType;
+
+import java.util.Objects;
+import java.util.function.DoubleBinaryOperator;
+import java.util.function.DoubleUnaryOperator;
+
+/**
+ * A {@code double} attribute that stores a value in an
+ * {@link AttributePrimitiveCell}.
+ */
+
+public final class AttributeDouble extends AttributeDoubleAbstract
+  implements AttributeDoubleType
+{
+  private final AttributePrimitiveCell cell;
+
+  /**
+   * Construct a new attribute.
+   *
+   * @param inContext The attribute context
+   * @param initial   The initial value
+   */
+
+  public AttributeDouble(
+    final AttributeContext inContext,
+    final double initial)
+  {
+    super(inContext);
+    this.cell =
+      new AttributePrimitiveCell(Double.doubleToRawLongBits(initial));
+  }
+
+  @Override
+  public double get()
+  {
+    return Double.longBitsToDouble(this.cell.bits());
+  }
+
+  @Override
+  long sequence()
+  {
+    return this.cell.sequence();
+  }
+
+  @Override
+  double current()
+  {
+    return this.get();
+  }
+
+  /**
+   * Store a value if the current value is the expected value, increasing
+   * the version of the attribute if the value was stored.
+   *
+   * @param expected The expected value
+   * @param newValue The new value
+   *
+   * @return {@code true} if the value was stored
+   */
+
+  private boolean store(
+    final double expected,
+    final double newValue)
+  {
+    return this.cell.compareAndSet(
+      Double.doubleToRawLongBits(expected),
+      Double.doubleToRawLongBits(newValue)
+    );
+  }
+
+  /**
+   * Replace a value with a new value, and publish the change. A new value
+   * that is identical to the old value is neither stored nor published, and
+   * the suppressed update is reported to the metrics implementation.
+   *
+   * @param oldValue The expected current value
+   * @param newValue The new value
+   *
+   * @return {@code true} if the attribute held the expected value
+   */
+
+  private boolean update(
+    final double oldValue,
+    final double newValue)
+  {
+    if (Double.compare(oldValue, newValue) == 0) {
+      if (Double.compare(this.get(), oldValue) != 0) {
+        return false;
+      }
+      this.suppressed();
+      return true;
+    }
+    if (this.store(oldValue, newValue)) {
+      this.publish(oldValue, newValue);
+      return true;
+    }
+    return false;
+  }
+
+  @Override
+  public double set(
+    final double newValue)
+  {
+    final var event = AttributeEvents.beginSet();
+    while (true) {
+      final var oldValue = this.get();
+      if (this.update(oldValue, newValue)) {
+        this.finish(event);
+        return oldValue;
+      }
+    }
+  }
+
+  @Override
+  public boolean compareAndSet(
+    final double expected,
+    final double newValue)
+  {
+    return this.update(expected, newValue);
+  }
+
+  @Override
+  public double getAndUpdate(
+    final DoubleUnaryOperator f)
+  {
+    Objects.requireNonNull(f, "f");
+
+    while (true) {
+      final var oldValue = this.get();
+      final var newValue = f.applyAsDouble(oldValue);
+      if (this.update(oldValue, newValue)) {
+        return oldValue;
+      }
+    }
+  }
+
+  @Override
+  public double updateAndGet(
+    final DoubleUnaryOperator f)
+  {
+    Objects.requireNonNull(f, "f");
+
+    while (true) {
+      final var oldValue = this.get();
+      final var newValue = f.applyAsDouble(oldValue);
+      if (this.update(oldValue, newValue)) {
+        return newValue;
+      }
+    }
+  }
+
+  @Override
+  public double accumulateAndGet(
+    final double x,
+    final DoubleBinaryOperator f)
+  {
+    Objects.requireNonNull(f, "f");
+
+    while (true) {
+      final var oldValue = this.get();
+      final var newValue = f.applyAsDouble(oldValue, x);
+      if (this.update(oldValue, newValue)) {
+        return newValue;
+      }
+    }
+  }
+
+  @Override
+  public double getAndAdd(
+    final double x)
+  {
+    while (true) {
+      final var oldValue = this.get();
+      final var newValue = oldValue + x;
+      if (this.update(oldValue, newValue)) {
+        return oldValue;
+      }
+    }
+  }
+
+  @Override
+  public double addAndGet(
+    final double x)
+  {
+    while (true) {
+      final var oldValue = this.get();
+      final var newValue = oldValue + x;
+      if (this.update(oldValue, newValue)) {
+        return newValue;
+      }
+    }
+  }
+}
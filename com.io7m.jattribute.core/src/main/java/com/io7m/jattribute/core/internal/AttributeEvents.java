@@ -0,0 +1,284 @@
+/*
+ * Copyright © 2026 Mark Raynsford <code@io7m.com> https://www.io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+package com.io7m.jattribute.core.internal;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Enabled;
+import jdk.jfr.Event;
+import jdk.jfr.EventType;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import jdk.jfr.Threshold;
+
+/**
+ * The Java Flight Recorder events emitted by attributes.
+ *
+ * All events are disabled by default, and are enabled by a recording's
+ * settings (for example, {@code jfr configure} or a custom {@code .jfc}
+ * file). Events that would be created on every update or subscription (see
+ * {@link #beginSet()}, {@link #beginPublish()}, and
+ * {@link #beginSubscribe()}) are not created at all until a recording
+ * enables them, and receiver events are only created whilst receivers are
+ * being timed. Events have thresholds that can likewise be changed by
+ * recording settings; the receiver event is only committed for receivers
+ * that take longer than its threshold.
+ */
+
+final class AttributeEvents
+{
+  private static final EventType SET_TYPE =
+    EventType.getEventType(Set.class);
+  private static final EventType PUBLISH_TYPE =
+    EventType.getEventType(Publish.class);
+  private static final EventType SUBSCRIBE_TYPE =
+    EventType.getEventType(Subscribe.class);
+  private static final EventType RECEIVER_TYPE =
+    EventType.getEventType(Receiver.class);
+
+  private AttributeEvents()
+  {
+
+  }
+
+  /**
+   * @return {@code true} if a recording has enabled receiver events, and so
+   * receivers should be timed
+   */
+
+  static boolean isReceiverEnabled()
+  {
+    return RECEIVER_TYPE.isEnabled();
+  }
+
+  /**
+   * Begin a set event. Set events are created on every update, and so no
+   * event is created unless a recording has enabled them; the update path
+   * does not depend on the JIT compiler to remove the allocation.
+   *
+   * @return A new event, or {@code null} if set events are not enabled
+   */
+
+  static Set beginSet()
+  {
+    if (!SET_TYPE.isEnabled()) {
+      return null;
+    }
+    final var event = new Set();
+    event.begin();
+    return event;
+  }
+
+  /**
+   * Begin a publish event, in the same way as {@link #beginSet()}.
+   *
+   * @return A new event, or {@code null} if publish events are not enabled
+   */
+
+  static Publish beginPublish()
+  {
+    if (!PUBLISH_TYPE.isEnabled()) {
+      return null;
+    }
+    final var event = new Publish();
+    event.begin();
+    return event;
+  }
+
+  /**
+   * Begin a subscribe event, in the same way as {@link #beginSet()}.
+   *
+   * @return A new event, or {@code null} if subscribe events are not enabled
+   */
+
+  static Subscribe beginSubscribe()
+  {
+    if (!SUBSCRIBE_TYPE.isEnabled()) {
+      return null;
+    }
+    final var event = new Subscribe();
+    event.begin();
+    return event;
+  }
+
+  /**
+   * Produce a string that identifies an object for the lifetime of a
+   * recording.
+   *
+   * @param object The object
+   *
+   * @return The object's class name and identity hash code
+   */
+
+  static String identity(
+    final Object object)
+  {
+    return String.format(
+      "%s@%08x",
+      object.getClass().getName(),
+      Integer.valueOf(System.identityHashCode(object))
+    );
+  }
+
+  /**
+   * A value was set on an attribute. The duration includes the propagation
+   * of the value to subscribers and derived attributes.
+   */
+
+  @Name("com.io7m.jattribute.Set")
+  @Label("Attribute Set")
+  @Description("A value was set on an attribute.")
+  @Category({"jattribute"})
+  @Enabled(false)
+  @StackTrace(false)
+  @Threshold("0 ms")
+  static final class Set extends Event
+  {
+    @Label("Attribute")
+    private String attribute;
+
+    @Label("Subscribers")
+    private int subscribers;
+
+    Set()
+    {
+
+    }
+
+    void finish(
+      final AttributeSubscribers<?> owner)
+    {
+      this.end();
+      if (this.shouldCommit()) {
+        this.attribute = identity(owner.attribute());
+        this.subscribers = owner.size();
+        this.commit();
+      }
+    }
+  }
+
+  /**
+   * An attribute published a value to its subscribers. The duration is the
+   * time taken to deliver the value to every subscriber.
+   */
+
+  @Name("com.io7m.jattribute.Publish")
+  @Label("Attribute Publish")
+  @Description("An attribute published a value to its subscribers.")
+  @Category({"jattribute"})
+  @Enabled(false)
+  @StackTrace(false)
+  @Threshold("0 ms")
+  static final class Publish extends Event
+  {
+    @Label("Attribute")
+    private String attribute;
+
+    @Label("Subscribers")
+    private int subscribers;
+
+    Publish()
+    {
+
+    }
+
+    void finish(
+      final AttributeSubscribers<?> owner)
+    {
+      this.end();
+      if (this.shouldCommit()) {
+        this.attribute = identity(owner.attribute());
+        this.subscribers = owner.size();
+        this.commit();
+      }
+    }
+  }
+
+  /**
+   * A subscription to an attribute was opened.
+   */
+
+  @Name("com.io7m.jattribute.Subscribe")
+  @Label("Attribute Subscribe")
+  @Description("A subscription to an attribute was opened.")
+  @Category({"jattribute"})
+  @Enabled(false)
+  @StackTrace(false)
+  static final class Subscribe extends Event
+  {
+    @Label("Attribute")
+    private String attribute;
+
+    @Label("Subscribers")
+    private int subscribers;
+
+    Subscribe()
+    {
+
+    }
+
+    void finish(
+      final AttributeSubscribers<?> owner,
+      final int count)
+    {
+      this.end();
+      if (this.shouldCommit()) {
+        this.attribute = identity(owner.attribute());
+        this.subscribers = count;
+        this.commit();
+      }
+    }
+  }
+
+  /**
+   * A receiver took longer than the threshold to receive a value.
+   */
+
+  @Name("com.io7m.jattribute.Receiver")
+  @Label("Slow Attribute Receiver")
+  @Description("A receiver took longer than the threshold to receive a value.")
+  @Category({"jattribute"})
+  @Enabled(false)
+  @StackTrace(false)
+  @Threshold("1 ms")
+  static final class Receiver extends Event
+  {
+    @Label("Attribute")
+    private String attribute;
+
+    @Label("Receiver")
+    private String receiver;
+
+    Receiver()
+    {
+
+    }
+
+    void finish(
+      final AttributeSubscribers<?> owner,
+      final Object inReceiver)
+    {
+      this.end();
+      if (this.shouldCommit()) {
+        this.attribute = identity(owner.attribute());
+        this.receiver = identity(inReceiver);
+        this.commit();
+      }
+    }
+  }
+}
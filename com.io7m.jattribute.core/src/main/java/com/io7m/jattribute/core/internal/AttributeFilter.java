@@ -0,0 +1,239 @@
+/*
+ * Copyright © 2026 Mark Raynsford <code@io7m.com> https://www.io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+package com.io7m.jattribute.core.internal;
+
+import com.io7m.jattribute.core.AttributeReadableType;
+import com.io7m.jattribute.core.AttributeSubscriptionType;
+import com.io7m.jattribute.core.AttributeType;
+
+import java.util.Objects;
+import java.util.function.Function;
+import java.util.function.Predicate;
+
+/**
+ * An attribute that holds the most recent value of a source attribute that
+ * passed a predicate.
+ *
+ * The attribute is only subscribed to its source whilst it has subscribers
+ * of its own (see {@link AttributeLink}). Whilst subscribed, each value
+ * published by the source is tested once; values that fail the predicate
+ * are dropped here, and so cost nothing further downstream, and the version
+ * of the attribute advances only when a value is stored.
+ *
+ * Whilst unsubscribed, reading the attribute has no side effects: the
+ * current value of the source is tested, and is returned if it passes;
+ * otherwise, the value held when the attribute was last subscribed is
+ * returned. The version of an unsubscribed attribute is the version of its
+ * source, in the same way as for {@link AttributeMap}. The attribute
+ * initially holds the value of the source at the time the attribute was
+ * created, whether or not that value passes the predicate.
+ *
+ * @param <A> The type of values
+ */
+
+final class AttributeFilter<A>
+  extends AttributeAbstract<A>
+{
+  private final AttributeAbstract<A> source;
+  private final Predicate<? super A> predicate;
+  private final AttributeSequence sequence;
+  private final AttributeLink<AttributeFilter<A>> link;
+  private volatile A value;
+
+  /**
+   * Construct an attribute.
+   *
+   * @param inContext   The attribute context
+   * @param inSource    The source attribute
+   * @param inPredicate The predicate
+   */
+
+  AttributeFilter(
+    final AttributeContext inContext,
+    final AttributeAbstract<A> inSource,
+    final Predicate<? super A> inPredicate)
+  {
+    super(inContext, inSource.height() + 1);
+
+    this.source =
+      Objects.requireNonNull(inSource, "source");
+    this.predicate =
+      Objects.requireNonNull(inPredicate, "predicate");
+    this.sequence =
+      new AttributeSequence();
+    this.value =
+      inSource.get();
+    this.link =
+      new AttributeLink<>(inContext, this, AttributeFilter::connect);
+  }
+
+  private static <A> AttributeSubscriptionType connect(
+    final AttributeLink.Connection<AttributeFilter<A>> connection)
+  {
+    final var target = connection.target();
+    return target.source.subscribeExpirable(
+      (oldValue, newValue) -> {
+        final var filter = connection.target();
+        if (filter != null) {
+          filter.onSourceChanged(connection, newValue);
+        }
+      },
+      connection
+    );
+  }
+
+  @Override
+  protected void onSubscriptionOpened()
+  {
+    this.link.acquire();
+  }
+
+  @Override
+  protected void onSubscriptionClosed()
+  {
+    this.link.release();
+  }
+
+  private void onSourceChanged(
+    final AttributeLink.Connection<AttributeFilter<A>> connection,
+    final A newValue)
+  {
+    final var passed = this.predicate.test(newValue);
+
+    /*
+     * The initial value delivered by the source upon subscription is
+     * stored without being published; the new subscriber receives it
+     * when its own subscription completes.
+     */
+
+    if (!connection.isInitialized()) {
+      if (passed) {
+        this.store(newValue);
+      }
+      connection.initialize();
+      return;
+    }
+
+    if (!passed) {
+      return;
+    }
+
+    final var oldValue = this.store(newValue);
+    if (oldValue != newValue) {
+      this.publish(oldValue, newValue);
+    }
+  }
+
+  /**
+   * Store a value that passed the predicate, unless it is equivalent to the
+   * value already held. The equivalence is evaluated outside the write
+   * section, and the store is retried if another store completed in the
+   * meantime.
+   *
+   * @param newValue The new value
+   *
+   * @return The previous value, or {@code newValue} if nothing was stored
+   */
+
+  private A store(
+    final A newValue)
+  {
+    while (true) {
+      final var oldValue = this.value;
+      if (oldValue == newValue || this.isEquivalent(oldValue, newValue)) {
+        return newValue;
+      }
+
+      final var start = this.sequence.beginWrite();
+      final var stored = this.value == oldValue;
+      if (stored) {
+        this.value = newValue;
+      }
+      this.sequence.endWrite(start, stored);
+      if (stored) {
+        return oldValue;
+      }
+    }
+  }
+
+  /**
+   * Test a value pulled from the source whilst unsubscribed. Nothing is
+   * stored.
+   *
+   * @param sourceValue The source value
+   *
+   * @return The current value
+   */
+
+  private A pull(
+    final A sourceValue)
+  {
+    if (this.predicate.test(sourceValue)) {
+      return sourceValue;
+    }
+    return this.value;
+  }
+
+  @Override
+  public A get()
+  {
+    if (this.link.isCached()) {
+      return this.value;
+    }
+    return this.pull(this.source.get());
+  }
+
+  @Override
+  long sequence()
+  {
+    if (this.link.isConnected()) {
+      return this.sequence.get();
+    }
+    return this.source.sequence();
+  }
+
+  @Override
+  A current()
+  {
+    if (this.link.isConnected()) {
+      return this.value;
+    }
+    return this.pull(this.source.current());
+  }
+
+  @Override
+  public <B> AttributeReadableType<B> mapR(
+    final Function<A, B> f)
+  {
+    return new AttributeMap<>(this.context(), this, f);
+  }
+
+  @Override
+  protected boolean compareAndStore(
+    final A expected,
+    final A newValue)
+  {
+    return true;
+  }
+
+  @Override
+  public <B> AttributeType<B> map(
+    final Function<A, B> f)
+  {
+    return new AttributeMap<>(this.context(), this, f);
+  }
+}
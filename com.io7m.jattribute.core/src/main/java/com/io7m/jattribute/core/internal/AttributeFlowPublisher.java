@@ -0,0 +1,303 @@
+/*
+ * Copyright © 2026 Mark Raynsford <code@io7m.com> https://www.io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+package com.io7m.jattribute.core.internal;
+
+import com.io7m.jattribute.core.AttributeOverflowStrategy;
+import com.io7m.jattribute.core.AttributeReadableType;
+import com.io7m.jattribute.core.AttributeSubscriptionType;
+
+import java.util.ArrayDeque;
+import java.util.Objects;
+import java.util.concurrent.Flow;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * A {@link Flow.Publisher} that publishes the values of an attribute.
+ *
+ * Each subscriber is given its own subscription to the attribute. The
+ * current value and every subsequent value of the attribute are offered to
+ * a per-subscriber buffer according to the overflow strategy, and values
+ * are taken from the buffer and passed to the subscriber only whilst the
+ * subscriber has outstanding demand. Signals to a subscriber are serialized
+ * by a drain loop that is entered either by the thread that published a
+ * value or by the thread that requested more values, and so no executor is
+ * required.
+ *
+ * @param <A> The type of values
+ */
+
+public final class AttributeFlowPublisher<A>
+  implements Flow.Publisher<A>
+{
+  private final AttributeContext context;
+  private final AttributeReadableType<A> attribute;
+  private final AttributeOverflowStrategy strategy;
+  private final int capacity;
+
+  /**
+   * Construct a publisher.
+   *
+   * @param inContext   The attribute context
+   * @param inAttribute The attribute
+   * @param inStrategy  The overflow strategy
+   * @param inCapacity  The buffer capacity used by
+   *                    {@link AttributeOverflowStrategy#BUFFER}
+   *
+   * @throws IllegalArgumentException If the capacity is not positive
+   */
+
+  public AttributeFlowPublisher(
+    final AttributeContext inContext,
+    final AttributeReadableType<A> inAttribute,
+    final AttributeOverflowStrategy inStrategy,
+    final int inCapacity)
+    throws IllegalArgumentException
+  {
+    this.context =
+      Objects.requireNonNull(inContext, "context");
+    this.attribute =
+      Objects.requireNonNull(inAttribute, "attribute");
+    this.strategy =
+      Objects.requireNonNull(inStrategy, "strategy");
+
+    if (inCapacity < 1) {
+      throw new IllegalArgumentException(
+        String.format("Capacity %d must be positive", inCapacity)
+      );
+    }
+    this.capacity = inCapacity;
+  }
+
+  @Override
+  public void subscribe(
+    final Flow.Subscriber<? super A> subscriber)
+  {
+    Objects.requireNonNull(subscriber, "subscriber");
+
+    final var subscription = new Subscription<A>(this, subscriber);
+    try {
+      subscriber.onSubscribe(subscription);
+    } catch (final Throwable e) {
+      subscription.cancel();
+      this.report(e);
+      return;
+    }
+    subscription.start();
+  }
+
+  private void report(
+    final Throwable e)
+  {
+    try {
+      this.context.errorConsumer().accept(e);
+    } catch (final Throwable ignored) {
+      // Nothing we can do.
+    }
+  }
+
+  /**
+   * The subscription of a single subscriber.
+   *
+   * @param <A> The type of values
+   */
+
+  private static final class Subscription<A>
+    implements Flow.Subscription
+  {
+    private final AttributeFlowPublisher<A> publisher;
+    private final Flow.Subscriber<? super A> subscriber;
+    private final ArrayDeque<A> buffer;
+    private final AtomicInteger work;
+    private long requested;
+    private Throwable error;
+    private boolean cancelled;
+    private boolean terminated;
+    private AttributeSubscriptionType source;
+
+    Subscription(
+      final AttributeFlowPublisher<A> inPublisher,
+      final Flow.Subscriber<? super A> inSubscriber)
+    {
+      this.publisher =
+        inPublisher;
+      this.subscriber =
+        inSubscriber;
+      this.buffer =
+        new ArrayDeque<>();
+      this.work =
+        new AtomicInteger(0);
+    }
+
+    void start()
+    {
+      final var subscription =
+        this.publisher.attribute.subscribe((oldValue, newValue) -> {
+          this.offer(newValue);
+        });
+
+      final boolean close;
+      synchronized (this.buffer) {
+        this.source = subscription;
+        close = this.cancelled || this.error != null;
+      }
+      if (close) {
+        subscription.close();
+      }
+    }
+
+    private void offer(
+      final A value)
+    {
+      synchronized (this.buffer) {
+        if (this.cancelled || this.error != null) {
+          return;
+        }
+
+        switch (this.publisher.strategy) {
+          case CONFLATE -> {
+            this.buffer.clear();
+            this.buffer.add(value);
+          }
+          case DROP -> {
+            if (this.requested > this.buffer.size()) {
+              this.buffer.add(value);
+            }
+          }
+          case BUFFER -> {
+            if (this.buffer.size() < this.publisher.capacity) {
+              this.buffer.add(value);
+            } else {
+              this.buffer.clear();
+              this.error = new IllegalStateException(
+                String.format(
+                  "Buffer overflow: the subscriber did not request values quickly enough (capacity %d)",
+                  Integer.valueOf(this.publisher.capacity)
+                )
+              );
+            }
+          }
+        }
+      }
+      this.drain();
+    }
+
+    @Override
+    public void request(
+      final long n)
+    {
+      synchronized (this.buffer) {
+        if (this.cancelled) {
+          return;
+        }
+        if (n <= 0L) {
+          this.buffer.clear();
+          this.error = new IllegalArgumentException(
+            String.format("Requested %d values; must be positive", Long.valueOf(n))
+          );
+        } else {
+          final var sum = this.requested + n;
+          if (sum < 0L) {
+            this.requested = Long.MAX_VALUE;
+          } else {
+            this.requested = sum;
+          }
+        }
+      }
+      this.drain();
+    }
+
+    @Override
+    public void cancel()
+    {
+      final AttributeSubscriptionType subscription;
+      synchronized (this.buffer) {
+        this.cancelled = true;
+        this.buffer.clear();
+        subscription = this.source;
+      }
+      if (subscription != null) {
+        subscription.close();
+      }
+    }
+
+    private void drain()
+    {
+      if (this.work.getAndIncrement() != 0) {
+        return;
+      }
+
+      int missed = 1;
+      while (true) {
+        this.drainOnce();
+        missed = this.work.addAndGet(-missed);
+        if (missed == 0) {
+          return;
+        }
+      }
+    }
+
+    private void drainOnce()
+    {
+      while (true) {
+        final A value;
+        final Throwable failure;
+        synchronized (this.buffer) {
+          if (this.cancelled || this.terminated) {
+            return;
+          }
+
+          failure = this.error;
+          if (failure != null) {
+            this.terminated = true;
+            value = null;
+          } else if (this.requested > 0L && !this.buffer.isEmpty()) {
+            value = this.buffer.poll();
+            if (this.requested != Long.MAX_VALUE) {
+              --this.requested;
+            }
+          } else {
+            return;
+          }
+        }
+
+        if (failure != null) {
+          this.fail(failure);
+          return;
+        }
+
+        try {
+          this.subscriber.onNext(value);
+        } catch (final Throwable e) {
+          this.cancel();
+          this.publisher.report(e);
+          return;
+        }
+      }
+    }
+
+    private void fail(
+      final Throwable failure)
+    {
+      this.cancel();
+      try {
+        this.subscriber.onError(failure);
+      } catch (final Throwable e) {
+        this.publisher.report(e);
+      }
+    }
+  }
+}
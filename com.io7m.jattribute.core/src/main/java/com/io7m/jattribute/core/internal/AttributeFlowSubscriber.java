@@ -0,0 +1,132 @@
+/*
+ * Copyright © 2026 Mark Raynsford <code@io7m.com> https://www.io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+package com.io7m.jattribute.core.internal;
+
+import com.io7m.jattribute.core.AttributeFlowSubscriberType;
+import com.io7m.jattribute.core.AttributeType;
+
+import java.util.Objects;
+import java.util.concurrent.Flow;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * A {@link Flow.Subscriber} that sets the value of an attribute to each item
+ * that it receives, requesting one item at a time.
+ *
+ * @param <A> The type of values
+ */
+
+public final class AttributeFlowSubscriber<A>
+  implements AttributeFlowSubscriberType<A>
+{
+  private final AttributeContext context;
+  private final AttributeType<A> target;
+  private final AtomicReference<Flow.Subscription> subscription;
+  private final AtomicBoolean closed;
+
+  /**
+   * Construct a subscriber.
+   *
+   * @param inContext The attribute context
+   * @param inTarget  The attribute that will receive values
+   */
+
+  public AttributeFlowSubscriber(
+    final AttributeContext inContext,
+    final AttributeType<A> inTarget)
+  {
+    this.context =
+      Objects.requireNonNull(inContext, "context");
+    this.target =
+      Objects.requireNonNull(inTarget, "target");
+    this.subscription =
+      new AtomicReference<>();
+    this.closed =
+      new AtomicBoolean(false);
+  }
+
+  @Override
+  public void onSubscribe(
+    final Flow.Subscription newSubscription)
+  {
+    Objects.requireNonNull(newSubscription, "subscription");
+
+    if (this.closed.get()
+        || !this.subscription.compareAndSet(null, newSubscription)) {
+      newSubscription.cancel();
+      return;
+    }
+    newSubscription.request(1L);
+  }
+
+  @Override
+  public void onNext(
+    final A item)
+  {
+    Objects.requireNonNull(item, "item");
+
+    if (this.closed.get()) {
+      return;
+    }
+
+    this.target.set(item);
+
+    final var current = this.subscription.get();
+    if (current != null && !this.closed.get()) {
+      current.request(1L);
+    }
+  }
+
+  @Override
+  public void onError(
+    final Throwable throwable)
+  {
+    Objects.requireNonNull(throwable, "throwable");
+
+    this.closed.set(true);
+    try {
+      this.context.errorConsumer().accept(throwable);
+    } catch (final Throwable ignored) {
+      // Nothing we can do.
+    }
+  }
+
+  @Override
+  public void onComplete()
+  {
+    this.closed.set(true);
+  }
+
+  @Override
+  public void close()
+    throws RuntimeException
+  {
+    if (this.closed.compareAndSet(false, true)) {
+      final var current = this.subscription.get();
+      if (current != null) {
+        current.cancel();
+      }
+    }
+  }
+
+  @Override
+  public boolean isClosed()
+  {
+    return this.closed.get();
+  }
+}
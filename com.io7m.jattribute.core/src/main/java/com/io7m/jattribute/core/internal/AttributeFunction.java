@@ -16,11 +16,11 @@
 
 package com.io7m.jattribute.core.internal;
 
+import com.io7m.jattribute.core.AttributeEquivalenceType;
 import com.io7m.jattribute.core.AttributeReadableType;
 import com.io7m.jattribute.core.AttributeType;
 
 import java.util.Objects;
-import java.util.function.Consumer;
 import java.util.function.Function;
 import java.util.function.Supplier;
 
@@ -34,22 +34,27 @@ import java.util.function.Supplier;
 public final class AttributeFunction<A> extends AttributeAbstract<A>
 {
   private final Supplier<A> value;
+  private final AttributeSequence sequence;
 
   /**
    * Construct a new attribute.
    *
-   * @param inErrorConsumer The error consumer
-   * @param supplier        The supplier function
+   * @param inContext     The attribute context
+   * @param inEquivalence The equivalence used to suppress updates
+   * @param supplier      The supplier function
    */
 
   public AttributeFunction(
-    final Consumer<Throwable> inErrorConsumer,
+    final AttributeContext inContext,
+    final AttributeEquivalenceType<? super A> inEquivalence,
     final Supplier<A> supplier)
   {
-    super(inErrorConsumer);
+    super(inContext, inEquivalence);
 
     this.value =
       Objects.requireNonNull(supplier, "initial");
+    this.sequence =
+      new AttributeSequence();
   }
 
   @Override
@@ -58,23 +63,39 @@ public final class AttributeFunction<A> extends AttributeAbstract<A>
     return this.value.get();
   }
 
+  @Override
+  long sequence()
+  {
+    return this.sequence.get();
+  }
+
+  @Override
+  A current()
+  {
+    return this.value.get();
+  }
+
   @Override
   public <B> AttributeReadableType<B> mapR(
     final Function<A, B> f)
   {
-    return new AttributeMap<>(this.errors(), this, f);
+    return new AttributeMap<>(this.context(), this, f);
   }
 
   @Override
-  protected void store(final A a)
+  protected boolean compareAndStore(
+    final A expected,
+    final A newValue)
   {
-
+    final var start = this.sequence.beginWrite();
+    this.sequence.endWrite(start, true);
+    return true;
   }
 
   @Override
   public <B> AttributeType<B> map(
     final Function<A, B> f)
   {
-    return new AttributeMap<>(this.errors(), this, f);
+    return new AttributeMap<>(this.context(), this, f);
   }
 }
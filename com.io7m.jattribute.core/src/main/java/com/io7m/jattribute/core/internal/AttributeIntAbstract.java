@@ -0,0 +1,208 @@
+/*
+ * Copyright © 2026 Mark Raynsford <code@io7m.com> https://www.io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+package com.io7m.jattribute.core.internal;
+
+import com.io7m.jattribute.core.AttributeDoubleReadableType;
+import com.io7m.jattribute.core.AttributeIntReadableType;
+import com.io7m.jattribute.core.AttributeIntReceiverType;
+import com.io7m.jattribute.core.AttributeLongReadableType;
+import com.io7m.jattribute.core.AttributeReadableType;
+
+import java.util.Objects;
+import java.util.function.IntFunction;
+import java.util.function.IntToDoubleFunction;
+import java.util.function.IntToLongFunction;
+import java.util.function.IntUnaryOperator;
+
+/**
+ * An abstract base {@code int} attribute. Subscriptions and publication
+ * are implemented by {@link AttributePrimitiveAbstract}.
+ */
+
+abstract class AttributeIntAbstract
+  extends AttributePrimitiveAbstract<AttributeIntReceiverType, Integer>
+  implements AttributeIntReadableType
+{
+  protected AttributeIntAbstract(
+    final AttributeContext inContext)
+  {
+    this(inContext, 0);
+  }
+
+  protected AttributeIntAbstract(
+    final AttributeContext inContext,
+    final int inHeight)
+  {
+    super(inContext, inHeight, Delivery.INSTANCE);
+  }
+
+  /**
+   * @return The current value, computed from the attribute's sources if the
+   * attribute is derived from other attributes (rather than taken from any
+   * cached value), so that it is consistent with {@link #sequence()}
+   */
+
+  abstract int current();
+
+  @Override
+  final long getBits()
+  {
+    return this.get();
+  }
+
+  @Override
+  final long currentBits()
+  {
+    return this.current();
+  }
+
+  /**
+   * Publish a value change to subscribers. If the current thread has an
+   * open transaction, the change is recorded and published when the
+   * transaction closes.
+   *
+   * @param oldValue The old value
+   * @param newValue The new value
+   */
+
+  protected final void publish(
+    final int oldValue,
+    final int newValue)
+  {
+    this.publishBits(oldValue, newValue);
+  }
+
+  @Override
+  public final AttributeIntReadableType mapToInt(
+    final IntUnaryOperator f)
+  {
+    Objects.requireNonNull(f, "f");
+    return new AttributeIntDerived(
+      this.context(),
+      this.height() + 1,
+      this::sequence,
+      () -> f.applyAsInt(this.current()),
+      connection -> this.subscribeExpirable(
+        (oldValue, newValue) -> {
+          AttributeIntDerived.receive(connection, f.applyAsInt(newValue));
+        },
+        connection
+      )
+    );
+  }
+
+  @Override
+  public final AttributeLongReadableType mapToLong(
+    final IntToLongFunction f)
+  {
+    Objects.requireNonNull(f, "f");
+    return new AttributeLongDerived(
+      this.context(),
+      this.height() + 1,
+      this::sequence,
+      () -> f.applyAsLong(this.current()),
+      connection -> this.subscribeExpirable(
+        (oldValue, newValue) -> {
+          AttributeLongDerived.receive(connection, f.applyAsLong(newValue));
+        },
+        connection
+      )
+    );
+  }
+
+  @Override
+  public final AttributeDoubleReadableType mapToDouble(
+    final IntToDoubleFunction f)
+  {
+    Objects.requireNonNull(f, "f");
+    return new AttributeDoubleDerived(
+      this.context(),
+      this.height() + 1,
+      this::sequence,
+      () -> f.applyAsDouble(this.current()),
+      connection -> this.subscribeExpirable(
+        (oldValue, newValue) -> {
+          AttributeDoubleDerived.receive(connection, f.applyAsDouble(newValue));
+        },
+        connection
+      )
+    );
+  }
+
+  @Override
+  public final <B> AttributeReadableType<B> mapToObj(
+    final IntFunction<B> f)
+  {
+    Objects.requireNonNull(f, "f");
+    return new AttributeDerived<B>(
+      this.context(),
+      this.height() + 1,
+      this::sequence,
+      () -> f.apply(this.current()),
+      connection -> this.subscribeExpirable(
+        (oldValue, newValue) -> {
+          AttributeDerived.receive(connection, f.apply(newValue));
+        },
+        connection
+      )
+    );
+  }
+
+  @Override
+  public final AttributeReadableType<Integer> boxed()
+  {
+    return this.mapToObj(Integer::valueOf);
+  }
+
+  /**
+   * The function that passes int values to receivers.
+   */
+
+  private static final class Delivery
+    implements AttributeSubscribers.PrimitiveDeliveryType<AttributeIntReceiverType>
+  {
+    private static final Delivery INSTANCE = new Delivery();
+
+    private Delivery()
+    {
+
+    }
+
+    @Override
+    public void receive(
+      final AttributeIntReceiverType receiver,
+      final long oldBits,
+      final long newBits)
+    {
+      receiver.receive((int) oldBits, (int) newBits);
+    }
+
+    @Override
+    public Object box(
+      final long bits)
+    {
+      return Integer.valueOf((int) bits);
+    }
+
+    @Override
+    public long unbox(
+      final Object value)
+    {
+      return ((Integer) value).intValue();
+    }
+  }
+}
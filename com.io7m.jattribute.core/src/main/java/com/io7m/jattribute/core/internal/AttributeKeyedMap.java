@@ -0,0 +1,348 @@
+/*
+ * Copyright © 2026 Mark Raynsford <code@io7m.com> https://www.io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+package com.io7m.jattribute.core.internal;
+
+import com.io7m.jattribute.core.AttributeDeliveryMode;
+import com.io7m.jattribute.core.AttributeKeyedMapType;
+import com.io7m.jattribute.core.AttributeReceiverType;
+import com.io7m.jattribute.core.AttributeSubscriptionType;
+
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.function.BiConsumer;
+
+/**
+ * A concurrent map with per-key subscriptions.
+ *
+ * Values are held in one concurrent map, and the subscribers of each
+ * observed key are held in a second concurrent map of entries. An update
+ * stores the new value and then looks up the key's entry; if there is no
+ * entry, nothing is published. Each entry counts the subscriptions that are
+ * open (or are being opened) on it, and the count is only ever changed
+ * inside a {@link ConcurrentHashMap#compute} call for the entry's key, so an
+ * entry is removed exactly when its last subscription is closed, and a new
+ * subscription can never be added to an entry that has been removed.
+ *
+ * An update stores its value before looking for an entry, and a new
+ * subscription registers its entry before reading the current value, so a
+ * subscriber always observes either the update or a current value that
+ * includes it. Each entry publishes in the same way as an ordinary
+ * attribute (see {@link AttributeAbstract}), including deferral inside
+ * transactions.
+ *
+ * @param <K> The type of keys
+ * @param <V> The type of values
+ */
+
+public final class AttributeKeyedMap<K, V>
+  implements AttributeKeyedMapType<K, V>
+{
+  private final AttributeContext context;
+  private final ConcurrentHashMap<K, V> values;
+  private final ConcurrentHashMap<K, Entry> entries;
+
+  /**
+   * Construct a keyed map.
+   *
+   * @param inContext The attribute context
+   * @param initial   The initial entries
+   */
+
+  public AttributeKeyedMap(
+    final AttributeContext inContext,
+    final Map<? extends K, ? extends V> initial)
+  {
+    this.context =
+      Objects.requireNonNull(inContext, "context");
+    this.values =
+      new ConcurrentHashMap<>(initial);
+    this.entries =
+      new ConcurrentHashMap<>();
+  }
+
+  @SuppressWarnings("unchecked")
+  private static <V> BiConsumer<Object, Object> delivery(
+    final AttributeReceiverType<Optional<V>> receiver)
+  {
+    return (oldValue, newValue) -> {
+      receiver.receive((Optional<V>) oldValue, (Optional<V>) newValue);
+    };
+  }
+
+  @Override
+  public Optional<V> get(
+    final K key)
+  {
+    Objects.requireNonNull(key, "key");
+    return Optional.ofNullable(this.values.get(key));
+  }
+
+  @Override
+  public boolean containsKey(
+    final K key)
+  {
+    Objects.requireNonNull(key, "key");
+    return this.values.containsKey(key);
+  }
+
+  @Override
+  public int size()
+  {
+    return this.values.size();
+  }
+
+  @Override
+  public int subscribedKeys()
+  {
+    return this.entries.size();
+  }
+
+  @Override
+  public Optional<V> put(
+    final K key,
+    final V value)
+  {
+    Objects.requireNonNull(key, "key");
+    Objects.requireNonNull(value, "value");
+
+    while (true) {
+      final var oldValue = this.values.get(key);
+      if (oldValue == null) {
+        if (this.values.putIfAbsent(key, value) == null) {
+          this.publish(key, null, value);
+          return Optional.empty();
+        }
+        continue;
+      }
+      if (this.context.equivalence().isEquivalent(oldValue, value)) {
+        final var entry = this.entries.get(key);
+        if (entry != null) {
+          entry.subscribers.suppressed();
+        }
+        return Optional.of(oldValue);
+      }
+      if (this.values.replace(key, oldValue, value)) {
+        this.publish(key, oldValue, value);
+        return Optional.of(oldValue);
+      }
+    }
+  }
+
+  @Override
+  public Optional<V> remove(
+    final K key)
+  {
+    Objects.requireNonNull(key, "key");
+
+    final var oldValue = this.values.remove(key);
+    if (oldValue != null) {
+      this.publish(key, oldValue, null);
+    }
+    return Optional.ofNullable(oldValue);
+  }
+
+  private void publish(
+    final K key,
+    final V oldValue,
+    final V newValue)
+  {
+    final var entry = this.entries.get(key);
+    if (entry == null) {
+      return;
+    }
+    entry.publish(Optional.ofNullable(oldValue), Optional.ofNullable(newValue));
+  }
+
+  @Override
+  public AttributeSubscriptionType subscribe(
+    final K key,
+    final AttributeReceiverType<Optional<V>> receiver)
+  {
+    final var executor = this.context.executor();
+    if (executor.isPresent()) {
+      return this.subscribe(key, executor.get(), receiver);
+    }
+
+    Objects.requireNonNull(key, "key");
+    Objects.requireNonNull(receiver, "receiver");
+
+    final var entry = this.acquire(key);
+    final var subscription =
+      entry.subscribers.add(receiver, null);
+    final var current =
+      this.get(key);
+
+    try {
+      receiver.receive(current, current);
+    } catch (final Throwable e) {
+      entry.subscribers.fail(subscription, e);
+    }
+    return subscription;
+  }
+
+  @Override
+  public AttributeSubscriptionType subscribe(
+    final K key,
+    final Executor executor,
+    final AttributeReceiverType<Optional<V>> receiver)
+  {
+    Objects.requireNonNull(key, "key");
+    Objects.requireNonNull(executor, "executor");
+    Objects.requireNonNull(receiver, "receiver");
+
+    final var entry = this.acquire(key);
+    final var subscription =
+      entry.subscribers.addAsynchronous(
+        receiver,
+        executor,
+        AttributeDeliveryMode.ORDERED,
+        delivery(receiver)
+      );
+    final var current =
+      this.get(key);
+
+    subscription.dispatcher().dispatch(current, current);
+    return subscription;
+  }
+
+  /**
+   * Find or create the entry for a key, and count a new subscription on it.
+   * The subscription must eventually be closed, which calls
+   * {@link #release(Object)}.
+   */
+
+  private Entry acquire(
+    final K key)
+  {
+    return this.entries.compute(key, (k, existing) -> {
+      final var entry = existing != null ? existing : new Entry(k);
+      ++entry.references;
+      return entry;
+    });
+  }
+
+  private void release(
+    final K key)
+  {
+    this.entries.computeIfPresent(key, (k, existing) -> {
+      --existing.references;
+      return existing.references == 0 ? null : existing;
+    });
+  }
+
+  /**
+   * The subscribers of a single key.
+   */
+
+  private final class Entry implements AttributePublisherType
+  {
+    private final K key;
+    private final AttributeSubscribers<AttributeReceiverType<Optional<V>>> subscribers;
+
+    /**
+     * The number of subscriptions that are open or being opened. Accessed
+     * only inside a compute operation for the key.
+     */
+
+    private int references;
+
+    Entry(
+      final K inKey)
+    {
+      this.key =
+        Objects.requireNonNull(inKey, "key");
+      this.subscribers =
+        new AttributeSubscribers<>(
+          AttributeKeyedMap.this.context,
+          this,
+          AttributeKeyedMap::delivery,
+          () -> { },
+          () -> AttributeKeyedMap.this.release(this.key)
+        );
+    }
+
+    void publish(
+      final Optional<V> oldValue,
+      final Optional<V> newValue)
+    {
+      this.subscribers.updated();
+
+      final var propagation = AttributeKeyedMap.this.context.propagation();
+      if (propagation.isDeferring()) {
+        propagation.defer(this, oldValue, newValue);
+        return;
+      }
+      this.publishNow(oldValue, newValue);
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public void publishDeferred(
+      final Object oldValue,
+      final Object newValue)
+    {
+      final var oldCast = (Optional<V>) oldValue;
+      final var newCast = (Optional<V>) newValue;
+      if (oldCast.isPresent() && newCast.isPresent()) {
+        final var equivalence = AttributeKeyedMap.this.context.equivalence();
+        if (equivalence.isEquivalent(oldCast.get(), newCast.get())) {
+          this.subscribers.suppressed();
+          return;
+        }
+      } else if (oldCast.isEmpty() && newCast.isEmpty()) {
+        this.subscribers.suppressed();
+        return;
+      }
+      this.publishNow(oldCast, newCast);
+    }
+
+    private void publishNow(
+      final Optional<V> oldValue,
+      final Optional<V> newValue)
+    {
+      final var propagation = AttributeKeyedMap.this.context.propagation();
+      if (!propagation.isScheduling()) {
+        this.deliver(oldValue, newValue);
+        return;
+      }
+
+      final var wave = propagation.enter();
+      try {
+        this.deliver(oldValue, newValue);
+      } finally {
+        wave.exit();
+      }
+    }
+
+    @SuppressWarnings("unchecked")
+    private void deliver(
+      final Optional<V> oldValue,
+      final Optional<V> newValue)
+    {
+      this.subscribers.deliver(
+        oldValue,
+        newValue,
+        (receiver, o, n) -> {
+          receiver.receive((Optional<V>) o, (Optional<V>) n);
+        }
+      );
+    }
+  }
+}
@@ -0,0 +1,210 @@
+/*
+ * Copyright © 2026 Mark Raynsford <code@io7m.com> https://www.io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+package com.io7m.jattribute.core.internal;
+
+import com.io7m.jattribute.core.AttributeSubscriptionType;
+
+import java.lang.ref.WeakReference;
+import java.util.Objects;
+import java.util.function.Function;
+
+/**
+ * The link between a derived attribute and the attribute from which it is
+ * derived. The link is demand-driven: the derived attribute is only
+ * subscribed to the base attribute whilst the derived attribute has
+ * subscribers of its own. Each time the derived attribute gains its first
+ * subscriber, a new {@link Connection} is established, and the connection is
+ * closed when the derived attribute loses its last subscriber.
+ *
+ * If the attribute context specifies that derived attributes are weakly
+ * held, each connection only holds a weak reference to the derived
+ * attribute. Connections are expirable, and so the base attribute closes
+ * the subscription when it next publishes a value after the derived
+ * attribute has been collected.
+ *
+ * @param <T> The type of derived attributes
+ */
+
+final class AttributeLink<T>
+{
+  private final T target;
+  private final AttributePropagation propagation;
+  private final boolean weak;
+  private final Function<Connection<T>, AttributeSubscriptionType> connector;
+  private final Object lock;
+  private volatile Connection<T> current;
+  private int demand;
+
+  /**
+   * Construct a link.
+   *
+   * @param inContext   The attribute context
+   * @param inTarget    The derived attribute
+   * @param inConnector A function that subscribes to the base attribute,
+   *                    delivering values to the given connection
+   */
+
+  AttributeLink(
+    final AttributeContext inContext,
+    final T inTarget,
+    final Function<Connection<T>, AttributeSubscriptionType> inConnector)
+  {
+    this.weak =
+      inContext.weakDerivedAttributes();
+    this.propagation =
+      inContext.propagation();
+    this.target =
+      Objects.requireNonNull(inTarget, "target");
+    this.connector =
+      Objects.requireNonNull(inConnector, "connector");
+    this.lock =
+      new Object();
+  }
+
+  /**
+   * Indicate that the derived attribute has gained a subscriber, connecting
+   * to the base attribute if necessary.
+   */
+
+  void acquire()
+  {
+    synchronized (this.lock) {
+      if (this.demand == 0) {
+        final var connection = new Connection<>(this.target, this.weak);
+        this.current = connection;
+        connection.subscription = this.connector.apply(connection);
+      }
+      ++this.demand;
+    }
+  }
+
+  /**
+   * Indicate that the derived attribute has lost a subscriber,
+   * disconnecting from the base attribute if necessary.
+   */
+
+  void release()
+  {
+    synchronized (this.lock) {
+      --this.demand;
+      if (this.demand == 0) {
+        final var connection = this.current;
+        this.current = null;
+        connection.active = false;
+        connection.subscription.close();
+      }
+    }
+  }
+
+  /**
+   * @return {@code true} if the derived attribute is connected to the base
+   * attribute and has received at least one value
+   */
+
+  boolean isConnected()
+  {
+    final var connection = this.current;
+    return connection != null && connection.initialized;
+  }
+
+  /**
+   * @return {@code true} if the derived attribute is connected, and so holds
+   * a cached value, and the current thread does not have an open
+   * transaction; changes made inside a transaction do not reach cached
+   * values until the transaction closes, and so a thread with an open
+   * transaction must compute values from the base attribute in order to
+   * read its own writes
+   */
+
+  boolean isCached()
+  {
+    return this.isConnected() && !this.propagation.isDeferring();
+  }
+
+  /**
+   * A single connection to the base attribute.
+   *
+   * @param <T> The type of derived attributes
+   */
+
+  static final class Connection<T>
+    implements AttributeExpirableType
+  {
+    private final T strong;
+    private final WeakReference<T> weak;
+    private volatile AttributeSubscriptionType subscription;
+    private volatile boolean active;
+    private volatile boolean initialized;
+
+    private Connection(
+      final T inTarget,
+      final boolean isWeak)
+    {
+      if (isWeak) {
+        this.strong = null;
+        this.weak = new WeakReference<>(inTarget);
+      } else {
+        this.strong = inTarget;
+        this.weak = null;
+      }
+      this.active = true;
+    }
+
+    /**
+     * @return The derived attribute, or {@code null} if the connection is
+     * closed or the derived attribute has been collected
+     */
+
+    T target()
+    {
+      if (!this.active) {
+        return null;
+      }
+      if (this.strong != null) {
+        return this.strong;
+      }
+      return this.weak.get();
+    }
+
+    /**
+     * Mark the connection as having received its first value. This must be
+     * called after the derived attribute has stored the value, because
+     * readers that observe an initialized connection read the stored value
+     * instead of pulling a value from the base attribute.
+     */
+
+    void initialize()
+    {
+      this.initialized = true;
+    }
+
+    /**
+     * @return {@code true} if the connection has received its first value
+     */
+
+    boolean isInitialized()
+    {
+      return this.initialized;
+    }
+
+    @Override
+    public boolean isExpired()
+    {
+      return this.weak != null && this.weak.refersTo(null);
+    }
+  }
+}
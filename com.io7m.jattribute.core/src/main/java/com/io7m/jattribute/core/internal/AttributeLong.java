@@ -0,0 +1,207 @@
+/*
+ * Copyright © 2026 Mark Raynsford <code@io7m.com> https://www.io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+package com.io7m.jattribute.core.internal;
+
+import com.io7m.jattribute.core.AttributeLongType;
+
+import java.util.Objects;
+import java.util.function.LongBinaryOperator;
+import java.util.function.LongUnaryOperator;
+
+/**
+ * A {@code long} attribute that stores a value in an
+ * {@link AttributePrimitiveCell}.
+ */
+
+public final class AttributeLong extends AttributeLongAbstract
+  implements AttributeLongType
+{
+  private final AttributePrimitiveCell cell;
+
+  /**
+   * Construct a new attribute.
+   *
+   * @param inContext The attribute context
+   * @param initial   The initial value
+   */
+
+  public AttributeLong(
+    final AttributeContext inContext,
+    final long initial)
+  {
+    super(inContext);
+    this.cell = new AttributePrimitiveCell(initial);
+  }
+
+  @Override
+  public long get()
+  {
+    return this.cell.bits();
+  }
+
+  @Override
+  long sequence()
+  {
+    return this.cell.sequence();
+  }
+
+  @Override
+  long current()
+  {
+    return this.get();
+  }
+
+  /**
+   * Store a value if the current value is the expected value, increasing
+   * the version of the attribute if the value was stored.
+   *
+   * @param expected The expected value
+   * @param newValue The new value
+   *
+   * @return {@code true} if the value was stored
+   */
+
+  private boolean store(
+    final long expected,
+    final long newValue)
+  {
+    return this.cell.compareAndSet(expected, newValue);
+  }
+
+  /**
+   * Replace a value with a new value, and publish the change. A new value
+   * that is identical to the old value is neither stored nor published, and
+   * the suppressed update is reported to the metrics implementation.
+   *
+   * @param oldValue The expected current value
+   * @param newValue The new value
+   *
+   * @return {@code true} if the attribute held the expected value
+   */
+
+  private boolean update(
+    final long oldValue,
+    final long newValue)
+  {
+    if (oldValue == newValue) {
+      if (this.get() != oldValue) {
+        return false;
+      }
+      this.suppressed();
+      return true;
+    }
+    if (this.store(oldValue, newValue)) {
+      this.publish(oldValue, newValue);
+      return true;
+    }
+    return false;
+  }
+
+  @Override
+  public long set(
+    final long newValue)
+  {
+    final var event = AttributeEvents.beginSet();
+    while (true) {
+      final var oldValue = this.get();
+      if (this.update(oldValue, newValue)) {
+        this.finish(event);
+        return oldValue;
+      }
+    }
+  }
+
+  @Override
+  public boolean compareAndSet(
+    final long expected,
+    final long newValue)
+  {
+    return this.update(expected, newValue);
+  }
+
+  @Override
+  public long getAndUpdate(
+    final LongUnaryOperator f)
+  {
+    Objects.requireNonNull(f, "f");
+
+    while (true) {
+      final var oldValue = this.get();
+      final var newValue = f.applyAsLong(oldValue);
+      if (this.update(oldValue, newValue)) {
+        return oldValue;
+      }
+    }
+  }
+
+  @Override
+  public long updateAndGet(
+    final LongUnaryOperator f)
+  {
+    Objects.requireNonNull(f, "f");
+
+    while (true) {
+      final var oldValue = this.get();
+      final var newValue = f.applyAsLong(oldValue);
+      if (this.update(oldValue, newValue)) {
+        return newValue;
+      }
+    }
+  }
+
+  @Override
+  public long accumulateAndGet(
+    final long x,
+    final LongBinaryOperator f)
+  {
+    Objects.requireNonNull(f, "f");
+
+    while (true) {
+      final var oldValue = this.get();
+      final var newValue = f.applyAsLong(oldValue, x);
+      if (this.update(oldValue, newValue)) {
+        return newValue;
+      }
+    }
+  }
+
+  @Override
+  public long getAndAdd(
+    final long x)
+  {
+    while (true) {
+      final var oldValue = this.get();
+      final var newValue = oldValue + x;
+      if (this.update(oldValue, newValue)) {
+        return oldValue;
+      }
+    }
+  }
+
+  @Override
+  public long addAndGet(
+    final long x)
+  {
+    while (true) {
+      final var oldValue = this.get();
+      final var newValue = oldValue + x;
+      if (this.update(oldValue, newValue)) {
+        return newValue;
+      }
+    }
+  }
+}
@@ -0,0 +1,144 @@
+/*
+ * Copyright © 2026 Mark Raynsford <code@io7m.com> https://www.io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+package com.io7m.jattribute.core.internal;
+
+import com.io7m.jattribute.core.AttributeSubscriptionType;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.util.Objects;
+import java.util.function.Function;
+import java.util.function.LongSupplier;
+
+/**
+ * A {@code long} attribute derived from another attribute. The attribute
+ * is only subscribed to its source whilst it has subscribers of its own (see
+ * {@link AttributeLink}). Whilst subscribed, the most recently received
+ * value is cached. Whilst unsubscribed, values are pulled from the source on
+ * demand.
+ */
+
+final class AttributeLongDerived extends AttributeLongAbstract
+{
+  private static final VarHandle VALUE;
+
+  static {
+    try {
+      VALUE = MethodHandles.lookup()
+        .findVarHandle(AttributeLongDerived.class, "value", long.class);
+    } catch (final NoSuchFieldException | IllegalAccessException e) {
+      throw new ExceptionInInitializerError(e);
+    }
+  }
+
+  private final LongSupplier pull;
+  private final LongSupplier sequence;
+  private final AttributeLink<AttributeLongDerived> link;
+  private volatile long value;
+
+  /**
+   * Construct an attribute.
+   *
+   * @param inContext   The attribute context
+   * @param inHeight    The height of the attribute
+   * @param inSequence  A function that returns the sequence of the source
+   * @param inPull      A function that pulls the current value from the
+   *                    source
+   * @param inConnector A function that subscribes to the source, delivering
+   *                    values to {@link #receive}
+   */
+
+  AttributeLongDerived(
+    final AttributeContext inContext,
+    final int inHeight,
+    final LongSupplier inSequence,
+    final LongSupplier inPull,
+    final Function<AttributeLink.Connection<AttributeLongDerived>, AttributeSubscriptionType> inConnector)
+  {
+    super(inContext, inHeight);
+
+    this.pull =
+      Objects.requireNonNull(inPull, "pull");
+    this.sequence =
+      Objects.requireNonNull(inSequence, "sequence");
+    this.link =
+      new AttributeLink<>(inContext, this, inConnector);
+  }
+
+  /**
+   * Receive a value from the source.
+   *
+   * @param connection The connection on which the value arrived
+   * @param newValue   The new value
+   */
+
+  static void receive(
+    final AttributeLink.Connection<AttributeLongDerived> connection,
+    final long newValue)
+  {
+    final var target = connection.target();
+    if (target == null) {
+      return;
+    }
+
+    if (!connection.isInitialized()) {
+      target.value = newValue;
+      connection.initialize();
+      return;
+    }
+
+    final var oldValue = (long) VALUE.getAndSet(target, newValue);
+    if (oldValue == newValue) {
+      target.suppressed();
+      return;
+    }
+    target.publish(oldValue, newValue);
+  }
+
+  @Override
+  protected void onSubscriptionOpened()
+  {
+    this.link.acquire();
+  }
+
+  @Override
+  protected void onSubscriptionClosed()
+  {
+    this.link.release();
+  }
+
+  @Override
+  public long get()
+  {
+    if (this.link.isCached()) {
+      return this.value;
+    }
+    return this.pull.getAsLong();
+  }
+
+  @Override
+  long sequence()
+  {
+    return this.sequence.getAsLong();
+  }
+
+  @Override
+  long current()
+  {
+    return this.pull.getAsLong();
+  }
+}
@@ -18,60 +18,462 @@
 package com.io7m.jattribute.core.internal;
 
 import com.io7m.jattribute.core.AttributeReadableType;
+import com.io7m.jattribute.core.AttributeSubscriptionType;
 import com.io7m.jattribute.core.AttributeType;
 
+import java.lang.ref.WeakReference;
+import java.util.Arrays;
 import java.util.Objects;
-import java.util.function.Consumer;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.AtomicReferenceArray;
 import java.util.function.Function;
 
+/**
+ * An attribute that transforms the values of a base attribute.
+ *
+ * The attribute is only subscribed to the base attribute whilst it has
+ * subscribers of its own (see {@link AttributeLink}). Whilst subscribed, the
+ * most recently transformed value is cached, and so the transform function
+ * is evaluated exactly once per change in the base attribute, regardless of
+ * how many times {@link #get()} is called. Propagating a change whilst
+ * subscribed does not allocate. Whilst unsubscribed, {@link #get()} pulls
+ * the value from the base attribute, and the transform function is only
+ * evaluated if the base value has changed since the last time it was
+ * pulled.
+ *
+ * Mapping an attribute that has no subscribers of its own fuses the two
+ * transforms: the new attribute is derived directly from this attribute's
+ * base attribute, and applies both functions in turn. A chain of
+ * {@code map} calls therefore produces a single attribute subscribed to the
+ * root of the chain, and each change in the root costs one publication and
+ * one function call per stage, rather than one publication per stage.
+ * Whilst subscribed, the fused attribute caches the output of each stage,
+ * and so an intermediate value that is equivalent to the previous value
+ * stops propagation at that stage, exactly as the intermediate attribute
+ * would have.
+ *
+ * The intermediate attributes remain usable. Each intermediate attribute
+ * holds weak references to the fused attributes that bypass it, and a value
+ * set directly on an intermediate attribute is forwarded to them; a fused
+ * attribute applies its remaining stages to the value, exactly as if it
+ * were subscribed to the intermediate attribute.
+ *
+ * @param <A> The type of base values
+ * @param <B> The type of transformed values
+ */
+
 final class AttributeMap<A, B>
   extends AttributeAbstract<B>
 {
-  private final AttributeReadableType<A> base;
+  private static final Object SUPPRESSED = new Object();
+  private static final Fused[] NO_FUSED = new Fused[0];
+
+  private final AttributeAbstract<A> base;
   private final Function<A, B> transform;
+  private final Composition composition;
+  private final AtomicReferenceArray<Object> intermediates;
+  private final AtomicReference<B> value;
+  private final AtomicReference<Memo<A, B>> pulled;
+  private final AttributeLink<AttributeMap<A, B>> link;
+  private final Object lock;
+  private volatile Fused[] fused;
 
   AttributeMap(
-    final Consumer<Throwable> inErrorConsumer,
-    final AttributeReadableType<A> inBase,
+    final AttributeContext inContext,
+    final AttributeAbstract<A> inBase,
     final Function<A, B> inTransform)
   {
-    super(inErrorConsumer);
+    super(inContext, inBase.height() + 1);
 
     this.base =
       Objects.requireNonNull(inBase, "attr");
     this.transform =
       Objects.requireNonNull(inTransform, "f");
 
-    this.base.subscribe((oldValue, newValue) -> {
-      this.publish(
-        this.transform.apply(oldValue),
-        this.transform.apply(newValue));
-    });
+    if (inTransform instanceof final Composition fused) {
+      this.composition = fused;
+      this.intermediates =
+        new AtomicReferenceArray<>(fused.stages.length - 1);
+    } else {
+      this.composition = null;
+      this.intermediates = null;
+    }
+
+    this.value =
+      new AtomicReference<>();
+    this.pulled =
+      new AtomicReference<>();
+    this.link =
+      new AttributeLink<>(inContext, this, AttributeMap::connect);
+    this.lock =
+      new Object();
+    this.fused =
+      NO_FUSED;
+  }
+
+  private static <A, B> AttributeSubscriptionType connect(
+    final AttributeLink.Connection<AttributeMap<A, B>> connection)
+  {
+    final var target = connection.target();
+    return target.base.subscribeExpirable(
+      (oldValue, newValue) -> {
+        final var map = connection.target();
+        if (map != null) {
+          map.onBaseChanged(connection, newValue);
+        }
+      },
+      connection
+    );
+  }
+
+  @Override
+  protected void onSubscriptionOpened()
+  {
+    this.link.acquire();
+  }
+
+  @Override
+  protected void onSubscriptionClosed()
+  {
+    this.link.release();
+  }
+
+  private void onBaseChanged(
+    final AttributeLink.Connection<AttributeMap<A, B>> connection,
+    final A newValue)
+  {
+    final var initial =
+      !connection.isInitialized();
+    final var transformed =
+      this.transformConnected(0, newValue, initial);
+
+    if (initial) {
+      this.value.set(this.cast(transformed));
+      connection.initialize();
+      return;
+    }
+    this.update(transformed);
+  }
+
+  /**
+   * A value was set directly on one of the intermediate attributes that
+   * this fused attribute bypasses.
+   *
+   * @param stage    The stage whose output the intermediate attribute holds
+   * @param newValue The value
+   */
+
+  private void onIntermediateWritten(
+    final int stage,
+    final Object newValue)
+  {
+    if (!this.link.isConnected()) {
+      return;
+    }
+    this.update(this.transformConnected(stage + 1, newValue, false));
+  }
+
+  private void update(
+    final Object transformed)
+  {
+    /*
+     * If an intermediate stage of a fused transform produced a value
+     * equivalent to its previous value, nothing further can have changed.
+     */
+
+    if (transformed == SUPPRESSED) {
+      return;
+    }
+
+    /*
+     * If the transformed value is equivalent to the previous transformed
+     * value, keep the previous transformed value and don't notify anyone.
+     */
+
+    final var newTransformed = this.cast(transformed);
+    final var oldTransformed = this.value.get();
+    if (oldTransformed != null
+        && this.isEquivalent(oldTransformed, newTransformed)) {
+      return;
+    }
+
+    final var previous =
+      this.value.getAndSet(newTransformed);
+
+    if (previous != null) {
+      this.publish(previous, newTransformed);
+    }
+  }
+
+  /**
+   * Transform a value published by the base attribute, or set on an
+   * intermediate attribute. If the transform is fused, the output of each
+   * intermediate stage is compared with, and then replaces, the previous
+   * output of that stage. Intermediate outputs are compared with this
+   * attribute's equivalence; a mapped attribute always uses the context's
+   * default equivalence, and so this is the equivalence that the
+   * intermediate attributes would have used.
+   *
+   * @param start    The first stage to apply
+   * @param newValue The input to the first stage
+   * @param initial  {@code true} if this is the first value received by the
+   *                 connection, and so there are no previous outputs
+   *
+   * @return The transformed value, or {@link #SUPPRESSED} if an intermediate
+   * stage produced an equivalent value
+   */
+
+  @SuppressWarnings("unchecked")
+  private Object transformConnected(
+    final int start,
+    final Object newValue,
+    final boolean initial)
+  {
+    if (this.composition == null) {
+      return this.transform.apply((A) newValue);
+    }
+
+    final var stages = this.composition.stages;
+    final var last = stages.length - 1;
+
+    Object result = newValue;
+    for (int index = start; index < last; ++index) {
+      result = stages[index].apply(result);
+
+      final var previous = this.intermediates.get(index);
+      if (!initial
+          && previous != null
+          && this.isEquivalent(this.cast(previous), this.cast(result))) {
+        return SUPPRESSED;
+      }
+      this.intermediates.set(index, result);
+    }
+    return stages[last].apply(result);
+  }
+
+  @SuppressWarnings("unchecked")
+  private B cast(
+    final Object x)
+  {
+    return (B) x;
   }
 
   @Override
   public B get()
   {
-    return this.transform.apply(this.base.get());
+    if (this.link.isCached()) {
+      final var current = this.value.get();
+      if (current != null) {
+        return current;
+      }
+    }
+
+    /*
+     * The attribute is not subscribed to the base attribute, or the current
+     * thread has an open transaction and so changes to the base attribute
+     * have not yet reached the cached value; pull the value from the base
+     * attribute.
+     */
+
+    return this.pull(this.base.get());
+  }
+
+  /**
+   * Transform a value pulled from the base attribute, avoiding evaluating
+   * the transform function if the base value hasn't changed since it was
+   * last pulled. The base value and the transformed value are recorded
+   * together so that concurrent pulls never pair a base value with the
+   * wrong transformed value.
+   *
+   * @param baseValue The base value
+   *
+   * @return The transformed value
+   */
+
+  private B pull(
+    final A baseValue)
+  {
+    final var memo = this.pulled.get();
+    if (memo != null && memo.input == baseValue) {
+      return memo.output;
+    }
+
+    final var output = this.transform.apply(baseValue);
+    this.pulled.set(new Memo<>(baseValue, output));
+    return output;
   }
 
   @Override
-  public <C> AttributeReadableType<C> mapR(
+  long sequence()
+  {
+    return this.base.sequence();
+  }
+
+  @Override
+  B current()
+  {
+    return this.pull(this.base.current());
+  }
+
+  /**
+   * Derive an attribute from this attribute, fusing the transforms if this
+   * attribute has no subscribers.
+   *
+   * @param f   The transform
+   * @param <C> The type of transformed values
+   *
+   * @return A new attribute
+   */
+
+  private <C> AttributeMap<?, C> derive(
     final Function<B, C> f)
   {
-    return new AttributeMap<>(this.errors(), this, f);
+    Objects.requireNonNull(f, "f");
+
+    if (this.link.isConnected()) {
+      return new AttributeMap<>(this.context(), this, f);
+    }
+
+    final var composition =
+      Composition.compose(this, f);
+    final var result =
+      new AttributeMap<A, C>(this.context(), this.base, composition.typed());
+
+    final var nodes = composition.nodes;
+    for (int stage = 0; stage < nodes.length; ++stage) {
+      nodes[stage].addFused(new Fused(new WeakReference<>(result), stage));
+    }
+    return result;
+  }
+
+  private void addFused(
+    final Fused entry)
+  {
+    synchronized (this.lock) {
+      final var existing = this.fused;
+      final var live = new Fused[existing.length + 1];
+      int count = 0;
+      for (final var current : existing) {
+        if (!current.target.refersTo(null)) {
+          live[count] = current;
+          ++count;
+        }
+      }
+      live[count] = entry;
+      this.fused = Arrays.copyOf(live, count + 1);
+    }
   }
 
   @Override
-  protected void store(final B b)
+  public <C> AttributeReadableType<C> mapR(
+    final Function<B, C> f)
   {
+    return this.derive(f);
+  }
+
+  /**
+   * Mapped attributes do not store values that are set directly; the value
+   * is published to subscribers, and forwarded to the fused attributes that
+   * bypass this attribute, which would otherwise have been subscribers.
+   */
 
+  @Override
+  protected boolean compareAndStore(
+    final B expected,
+    final B newValue)
+  {
+    for (final var entry : this.fused) {
+      final var target = entry.target.get();
+      if (target != null) {
+        target.onIntermediateWritten(entry.stage, newValue);
+      }
+    }
+    return true;
   }
 
   @Override
   public <C> AttributeType<C> map(
     final Function<B, C> f)
   {
-    return new AttributeMap<>(this.errors(), this, f);
+    return this.derive(f);
+  }
+
+  /**
+   * A composition of transforms. Composing a composition flattens it, and so
+   * applying the composition of {@code n} transforms costs {@code n} calls
+   * rather than the nested calls made by {@link Function#andThen(Function)}.
+   */
+
+  private static final class Composition
+    implements Function<Object, Object>
+  {
+    private final Function<Object, Object>[] stages;
+    private final AttributeMap<?, ?>[] nodes;
+
+    private Composition(
+      final Function<Object, Object>[] inStages,
+      final AttributeMap<?, ?>[] inNodes)
+    {
+      this.stages = inStages;
+      this.nodes = inNodes;
+    }
+
+    /**
+     * Compose the transform of an attribute with a new transform. The
+     * attributes whose outputs are the intermediate stages are recorded,
+     * so that the fused attribute can be registered with each of them.
+     */
+
+    @SuppressWarnings("unchecked")
+    static <A, B, C> Composition compose(
+      final AttributeMap<A, B> first,
+      final Function<B, C> second)
+    {
+      final Function<Object, Object>[] stages;
+      final AttributeMap<?, ?>[] nodes;
+      if (first.transform instanceof final Composition composition) {
+        final var existing = composition.stages;
+        stages = Arrays.copyOf(existing, existing.length + 1);
+        nodes = Arrays.copyOf(composition.nodes, existing.length);
+      } else {
+        stages = (Function<Object, Object>[]) new Function<?, ?>[2];
+        stages[0] = (Function<Object, Object>) first.transform;
+        nodes = new AttributeMap<?, ?>[1];
+      }
+      stages[stages.length - 1] = (Function<Object, Object>) second;
+      nodes[nodes.length - 1] = first;
+      return new Composition(stages, nodes);
+    }
+
+    @SuppressWarnings("unchecked")
+    <X, Y> Function<X, Y> typed()
+    {
+      return (Function<X, Y>) (Object) this;
+    }
+
+    @Override
+    public Object apply(
+      final Object value)
+    {
+      var result = value;
+      for (final var stage : this.stages) {
+        result = stage.apply(result);
+      }
+      return result;
+    }
+  }
+
+  private record Fused(
+    WeakReference<AttributeMap<?, ?>> target,
+    int stage)
+  {
+
+  }
+
+  private record Memo<A, B>(
+    A input,
+    B output)
+  {
+
   }
 }
@@ -0,0 +1,200 @@
+/*
+ * Copyright © 2026 Mark Raynsford <code@io7m.com> https://www.io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+package com.io7m.jattribute.core.internal;
+
+import com.io7m.jattribute.core.AttributeCachedType;
+import com.io7m.jattribute.core.AttributeEquivalenceType;
+import com.io7m.jattribute.core.AttributePollerType;
+
+import java.time.Duration;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Supplier;
+
+/**
+ * A poller of cached function attributes.
+ *
+ * Attributes are registered once and then iterated on every tick, and so
+ * they are held in a copy-on-write list. A periodic poller keeps at most one
+ * task outstanding on the context's scheduler; each task ticks the poller
+ * and then schedules the next task for the next multiple of the period, so
+ * that slow ticks do not cause the schedule to drift.
+ */
+
+public final class AttributePoller implements AttributePollerType
+{
+  private final AttributeContext context;
+  private final CopyOnWriteArrayList<AttributeCached<?>> attributes;
+  private final AtomicBoolean closed;
+  private final long periodNanos;
+  private long deadline;
+
+  /**
+   * Construct a poller.
+   *
+   * @param inContext The attribute context
+   * @param inPeriod  The period at which the poller ticks, if any
+   *
+   * @throws IllegalArgumentException If the period is not positive
+   */
+
+  public AttributePoller(
+    final AttributeContext inContext,
+    final Optional<Duration> inPeriod)
+    throws IllegalArgumentException
+  {
+    this.context =
+      Objects.requireNonNull(inContext, "context");
+    this.attributes =
+      new CopyOnWriteArrayList<>();
+    this.closed =
+      new AtomicBoolean(false);
+
+    Objects.requireNonNull(inPeriod, "period");
+    if (inPeriod.isPresent()) {
+      final var duration = inPeriod.get();
+      if (duration.isNegative() || duration.isZero()) {
+        throw new IllegalArgumentException(
+          String.format("Period %s must be positive", duration)
+        );
+      }
+      this.periodNanos = duration.toNanos();
+      this.deadline = inContext.scheduler().nanoTime() + this.periodNanos;
+      this.schedule(this.periodNanos);
+    } else {
+      this.periodNanos = 0L;
+    }
+  }
+
+  @Override
+  public <A> AttributeCachedType<A> fromFunction(
+    final Supplier<A> f)
+    throws IllegalStateException
+  {
+    return this.fromFunction(f, this.context.equivalence());
+  }
+
+  @Override
+  public <A> AttributeCachedType<A> fromFunction(
+    final Supplier<A> f,
+    final AttributeEquivalenceType<? super A> equivalence)
+    throws IllegalStateException
+  {
+    this.checkNotClosed();
+
+    final var attribute =
+      new AttributeCached<>(this.context, equivalence, f, Optional.empty());
+    this.attributes.add(attribute);
+
+    /*
+     * The poller may have been closed concurrently, after the attribute
+     * was added.
+     */
+
+    if (this.closed.get()) {
+      this.attributes.clear();
+    }
+    return attribute;
+  }
+
+  private void checkNotClosed()
+  {
+    if (this.closed.get()) {
+      throw new IllegalStateException("Poller is closed.");
+    }
+  }
+
+  @Override
+  public void tick()
+  {
+    if (this.closed.get()) {
+      return;
+    }
+    this.context.propagation().transaction(this::invalidateAll);
+  }
+
+  private void invalidateAll()
+  {
+    for (final var attribute : this.attributes) {
+      try {
+        attribute.invalidate();
+      } catch (final Throwable e) {
+        this.error(e);
+      }
+    }
+  }
+
+  private void onTimer()
+  {
+    if (this.closed.get()) {
+      return;
+    }
+
+    try {
+      this.tick();
+    } finally {
+      final var scheduler = this.context.scheduler();
+      this.deadline += this.periodNanos;
+      final var remaining = this.deadline - scheduler.nanoTime();
+      if (remaining < 0L) {
+        final var missed = -remaining / this.periodNanos + 1L;
+        this.deadline += missed * this.periodNanos;
+      }
+      this.schedule(this.deadline - scheduler.nanoTime());
+    }
+  }
+
+  private void schedule(
+    final long delayNanos)
+  {
+    if (this.closed.get()) {
+      return;
+    }
+
+    try {
+      this.context.scheduler().schedule(delayNanos, this::onTimer);
+    } catch (final Throwable e) {
+      this.error(e);
+    }
+  }
+
+  private void error(
+    final Throwable e)
+  {
+    try {
+      this.context.errorConsumer().accept(e);
+    } catch (final Throwable ignored) {
+      // Nothing we can do.
+    }
+  }
+
+  @Override
+  public void close()
+  {
+    if (this.closed.compareAndSet(false, true)) {
+      this.attributes.clear();
+    }
+  }
+
+  @Override
+  public boolean isClosed()
+  {
+    return this.closed.get();
+  }
+}
@@ -0,0 +1,356 @@
+/*
+ * Copyright © 2026 Mark Raynsford <code@io7m.com> https://www.io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+package com.io7m.jattribute.core.internal;
+
+import com.io7m.jattribute.core.AttributeDeliveryMode;
+import com.io7m.jattribute.core.AttributeSubscriptionType;
+import com.io7m.jattribute.core.AttributeVersionedValue;
+
+import java.util.Objects;
+import java.util.concurrent.Executor;
+import java.util.function.BiConsumer;
+
+/**
+ * An abstract base primitive attribute.
+ *
+ * The {@code int}, {@code long}, and {@code double} attributes differ only in
+ * the types of their values, receivers, and functions. Everything else
+ * (versioned reads, subscriptions, transactions, and delivery) is
+ * implemented here in terms of the bits of the primitive values, which are
+ * converted to and from values by the delivery function of each type, and
+ * so values are never boxed unless they are passed to a dispatcher or
+ * deferred by a transaction.
+ *
+ * @param <R> The type of receivers
+ * @param <B> The type of boxed values
+ */
+
+abstract class AttributePrimitiveAbstract<R, B>
+  implements AttributePublisherType
+{
+  private final AttributeSubscribers<R> subscribers;
+  private final AttributeSubscribers.PrimitiveDeliveryType<R> delivery;
+  private final AttributeContext context;
+  private final int height;
+
+  protected AttributePrimitiveAbstract(
+    final AttributeContext inContext,
+    final int inHeight,
+    final AttributeSubscribers.PrimitiveDeliveryType<R> inDelivery)
+  {
+    this.context =
+      Objects.requireNonNull(inContext, "context");
+    this.height =
+      inHeight;
+    this.delivery =
+      Objects.requireNonNull(inDelivery, "delivery");
+    this.subscribers =
+      new AttributeSubscribers<>(
+        inContext,
+        this,
+        this::asynchronousDelivery,
+        this::onSubscriptionOpened,
+        this::onSubscriptionClosed
+      );
+  }
+
+  /**
+   * @return The height of this attribute in the graph of attributes; an
+   * attribute that is not derived from other attributes has height zero,
+   * and a derived attribute is higher than each of its sources
+   */
+
+  final int height()
+  {
+    return this.height;
+  }
+
+  protected final AttributeContext context()
+  {
+    return this.context;
+  }
+
+  /**
+   * @return The sequence of this attribute (see {@link AttributeSequence});
+   * the version of the attribute is half of the sequence, and the sequence is
+   * odd whilst a store is in progress
+   */
+
+  abstract long sequence();
+
+  /**
+   * @return The bits of the current value of the attribute
+   */
+
+  abstract long getBits();
+
+  /**
+   * @return The bits of the current value, computed from the attribute's
+   * sources if the attribute is derived from other attributes (rather than
+   * taken from any cached value), so that it is consistent with
+   * {@link #sequence()}
+   */
+
+  abstract long currentBits();
+
+  /**
+   * @return The version of the attribute
+   *
+   * @see #sequence()
+   */
+
+  public final long version()
+  {
+    return this.sequence() >>> 1;
+  }
+
+  /**
+   * @return The current value and the version of the attribute at which it
+   * was current
+   */
+
+  @SuppressWarnings("unchecked")
+  public final AttributeVersionedValue<B> getVersioned()
+  {
+    while (true) {
+      final var before = this.sequence();
+      if ((before & 1L) == 0L) {
+        final var current = this.currentBits();
+        if (this.sequence() == before) {
+          return new AttributeVersionedValue<>(
+            (B) this.delivery.box(current),
+            before >>> 1
+          );
+        }
+      }
+      Thread.onSpinWait();
+    }
+  }
+
+  /**
+   * Subscribe to the attribute, delivering values on the context's executor
+   * if it has one.
+   *
+   * @param receiver The receiver
+   *
+   * @return A subscription
+   */
+
+  public final AttributeSubscriptionType subscribe(
+    final R receiver)
+  {
+    final var executor = this.context.executor();
+    if (executor.isPresent()) {
+      return this.subscribe(
+        executor.get(),
+        AttributeDeliveryMode.ORDERED,
+        receiver
+      );
+    }
+    return this.subscribeExpirable(receiver, null);
+  }
+
+  /**
+   * Subscribe to the attribute, delivering every value in order on the
+   * given executor.
+   *
+   * @param executor The executor
+   * @param receiver The receiver
+   *
+   * @return A subscription
+   */
+
+  public final AttributeSubscriptionType subscribe(
+    final Executor executor,
+    final R receiver)
+  {
+    return this.subscribe(executor, AttributeDeliveryMode.ORDERED, receiver);
+  }
+
+  /**
+   * Subscribe to the attribute, delivering values on the given executor.
+   *
+   * @param executor The executor
+   * @param mode     The delivery mode
+   * @param receiver The receiver
+   *
+   * @return A subscription
+   */
+
+  public final AttributeSubscriptionType subscribe(
+    final Executor executor,
+    final AttributeDeliveryMode mode,
+    final R receiver)
+  {
+    Objects.requireNonNull(receiver, "receiver");
+
+    final var subscription =
+      this.subscribers.addAsynchronous(
+        receiver,
+        executor,
+        mode,
+        this.asynchronousDelivery(receiver)
+      );
+    final var current =
+      this.delivery.box(this.getBits());
+
+    subscription.dispatcher().dispatch(current, current);
+    return subscription;
+  }
+
+  private BiConsumer<Object, Object> asynchronousDelivery(
+    final R receiver)
+  {
+    return (oldValue, newValue) -> {
+      this.delivery.receive(
+        receiver,
+        this.delivery.unbox(oldValue),
+        this.delivery.unbox(newValue)
+      );
+    };
+  }
+
+  /**
+   * Subscribe to the attribute with a subscription that will be closed
+   * instead of receiving values once it has expired. The subscription
+   * always receives values on the publishing thread.
+   *
+   * @param receiver  The receiver function
+   * @param expirable The expiry check, if any
+   *
+   * @return A subscription
+   */
+
+  final AttributeSubscriptionType subscribeExpirable(
+    final R receiver,
+    final AttributeExpirableType expirable)
+  {
+    Objects.requireNonNull(receiver, "receiver");
+
+    final var subscription =
+      this.subscribers.add(receiver, expirable);
+    final var current =
+      this.getBits();
+
+    try {
+      this.delivery.receive(receiver, current, current);
+    } catch (final Throwable e) {
+      this.subscribers.fail(subscription, e);
+    }
+    return subscription;
+  }
+
+  /**
+   * A subscription is about to be added to this attribute. This is called
+   * before the new subscriber receives any values.
+   */
+
+  protected void onSubscriptionOpened()
+  {
+
+  }
+
+  /**
+   * A subscription has been removed from this attribute.
+   */
+
+  protected void onSubscriptionClosed()
+  {
+
+  }
+
+  /**
+   * Finish recording a set operation.
+   *
+   * @param event The event begun before the value was set, or {@code null}
+   *              if set events are not enabled
+   */
+
+  protected final void finish(
+    final AttributeEvents.Set event)
+  {
+    if (event != null) {
+      event.finish(this.subscribers);
+    }
+  }
+
+  /**
+   * Indicate that an update was suppressed because the new value was
+   * identical to the old value.
+   */
+
+  protected final void suppressed()
+  {
+    this.subscribers.suppressed();
+  }
+
+  /**
+   * Publish a value change to subscribers. If the current thread has an
+   * open transaction, the change is recorded and published when the
+   * transaction closes.
+   *
+   * @param oldBits The bits of the old value
+   * @param newBits The bits of the new value
+   */
+
+  protected final void publishBits(
+    final long oldBits,
+    final long newBits)
+  {
+    this.subscribers.updated();
+
+    final var propagation = this.context.propagation();
+    if (propagation.isDeferring()) {
+      propagation.defer(
+        this,
+        this.delivery.box(oldBits),
+        this.delivery.box(newBits)
+      );
+      return;
+    }
+    this.publishNow(oldBits, newBits);
+  }
+
+  @Override
+  public final void publishDeferred(
+    final Object oldValue,
+    final Object newValue)
+  {
+    this.publishNow(
+      this.delivery.unbox(oldValue),
+      this.delivery.unbox(newValue)
+    );
+  }
+
+  private void publishNow(
+    final long oldBits,
+    final long newBits)
+  {
+    final var propagation = this.context.propagation();
+    if (!propagation.isScheduling()) {
+      this.subscribers.deliver(oldBits, newBits, this.delivery);
+      return;
+    }
+
+    final var wave = propagation.enter();
+    try {
+      this.subscribers.deliver(oldBits, newBits, this.delivery);
+    } finally {
+      wave.exit();
+    }
+  }
+}
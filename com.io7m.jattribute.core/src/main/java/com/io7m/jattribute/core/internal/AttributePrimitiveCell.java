@@ -0,0 +1,98 @@
+/*
+ * Copyright © 2026 Mark Raynsford <code@io7m.com> https://www.io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+package com.io7m.jattribute.core.internal;
+
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * The stored value of a primitive attribute.
+ *
+ * The bits of the value and the version of the attribute are held together
+ * in an immutable holder, and a store replaces the holder with a single
+ * compare-and-set. Writers therefore never wait for each other, and the
+ * version always advances with the value that it describes. The sequence
+ * of a cell is twice its version, and so it is always even (see
+ * {@link AttributeSequence}).
+ */
+
+final class AttributePrimitiveCell
+{
+  private final AtomicReference<Stored> stored;
+
+  /**
+   * Construct a cell.
+   *
+   * @param initialBits The bits of the initial value
+   */
+
+  AttributePrimitiveCell(
+    final long initialBits)
+  {
+    this.stored = new AtomicReference<>(new Stored(initialBits, 0L));
+  }
+
+  /**
+   * @return The bits of the current value
+   */
+
+  long bits()
+  {
+    return this.stored.get().bits();
+  }
+
+  /**
+   * @return The sequence of the cell
+   */
+
+  long sequence()
+  {
+    return this.stored.get().version() << 1;
+  }
+
+  /**
+   * Store a value if the bits of the current value are the expected bits,
+   * advancing the version if the value was stored.
+   *
+   * @param expectedBits The bits of the expected value
+   * @param newBits      The bits of the new value
+   *
+   * @return {@code true} if the value was stored
+   */
+
+  boolean compareAndSet(
+    final long expectedBits,
+    final long newBits)
+  {
+    while (true) {
+      final var current = this.stored.get();
+      if (current.bits() != expectedBits) {
+        return false;
+      }
+      final var next = new Stored(newBits, current.version() + 1L);
+      if (this.stored.compareAndSet(current, next)) {
+        return true;
+      }
+    }
+  }
+
+  private record Stored(
+    long bits,
+    long version)
+  {
+
+  }
+}
@@ -0,0 +1,366 @@
+/*
+ * Copyright © 2026 Mark Raynsford <code@io7m.com> https://www.io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+package com.io7m.jattribute.core.internal;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.IdentityHashMap;
+import java.util.Objects;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * The propagation state shared by all attributes created by a single
+ * {@code Attributes} instance.
+ *
+ * Transactions are tracked per thread: whilst a thread has an open
+ * transaction, any value published by an attribute on that thread is
+ * recorded instead of being published, and each recorded attribute is
+ * published once when the outermost transaction closes.
+ *
+ * Changes are propagated in waves. A wave begins when an attribute publishes
+ * a value on a thread that is not already propagating a wave, and ends when
+ * that publication completes. Combined attributes (see
+ * {@link AttributeCombine}) whose inputs change during a wave are not
+ * recomputed immediately; they are scheduled in a per-thread priority queue
+ * ordered by height, and recomputed once the publication that began the wave
+ * has completed. A combined attribute is therefore recomputed only after
+ * every attribute below it has been updated, and at most once for each time
+ * it is scheduled. Waves are only tracked whilst at least one combined
+ * attribute is subscribed to its inputs.
+ */
+
+public final class AttributePropagation
+{
+  private final AtomicInteger transactions;
+  private final AtomicInteger scheduledAttributes;
+  private final ThreadLocal<State> state;
+
+  /**
+   * Construct the propagation state.
+   */
+
+  public AttributePropagation()
+  {
+    this.transactions =
+      new AtomicInteger(0);
+    this.scheduledAttributes =
+      new AtomicInteger(0);
+    this.state =
+      ThreadLocal.withInitial(State::new);
+  }
+
+  /**
+   * Evaluate {@code f} inside a transaction.
+   *
+   * @param f The function
+   */
+
+  public void transaction(
+    final Runnable f)
+  {
+    Objects.requireNonNull(f, "f");
+
+    final var current = this.state.get();
+    if (current.transactionDepth == 0) {
+      this.transactions.incrementAndGet();
+    }
+    ++current.transactionDepth;
+
+    try {
+      f.run();
+    } finally {
+      --current.transactionDepth;
+      if (current.transactionDepth == 0) {
+        this.transactions.decrementAndGet();
+        current.commit();
+      }
+    }
+  }
+
+  /**
+   * A combined attribute has subscribed to its inputs.
+   */
+
+  void onScheduledAttributeConnected()
+  {
+    this.scheduledAttributes.incrementAndGet();
+  }
+
+  /**
+   * A combined attribute has unsubscribed from its inputs.
+   */
+
+  void onScheduledAttributeDisconnected()
+  {
+    this.scheduledAttributes.decrementAndGet();
+  }
+
+  /**
+   * @return {@code true} if publications must be tracked as waves because
+   * at least one combined attribute is subscribed to its inputs
+   */
+
+  boolean isScheduling()
+  {
+    return this.scheduledAttributes.get() != 0;
+  }
+
+  /**
+   * Enter a publication on the current thread, beginning a new wave if
+   * the thread is not already propagating one. The returned state's
+   * {@link State#exit()} method must be called when the publication
+   * completes.
+   *
+   * @return The state of the current thread
+   */
+
+  State enter()
+  {
+    final var current = this.state.get();
+    current.enter();
+    return current;
+  }
+
+  /**
+   * Schedule a combined attribute for recomputation at the end of the
+   * current wave. If the current thread is not propagating a wave, the
+   * attribute is recomputed immediately.
+   *
+   * @param attribute The attribute
+   */
+
+  void schedule(
+    final AttributeCombine<?> attribute)
+  {
+    final var current = this.state.get();
+    if (current.waveDepth == 0) {
+      attribute.recompute();
+      return;
+    }
+    current.push(attribute);
+  }
+
+  /**
+   * @return {@code true} if the current thread has an open transaction, and
+   * so values should be passed to {@link #defer} instead of being published
+   */
+
+  boolean isDeferring()
+  {
+    if (this.transactions.get() == 0) {
+      return false;
+    }
+    return this.state.get().transactionDepth > 0;
+  }
+
+  /**
+   * Record a value change for publication when the current transaction
+   * closes. If the attribute has already recorded a change in the current
+   * transaction, the recorded new value is replaced, and the recorded old
+   * value is kept.
+   *
+   * @param publisher The attribute
+   * @param oldValue  The old value
+   * @param newValue  The new value
+   */
+
+  void defer(
+    final AttributePublisherType publisher,
+    final Object oldValue,
+    final Object newValue)
+  {
+    this.state.get().defer(publisher, oldValue, newValue);
+  }
+
+  private static final class Deferred
+  {
+    private final AttributePublisherType publisher;
+    private final Object oldValue;
+    private Object newValue;
+
+    Deferred(
+      final AttributePublisherType inPublisher,
+      final Object inOldValue,
+      final Object inNewValue)
+    {
+      this.publisher = inPublisher;
+      this.oldValue = inOldValue;
+      this.newValue = inNewValue;
+    }
+  }
+
+  /**
+   * The propagation state of a single thread. The structures are reused
+   * across waves, so propagating a wave does not allocate once the queue has
+   * grown large enough to hold the scheduled attributes.
+   */
+
+  static final class State
+  {
+    private static final int INITIAL_QUEUE_SIZE = 16;
+
+    private final IdentityHashMap<AttributePublisherType, Deferred> index;
+    private final ArrayList<Deferred> deferred;
+    private int transactionDepth;
+    private int waveDepth;
+    private AttributeCombine<?>[] queue;
+    private int queueSize;
+
+    State()
+    {
+      this.index =
+        new IdentityHashMap<>();
+      this.deferred =
+        new ArrayList<>();
+      this.queue =
+        new AttributeCombine<?>[INITIAL_QUEUE_SIZE];
+    }
+
+    private void enter()
+    {
+      ++this.waveDepth;
+    }
+
+    /**
+     * Exit a publication, recomputing all scheduled attributes if the
+     * publication began a wave.
+     */
+
+    void exit()
+    {
+      if (this.waveDepth == 1) {
+        try {
+          this.drain();
+        } finally {
+          this.waveDepth = 0;
+        }
+      } else {
+        --this.waveDepth;
+      }
+    }
+
+    private void drain()
+    {
+      while (this.queueSize > 0) {
+        this.pop().recompute();
+      }
+    }
+
+    private void push(
+      final AttributeCombine<?> attribute)
+    {
+      if (this.queueSize == this.queue.length) {
+        this.queue = Arrays.copyOf(this.queue, this.queue.length * 2);
+      }
+
+      int position = this.queueSize;
+      ++this.queueSize;
+
+      final var height = attribute.height();
+      while (position > 0) {
+        final var parent = (position - 1) >>> 1;
+        final var parentAttribute = this.queue[parent];
+        if (parentAttribute.height() <= height) {
+          break;
+        }
+        this.queue[position] = parentAttribute;
+        position = parent;
+      }
+      this.queue[position] = attribute;
+    }
+
+    private AttributeCombine<?> pop()
+    {
+      final var result = this.queue[0];
+      --this.queueSize;
+
+      final var last = this.queue[this.queueSize];
+      this.queue[this.queueSize] = null;
+      if (this.queueSize == 0) {
+        return result;
+      }
+
+      final var height = last.height();
+      int position = 0;
+      while (true) {
+        int child = (position << 1) + 1;
+        if (child >= this.queueSize) {
+          break;
+        }
+        final var right = child + 1;
+        if (right < this.queueSize
+          && this.queue[right].height() < this.queue[child].height()) {
+          child = right;
+        }
+        if (height <= this.queue[child].height()) {
+          break;
+        }
+        this.queue[position] = this.queue[child];
+        position = child;
+      }
+      this.queue[position] = last;
+      return result;
+    }
+
+    void defer(
+      final AttributePublisherType publisher,
+      final Object oldValue,
+      final Object newValue)
+    {
+      final var existing = this.index.get(publisher);
+      if (existing != null) {
+        existing.newValue = newValue;
+        return;
+      }
+
+      final var created = new Deferred(publisher, oldValue, newValue);
+      this.index.put(publisher, created);
+      this.deferred.add(created);
+    }
+
+    void commit()
+    {
+      if (this.deferred.isEmpty()) {
+        return;
+      }
+
+      /*
+       * Subscribers may open transactions of their own whilst values are
+       * being published, so the recorded changes are taken out of the state
+       * before any of them are published.
+       */
+
+      final var pending = new ArrayList<>(this.deferred);
+      this.deferred.clear();
+      this.index.clear();
+
+      /*
+       * All of the recorded changes are published as a single wave, so that
+       * combined attributes observe all of the changes at once.
+       */
+
+      this.enter();
+      try {
+        for (final var change : pending) {
+          change.publisher.publishDeferred(change.oldValue, change.newValue);
+        }
+      } finally {
+        this.exit();
+      }
+    }
+  }
+}
@@ -0,0 +1,53 @@
+/*
+ * Copyright © 2026 Mark Raynsford <code@io7m.com> https://www.io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+package com.io7m.jattribute.core.internal;
+
+import com.io7m.jattribute.core.AttributeSlowReceiverAction;
+
+import java.time.Duration;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.concurrent.Executor;
+
+/**
+ * The time budget of receivers that are called on the publishing thread.
+ *
+ * @param budget   The time a receiver may take to receive a value
+ * @param action   The action taken when a receiver exceeds its budget
+ * @param executor The executor on which isolated receivers receive values
+ */
+
+public record AttributeReceiverBudget(
+  Duration budget,
+  AttributeSlowReceiverAction action,
+  Optional<Executor> executor)
+{
+  /**
+   * The time budget of receivers that are called on the publishing thread.
+   *
+   * @param budget   The time a receiver may take to receive a value
+   * @param action   The action taken when a receiver exceeds its budget
+   * @param executor The executor on which isolated receivers receive values
+   */
+
+  public AttributeReceiverBudget
+  {
+    Objects.requireNonNull(budget, "budget");
+    Objects.requireNonNull(action, "action");
+    Objects.requireNonNull(executor, "executor");
+  }
+}
@@ -0,0 +1,113 @@
+/*
+ * Copyright © 2026 Mark Raynsford <code@io7m.com> https://www.io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+package com.io7m.jattribute.core.internal;
+
+import com.io7m.jattribute.core.AttributeSchedulerType;
+
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The standard schedulers.
+ */
+
+public final class AttributeSchedulers
+{
+  private static final AttributeSchedulerType SYSTEM =
+    new Delayed();
+
+  private AttributeSchedulers()
+  {
+
+  }
+
+  /**
+   * @return A scheduler that runs tasks on the common fork-join pool
+   */
+
+  public static AttributeSchedulerType system()
+  {
+    return SYSTEM;
+  }
+
+  /**
+   * @param executor The executor
+   *
+   * @return A scheduler that runs tasks on the given executor
+   */
+
+  public static AttributeSchedulerType ofExecutor(
+    final ScheduledExecutorService executor)
+  {
+    return new Scheduled(executor);
+  }
+
+  private static final class Delayed
+    implements AttributeSchedulerType
+  {
+    Delayed()
+    {
+
+    }
+
+    @Override
+    public long nanoTime()
+    {
+      return System.nanoTime();
+    }
+
+    @Override
+    public void schedule(
+      final long delayNanos,
+      final Runnable task)
+    {
+      Objects.requireNonNull(task, "task");
+      CompletableFuture.delayedExecutor(delayNanos, TimeUnit.NANOSECONDS)
+        .execute(task);
+    }
+  }
+
+  private static final class Scheduled
+    implements AttributeSchedulerType
+  {
+    private final ScheduledExecutorService executor;
+
+    Scheduled(
+      final ScheduledExecutorService inExecutor)
+    {
+      this.executor =
+        Objects.requireNonNull(inExecutor, "executor");
+    }
+
+    @Override
+    public long nanoTime()
+    {
+      return System.nanoTime();
+    }
+
+    @Override
+    public void schedule(
+      final long delayNanos,
+      final Runnable task)
+    {
+      Objects.requireNonNull(task, "task");
+      this.executor.schedule(task, delayNanos, TimeUnit.NANOSECONDS);
+    }
+  }
+}
@@ -0,0 +1,130 @@
+/*
+ * Copyright © 2026 Mark Raynsford <code@io7m.com> https://www.io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+package com.io7m.jattribute.core.internal;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+
+/**
+ * A sequence lock protecting the value of an attribute.
+ *
+ * The sequence is even whilst no store is in progress, and odd whilst a
+ * store is in progress; each store that changes the value advances the
+ * sequence by two, and so the version of the value is half of the sequence.
+ * Writers acquire the lock by advancing the sequence to an odd number with a
+ * compare-and-set, and so stores to the same attribute are serialized. The
+ * lock is held only for the duration of a single store, and never whilst
+ * user code is running. Readers take no lock: a reader that observes the
+ * same even sequence before and after reading the value has read a value
+ * consistent with that sequence.
+ *
+ * The lock is only used by attributes whose stores are already serialized
+ * or rare (cached, filtered, rate-limited, and function attributes).
+ * Attributes that any thread may write ({@link Attribute} and the primitive
+ * attributes) instead hold their value and version together in an immutable
+ * holder that is replaced with a single compare-and-set (see
+ * {@link AttributePrimitiveCell}), and so their writers never wait.
+ */
+
+final class AttributeSequence
+{
+  private static final VarHandle SEQUENCE;
+
+  static {
+    try {
+      SEQUENCE = MethodHandles.lookup()
+        .findVarHandle(AttributeSequence.class, "sequence", long.class);
+    } catch (final NoSuchFieldException | IllegalAccessException e) {
+      throw new ExceptionInInitializerError(e);
+    }
+  }
+
+  private volatile long sequence;
+
+  AttributeSequence()
+  {
+
+  }
+
+  /**
+   * @return The current sequence
+   */
+
+  long get()
+  {
+    return this.sequence;
+  }
+
+  /**
+   * Begin a store, waiting for any other store in progress to complete.
+   *
+   * @return The sequence before the store began
+   */
+
+  long beginWrite()
+  {
+    while (true) {
+      final var current = this.sequence;
+      if ((current & 1L) == 0L) {
+        if (SEQUENCE.compareAndSet(this, current, current + 1L)) {
+          return current;
+        }
+      }
+      Thread.onSpinWait();
+    }
+  }
+
+  /**
+   * Complete a store.
+   *
+   * @param start   The sequence returned by {@link #beginWrite()}
+   * @param changed {@code true} if the store changed the value
+   */
+
+  void endWrite(
+    final long start,
+    final boolean changed)
+  {
+    if (changed) {
+      this.sequence = start + 2L;
+    } else {
+      this.sequence = start;
+    }
+  }
+
+  /**
+   * Combine the sequences of several attributes into the sequence of an
+   * attribute derived from them. The version of the result is the sum of
+   * the versions of the inputs, and the result is odd if a store is in
+   * progress on any input.
+   *
+   * @param total The sum of the versions of the inputs
+   * @param busy  {@code true} if a store is in progress on any input
+   *
+   * @return A sequence
+   */
+
+  static long combine(
+    final long total,
+    final boolean busy)
+  {
+    if (busy) {
+      return (total << 1) | 1L;
+    }
+    return total << 1;
+  }
+}
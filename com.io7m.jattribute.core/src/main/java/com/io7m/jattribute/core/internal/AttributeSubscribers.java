@@ -0,0 +1,736 @@
+/*
+ * Copyright © 2026 Mark Raynsford <code@io7m.com> https://www.io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+package com.io7m.jattribute.core.internal;
+
+import com.io7m.jattribute.core.AttributeDeliveryMode;
+import com.io7m.jattribute.core.AttributeMetricsType;
+import com.io7m.jattribute.core.AttributeSlowReceiverException;
+import com.io7m.jattribute.core.AttributeSubscriptionType;
+
+import java.time.Duration;
+import java.util.Objects;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.BiConsumer;
+import java.util.function.Function;
+
+/**
+ * The set of subscribers of an attribute.
+ *
+ * Subscriptions are stored in an array of slots. Each subscription knows the
+ * index of its own slot, and so closing a subscription simply clears the
+ * slot, leaving a tombstone. Once tombstones make up more than half of the
+ * used slots, the live subscriptions are compacted into a new array, and so
+ * the cost of compaction is amortized over the subscriptions that were
+ * closed. Subscribing and closing subscriptions both take constant amortized
+ * time, holding a lock only for the duration of the slot update.
+ *
+ * Publishing does not take the lock and does not allocate: the delivery loop
+ * (see {@link #deliver(Object, Object, DeliveryType)}), which is shared by
+ * every kind of publisher, reads the used slot count and the current array,
+ * and iterates over the slots, skipping tombstones. The array is never
+ * rearranged in place; compaction always produces a new array, so a
+ * publisher never observes a subscription twice, or misses a subscription
+ * that remained open throughout the iteration.
+ *
+ * If the context has a metrics implementation, the set of subscribers is
+ * also responsible for informing it of the attribute's activity. Each
+ * reporting method checks a final flag first, so an unmeasured attribute
+ * pays for a single branch per report. Flight recorder events are reported
+ * in the same places.
+ *
+ * If the context sets a time budget for receivers, receivers that are called
+ * on the publishing thread are timed, and a receiver that overruns the budget
+ * is reported to the error consumer and is then left alone, closed, or
+ * isolated. An isolated subscription is given a dispatcher, and so receives
+ * all subsequent values asynchronously in the same way as a subscription
+ * that was asynchronous from the start.
+ *
+ * @param <R> The type of receivers
+ */
+
+final class AttributeSubscribers<R>
+{
+  private static final int MINIMUM_CAPACITY = 4;
+
+  private final AttributeContext context;
+  private final Object attribute;
+  private final AttributeMetricsType metrics;
+  private final boolean metered;
+  private final AttributeReceiverBudget budget;
+  private final long budgetNanos;
+  private final Function<R, BiConsumer<Object, Object>> deliveryFactory;
+  private final Runnable onOpened;
+  private final Runnable onClosed;
+  private final Object lock;
+  private volatile Subscription<R>[] slots;
+  private volatile int used;
+  private volatile int live;
+
+  /**
+   * Construct a set of subscribers.
+   *
+   * @param inContext   The attribute context
+   * @param inAttribute The attribute that owns the subscribers
+   * @param inDelivery  A function that produces a function that passes
+   *                    values to a receiver, used if the receiver is moved
+   *                    to an asynchronous lane
+   * @param inOnOpened  A function evaluated before each new subscription is
+   *                    added
+   * @param inOnClosed  A function evaluated after each subscription is
+   *                    removed
+   */
+
+  AttributeSubscribers(
+    final AttributeContext inContext,
+    final Object inAttribute,
+    final Function<R, BiConsumer<Object, Object>> inDelivery,
+    final Runnable inOnOpened,
+    final Runnable inOnClosed)
+  {
+    this.context =
+      Objects.requireNonNull(inContext, "context");
+    this.attribute =
+      Objects.requireNonNull(inAttribute, "attribute");
+    this.metrics =
+      inContext.metrics().orElse(null);
+    this.metered =
+      this.metrics != null;
+    this.deliveryFactory =
+      Objects.requireNonNull(inDelivery, "delivery");
+    this.budget =
+      inContext.receiverBudget().orElse(null);
+    this.budgetNanos =
+      inContext.receiverBudget()
+        .map(b -> Long.valueOf(b.budget().toNanos()))
+        .orElse(Long.valueOf(Long.MAX_VALUE))
+        .longValue();
+    this.onOpened =
+      Objects.requireNonNull(inOnOpened, "onOpened");
+    this.onClosed =
+      Objects.requireNonNull(inOnClosed, "onClosed");
+    this.lock =
+      new Object();
+    this.slots =
+      createSlots(MINIMUM_CAPACITY);
+  }
+
+  @SuppressWarnings("unchecked")
+  private static <R> Subscription<R>[] createSlots(
+    final int capacity)
+  {
+    return (Subscription<R>[]) new Subscription<?>[capacity];
+  }
+
+  /**
+   * Add a new subscription.
+   *
+   * @param receiver  The receiver
+   * @param expirable A function that indicates that the subscription has
+   *                  expired, if any
+   *
+   * @return The new subscription
+   */
+
+  Subscription<R> add(
+    final R receiver,
+    final AttributeExpirableType expirable)
+  {
+    final var subscription =
+      new Subscription<>(this, receiver, expirable);
+
+    this.onOpened.run();
+    this.insert(subscription);
+    return subscription;
+  }
+
+  /**
+   * Add a new subscription that receives values asynchronously.
+   *
+   * @param receiver The receiver
+   * @param executor The executor on which values will be delivered
+   * @param mode     The delivery mode
+   * @param delivery A function that passes values to the receiver
+   *
+   * @return The new subscription
+   */
+
+  Subscription<R> addAsynchronous(
+    final R receiver,
+    final Executor executor,
+    final AttributeDeliveryMode mode,
+    final BiConsumer<Object, Object> delivery)
+  {
+    Objects.requireNonNull(executor, "executor");
+    Objects.requireNonNull(mode, "mode");
+    Objects.requireNonNull(delivery, "delivery");
+
+    final var subscription =
+      new Subscription<>(this, receiver, null);
+    subscription.dispatcher =
+      AttributeDispatcher.create(executor, mode, subscription, delivery);
+
+    this.onOpened.run();
+    this.insert(subscription);
+    return subscription;
+  }
+
+  private void insert(
+    final Subscription<R> subscription)
+  {
+    final var event = AttributeEvents.beginSubscribe();
+
+    final int count;
+    synchronized (this.lock) {
+      final var current = this.used;
+      if (current == this.slots.length) {
+        this.compact(this.live * 2);
+      }
+
+      final var index = this.used;
+      this.slots[index] = subscription;
+      subscription.index = index;
+      count = this.live + 1;
+      this.live = count;
+      this.used = index + 1;
+    }
+
+    if (this.metered) {
+      this.metrics.onSubscribed(this.attribute, count);
+    }
+    if (event != null) {
+      event.finish(this, count);
+    }
+  }
+
+  private void remove(
+    final Subscription<R> subscription)
+  {
+    final int count;
+    synchronized (this.lock) {
+      final var index = subscription.index;
+      final var current = this.slots;
+      if (index >= this.used || current[index] != subscription) {
+        return;
+      }
+
+      current[index] = null;
+      count = this.live - 1;
+      this.live = count;
+
+      /*
+       * Trailing tombstones can be discarded immediately; any other
+       * tombstones are discarded by compaction once they outnumber the
+       * live subscriptions.
+       */
+
+      int newUsed = this.used;
+      while (newUsed > 0 && current[newUsed - 1] == null) {
+        --newUsed;
+      }
+      this.used = newUsed;
+
+      if (count < newUsed / 2) {
+        this.compact(count * 2);
+      }
+    }
+
+    if (this.metered) {
+      this.metrics.onUnsubscribed(this.attribute, count);
+    }
+  }
+
+  private void compact(
+    final int requestedCapacity)
+  {
+    final var capacity =
+      Math.max(MINIMUM_CAPACITY, requestedCapacity);
+    final Subscription<R>[] current =
+      this.slots;
+    final Subscription<R>[] compacted =
+      createSlots(capacity);
+
+    int target = 0;
+    final var limit = this.used;
+    for (int source = 0; source < limit; ++source) {
+      final var subscription = current[source];
+      if (subscription != null) {
+        compacted[target] = subscription;
+        subscription.index = target;
+        ++target;
+      }
+    }
+
+    this.slots = compacted;
+    this.used = target;
+  }
+
+  /**
+   * @return The attribute that owns the subscribers
+   */
+
+  Object attribute()
+  {
+    return this.attribute;
+  }
+
+  /**
+   * @return The number of open subscriptions
+   */
+
+  int size()
+  {
+    return this.live;
+  }
+
+  /**
+   * @return {@code true} if the attribute is being measured, receivers have
+   * a time budget, or receiver events are being recorded, and so receivers
+   * should be timed
+   */
+
+  boolean isTimed()
+  {
+    return this.metered
+      || this.budget != null
+      || AttributeEvents.isReceiverEnabled();
+  }
+
+  /**
+   * Report that the attribute stored a new value.
+   */
+
+  void updated()
+  {
+    if (this.metered) {
+      this.metrics.onUpdated(this.attribute);
+    }
+  }
+
+  /**
+   * Report that the attribute discarded an equivalent value.
+   */
+
+  void suppressed()
+  {
+    if (this.metered) {
+      this.metrics.onSuppressed(this.attribute);
+    }
+  }
+
+  /**
+   * Report that the attribute is publishing a value.
+   */
+
+  void published()
+  {
+    if (this.metered) {
+      this.metrics.onPublished(this.attribute, this.live);
+    }
+  }
+
+  /**
+   * Report the time taken by a receiver.
+   *
+   * @param subscription The subscription
+   * @param event        The receiver event, begun before the receiver was
+   *                     called
+   * @param nanos        The time taken, in nanoseconds
+   */
+
+  void received(
+    final Subscription<R> subscription,
+    final AttributeEvents.Receiver event,
+    final long nanos)
+  {
+    event.finish(this, subscription.receiver);
+    if (this.metered) {
+      this.metrics.onReceived(this.attribute, subscription.receiver, nanos);
+    }
+    if (nanos > this.budgetNanos && subscription.dispatcher == null) {
+      this.overrun(subscription, nanos);
+    }
+  }
+
+  private void overrun(
+    final Subscription<R> subscription,
+    final long nanos)
+  {
+    final var action = this.budget.action();
+    switch (action) {
+      case REPORT -> {
+        // The receiver stays where it is.
+      }
+      case CLOSE -> subscription.close();
+      case ISOLATE -> this.isolate(subscription);
+    }
+
+    try {
+      this.context.errorConsumer().accept(
+        new AttributeSlowReceiverException(
+          Duration.ofNanos(nanos),
+          this.budget.budget(),
+          action
+        )
+      );
+    } catch (final Throwable ignored) {
+      // Nothing we can do.
+    }
+  }
+
+  private void isolate(
+    final Subscription<R> subscription)
+  {
+    synchronized (this.lock) {
+      if (subscription.dispatcher == null) {
+        subscription.dispatcher =
+          AttributeDispatcher.create(
+            this.budget.executor().orElseThrow(),
+            AttributeDeliveryMode.ORDERED,
+            subscription,
+            this.deliveryFactory.apply(subscription.receiver)
+          );
+      }
+    }
+  }
+
+  /**
+   * Deliver a value change to every open subscription. Receivers that
+   * receive values on the publishing thread are called directly, and timed
+   * if necessary (see {@link #isTimed()}); other receivers are passed the
+   * change through their dispatchers. Expired subscriptions are closed, and
+   * receivers that raise exceptions are failed (see {@link #fail}).
+   *
+   * @param oldValue The old value
+   * @param newValue The new value
+   * @param delivery A function that passes values to a receiver
+   */
+
+  void deliver(
+    final Object oldValue,
+    final Object newValue,
+    final DeliveryType<R> delivery)
+  {
+    this.deliverAll(oldValue, newValue, 0L, 0L, delivery, null);
+  }
+
+  /**
+   * Deliver a change of a primitive value to every open subscription, in
+   * the same way as {@link #deliver(Object, Object, DeliveryType)}.
+   *
+   * @param oldBits  The bits of the old value
+   * @param newBits  The bits of the new value
+   * @param delivery A function that passes values to a receiver
+   */
+
+  void deliver(
+    final long oldBits,
+    final long newBits,
+    final PrimitiveDeliveryType<R> delivery)
+  {
+    this.deliverAll(null, null, oldBits, newBits, null, delivery);
+  }
+
+  private void deliverAll(
+    final Object oldValue,
+    final Object newValue,
+    final long oldBits,
+    final long newBits,
+    final DeliveryType<R> objects,
+    final PrimitiveDeliveryType<R> primitives)
+  {
+    final var count = this.used;
+    final var current = this.slots;
+    final var limit = Math.min(count, current.length);
+    final var timed = this.isTimed();
+    this.published();
+
+    final var event = AttributeEvents.beginPublish();
+
+    for (int index = 0; index < limit; ++index) {
+      final var subscriber = current[index];
+      if (subscriber == null) {
+        continue;
+      }
+
+      try {
+        if (subscriber.isClosed()) {
+          continue;
+        }
+        if (subscriber.isExpired()) {
+          subscriber.close();
+          continue;
+        }
+        final var dispatcher = subscriber.dispatcher;
+        if (dispatcher != null) {
+          if (objects != null) {
+            dispatcher.dispatch(oldValue, newValue);
+          } else {
+            dispatcher.dispatch(
+              primitives.box(oldBits),
+              primitives.box(newBits)
+            );
+          }
+          continue;
+        }
+        if (timed) {
+          final var receiverEvent = new AttributeEvents.Receiver();
+          receiverEvent.begin();
+          final var time = System.nanoTime();
+          receive(
+            subscriber.receiver,
+            oldValue,
+            newValue,
+            oldBits,
+            newBits,
+            objects,
+            primitives
+          );
+          this.received(subscriber, receiverEvent, System.nanoTime() - time);
+        } else {
+          receive(
+            subscriber.receiver,
+            oldValue,
+            newValue,
+            oldBits,
+            newBits,
+            objects,
+            primitives
+          );
+        }
+      } catch (final Throwable e) {
+        this.fail(subscriber, e);
+      }
+    }
+
+    if (event != null) {
+      event.finish(this);
+    }
+  }
+
+  private static <R> void receive(
+    final R receiver,
+    final Object oldValue,
+    final Object newValue,
+    final long oldBits,
+    final long newBits,
+    final DeliveryType<R> objects,
+    final PrimitiveDeliveryType<R> primitives)
+  {
+    if (objects != null) {
+      objects.receive(receiver, oldValue, newValue);
+    } else {
+      primitives.receive(receiver, oldBits, newBits);
+    }
+  }
+
+  /**
+   * Close a subscription whose receiver raised an exception, and pass the
+   * exception to the error consumer.
+   *
+   * @param subscription The subscription
+   * @param e            The exception
+   */
+
+  void fail(
+    final Subscription<R> subscription,
+    final Throwable e)
+  {
+    try (subscription) {
+      if (this.metered) {
+        this.metrics.onReceiverFailed(this.attribute, subscription.receiver, e);
+      }
+      this.context.errorConsumer().accept(e);
+    } catch (final Throwable ignored) {
+      // Nothing we can do.
+    }
+  }
+
+  /**
+   * A function that passes a value change to a receiver on the publishing
+   * thread. Implementations should not capture any state, so that
+   * publishing does not allocate.
+   *
+   * @param <R> The type of receivers
+   */
+
+  interface DeliveryType<R>
+  {
+    /**
+     * Pass a value change to a receiver.
+     *
+     * @param receiver The receiver
+     * @param oldValue The old value
+     * @param newValue The new value
+     */
+
+    void receive(
+      R receiver,
+      Object oldValue,
+      Object newValue);
+  }
+
+  /**
+   * A function that passes a change of a primitive value to a receiver on
+   * the publishing thread. Values are passed as the bits of the primitive
+   * values, so that they are not boxed unless they are passed to a
+   * dispatcher.
+   *
+   * @param <R> The type of receivers
+   */
+
+  interface PrimitiveDeliveryType<R>
+  {
+    /**
+     * Pass a value change to a receiver.
+     *
+     * @param receiver The receiver
+     * @param oldBits  The bits of the old value
+     * @param newBits  The bits of the new value
+     */
+
+    void receive(
+      R receiver,
+      long oldBits,
+      long newBits);
+
+    /**
+     * Box a value for delivery through a dispatcher.
+     *
+     * @param bits The bits of the value
+     *
+     * @return The boxed value
+     */
+
+    Object box(long bits);
+
+    /**
+     * Unbox a value delivered through a dispatcher.
+     *
+     * @param value The boxed value
+     *
+     * @return The bits of the value
+     */
+
+    long unbox(Object value);
+  }
+
+  /**
+   * A single subscription.
+   *
+   * @param <R> The type of receivers
+   */
+
+  static final class Subscription<R>
+    implements AttributeSubscriptionType
+  {
+    private final AttributeSubscribers<R> owner;
+    private final R receiver;
+    private final AttributeExpirableType expirable;
+    private final AtomicBoolean closed;
+    private volatile AttributeDispatcher dispatcher;
+    private int index;
+
+    private Subscription(
+      final AttributeSubscribers<R> inOwner,
+      final R inReceiver,
+      final AttributeExpirableType inExpirable)
+    {
+      this.owner =
+        Objects.requireNonNull(inOwner, "owner");
+      this.receiver =
+        Objects.requireNonNull(inReceiver, "receiver");
+      this.expirable =
+        inExpirable;
+      this.closed =
+        new AtomicBoolean(false);
+    }
+
+    /**
+     * @return The dispatcher that delivers values asynchronously, or
+     * {@code null} if values are delivered on the publishing thread
+     */
+
+    AttributeDispatcher dispatcher()
+    {
+      return this.dispatcher;
+    }
+
+    /**
+     * Close this subscription because its receiver raised an exception, and
+     * pass the exception to the error consumer.
+     *
+     * @param e The exception
+     */
+
+    void fail(
+      final Throwable e)
+    {
+      this.owner.fail(this, e);
+    }
+
+    /**
+     * @return {@code true} if the receiver should be timed
+     */
+
+    boolean isTimed()
+    {
+      return this.owner.isTimed();
+    }
+
+    /**
+     * Report the time taken by the receiver.
+     *
+     * @param event The receiver event, begun before the receiver was called
+     * @param nanos The time taken, in nanoseconds
+     */
+
+    void received(
+      final AttributeEvents.Receiver event,
+      final long nanos)
+    {
+      this.owner.received(this, event, nanos);
+    }
+
+    /**
+     * @return {@code true} if the subscription has expired and should be
+     * closed instead of receiving values
+     */
+
+    boolean isExpired()
+    {
+      final var e = this.expirable;
+      return e != null && e.isExpired();
+    }
+
+    @Override
+    public void close()
+      throws RuntimeException
+    {
+      if (this.closed.compareAndSet(false, true)) {
+        this.owner.remove(this);
+        this.owner.onClosed.run();
+      }
+    }
+
+    @Override
+    public boolean isClosed()
+    {
+      return this.closed.get();
+    }
+  }
+}
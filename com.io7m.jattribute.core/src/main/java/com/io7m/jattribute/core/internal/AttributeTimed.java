@@ -0,0 +1,433 @@
+/*
+ * Copyright © 2026 Mark Raynsford <code@io7m.com> https://www.io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+package com.io7m.jattribute.core.internal;
+
+import com.io7m.jattribute.core.AttributeReadableType;
+import com.io7m.jattribute.core.AttributeSchedulerType;
+import com.io7m.jattribute.core.AttributeSubscriptionType;
+import com.io7m.jattribute.core.AttributeType;
+
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.Objects;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Function;
+
+/**
+ * An attribute that republishes the values of a source attribute at a
+ * limited rate, using the scheduler of the attribute context.
+ *
+ * The attribute is only subscribed to its source whilst it has subscribers
+ * of its own (see {@link AttributeLink}). Whilst subscribed, each value
+ * published by the source is handled according to the mode, and at most one
+ * timer task is outstanding at any time. Timer tasks are tagged with the
+ * connection that scheduled them, and a task that belongs to a closed
+ * connection does nothing.
+ *
+ * Values to be published are stored, and queued, whilst holding the
+ * attribute's lock, either on the thread that updated the source or on the
+ * thread that runs the timer task. The queue is then drained after the lock
+ * is released, by at most one thread at a time, and so subscribers observe
+ * values in order but never run whilst the lock is held. Whilst
+ * unsubscribed, the attribute simply returns the current value of the
+ * source.
+ *
+ * @param <A> The type of values
+ */
+
+final class AttributeTimed<A>
+  extends AttributeAbstract<A>
+{
+  private final AttributeAbstract<A> source;
+  private final Mode mode;
+  private final long periodNanos;
+  private final AttributeSchedulerType scheduler;
+  private final AtomicReference<A> value;
+  private final AttributeSequence sequence;
+  private final AttributeLink<AttributeTimed<A>> link;
+  private final Object lock;
+  private final ArrayDeque<Emission<A>> emissions;
+  private AttributeLink.Connection<AttributeTimed<A>> connection;
+  private boolean emitting;
+  private boolean timerPending;
+  private boolean hasPending;
+  private A pending;
+  private long deadline;
+
+  /**
+   * Construct an attribute.
+   *
+   * @param inContext The attribute context
+   * @param inSource  The source attribute
+   * @param inMode    The mode
+   * @param inPeriod  The period of the mode
+   *
+   * @throws IllegalArgumentException If the period is negative
+   */
+
+  AttributeTimed(
+    final AttributeContext inContext,
+    final AttributeAbstract<A> inSource,
+    final Mode inMode,
+    final Duration inPeriod)
+    throws IllegalArgumentException
+  {
+    super(inContext, inSource.height() + 1);
+
+    Objects.requireNonNull(inPeriod, "period");
+    if (inPeriod.isNegative()) {
+      throw new IllegalArgumentException(
+        String.format("Period %s must be non-negative", inPeriod)
+      );
+    }
+
+    this.source =
+      Objects.requireNonNull(inSource, "source");
+    this.mode =
+      Objects.requireNonNull(inMode, "mode");
+    this.periodNanos =
+      inPeriod.toNanos();
+    this.scheduler =
+      inContext.scheduler();
+    this.value =
+      new AtomicReference<>();
+    this.sequence =
+      new AttributeSequence();
+    this.lock =
+      new Object();
+    this.emissions =
+      new ArrayDeque<>();
+    this.link =
+      new AttributeLink<>(inContext, this, AttributeTimed::connect);
+  }
+
+  private static <A> AttributeSubscriptionType connect(
+    final AttributeLink.Connection<AttributeTimed<A>> connection)
+  {
+    final var target = connection.target();
+    final var subscription =
+      target.source.subscribeExpirable(
+        (oldValue, newValue) -> onSourceChanged(connection, newValue),
+        connection
+      );
+
+    /*
+     * The initial value delivered by the source upon subscription is
+     * ignored; the attribute starts with the current value of the source,
+     * and only subsequent changes are rate-limited.
+     */
+
+    synchronized (target.lock) {
+      target.connection = connection;
+      target.emissions.clear();
+      target.timerPending = false;
+      target.hasPending = false;
+      target.pending = null;
+
+      final var start = target.sequence.beginWrite();
+      target.value.set(target.source.get());
+      target.sequence.endWrite(start, true);
+    }
+
+    connection.initialize();
+    return subscription;
+  }
+
+  private static <A> void onSourceChanged(
+    final AttributeLink.Connection<AttributeTimed<A>> connection,
+    final A newValue)
+  {
+    if (!connection.isInitialized()) {
+      return;
+    }
+
+    final var target = connection.target();
+    if (target == null) {
+      return;
+    }
+    target.onChanged(connection, newValue);
+  }
+
+  private void onChanged(
+    final AttributeLink.Connection<AttributeTimed<A>> changeConnection,
+    final A newValue)
+  {
+    synchronized (this.lock) {
+      if (changeConnection != this.connection) {
+        return;
+      }
+
+      switch (this.mode) {
+        case THROTTLE -> {
+          if (this.timerPending) {
+            this.offer(newValue);
+          } else {
+            this.startTimer(this.periodNanos);
+            this.emit(newValue);
+          }
+        }
+        case DEBOUNCE -> {
+          this.offer(newValue);
+          this.deadline = this.scheduler.nanoTime() + this.periodNanos;
+          if (!this.timerPending) {
+            this.startTimer(this.periodNanos);
+          }
+        }
+        case SAMPLE -> {
+          this.offer(newValue);
+          if (!this.timerPending) {
+            this.startTimer(this.periodNanos);
+          }
+        }
+      }
+    }
+    this.drain();
+  }
+
+  private void onTimer(
+    final AttributeLink.Connection<AttributeTimed<A>> timerConnection)
+  {
+    synchronized (this.lock) {
+      if (timerConnection != this.connection) {
+        return;
+      }
+      if (timerConnection.target() == null) {
+        return;
+      }
+
+      this.timerPending = false;
+      switch (this.mode) {
+        case THROTTLE -> {
+          if (this.hasPending) {
+            this.startTimer(this.periodNanos);
+            this.emit(this.take());
+          }
+        }
+        case DEBOUNCE -> {
+          final var remaining = this.deadline - this.scheduler.nanoTime();
+          if (remaining > 0L) {
+            this.startTimer(remaining);
+          } else {
+            this.emit(this.take());
+          }
+        }
+        case SAMPLE -> {
+          this.emit(this.take());
+        }
+      }
+    }
+    this.drain();
+  }
+
+  private void offer(
+    final A newValue)
+  {
+    this.pending = newValue;
+    this.hasPending = true;
+  }
+
+  private A take()
+  {
+    final var result = this.pending;
+    this.pending = null;
+    this.hasPending = false;
+    return result;
+  }
+
+  private void startTimer(
+    final long delayNanos)
+  {
+    final var timerConnection = this.connection;
+    this.timerPending = true;
+
+    try {
+      this.scheduler.schedule(delayNanos, () -> this.onTimer(timerConnection));
+    } catch (final Throwable e) {
+      this.timerPending = false;
+      try {
+        this.context().errorConsumer().accept(e);
+      } catch (final Throwable ignored) {
+        // Nothing we can do.
+      }
+    }
+  }
+
+  /**
+   * Store a value and queue it for publication. Called with the lock held;
+   * the value is published by {@link #drain()} once the lock is released.
+   *
+   * @param newValue The new value
+   */
+
+  private void emit(
+    final A newValue)
+  {
+    final var oldValue = this.value.get();
+    if (this.isEquivalent(oldValue, newValue)) {
+      return;
+    }
+
+    final var start = this.sequence.beginWrite();
+    this.value.set(newValue);
+    this.sequence.endWrite(start, true);
+    this.emissions.add(new Emission<>(oldValue, newValue));
+  }
+
+  /**
+   * Publish queued values in order. Called without the lock held. If
+   * another thread is already publishing (or this thread is publishing, and
+   * a receiver caused a new value to be queued), the values are left for
+   * that thread to publish.
+   */
+
+  private void drain()
+  {
+    synchronized (this.lock) {
+      if (this.emitting || this.emissions.isEmpty()) {
+        return;
+      }
+      this.emitting = true;
+    }
+
+    try {
+      while (true) {
+        final Emission<A> emission;
+        synchronized (this.lock) {
+          emission = this.emissions.poll();
+          if (emission == null) {
+            this.emitting = false;
+            return;
+          }
+        }
+        this.publish(emission.oldValue, emission.newValue);
+      }
+    } catch (final Throwable e) {
+      synchronized (this.lock) {
+        this.emitting = false;
+      }
+      throw e;
+    }
+  }
+
+  @Override
+  protected void onSubscriptionOpened()
+  {
+    this.link.acquire();
+  }
+
+  @Override
+  protected void onSubscriptionClosed()
+  {
+    this.link.release();
+  }
+
+  @Override
+  public A get()
+  {
+    if (this.link.isConnected()) {
+      return this.value.get();
+    }
+    return this.source.get();
+  }
+
+  /**
+   * The version of a rate-limited attribute only increases when a value is
+   * published, and so only increases whilst the attribute has subscribers.
+   */
+
+  @Override
+  long sequence()
+  {
+    return this.sequence.get();
+  }
+
+  @Override
+  A current()
+  {
+    if (this.link.isConnected()) {
+      return this.value.get();
+    }
+    return this.source.current();
+  }
+
+  @Override
+  public <B> AttributeReadableType<B> mapR(
+    final Function<A, B> f)
+  {
+    return new AttributeMap<>(this.context(), this, f);
+  }
+
+  @Override
+  protected boolean compareAndStore(
+    final A expected,
+    final A newValue)
+  {
+    return true;
+  }
+
+  @Override
+  public <B> AttributeType<B> map(
+    final Function<A, B> f)
+  {
+    return new AttributeMap<>(this.context(), this, f);
+  }
+
+  /**
+   * A value queued for publication.
+   *
+   * @param oldValue The old value
+   * @param newValue The new value
+   * @param <A>      The type of values
+   */
+
+  private record Emission<A>(
+    A oldValue,
+    A newValue)
+  {
+
+  }
+
+  /**
+   * The manner in which values are rate-limited.
+   */
+
+  enum Mode
+  {
+    /**
+     * A value is published immediately if no value has been published in
+     * the current period, and starts a new period; values that arrive
+     * during the period are held, and the latest is published at the end
+     * of the period (starting another period).
+     */
+
+    THROTTLE,
+
+    /**
+     * Values are held until the source has not changed for a full period,
+     * and then the latest value is published.
+     */
+
+    DEBOUNCE,
+
+    /**
+     * The first value to arrive starts a period, and the latest value to
+     * arrive is published at the end of the period.
+     */
+
+    SAMPLE
+  }
+}
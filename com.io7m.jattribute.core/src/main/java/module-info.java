@@ -24,5 +24,7 @@ module com.io7m.jattribute.core
   requires static org.osgi.annotation.versioning;
   requires static com.io7m.jcip.annotations;
 
+  requires jdk.jfr;
+
   exports com.io7m.jattribute.core;
 }
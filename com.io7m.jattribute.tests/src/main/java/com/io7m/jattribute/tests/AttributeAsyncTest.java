@@ -0,0 +1,309 @@
+/*
+ * Copyright © 2026 Mark Raynsford <code@io7m.com> https://www.io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+package com.io7m.jattribute.tests;
+
+import com.io7m.jattribute.core.AttributeDeliveryMode;
+import com.io7m.jattribute.core.Attributes;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public final class AttributeAsyncTest
+{
+  private static final Logger LOG =
+    LoggerFactory.getLogger(AttributeAsyncTest.class);
+
+  private List<String> events;
+  private AtomicInteger errors;
+  private ExecutorService executor;
+
+  @BeforeEach
+  public void setup()
+  {
+    this.events = Collections.synchronizedList(new ArrayList<String>());
+    this.errors = new AtomicInteger(0);
+    this.executor = Executors.newFixedThreadPool(4);
+  }
+
+  @AfterEach
+  public void tearDown()
+    throws InterruptedException
+  {
+    this.executor.shutdown();
+    assertTrue(this.executor.awaitTermination(60L, TimeUnit.SECONDS));
+  }
+
+  private void onError(
+    final Throwable throwable)
+  {
+    LOG.error("error: ", throwable);
+    this.errors.incrementAndGet();
+  }
+
+  private void await()
+    throws InterruptedException
+  {
+    this.executor.shutdown();
+    assertTrue(this.executor.awaitTermination(60L, TimeUnit.SECONDS));
+  }
+
+  /**
+   * Values are delivered asynchronously and in order.
+   */
+
+  @Test
+  public void testOrdered()
+    throws Exception
+  {
+    final var attributes =
+      Attributes.builder(this::onError)
+        .setExecutor(this.executor)
+        .build();
+
+    final var attr0 = attributes.withValue(0);
+    final var received0 = Collections.synchronizedList(new ArrayList<Integer>());
+    final var received1 = Collections.synchronizedList(new ArrayList<Integer>());
+
+    attr0.subscribe((oldValue, newValue) -> received0.add(newValue));
+    attr0.subscribe((oldValue, newValue) -> received1.add(newValue));
+
+    for (int index = 1; index <= 1000; ++index) {
+      attr0.set(index);
+    }
+
+    this.await();
+
+    assertEquals(1001, received0.size());
+    assertEquals(1001, received1.size());
+    for (int index = 0; index <= 1000; ++index) {
+      assertEquals(index, received0.get(index));
+      assertEquals(index, received1.get(index));
+    }
+    assertEquals(0, this.errors.get());
+  }
+
+  /**
+   * A slow subscriber does not block the writer.
+   */
+
+  @Test
+  public void testSlowSubscriber()
+    throws Exception
+  {
+    final var attributes =
+      Attributes.create(this::onError);
+
+    final var attr0 = attributes.withValue(0);
+    final var blocked = new CountDownLatch(1);
+
+    attr0.subscribe(this.executor, (oldValue, newValue) -> {
+      try {
+        blocked.await();
+      } catch (final InterruptedException e) {
+        Thread.currentThread().interrupt();
+      }
+      this.events.add("attr0 s0 " + oldValue + " " + newValue);
+    });
+
+    attr0.set(1);
+    attr0.set(2);
+    assertEquals(0, this.events.size());
+    blocked.countDown();
+
+    this.await();
+
+    assertEquals("attr0 s0 0 0", this.events.remove(0));
+    assertEquals("attr0 s0 0 1", this.events.remove(0));
+    assertEquals("attr0 s0 1 2", this.events.remove(0));
+    assertEquals(0, this.events.size());
+    assertEquals(0, this.errors.get());
+  }
+
+  /**
+   * Asynchronous and synchronous subscriptions can be mixed, and derived
+   * attributes deliver values asynchronously.
+   */
+
+  @Test
+  public void testMixed()
+    throws Exception
+  {
+    final var attributes =
+      Attributes.create(this::onError);
+
+    final var attr0 = attributes.withValue(0);
+    final var attr1 = attr0.mapR(x -> x * 2);
+    final var thread = Thread.currentThread();
+    final var sameThread = new AtomicInteger(0);
+
+    attr0.subscribe((oldValue, newValue) -> {
+      if (Thread.currentThread() == thread) {
+        sameThread.incrementAndGet();
+      }
+    });
+    attr1.subscribe(this.executor, (oldValue, newValue) -> {
+      if (Thread.currentThread() == thread) {
+        sameThread.incrementAndGet();
+      }
+      this.events.add("attr1 s0 " + oldValue + " " + newValue);
+    });
+
+    attr0.set(1);
+    attr0.set(2);
+
+    this.await();
+
+    assertEquals(3, sameThread.get());
+    assertEquals("attr1 s0 0 0", this.events.remove(0));
+    assertEquals("attr1 s0 0 2", this.events.remove(0));
+    assertEquals("attr1 s0 2 4", this.events.remove(0));
+    assertEquals(0, this.events.size());
+    assertEquals(0, this.errors.get());
+  }
+
+  /**
+   * An asynchronous subscriber that raises an exception is unsubscribed.
+   */
+
+  @Test
+  public void testCrash()
+    throws Exception
+  {
+    final var attributes =
+      Attributes.builder(this::onError)
+        .setExecutor(this.executor)
+        .build();
+
+    final var attr0 = attributes.withInt(0);
+
+    attr0.subscribe((oldValue, newValue) -> {
+      this.events.add("attr0 s0 " + oldValue + " " + newValue);
+      if (newValue == 1) {
+        throw new IllegalStateException();
+      }
+    });
+
+    attr0.set(1);
+    attr0.set(2);
+
+    this.await();
+
+    assertEquals("attr0 s0 0 0", this.events.remove(0));
+    assertEquals("attr0 s0 0 1", this.events.remove(0));
+    assertEquals(0, this.events.size());
+    assertEquals(1, this.errors.get());
+  }
+
+  /**
+   * Conflating subscriptions receive a single update covering a burst.
+   */
+
+  @Test
+  public void testConflated()
+    throws Exception
+  {
+    final var attributes =
+      Attributes.create(this::onError);
+
+    final var attr0 = attributes.withValue(0);
+    final var entered = new CountDownLatch(1);
+    final var blocked = new CountDownLatch(1);
+
+    attr0.subscribe(
+      this.executor,
+      AttributeDeliveryMode.CONFLATED,
+      (oldValue, newValue) -> {
+        entered.countDown();
+        try {
+          blocked.await();
+        } catch (final InterruptedException e) {
+          Thread.currentThread().interrupt();
+        }
+        this.events.add("attr0 s0 " + oldValue + " " + newValue);
+      });
+
+    assertTrue(entered.await(60L, TimeUnit.SECONDS));
+    for (int index = 1; index <= 1000; ++index) {
+      attr0.set(index);
+    }
+    blocked.countDown();
+
+    this.await();
+
+    assertEquals("attr0 s0 0 0", this.events.remove(0));
+    assertEquals("attr0 s0 0 1000", this.events.remove(0));
+    assertEquals(0, this.events.size());
+    assertEquals(0, this.errors.get());
+  }
+
+  /**
+   * Conflating primitive subscriptions receive a single update covering a
+   * burst.
+   */
+
+  @Test
+  public void testConflatedPrimitive()
+    throws Exception
+  {
+    final var attributes =
+      Attributes.create(this::onError);
+
+    final var attr0 = attributes.withDouble(0.0);
+    final var entered = new CountDownLatch(1);
+    final var blocked = new CountDownLatch(1);
+
+    attr0.subscribe(
+      this.executor,
+      AttributeDeliveryMode.CONFLATED,
+      (oldValue, newValue) -> {
+        entered.countDown();
+        try {
+          blocked.await();
+        } catch (final InterruptedException e) {
+          Thread.currentThread().interrupt();
+        }
+        this.events.add("attr0 s0 " + oldValue + " " + newValue);
+      });
+
+    assertTrue(entered.await(60L, TimeUnit.SECONDS));
+    for (int index = 1; index <= 1000; ++index) {
+      attr0.addAndGet(1.0);
+    }
+    blocked.countDown();
+
+    this.await();
+
+    assertEquals("attr0 s0 0.0 0.0", this.events.remove(0));
+    assertEquals("attr0 s0 0.0 1000.0", this.events.remove(0));
+    assertEquals(0, this.events.size());
+    assertEquals(0, this.errors.get());
+  }
+}
@@ -0,0 +1,170 @@
+/*
+ * Copyright © 2026 Mark Raynsford <code@io7m.com> https://www.io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+package com.io7m.jattribute.tests;
+
+import com.io7m.jattribute.core.Attributes;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public final class AttributeAtomicTest
+{
+  private static final Logger LOG =
+    LoggerFactory.getLogger(AttributeAtomicTest.class);
+
+  private ArrayList<String> events;
+  private Attributes attributes;
+  private AtomicInteger errors;
+
+  @BeforeEach
+  public void setup()
+  {
+    this.events = new ArrayList<String>();
+    this.errors = new AtomicInteger(0);
+    this.attributes = Attributes.create(throwable -> {
+      LOG.error("error: ", throwable);
+      this.errors.incrementAndGet();
+    });
+  }
+
+  /**
+   * Setting an attribute returns the old value.
+   */
+
+  @Test
+  public void testSetReturnsOld()
+  {
+    final var attr0 = this.attributes.withValue(23);
+    assertEquals(23, attr0.set(25));
+    assertEquals(25, attr0.set(26));
+    assertEquals(26, attr0.get());
+  }
+
+  /**
+   * Compare-and-set works.
+   */
+
+  @Test
+  public void testCompareAndSet()
+  {
+    final var x = "x";
+    final var y = "y";
+    final var attr0 = this.attributes.withValue(x);
+
+    attr0.subscribe((oldValue, newValue) -> {
+      this.events.add("attr0 s0 " + oldValue + " " + newValue);
+    });
+
+    assertFalse(attr0.compareAndSet(y, x));
+    assertTrue(attr0.compareAndSet(x, y));
+    assertFalse(attr0.compareAndSet(x, y));
+    assertEquals(y, attr0.get());
+
+    assertEquals("attr0 s0 x x", this.events.remove(0));
+    assertEquals("attr0 s0 x y", this.events.remove(0));
+    assertEquals(0, this.events.size());
+    assertEquals(0, this.errors.get());
+  }
+
+  /**
+   * The update functions return the correct values.
+   */
+
+  @Test
+  public void testUpdates()
+  {
+    final var attr0 = this.attributes.withValue(1);
+
+    attr0.subscribe((oldValue, newValue) -> {
+      this.events.add("attr0 s0 " + oldValue + " " + newValue);
+    });
+
+    assertEquals(1, attr0.getAndUpdate(x -> x + 1));
+    assertEquals(3, attr0.updateAndGet(x -> x + 1));
+    assertEquals(13, attr0.accumulateAndGet(10, Integer::sum));
+
+    assertEquals("attr0 s0 1 1", this.events.remove(0));
+    assertEquals("attr0 s0 1 2", this.events.remove(0));
+    assertEquals("attr0 s0 2 3", this.events.remove(0));
+    assertEquals("attr0 s0 3 13", this.events.remove(0));
+    assertEquals(0, this.events.size());
+    assertEquals(0, this.errors.get());
+  }
+
+  /**
+   * Concurrent updates are not lost, and every published pair is
+   * consistent.
+   */
+
+  @Test
+  public void testConcurrentUpdates()
+    throws Exception
+  {
+    final var threads = 8;
+    final var iterations = 10_000;
+    final var attr0 = this.attributes.withValue(0);
+    final var seen = ConcurrentHashMap.<Integer>newKeySet();
+    final var inconsistent = new AtomicInteger(0);
+
+    attr0.subscribe((oldValue, newValue) -> {
+      if (newValue.intValue() != oldValue.intValue() + 1) {
+        if (newValue.intValue() != 0) {
+          inconsistent.incrementAndGet();
+        }
+      }
+      seen.add(newValue);
+    });
+
+    final var executor = Executors.newFixedThreadPool(threads);
+    try {
+      final var start = new CountDownLatch(1);
+      for (int t = 0; t < threads; ++t) {
+        executor.execute(() -> {
+          try {
+            start.await();
+          } catch (final InterruptedException e) {
+            Thread.currentThread().interrupt();
+          }
+          for (int index = 0; index < iterations; ++index) {
+            attr0.updateAndGet(x -> x + 1);
+          }
+        });
+      }
+      start.countDown();
+    } finally {
+      executor.shutdown();
+      assertTrue(executor.awaitTermination(60L, TimeUnit.SECONDS));
+    }
+
+    assertEquals(threads * iterations, attr0.get());
+    assertEquals(threads * iterations + 1, seen.size());
+    assertEquals(0, inconsistent.get());
+    assertEquals(0, this.errors.get());
+  }
+}
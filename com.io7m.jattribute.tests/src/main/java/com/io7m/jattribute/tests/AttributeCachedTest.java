@@ -0,0 +1,267 @@
+/*
+ * Copyright © 2026 Mark Raynsford <code@io7m.com> https://www.io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+package com.io7m.jattribute.tests;
+
+import com.io7m.jattribute.core.AttributeSchedulerType;
+import com.io7m.jattribute.core.Attributes;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+public final class AttributeCachedTest
+{
+  private static final Logger LOG =
+    LoggerFactory.getLogger(AttributeCachedTest.class);
+
+  private static final Duration TTL =
+    Duration.ofMillis(100L);
+
+  private ArrayList<String> events;
+  private Attributes attributes;
+  private AtomicInteger errors;
+  private AtomicInteger calls;
+  private FakeClock clock;
+
+  @BeforeEach
+  public void setup()
+  {
+    this.events = new ArrayList<String>();
+    this.errors = new AtomicInteger(0);
+    this.calls = new AtomicInteger(0);
+    this.clock = new FakeClock();
+    this.attributes =
+      Attributes.builder(throwable -> {
+          LOG.error("error: ", throwable);
+          this.errors.incrementAndGet();
+        })
+        .setScheduler(this.clock)
+        .build();
+  }
+
+  private static final class FakeClock
+    implements AttributeSchedulerType
+  {
+    private long now;
+
+    FakeClock()
+    {
+
+    }
+
+    @Override
+    public long nanoTime()
+    {
+      return this.now;
+    }
+
+    @Override
+    public void schedule(
+      final long delayNanos,
+      final Runnable task)
+    {
+      throw new UnsupportedOperationException();
+    }
+
+    void advance(
+      final Duration duration)
+    {
+      this.now += duration.toNanos();
+    }
+  }
+
+  /**
+   * The function is evaluated once, and then only after invalidation.
+   */
+
+  @Test
+  public void testInvalidate()
+  {
+    final var source = new AtomicInteger(1);
+    final var attr0 = this.attributes.fromFunctionCached(() -> {
+      this.calls.incrementAndGet();
+      return Integer.valueOf(source.get());
+    });
+
+    assertEquals(0, this.calls.get());
+    assertEquals(1, attr0.get());
+    assertEquals(1, attr0.get());
+    assertEquals(1, this.calls.get());
+
+    source.set(2);
+    assertEquals(1, attr0.get());
+    attr0.invalidate();
+    assertEquals(1, this.calls.get());
+    assertEquals(2, attr0.get());
+    assertEquals(2, attr0.get());
+    assertEquals(2, this.calls.get());
+    assertEquals(0, this.errors.get());
+  }
+
+  /**
+   * Setting the attribute stores the value until the attribute is
+   * invalidated.
+   */
+
+  @Test
+  public void testSet()
+  {
+    final var source = new AtomicInteger(1);
+    final var attr0 = this.attributes.fromFunctionCached(() -> {
+      this.calls.incrementAndGet();
+      return Integer.valueOf(source.get());
+    });
+
+    attr0.subscribe((oldValue, newValue) -> {
+      this.events.add("attr0 s0 " + oldValue + " " + newValue);
+    });
+
+    attr0.set(5);
+    assertEquals(5, attr0.get());
+    assertEquals(1, this.calls.get());
+
+    attr0.invalidate();
+    assertEquals(1, attr0.get());
+    assertEquals(2, this.calls.get());
+
+    assertEquals("attr0 s0 1 1", this.events.remove(0));
+    assertEquals("attr0 s0 1 5", this.events.remove(0));
+    assertEquals("attr0 s0 5 1", this.events.remove(0));
+    assertEquals(0, this.events.size());
+    assertEquals(0, this.errors.get());
+  }
+
+  /**
+   * Invalidating a subscribed attribute refreshes the value immediately, and
+   * subscribers are only notified if the value changed.
+   */
+
+  @Test
+  public void testInvalidateNotifiesChanges()
+  {
+    final var source = new AtomicInteger(1);
+    final var attr0 = this.attributes.fromFunctionCached(() -> {
+      this.calls.incrementAndGet();
+      return Integer.valueOf(source.get());
+    });
+
+    attr0.subscribe((oldValue, newValue) -> {
+      this.events.add("attr0 s0 " + oldValue + " " + newValue);
+    });
+
+    attr0.invalidate();
+    source.set(2);
+    attr0.invalidate();
+    attr0.invalidate();
+    assertEquals(4, this.calls.get());
+
+    assertEquals("attr0 s0 1 1", this.events.remove(0));
+    assertEquals("attr0 s0 1 2", this.events.remove(0));
+    assertEquals(0, this.events.size());
+    assertEquals(0, this.errors.get());
+  }
+
+  /**
+   * Refreshing an unchanged value publishes nothing under the default
+   * equivalence, whether the value is refreshed by invalidation or expiry.
+   */
+
+  @Test
+  public void testRefreshUnchangedDefault()
+  {
+    final var attr0 = this.attributes.fromFunctionCached(
+      () -> {
+        this.calls.incrementAndGet();
+        return Integer.valueOf(42);
+      },
+      TTL
+    );
+
+    attr0.subscribe((oldValue, newValue) -> {
+      this.events.add("attr0 s0 " + oldValue + " " + newValue);
+    });
+
+    attr0.invalidate();
+    attr0.invalidate();
+    this.clock.advance(TTL);
+    assertEquals(42, attr0.get());
+    assertEquals(4, this.calls.get());
+
+    assertEquals("attr0 s0 42 42", this.events.remove(0));
+    assertEquals(0, this.events.size());
+    assertEquals(0, this.errors.get());
+  }
+
+  /**
+   * Values expire after the time-to-live.
+   */
+
+  @Test
+  public void testTimeToLive()
+  {
+    final var source = new AtomicInteger(1);
+    final var attr0 = this.attributes.fromFunctionCached(
+      () -> {
+        this.calls.incrementAndGet();
+        return Integer.valueOf(source.get());
+      },
+      TTL
+    );
+
+    attr0.subscribe((oldValue, newValue) -> {
+      this.events.add("attr0 s0 " + oldValue + " " + newValue);
+    });
+
+    source.set(2);
+    this.clock.advance(TTL.dividedBy(2L));
+    assertEquals(1, attr0.get());
+    assertEquals(1, this.calls.get());
+
+    this.clock.advance(TTL.dividedBy(2L));
+    assertEquals(2, attr0.get());
+    assertEquals(2, attr0.get());
+    assertEquals(2, this.calls.get());
+
+    this.clock.advance(TTL);
+    assertEquals(2, attr0.get());
+    assertEquals(3, this.calls.get());
+
+    assertEquals("attr0 s0 1 1", this.events.remove(0));
+    assertEquals("attr0 s0 1 2", this.events.remove(0));
+    assertEquals(0, this.events.size());
+    assertEquals(0, this.errors.get());
+  }
+
+  /**
+   * A time-to-live must be positive.
+   */
+
+  @Test
+  public void testTimeToLiveInvalid()
+  {
+    assertThrows(IllegalArgumentException.class, () -> {
+      this.attributes.fromFunctionCached(() -> 1, Duration.ZERO);
+    });
+  }
+}
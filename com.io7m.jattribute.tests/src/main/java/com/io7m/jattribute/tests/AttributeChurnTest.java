@@ -0,0 +1,160 @@
+/*
+ * Copyright © 2026 Mark Raynsford <code@io7m.com> https://www.io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+package com.io7m.jattribute.tests;
+
+import com.io7m.jattribute.core.AttributeSubscriptionType;
+import com.io7m.jattribute.core.Attributes;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.Random;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public final class AttributeChurnTest
+{
+  private static final Logger LOG =
+    LoggerFactory.getLogger(AttributeChurnTest.class);
+
+  private Attributes attributes;
+  private AtomicInteger errors;
+
+  @BeforeEach
+  public void setup()
+  {
+    this.errors = new AtomicInteger(0);
+    this.attributes = Attributes.create(throwable -> {
+      LOG.error("error: ", throwable);
+      this.errors.incrementAndGet();
+    });
+  }
+
+  /**
+   * Closing arbitrary subscriptions leaves exactly the remaining
+   * subscriptions receiving values.
+   */
+
+  @Test
+  public void testCloseArbitrary()
+  {
+    final var count = 10000;
+    final var attr0 = this.attributes.withValue(0);
+    final var received = new AtomicIntegerArray(count);
+    final var subscriptions = new ArrayList<AttributeSubscriptionType>();
+
+    for (int index = 0; index < count; ++index) {
+      final var receiverIndex = index;
+      subscriptions.add(attr0.subscribe((oldValue, newValue) -> {
+        received.incrementAndGet(receiverIndex);
+      }));
+    }
+
+    final var random = new Random(0x5eedL);
+    final var closed = new boolean[count];
+    for (int index = 0; index < count * 3 / 4; ++index) {
+      final var target = random.nextInt(count);
+      subscriptions.get(target).close();
+      closed[target] = true;
+    }
+
+    attr0.set(1);
+
+    for (int index = 0; index < count; ++index) {
+      if (closed[index]) {
+        assertEquals(1, received.get(index));
+      } else {
+        assertEquals(2, received.get(index));
+      }
+    }
+
+    for (final var subscription : subscriptions) {
+      subscription.close();
+    }
+
+    final var late = new AtomicInteger(0);
+    attr0.subscribe((oldValue, newValue) -> late.incrementAndGet());
+    attr0.set(2);
+
+    assertEquals(2, late.get());
+    for (int index = 0; index < count; ++index) {
+      assertTrue(received.get(index) <= 2);
+    }
+    assertEquals(0, this.errors.get());
+  }
+
+  /**
+   * Subscriptions that remain open whilst other subscriptions churn
+   * concurrently receive every value exactly once.
+   */
+
+  @Test
+  public void testChurnConcurrent()
+    throws Exception
+  {
+    final var attr0 = this.attributes.withValue(0);
+    final var stable = new AtomicIntegerArray(100);
+
+    for (int index = 0; index < 100; ++index) {
+      final var receiverIndex = index;
+      attr0.subscribe((oldValue, newValue) -> {
+        stable.incrementAndGet(receiverIndex);
+      });
+    }
+
+    final var done = new AtomicBoolean(false);
+    final var executor = Executors.newFixedThreadPool(4);
+    try {
+      for (int thread = 0; thread < 4; ++thread) {
+        executor.execute(() -> {
+          while (!done.get()) {
+            final var subscriptions = new ArrayList<AttributeSubscriptionType>();
+            for (int index = 0; index < 100; ++index) {
+              subscriptions.add(attr0.subscribe((oldValue, newValue) -> {
+
+              }));
+            }
+            for (final var subscription : subscriptions) {
+              subscription.close();
+            }
+          }
+        });
+      }
+
+      for (int index = 1; index <= 10000; ++index) {
+        attr0.set(index);
+      }
+    } finally {
+      done.set(true);
+      executor.shutdown();
+      assertTrue(executor.awaitTermination(60L, TimeUnit.SECONDS));
+    }
+
+    for (int index = 0; index < 100; ++index) {
+      assertEquals(10001, stable.get(index));
+    }
+    assertEquals(0, this.errors.get());
+  }
+}
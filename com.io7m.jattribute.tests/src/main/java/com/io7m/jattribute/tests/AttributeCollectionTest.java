@@ -0,0 +1,337 @@
+/*
+ * Copyright © 2026 Mark Raynsford <code@io7m.com> https://www.io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+package com.io7m.jattribute.tests;
+
+import com.io7m.jattribute.core.AttributeEquivalenceType;
+import com.io7m.jattribute.core.AttributeListChange;
+import com.io7m.jattribute.core.AttributeMapChange;
+import com.io7m.jattribute.core.AttributeSetChange;
+import com.io7m.jattribute.core.Attributes;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public final class AttributeCollectionTest
+{
+  private static final Logger LOG =
+    LoggerFactory.getLogger(AttributeCollectionTest.class);
+
+  private ArrayList<Object> events;
+  private Attributes attributes;
+  private int errors;
+
+  @BeforeEach
+  public void setup()
+  {
+    this.events = new ArrayList<Object>();
+    this.errors = 0;
+
+    this.attributes =
+      Attributes.builder(throwable -> {
+          LOG.error("error: ", throwable);
+          ++this.errors;
+        })
+        .setEquivalence(AttributeEquivalenceType.equality())
+        .build();
+  }
+
+  /**
+   * List changes are published individually, and applying them reproduces
+   * the list.
+   */
+
+  @Test
+  public void testList()
+  {
+    final var list0 = this.attributes.withList(List.of("a", "b"));
+    final var mirror = new ArrayList<String>();
+
+    list0.subscribe(change -> {
+      this.events.add(change);
+      if (change instanceof final AttributeListChange.Added<String> added) {
+        mirror.add(added.index(), added.element());
+      } else if (change instanceof final AttributeListChange.Removed<String> removed) {
+        mirror.remove(removed.index());
+      } else if (change instanceof final AttributeListChange.Replaced<String> replaced) {
+        mirror.set(replaced.index(), replaced.newElement());
+      } else if (change instanceof AttributeListChange.Cleared<String>) {
+        mirror.clear();
+      }
+    });
+
+    list0.add("c");
+    list0.add(0, "z");
+    assertEquals("b", list0.set(2, "B"));
+    assertEquals("B", list0.set(2, "B"));
+    assertEquals("a", list0.remove(1));
+    list0.addAll(List.of("d", "e"));
+    assertEquals(List.of("z", "B", "c", "d", "e"), list0.snapshot());
+    assertEquals(mirror, list0.snapshot());
+    assertEquals(5, list0.size());
+    assertEquals("d", list0.get(3));
+
+    list0.clear();
+    assertEquals(List.of(), list0.snapshot());
+    assertEquals(List.of(), mirror);
+    list0.clear();
+
+    assertEquals(new AttributeListChange.Added<>(0, "a"), this.events.remove(0));
+    assertEquals(new AttributeListChange.Added<>(1, "b"), this.events.remove(0));
+    assertEquals(new AttributeListChange.Added<>(2, "c"), this.events.remove(0));
+    assertEquals(new AttributeListChange.Added<>(0, "z"), this.events.remove(0));
+    assertEquals(new AttributeListChange.Replaced<>(2, "b", "B"), this.events.remove(0));
+    assertEquals(new AttributeListChange.Removed<>(1, "a"), this.events.remove(0));
+    assertEquals(new AttributeListChange.Added<>(3, "d"), this.events.remove(0));
+    assertEquals(new AttributeListChange.Added<>(4, "e"), this.events.remove(0));
+    assertEquals(new AttributeListChange.Cleared<>(5), this.events.remove(0));
+    assertEquals(0, this.events.size());
+    assertEquals(0, this.errors);
+  }
+
+  /**
+   * Set changes are published individually, and only for real changes.
+   */
+
+  @Test
+  public void testSet()
+  {
+    final var set0 = this.attributes.withSet(List.of(1, 2));
+    set0.subscribe(this.events::add);
+
+    assertTrue(set0.add(3));
+    assertFalse(set0.add(3));
+    assertTrue(set0.remove(1));
+    assertFalse(set0.remove(1));
+    set0.addAll(List.of(2, 3, 4));
+    assertTrue(set0.contains(4));
+    assertEquals(Set.of(2, 3, 4), set0.snapshot());
+    set0.clear();
+    assertEquals(0, set0.size());
+    set0.clear();
+
+    assertEquals(new AttributeSetChange.Added<>(1), this.events.remove(0));
+    assertEquals(new AttributeSetChange.Added<>(2), this.events.remove(0));
+    assertEquals(new AttributeSetChange.Added<>(3), this.events.remove(0));
+    assertEquals(new AttributeSetChange.Removed<>(1), this.events.remove(0));
+    assertEquals(new AttributeSetChange.Added<>(4), this.events.remove(0));
+    assertEquals(new AttributeSetChange.Cleared<>(3), this.events.remove(0));
+    assertEquals(0, this.events.size());
+    assertEquals(0, this.errors);
+  }
+
+  /**
+   * Map changes are published individually, and equivalent values are not
+   * published.
+   */
+
+  @Test
+  public void testMap()
+  {
+    final var initial = new LinkedHashMap<String, Integer>();
+    initial.put("x", 1);
+
+    final var map0 = this.attributes.withMap(initial);
+    map0.subscribe(this.events::add);
+
+    assertEquals(Optional.empty(), map0.put("y", 2));
+    assertEquals(Optional.of(2), map0.put("y", 2));
+    assertEquals(Optional.of(2), map0.put("y", 3));
+    assertEquals(Optional.of(1), map0.remove("x"));
+    assertEquals(Optional.empty(), map0.remove("x"));
+    assertEquals(Optional.of(3), map0.get("y"));
+    assertTrue(map0.containsKey("y"));
+    assertEquals(Map.of("y", 3), map0.snapshot());
+    map0.clear();
+    map0.clear();
+
+    assertEquals(new AttributeMapChange.Added<>("x", 1), this.events.remove(0));
+    assertEquals(new AttributeMapChange.Added<>("y", 2), this.events.remove(0));
+    assertEquals(new AttributeMapChange.Replaced<>("y", 2, 3), this.events.remove(0));
+    assertEquals(new AttributeMapChange.Removed<>("x", 1), this.events.remove(0));
+    assertEquals(new AttributeMapChange.Cleared<>(1), this.events.remove(0));
+    assertEquals(0, this.events.size());
+    assertEquals(0, this.errors);
+  }
+
+  /**
+   * Snapshots are cached until the collection changes, and the version
+   * increases with each change.
+   */
+
+  @Test
+  public void testSnapshotVersion()
+  {
+    final var list0 = this.attributes.withList(List.of(1, 2, 3));
+
+    final var snap0 = list0.snapshot();
+    assertSame(snap0, list0.snapshot());
+    assertEquals(0L, list0.version());
+    assertThrows(UnsupportedOperationException.class, () -> snap0.add(4));
+
+    list0.add(4);
+    assertEquals(1L, list0.version());
+    final var snap1 = list0.snapshot();
+    assertEquals(List.of(1, 2, 3), snap0);
+    assertEquals(List.of(1, 2, 3, 4), snap1);
+
+    list0.set(0, 1);
+    assertEquals(1L, list0.version());
+    assertSame(snap1, list0.snapshot());
+
+    assertThrows(NullPointerException.class, () -> list0.add(null));
+    assertThrows(IndexOutOfBoundsException.class, () -> list0.remove(10));
+    assertEquals(1L, list0.version());
+  }
+
+  /**
+   * Crashing receivers are unsubscribed.
+   */
+
+  @Test
+  public void testReceiverCrashes()
+  {
+    final var set0 = this.attributes.withSet(List.<Integer>of());
+    final var sub0 = set0.subscribe(change -> {
+      throw new IllegalStateException();
+    });
+    set0.subscribe(this.events::add);
+
+    set0.add(1);
+    set0.add(2);
+    assertTrue(sub0.isClosed());
+    assertEquals(1, this.errors);
+
+    assertEquals(new AttributeSetChange.Added<>(1), this.events.remove(0));
+    assertEquals(new AttributeSetChange.Added<>(2), this.events.remove(0));
+    assertEquals(0, this.events.size());
+  }
+
+  /**
+   * Receivers cannot modify the collection from which they are receiving
+   * changes, and so every other subscriber receives changes in order.
+   */
+
+  @Test
+  public void testReceiverReentrant()
+  {
+    final var list0 = this.attributes.withList(List.<Integer>of());
+    final var sub0 = list0.subscribe(change -> {
+      if (change instanceof final AttributeListChange.Added<Integer> added) {
+        list0.add(added.element().intValue() + 100);
+      }
+    });
+    list0.subscribe(this.events::add);
+
+    list0.add(1);
+    list0.add(2);
+    assertTrue(sub0.isClosed());
+    assertEquals(1, this.errors);
+    assertEquals(List.of(1, 2), list0.snapshot());
+
+    final var sub1 = list0.subscribe(change -> list0.clear());
+    assertTrue(sub1.isClosed());
+    assertEquals(2, this.errors);
+    assertEquals(List.of(1, 2), list0.snapshot());
+
+    assertEquals(new AttributeListChange.Added<>(0, 1), this.events.remove(0));
+    assertEquals(new AttributeListChange.Added<>(1, 2), this.events.remove(0));
+    assertEquals(0, this.events.size());
+  }
+
+  /**
+   * Clearing a collection publishes a single change.
+   */
+
+  @Test
+  public void testClearLarge()
+  {
+    final var values = new ArrayList<Integer>();
+    for (int index = 0; index < 100_000; ++index) {
+      values.add(Integer.valueOf(index));
+    }
+
+    final var set0 = this.attributes.withSet(values);
+    final var count = new int[1];
+    set0.subscribe(change -> ++count[0]);
+    assertEquals(100_000, count[0]);
+
+    set0.clear();
+    assertEquals(100_001, count[0]);
+    assertEquals(0, set0.size());
+    assertEquals(1L, set0.version());
+    assertThrows(
+      IllegalArgumentException.class,
+      () -> new AttributeSetChange.Cleared<Integer>(0)
+    );
+    assertEquals(0, this.errors);
+  }
+
+  /**
+   * Asynchronous receivers receive changes in order.
+   */
+
+  @Test
+  public void testAsynchronous()
+    throws Exception
+  {
+    final var executor = Executors.newFixedThreadPool(4);
+    final var received = new ArrayList<Object>();
+
+    try {
+      final var list0 = this.attributes.withList(List.of(0));
+      list0.subscribe(executor, change -> {
+        synchronized (received) {
+          received.add(change);
+        }
+      });
+
+      for (int index = 1; index < 1000; ++index) {
+        list0.add(index);
+      }
+    } finally {
+      executor.shutdown();
+      assertTrue(executor.awaitTermination(10L, TimeUnit.SECONDS));
+    }
+
+    synchronized (received) {
+      assertEquals(1000, received.size());
+      for (int index = 0; index < 1000; ++index) {
+        assertEquals(
+          new AttributeListChange.Added<>(index, index),
+          received.get(index)
+        );
+      }
+    }
+    assertEquals(0, this.errors);
+  }
+}
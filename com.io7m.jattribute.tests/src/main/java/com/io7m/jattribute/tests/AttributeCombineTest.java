@@ -0,0 +1,358 @@
+/*
+ * Copyright © 2026 Mark Raynsford <code@io7m.com> https://www.io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+package com.io7m.jattribute.tests;
+
+import com.io7m.jattribute.core.AttributeMetricsType;
+import com.io7m.jattribute.core.Attributes;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+public final class AttributeCombineTest
+{
+  private static final Logger LOG =
+    LoggerFactory.getLogger(AttributeCombineTest.class);
+
+  private ArrayList<String> events;
+  private Attributes attributes;
+  private AtomicInteger errors;
+
+  @BeforeEach
+  public void setup()
+  {
+    this.events = new ArrayList<String>();
+    this.errors = new AtomicInteger(0);
+    this.attributes = Attributes.create(throwable -> {
+      LOG.error("error: ", throwable);
+      this.errors.incrementAndGet();
+    });
+  }
+
+  /**
+   * Combined attributes are updated when either input changes.
+   */
+
+  @Test
+  public void testCombine()
+  {
+    final var attr0 = this.attributes.withValue(1);
+    final var attr1 = this.attributes.withValue("x");
+    final var attr2 =
+      this.attributes.combine(attr0, attr1, (x, y) -> y + x);
+
+    assertEquals("x1", attr2.get());
+
+    attr2.subscribe((oldValue, newValue) -> {
+      this.events.add("attr2 s0 " + oldValue + " " + newValue);
+    });
+
+    attr0.set(2);
+    attr1.set("y");
+
+    assertEquals("y2", attr2.get());
+    assertEquals("attr2 s0 x1 x1", this.events.remove(0));
+    assertEquals("attr2 s0 x1 x2", this.events.remove(0));
+    assertEquals("attr2 s0 x2 y2", this.events.remove(0));
+    assertEquals(0, this.events.size());
+    assertEquals(0, this.errors.get());
+  }
+
+  /**
+   * A diamond is evaluated once per change, and never observes a mix of
+   * updated and stale values.
+   */
+
+  @Test
+  public void testDiamond()
+  {
+    final var calls = new AtomicInteger(0);
+    final var attr0 = this.attributes.withValue(1);
+    final var attr1 = attr0.mapR(x -> x * 10);
+    final var attr2 = attr0.mapR(x -> x * 100);
+    final var attr3 =
+      this.attributes.combine(attr1, attr2, (x, y) -> {
+        calls.incrementAndGet();
+        return x + y;
+      });
+
+    attr3.subscribe((oldValue, newValue) -> {
+      this.events.add("attr3 s0 " + oldValue + " " + newValue);
+    });
+    assertEquals(1, calls.get());
+
+    attr0.set(2);
+    assertEquals(2, calls.get());
+    attr0.set(3);
+    assertEquals(3, calls.get());
+
+    assertEquals("attr3 s0 110 110", this.events.remove(0));
+    assertEquals("attr3 s0 110 220", this.events.remove(0));
+    assertEquals("attr3 s0 220 330", this.events.remove(0));
+    assertEquals(0, this.events.size());
+    assertEquals(0, this.errors.get());
+  }
+
+  /**
+   * Deep diamonds of combined attributes are evaluated once per change.
+   */
+
+  @Test
+  public void testDiamondDeep()
+  {
+    final var calls = new AtomicInteger(0);
+    final var attr0 = this.attributes.withValue(1);
+
+    var left = attr0.mapR(x -> x);
+    var right = attr0.mapR(x -> x);
+    for (int index = 0; index < 8; ++index) {
+      final var nextLeft =
+        this.attributes.combine(left, right, (x, y) -> {
+          calls.incrementAndGet();
+          return x + y;
+        });
+      final var nextRight =
+        this.attributes.combine(left, right, (x, y) -> {
+          calls.incrementAndGet();
+          return x + y;
+        });
+      left = nextLeft;
+      right = nextRight.mapR(x -> x);
+    }
+
+    final var attrN =
+      this.attributes.combine(left, right, (x, y) -> {
+        calls.incrementAndGet();
+        return x - y;
+      });
+
+    attrN.subscribe((oldValue, newValue) -> {
+      this.events.add("attrN s0 " + oldValue + " " + newValue);
+    });
+
+    calls.set(0);
+    attr0.set(2);
+    assertEquals(17, calls.get());
+
+    assertEquals("attrN s0 0 0", this.events.remove(0));
+    assertEquals("attrN s0 0 0", this.events.remove(0));
+    assertEquals(0, this.events.size());
+    assertEquals(0, this.errors.get());
+  }
+
+  /**
+   * Lists of attributes can be combined.
+   */
+
+  @Test
+  public void testCombineList()
+  {
+    final var attr0 = this.attributes.withValue(1);
+    final var attr1 = this.attributes.withValue(2);
+    final var attr2 = this.attributes.withValue(3);
+    final var attr3 =
+      this.attributes.combine(List.of(attr0, attr1, attr2), List::toString);
+
+    attr3.subscribe((oldValue, newValue) -> {
+      this.events.add("attr3 s0 " + oldValue + " " + newValue);
+    });
+
+    attr1.set(20);
+
+    assertEquals("attr3 s0 [1, 2, 3] [1, 2, 3]", this.events.remove(0));
+    assertEquals("attr3 s0 [1, 2, 3] [1, 20, 3]", this.events.remove(0));
+    assertEquals(0, this.events.size());
+    assertEquals(0, this.errors.get());
+  }
+
+  /**
+   * Combined attributes are evaluated once per transaction.
+   */
+
+  @Test
+  public void testCombineTransaction()
+  {
+    final var calls = new AtomicInteger(0);
+    final var attr0 = this.attributes.withValue(1);
+    final var attr1 = this.attributes.withValue(2);
+    final var attr2 =
+      this.attributes.combine(attr0, attr1, (x, y) -> {
+        calls.incrementAndGet();
+        return x + y;
+      });
+
+    attr2.subscribe((oldValue, newValue) -> {
+      this.events.add("attr2 s0 " + oldValue + " " + newValue);
+    });
+
+    this.attributes.transaction(() -> {
+      attr0.set(10);
+      attr1.set(20);
+    });
+
+    assertEquals(2, calls.get());
+    assertEquals("attr2 s0 3 3", this.events.remove(0));
+    assertEquals("attr2 s0 3 30", this.events.remove(0));
+    assertEquals(0, this.events.size());
+    assertEquals(0, this.errors.get());
+  }
+
+  /**
+   * Combined attributes stop evaluating when they lose their subscribers.
+   */
+
+  @Test
+  public void testCombineLazy()
+  {
+    final var calls = new AtomicInteger(0);
+    final var attr0 = this.attributes.withValue(1);
+    final var attr1 = this.attributes.withValue(2);
+    final var attr2 =
+      this.attributes.combine(attr0, attr1, (x, y) -> {
+        calls.incrementAndGet();
+        return x + y;
+      });
+
+    final var sub = attr2.subscribe((oldValue, newValue) -> {
+      this.events.add("attr2 s0 " + oldValue + " " + newValue);
+    });
+
+    attr0.set(10);
+    sub.close();
+    calls.set(0);
+    attr0.set(20);
+    attr1.set(30);
+    assertEquals(0, calls.get());
+    assertEquals(50, attr2.get());
+    assertEquals(1, calls.get());
+
+    assertEquals("attr2 s0 3 3", this.events.remove(0));
+    assertEquals("attr2 s0 3 12", this.events.remove(0));
+    assertEquals(0, this.events.size());
+    assertEquals(0, this.errors.get());
+  }
+
+  /**
+   * Combining attributes from another instance fails.
+   */
+
+  @Test
+  public void testCombineForeign()
+  {
+    final var other = Attributes.create(throwable -> {
+      LOG.error("error: ", throwable);
+      this.errors.incrementAndGet();
+    });
+
+    final var attr0 = this.attributes.withValue(1);
+    final var attr1 = other.withValue(2);
+
+    assertThrows(IllegalArgumentException.class, () -> {
+      this.attributes.combine(attr0, attr1, Integer::sum);
+    });
+  }
+
+  /**
+   * A combining function that fails when the attribute is first subscribed
+   * causes the subscription to fail, and leaves the inputs unsubscribed.
+   */
+
+  @Test
+  public void testCombineConnectFails()
+  {
+    final var subscribers = new IdentityHashMap<Object, Integer>();
+    final var attributes =
+      Attributes.builder(throwable -> {
+          LOG.error("error: ", throwable);
+          this.errors.incrementAndGet();
+        })
+        .setMetrics(new AttributeMetricsType()
+        {
+          @Override
+          public void onSubscribed(
+            final Object attribute,
+            final int count)
+          {
+            synchronized (subscribers) {
+              subscribers.put(attribute, Integer.valueOf(count));
+            }
+          }
+
+          @Override
+          public void onUnsubscribed(
+            final Object attribute,
+            final int count)
+          {
+            synchronized (subscribers) {
+              subscribers.put(attribute, Integer.valueOf(count));
+            }
+          }
+        })
+        .build();
+
+    final var calls = new AtomicInteger(0);
+    final var attr0 = attributes.withValue(1);
+    final var attr1 = attributes.withValue(2);
+    final var attr2 =
+      attributes.combine(attr0, attr1, (x, y) -> {
+        if (calls.incrementAndGet() == 1) {
+          throw new IllegalStateException();
+        }
+        return x + y;
+      });
+
+    assertThrows(IllegalStateException.class, () -> {
+      attr2.subscribe((oldValue, newValue) -> {
+        this.events.add("attr2 s0 " + oldValue + " " + newValue);
+      });
+    });
+    assertEquals(1, this.errors.get());
+    synchronized (subscribers) {
+      assertEquals(Integer.valueOf(0), subscribers.get(attr0));
+      assertEquals(Integer.valueOf(0), subscribers.get(attr1));
+    }
+
+    final var sub =
+      attr2.subscribe((oldValue, newValue) -> {
+        this.events.add("attr2 s1 " + oldValue + " " + newValue);
+      });
+    synchronized (subscribers) {
+      assertEquals(Integer.valueOf(1), subscribers.get(attr0));
+      assertEquals(Integer.valueOf(1), subscribers.get(attr1));
+    }
+
+    attr0.set(3);
+    sub.close();
+    synchronized (subscribers) {
+      assertEquals(Integer.valueOf(0), subscribers.get(attr0));
+      assertEquals(Integer.valueOf(0), subscribers.get(attr1));
+    }
+
+    assertEquals("attr2 s1 3 3", this.events.remove(0));
+    assertEquals("attr2 s1 3 5", this.events.remove(0));
+    assertEquals(0, this.events.size());
+    assertEquals(1, this.errors.get());
+  }
+}
@@ -0,0 +1,191 @@
+/*
+ * Copyright © 2026 Mark Raynsford <code@io7m.com> https://www.io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+package com.io7m.jattribute.tests;
+
+import com.io7m.jattribute.core.AttributeEquivalenceType;
+import com.io7m.jattribute.core.Attributes;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+public final class AttributeEquivalenceTest
+{
+  private static final Logger LOG =
+    LoggerFactory.getLogger(AttributeEquivalenceTest.class);
+
+  private ArrayList<String> events;
+  private int errors;
+  private Attributes.Builder builder;
+
+  @BeforeEach
+  public void setup()
+  {
+    this.events = new ArrayList<String>();
+    this.errors = 0;
+    this.builder = Attributes.builder(throwable -> {
+      LOG.error("error: ", throwable);
+      ++this.errors;
+    });
+  }
+
+  /**
+   * By default, every update is published.
+   */
+
+  @Test
+  public void testDefaultNever()
+  {
+    final var attributes = this.builder.build();
+    final var attr0 = attributes.withValue(23);
+
+    attr0.subscribe((oldValue, newValue) -> {
+      this.events.add("attr0 s0 " + oldValue + " " + newValue);
+    });
+
+    attr0.set(23);
+    attr0.set(23);
+
+    assertEquals("attr0 s0 23 23", this.events.remove(0));
+    assertEquals("attr0 s0 23 23", this.events.remove(0));
+    assertEquals("attr0 s0 23 23", this.events.remove(0));
+    assertEquals(0, this.events.size());
+    assertEquals(0, this.errors);
+  }
+
+  /**
+   * Equal values are suppressed.
+   */
+
+  @Test
+  public void testEquality()
+  {
+    final var attributes =
+      this.builder.setEquivalence(AttributeEquivalenceType.equality())
+        .build();
+
+    final var attr0 = attributes.withValue(new String("x"));
+
+    attr0.subscribe((oldValue, newValue) -> {
+      this.events.add("attr0 s0 " + oldValue + " " + newValue);
+    });
+
+    attr0.set(new String("x"));
+    attr0.set(new String("y"));
+    attr0.set(new String("y"));
+
+    assertEquals("attr0 s0 x x", this.events.remove(0));
+    assertEquals("attr0 s0 x y", this.events.remove(0));
+    assertEquals(0, this.events.size());
+    assertEquals(0, this.errors);
+  }
+
+  /**
+   * Identical values are suppressed, but equal values are not.
+   */
+
+  @Test
+  public void testIdentity()
+  {
+    final var attributes = this.builder.build();
+    final var x = new String("x");
+    final var attr0 =
+      attributes.withValue(x, AttributeEquivalenceType.identity());
+
+    attr0.subscribe((oldValue, newValue) -> {
+      this.events.add("attr0 s0 " + oldValue + " " + newValue);
+    });
+
+    attr0.set(x);
+    attr0.set(new String("x"));
+
+    assertEquals("attr0 s0 x x", this.events.remove(0));
+    assertEquals("attr0 s0 x x", this.events.remove(0));
+    assertEquals(0, this.events.size());
+    assertEquals(0, this.errors);
+  }
+
+  /**
+   * Values that compare as equal are suppressed.
+   */
+
+  @Test
+  public void testComparator()
+  {
+    final var attributes = this.builder.build();
+    final var attr0 =
+      attributes.withValue(
+        "x",
+        AttributeEquivalenceType.comparing(String.CASE_INSENSITIVE_ORDER)
+      );
+
+    attr0.subscribe((oldValue, newValue) -> {
+      this.events.add("attr0 s0 " + oldValue + " " + newValue);
+    });
+
+    attr0.set("X");
+    attr0.set("y");
+    attr0.set("Y");
+
+    assertEquals("y", attr0.get());
+    assertEquals("attr0 s0 x x", this.events.remove(0));
+    assertEquals("attr0 s0 x y", this.events.remove(0));
+    assertEquals(0, this.events.size());
+    assertEquals(0, this.errors);
+  }
+
+  /**
+   * Unchanged derived values stop propagating.
+   */
+
+  @Test
+  public void testMapChainSuppressed()
+  {
+    final var attributes =
+      this.builder.setEquivalence(AttributeEquivalenceType.equality())
+        .build();
+
+    final var calls = new AtomicInteger(0);
+    final var attr0 = attributes.withValue(20);
+    final var attr1 =
+      attr0.map(x -> x / 10)
+        .mapR(x -> {
+          calls.incrementAndGet();
+          return "v" + x;
+        });
+
+    attr1.subscribe((oldValue, newValue) -> {
+      this.events.add("attr1 s0 " + oldValue + " " + newValue);
+    });
+
+    attr0.set(21);
+    attr0.set(22);
+    attr0.set(30);
+    assertEquals("v3", attr1.get());
+
+    assertEquals(2, calls.get());
+    assertEquals("attr1 s0 v2 v2", this.events.remove(0));
+    assertEquals("attr1 s0 v2 v3", this.events.remove(0));
+    assertEquals(0, this.events.size());
+    assertEquals(0, this.errors);
+  }
+}
@@ -0,0 +1,203 @@
+/*
+ * Copyright © 2026 Mark Raynsford <code@io7m.com> https://www.io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+package com.io7m.jattribute.tests;
+
+import com.io7m.jattribute.core.Attributes;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+public final class AttributeFilterTest
+{
+  private static final Logger LOG =
+    LoggerFactory.getLogger(AttributeFilterTest.class);
+
+  private ArrayList<String> events;
+  private Attributes attributes;
+  private int errors;
+
+  @BeforeEach
+  public void setup()
+  {
+    this.events = new ArrayList<String>();
+    this.errors = 0;
+
+    this.attributes = Attributes.create(throwable -> {
+      LOG.error("error: ", throwable);
+      ++this.errors;
+    });
+  }
+
+  /**
+   * Only values that pass the predicate are published.
+   */
+
+  @Test
+  public void testFilter()
+  {
+    final var calls =
+      new AtomicInteger(0);
+    final var attr0 =
+      this.attributes.withValue(2);
+    final var attr1 =
+      attr0.filter(x -> x % 2 == 0);
+    final var attr2 =
+      attr1.mapR(x -> {
+        calls.incrementAndGet();
+        return "v" + x;
+      });
+
+    attr2.subscribe((oldValue, newValue) -> {
+      this.events.add("attr2 s0 " + oldValue + " " + newValue);
+    });
+
+    attr0.set(3);
+    attr0.set(4);
+    attr0.set(5);
+    attr0.set(7);
+    attr0.set(8);
+    assertEquals(8, attr1.get());
+    assertEquals(3, calls.get());
+
+    attr0.set(9);
+    assertEquals(8, attr1.get());
+
+    assertEquals("attr2 s0 v2 v2", this.events.remove(0));
+    assertEquals("attr2 s0 v2 v4", this.events.remove(0));
+    assertEquals("attr2 s0 v4 v8", this.events.remove(0));
+    assertEquals(0, this.events.size());
+    assertEquals(0, this.errors);
+  }
+
+  /**
+   * The initial value is held even if it fails the predicate.
+   */
+
+  @Test
+  public void testFilterInitialFails()
+  {
+    final var attr0 =
+      this.attributes.withValue(1);
+    final var attr1 =
+      attr0.filter(x -> x % 2 == 0);
+
+    attr1.subscribe((oldValue, newValue) -> {
+      this.events.add("attr1 s0 " + oldValue + " " + newValue);
+    });
+
+    attr0.set(3);
+    assertEquals(1, attr1.get());
+    attr0.set(6);
+    assertEquals(6, attr1.get());
+
+    assertEquals("attr1 s0 1 1", this.events.remove(0));
+    assertEquals("attr1 s0 1 6", this.events.remove(0));
+    assertEquals(0, this.events.size());
+    assertEquals(0, this.errors);
+  }
+
+  /**
+   * Unsubscribed filters test the value of the source when read, and
+   * otherwise hold the value they held when last subscribed.
+   */
+
+  @Test
+  public void testFilterUnsubscribed()
+  {
+    final var attr0 =
+      this.attributes.withValue(2);
+    final var attr1 =
+      attr0.filter(x -> x % 2 == 0);
+
+    attr0.set(3);
+    assertEquals(2, attr1.get());
+    attr0.set(4);
+    assertEquals(4, attr1.get());
+    attr0.set(5);
+    assertEquals(2, attr1.get());
+
+    final var version = attr1.version();
+    assertEquals(2, attr1.getVersioned().value());
+    assertEquals(version, attr1.getVersioned().version());
+
+    final var sub =
+      attr1.subscribe((oldValue, newValue) -> {
+        this.events.add("attr1 s0 " + oldValue + " " + newValue);
+      });
+
+    attr0.set(6);
+    sub.close();
+    attr0.set(8);
+    attr0.set(9);
+    assertEquals(6, attr1.get());
+
+    assertEquals("attr1 s0 2 2", this.events.remove(0));
+    assertEquals("attr1 s0 2 6", this.events.remove(0));
+    assertEquals(0, this.events.size());
+    assertEquals(0, this.errors);
+  }
+
+  /**
+   * Reading an unsubscribed filter whose source changes on every read
+   * terminates.
+   */
+
+  @Test
+  public void testFilterUnsubscribedVersionedFunction()
+  {
+    final var counter =
+      new AtomicInteger(0);
+    final var attr0 =
+      this.attributes.fromFunction(counter::incrementAndGet);
+    final var attr1 =
+      attr0.filter(x -> true);
+
+    final var versioned = attr1.getVersioned();
+    assertEquals(attr0.version(), versioned.version());
+    assertEquals(0, this.errors);
+  }
+
+  /**
+   * Unsubscribed filters track the version of their source, and reading
+   * them does not change their version.
+   */
+
+  @Test
+  public void testFilterUnsubscribedVersion()
+  {
+    final var attr0 =
+      this.attributes.withValue(1);
+    final var attr1 =
+      attr0.filter(x -> x > 0);
+
+    attr0.set(2);
+    attr0.set(3);
+    assertEquals(2L, attr0.version());
+    assertEquals(2L, attr1.version());
+    assertEquals(3, attr1.get());
+    assertEquals(3, attr1.getVersioned().value());
+    assertEquals(2L, attr1.getVersioned().version());
+    assertEquals(2L, attr1.version());
+    assertEquals(0, this.errors);
+  }
+}
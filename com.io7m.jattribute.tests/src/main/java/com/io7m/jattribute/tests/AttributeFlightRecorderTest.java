@@ -0,0 +1,156 @@
+/*
+ * Copyright © 2026 Mark Raynsford <code@io7m.com> https://www.io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+package com.io7m.jattribute.tests;
+
+import com.io7m.jattribute.core.Attributes;
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public final class AttributeFlightRecorderTest
+{
+  private static final Logger LOG =
+    LoggerFactory.getLogger(AttributeFlightRecorderTest.class);
+
+  private Attributes attributes;
+  private AtomicInteger errors;
+
+  @BeforeEach
+  public void setup()
+  {
+    this.errors = new AtomicInteger(0);
+    this.attributes = Attributes.create(throwable -> {
+      LOG.error("error: ", throwable);
+      this.errors.incrementAndGet();
+    });
+  }
+
+  private static long count(
+    final List<RecordedEvent> events,
+    final String name)
+  {
+    return events.stream()
+      .filter(e -> e.getEventType().getName().equals(name))
+      .count();
+  }
+
+  /**
+   * Events are recorded when a recording enables them.
+   */
+
+  @Test
+  public void testEventsRecorded(
+    final @TempDir Path directory)
+    throws Exception
+  {
+    final var attr0 = this.attributes.withValue(0);
+    final var attr1 = this.attributes.withInt(0);
+
+    final List<RecordedEvent> events;
+    try (var recording = new Recording()) {
+      recording.enable("com.io7m.jattribute.Set");
+      recording.enable("com.io7m.jattribute.Publish");
+      recording.enable("com.io7m.jattribute.Subscribe");
+      recording.enable("com.io7m.jattribute.Receiver")
+        .withThreshold(Duration.ofMillis(10L));
+      recording.start();
+
+      attr0.subscribe((oldValue, newValue) -> {
+        if (newValue.intValue() == 2) {
+          try {
+            Thread.sleep(20L);
+          } catch (final InterruptedException e) {
+            Thread.currentThread().interrupt();
+          }
+        }
+      });
+      attr1.subscribe((oldValue, newValue) -> {
+
+      });
+
+      attr0.set(1);
+      attr0.set(2);
+      attr1.set(1);
+
+      recording.stop();
+      final var file = directory.resolve("attributes.jfr");
+      recording.dump(file);
+      events = RecordingFile.readAllEvents(file);
+    }
+
+    assertEquals(3L, count(events, "com.io7m.jattribute.Set"));
+    assertEquals(3L, count(events, "com.io7m.jattribute.Publish"));
+    assertEquals(2L, count(events, "com.io7m.jattribute.Subscribe"));
+    assertEquals(1L, count(events, "com.io7m.jattribute.Receiver"));
+
+    final var slow =
+      events.stream()
+        .filter(e -> e.getEventType().getName().equals(
+          "com.io7m.jattribute.Receiver"))
+        .findFirst()
+        .orElseThrow();
+
+    assertTrue(slow.getDuration().toMillis() >= 10L);
+    assertTrue(slow.getString("attribute").contains("Attribute"));
+    assertEquals(0, this.errors.get());
+  }
+
+  /**
+   * Events are not recorded unless a recording enables them.
+   */
+
+  @Test
+  public void testEventsDisabledByDefault(
+    final @TempDir Path directory)
+    throws Exception
+  {
+    final var attr0 = this.attributes.withValue(0);
+
+    final List<RecordedEvent> events;
+    try (var recording = new Recording()) {
+      recording.start();
+      attr0.subscribe((oldValue, newValue) -> {
+
+      });
+      attr0.set(1);
+      recording.stop();
+
+      final var file = directory.resolve("attributes.jfr");
+      recording.dump(file);
+      events = RecordingFile.readAllEvents(file);
+    }
+
+    assertEquals(0L, count(events, "com.io7m.jattribute.Set"));
+    assertEquals(0L, count(events, "com.io7m.jattribute.Publish"));
+    assertEquals(0L, count(events, "com.io7m.jattribute.Subscribe"));
+    assertEquals(0L, count(events, "com.io7m.jattribute.Receiver"));
+    assertEquals(0, this.errors.get());
+  }
+}
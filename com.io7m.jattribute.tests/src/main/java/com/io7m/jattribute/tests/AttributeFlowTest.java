@@ -0,0 +1,288 @@
+/*
+ * Copyright © 2026 Mark Raynsford <code@io7m.com> https://www.io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+package com.io7m.jattribute.tests;
+
+import com.io7m.jattribute.core.AttributeOverflowStrategy;
+import com.io7m.jattribute.core.Attributes;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Flow;
+import java.util.concurrent.SubmissionPublisher;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public final class AttributeFlowTest
+{
+  private static final Logger LOG =
+    LoggerFactory.getLogger(AttributeFlowTest.class);
+
+  private ArrayList<String> events;
+  private Attributes attributes;
+  private AtomicInteger errors;
+
+  @BeforeEach
+  public void setup()
+  {
+    this.events = new ArrayList<String>();
+    this.errors = new AtomicInteger(0);
+    this.attributes = Attributes.create(throwable -> {
+      LOG.error("error: ", throwable);
+      this.errors.incrementAndGet();
+    });
+  }
+
+  private final class Recorder
+    implements Flow.Subscriber<Integer>
+  {
+    private Flow.Subscription subscription;
+
+    Recorder()
+    {
+
+    }
+
+    @Override
+    public void onSubscribe(
+      final Flow.Subscription inSubscription)
+    {
+      this.subscription = inSubscription;
+      AttributeFlowTest.this.events.add("subscribe");
+    }
+
+    @Override
+    public void onNext(
+      final Integer item)
+    {
+      AttributeFlowTest.this.events.add("next " + item);
+    }
+
+    @Override
+    public void onError(
+      final Throwable throwable)
+    {
+      AttributeFlowTest.this.events.add(
+        "error " + throwable.getClass().getSimpleName());
+    }
+
+    @Override
+    public void onComplete()
+    {
+      AttributeFlowTest.this.events.add("complete");
+    }
+  }
+
+  /**
+   * A conflating publisher delivers only the latest value, and only on
+   * demand.
+   */
+
+  @Test
+  public void testPublisherConflate()
+  {
+    final var attr0 = this.attributes.withValue(0);
+    final var recorder = new Recorder();
+    this.attributes.toPublisher(attr0, AttributeOverflowStrategy.CONFLATE)
+      .subscribe(recorder);
+
+    assertEquals("subscribe", this.events.remove(0));
+    assertEquals(0, this.events.size());
+
+    recorder.subscription.request(1L);
+    assertEquals("next 0", this.events.remove(0));
+
+    attr0.set(1);
+    attr0.set(2);
+    attr0.set(3);
+    assertEquals(0, this.events.size());
+
+    recorder.subscription.request(1L);
+    assertEquals("next 3", this.events.remove(0));
+
+    recorder.subscription.request(2L);
+    attr0.set(4);
+    attr0.set(5);
+    attr0.set(6);
+    assertEquals("next 4", this.events.remove(0));
+    assertEquals("next 5", this.events.remove(0));
+    assertEquals(0, this.events.size());
+
+    recorder.subscription.cancel();
+    recorder.subscription.request(1L);
+    attr0.set(7);
+    assertEquals(0, this.events.size());
+    assertEquals(0, this.errors.get());
+  }
+
+  /**
+   * A dropping publisher discards values published without demand.
+   */
+
+  @Test
+  public void testPublisherDrop()
+  {
+    final var attr0 = this.attributes.withValue(0);
+    final var recorder = new Recorder();
+    this.attributes.toPublisher(attr0, AttributeOverflowStrategy.DROP)
+      .subscribe(recorder);
+
+    recorder.subscription.request(1L);
+    attr0.set(1);
+    recorder.subscription.request(2L);
+    attr0.set(2);
+    attr0.set(3);
+    attr0.set(4);
+
+    assertEquals("subscribe", this.events.remove(0));
+    assertEquals("next 1", this.events.remove(0));
+    assertEquals("next 2", this.events.remove(0));
+    assertEquals("next 3", this.events.remove(0));
+    assertEquals(0, this.events.size());
+    assertEquals(0, this.errors.get());
+  }
+
+  /**
+   * A buffering publisher delivers every value, and fails when the buffer
+   * overflows.
+   */
+
+  @Test
+  public void testPublisherBuffer()
+  {
+    final var attr0 = this.attributes.withValue(0);
+    final var recorder = new Recorder();
+    this.attributes.toPublisher(attr0, AttributeOverflowStrategy.BUFFER, 3)
+      .subscribe(recorder);
+
+    attr0.set(1);
+    attr0.set(2);
+    recorder.subscription.request(2L);
+    attr0.set(3);
+    attr0.set(4);
+    attr0.set(5);
+    attr0.set(6);
+    recorder.subscription.request(10L);
+
+    assertEquals("subscribe", this.events.remove(0));
+    assertEquals("next 0", this.events.remove(0));
+    assertEquals("next 1", this.events.remove(0));
+    assertEquals("error IllegalStateException", this.events.remove(0));
+    assertEquals(0, this.events.size());
+    assertEquals(0, this.errors.get());
+  }
+
+  /**
+   * Requesting a non-positive number of values is an error.
+   */
+
+  @Test
+  public void testPublisherRequestInvalid()
+  {
+    final var attr0 = this.attributes.withValue(0);
+    final var recorder = new Recorder();
+    this.attributes.toPublisher(attr0, AttributeOverflowStrategy.CONFLATE)
+      .subscribe(recorder);
+
+    recorder.subscription.request(0L);
+    attr0.set(1);
+
+    assertEquals("subscribe", this.events.remove(0));
+    assertEquals("error IllegalArgumentException", this.events.remove(0));
+    assertEquals(0, this.events.size());
+
+    assertThrows(IllegalArgumentException.class, () -> {
+      this.attributes.toPublisher(attr0, AttributeOverflowStrategy.BUFFER, 0);
+    });
+  }
+
+  /**
+   * An attribute can be fed from a publisher, one item at a time.
+   */
+
+  @Test
+  public void testSubscriber()
+    throws Exception
+  {
+    final var attr0 = this.attributes.withValue(0);
+    final var executor = Executors.newFixedThreadPool(1);
+    final var done = new CountDownLatch(1);
+    final var count = 1000;
+
+    attr0.subscribe((oldValue, newValue) -> {
+      if (newValue.intValue() == count) {
+        done.countDown();
+      }
+    });
+
+    try (var publisher = new SubmissionPublisher<Integer>(executor, 4)) {
+      final var subscriber = this.attributes.toSubscriber(attr0);
+      publisher.subscribe(subscriber);
+      for (int index = 1; index <= count; ++index) {
+        publisher.submit(Integer.valueOf(index));
+      }
+      assertTrue(done.await(10L, TimeUnit.SECONDS));
+      subscriber.close();
+      assertTrue(subscriber.isClosed());
+    } finally {
+      executor.shutdown();
+      assertTrue(executor.awaitTermination(10L, TimeUnit.SECONDS));
+    }
+
+    assertEquals(count, attr0.get());
+    assertEquals(0, this.errors.get());
+  }
+
+  /**
+   * An attribute publisher can feed another attribute.
+   */
+
+  @Test
+  public void testPublisherToSubscriber()
+  {
+    final var attr0 = this.attributes.withValue(0);
+    final var attr1 = this.attributes.withValue(100);
+
+    attr1.subscribe((oldValue, newValue) -> {
+      this.events.add("attr1 s0 " + oldValue + " " + newValue);
+    });
+
+    final var subscriber = this.attributes.toSubscriber(attr1);
+    this.attributes.toPublisher(attr0, AttributeOverflowStrategy.BUFFER)
+      .subscribe(subscriber);
+
+    attr0.set(1);
+    attr0.set(2);
+    subscriber.close();
+    attr0.set(3);
+
+    assertEquals("attr1 s0 100 100", this.events.remove(0));
+    assertEquals("attr1 s0 100 0", this.events.remove(0));
+    assertEquals("attr1 s0 0 1", this.events.remove(0));
+    assertEquals("attr1 s0 1 2", this.events.remove(0));
+    assertEquals(0, this.events.size());
+    assertEquals(0, this.errors.get());
+  }
+}
@@ -0,0 +1,240 @@
+/*
+ * Copyright © 2026 Mark Raynsford <code@io7m.com> https://www.io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+package com.io7m.jattribute.tests;
+
+import com.io7m.jattribute.core.AttributeEquivalenceType;
+import com.io7m.jattribute.core.Attributes;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public final class AttributeKeyedMapTest
+{
+  private static final Logger LOG =
+    LoggerFactory.getLogger(AttributeKeyedMapTest.class);
+
+  private ArrayList<String> events;
+  private Attributes attributes;
+  private int errors;
+
+  @BeforeEach
+  public void setup()
+  {
+    this.events = new ArrayList<String>();
+    this.errors = 0;
+
+    this.attributes =
+      Attributes.builder(throwable -> {
+          LOG.error("error: ", throwable);
+          ++this.errors;
+        })
+        .setEquivalence(AttributeEquivalenceType.equality())
+        .build();
+  }
+
+  private static String show(
+    final Optional<Integer> value)
+  {
+    return value.map(String::valueOf).orElse("-");
+  }
+
+  /**
+   * Subscribers only observe changes to their own key.
+   */
+
+  @Test
+  public void testPerKey()
+  {
+    final var map = this.attributes.<String, Integer>withKeyedMap(Map.of("a", 1));
+
+    map.subscribe("a", (o, n) -> {
+      this.events.add("a %s %s".formatted(show(o), show(n)));
+    });
+    map.subscribe("b", (o, n) -> {
+      this.events.add("b %s %s".formatted(show(o), show(n)));
+    });
+
+    assertEquals(Optional.of(1), map.put("a", 2));
+    assertEquals(Optional.empty(), map.put("b", 3));
+    assertEquals(Optional.empty(), map.put("c", 4));
+    assertEquals(Optional.of(2), map.put("a", 2));
+    assertEquals(Optional.of(3), map.remove("b"));
+    assertEquals(Optional.empty(), map.remove("b"));
+    assertEquals(Optional.of(4), map.remove("c"));
+
+    assertEquals("a 1 1", this.events.remove(0));
+    assertEquals("b - -", this.events.remove(0));
+    assertEquals("a 1 2", this.events.remove(0));
+    assertEquals("b - 3", this.events.remove(0));
+    assertEquals("b 3 -", this.events.remove(0));
+    assertEquals(0, this.events.size());
+
+    assertEquals(Optional.of(2), map.get("a"));
+    assertTrue(map.containsKey("a"));
+    assertFalse(map.containsKey("b"));
+    assertEquals(1, map.size());
+    assertEquals(0, this.errors);
+  }
+
+  /**
+   * Per-key state is created lazily and discarded when the last
+   * subscription to a key is closed.
+   */
+
+  @Test
+  public void testReclaimed()
+  {
+    final var map = this.attributes.<Integer, Integer>withKeyedMap(Map.of());
+    for (int index = 0; index < 1000; ++index) {
+      map.put(index, index);
+    }
+    assertEquals(1000, map.size());
+    assertEquals(0, map.subscribedKeys());
+
+    final var sub0 = map.subscribe(10, (o, n) -> this.events.add("s0"));
+    final var sub1 = map.subscribe(10, (o, n) -> this.events.add("s1"));
+    final var sub2 = map.subscribe(20, (o, n) -> this.events.add("s2"));
+    assertEquals(2, map.subscribedKeys());
+
+    sub0.close();
+    sub0.close();
+    assertEquals(2, map.subscribedKeys());
+    sub1.close();
+    assertEquals(1, map.subscribedKeys());
+    sub2.close();
+    assertEquals(0, map.subscribedKeys());
+
+    this.events.clear();
+    map.put(10, 11);
+    map.put(20, 21);
+    assertEquals(0, this.events.size());
+
+    map.subscribe(10, (o, n) -> this.events.add("s3 " + show(n)));
+    assertEquals(1, map.subscribedKeys());
+    map.put(10, 12);
+    assertEquals("s3 11", this.events.remove(0));
+    assertEquals("s3 12", this.events.remove(0));
+    assertEquals(0, this.events.size());
+    assertEquals(0, this.errors);
+  }
+
+  /**
+   * Crashing receivers are unsubscribed, and release their keys.
+   */
+
+  @Test
+  public void testReceiverCrashes()
+  {
+    final var map = this.attributes.<String, Integer>withKeyedMap(Map.of());
+    final var sub = map.subscribe("a", (o, n) -> {
+      if (n.isPresent()) {
+        throw new IllegalStateException();
+      }
+    });
+    assertEquals(1, map.subscribedKeys());
+
+    map.put("a", 1);
+    assertTrue(sub.isClosed());
+    assertEquals(0, map.subscribedKeys());
+    assertEquals(1, this.errors);
+  }
+
+  /**
+   * Changes inside a transaction are published once per key when the
+   * transaction closes.
+   */
+
+  @Test
+  public void testTransaction()
+  {
+    final var map = this.attributes.<String, Integer>withKeyedMap(Map.of("a", 0));
+    map.subscribe("a", (o, n) -> {
+      this.events.add("a %s %s".formatted(show(o), show(n)));
+    });
+    map.subscribe("b", (o, n) -> {
+      this.events.add("b %s %s".formatted(show(o), show(n)));
+    });
+
+    this.attributes.transaction(() -> {
+      map.put("a", 1);
+      map.put("a", 2);
+      map.put("b", 1);
+      map.remove("b");
+      assertEquals(2, this.events.size());
+    });
+
+    assertEquals("a 0 0", this.events.remove(0));
+    assertEquals("b - -", this.events.remove(0));
+    assertEquals("a 0 2", this.events.remove(0));
+    assertEquals(0, this.events.size());
+    assertEquals(0, this.errors);
+  }
+
+  /**
+   * Concurrent subscribers and writers on many keys observe every final
+   * value, and leave no per-key state behind.
+   */
+
+  @Test
+  public void testConcurrent()
+    throws Exception
+  {
+    final var map = this.attributes.<Integer, Integer>withKeyedMap(Map.of());
+    final var executor = Executors.newFixedThreadPool(4);
+    final var keys = 100;
+    final var latch = new CountDownLatch(keys);
+
+    try {
+      for (int key = 0; key < keys; ++key) {
+        final var k = key;
+        executor.execute(() -> {
+          final var seen = new ArrayList<Integer>();
+          final var sub = map.subscribe(k, (o, n) -> {
+            n.ifPresent(seen::add);
+          });
+          for (int value = 0; value < 100; ++value) {
+            map.put(k, value);
+          }
+          sub.close();
+          if (seen.get(seen.size() - 1) == 99) {
+            latch.countDown();
+          }
+        });
+      }
+      assertTrue(latch.await(10L, TimeUnit.SECONDS));
+    } finally {
+      executor.shutdown();
+      assertTrue(executor.awaitTermination(10L, TimeUnit.SECONDS));
+    }
+
+    assertEquals(keys, map.size());
+    assertEquals(0, map.subscribedKeys());
+    assertEquals(0, this.errors);
+  }
+}
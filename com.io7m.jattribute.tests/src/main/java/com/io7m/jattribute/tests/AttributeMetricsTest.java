@@ -0,0 +1,251 @@
+/*
+ * Copyright © 2026 Mark Raynsford <code@io7m.com> https://www.io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+package com.io7m.jattribute.tests;
+
+import com.io7m.jattribute.core.AttributeEquivalenceType;
+import com.io7m.jattribute.core.AttributeMetricsType;
+import com.io7m.jattribute.core.Attributes;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public final class AttributeMetricsTest
+{
+  private static final Logger LOG =
+    LoggerFactory.getLogger(AttributeMetricsTest.class);
+
+  private List<String> events;
+  private Attributes attributes;
+  private AtomicInteger errors;
+  private Map<Object, String> names;
+  private AtomicInteger timings;
+
+  @BeforeEach
+  public void setup()
+  {
+    this.events = Collections.synchronizedList(new ArrayList<String>());
+    this.errors = new AtomicInteger(0);
+    this.timings = new AtomicInteger(0);
+    this.names = Collections.synchronizedMap(new IdentityHashMap<>());
+    this.attributes =
+      Attributes.builder(throwable -> {
+          LOG.error("error: ", throwable);
+          this.errors.incrementAndGet();
+        })
+        .setEquivalence(AttributeEquivalenceType.equality())
+        .setMetrics(new Recorder())
+        .build();
+  }
+
+  private final class Recorder implements AttributeMetricsType
+  {
+    private String name(
+      final Object attribute)
+    {
+      return AttributeMetricsTest.this.names.getOrDefault(attribute, "?");
+    }
+
+    @Override
+    public void onUpdated(
+      final Object attribute)
+    {
+      AttributeMetricsTest.this.events.add(
+        "updated " + this.name(attribute));
+    }
+
+    @Override
+    public void onSuppressed(
+      final Object attribute)
+    {
+      AttributeMetricsTest.this.events.add(
+        "suppressed " + this.name(attribute));
+    }
+
+    @Override
+    public void onPublished(
+      final Object attribute,
+      final int subscribers)
+    {
+      AttributeMetricsTest.this.events.add(
+        "published " + this.name(attribute) + " " + subscribers);
+    }
+
+    @Override
+    public void onSubscribed(
+      final Object attribute,
+      final int subscribers)
+    {
+      AttributeMetricsTest.this.events.add(
+        "subscribed " + this.name(attribute) + " " + subscribers);
+    }
+
+    @Override
+    public void onUnsubscribed(
+      final Object attribute,
+      final int subscribers)
+    {
+      AttributeMetricsTest.this.events.add(
+        "unsubscribed " + this.name(attribute) + " " + subscribers);
+    }
+
+    @Override
+    public void onReceived(
+      final Object attribute,
+      final Object receiver,
+      final long nanos)
+    {
+      assertTrue(nanos >= 0L);
+      AttributeMetricsTest.this.timings.incrementAndGet();
+      AttributeMetricsTest.this.events.add(
+        "received " + this.name(attribute));
+    }
+
+    @Override
+    public void onReceiverFailed(
+      final Object attribute,
+      final Object receiver,
+      final Throwable exception)
+    {
+      AttributeMetricsTest.this.events.add(
+        "failed " + this.name(attribute) + " " + exception.getMessage());
+    }
+  }
+
+  /**
+   * Updates, suppressed updates, publications, subscriptions, and receiver
+   * timings are reported.
+   */
+
+  @Test
+  public void testCounts()
+  {
+    final var attr0 = this.attributes.withValue(0);
+    this.names.put(attr0, "attr0");
+
+    final var sub0 = attr0.subscribe((oldValue, newValue) -> {
+
+    });
+    attr0.set(1);
+    attr0.set(1);
+    sub0.close();
+
+    assertEquals("subscribed attr0 1", this.events.remove(0));
+    assertEquals("updated attr0", this.events.remove(0));
+    assertEquals("published attr0 1", this.events.remove(0));
+    assertEquals("received attr0", this.events.remove(0));
+    assertEquals("suppressed attr0", this.events.remove(0));
+    assertEquals("unsubscribed attr0 0", this.events.remove(0));
+    assertEquals(0, this.events.size());
+    assertEquals(1, this.timings.get());
+    assertEquals(0, this.errors.get());
+  }
+
+  /**
+   * Receiver exceptions are reported before being passed to the error
+   * consumer.
+   */
+
+  @Test
+  public void testReceiverFailed()
+  {
+    final var attr0 = this.attributes.withValue(0);
+    this.names.put(attr0, "attr0");
+
+    attr0.subscribe((oldValue, newValue) -> {
+      if (newValue.intValue() == 1) {
+        throw new IllegalStateException("boom");
+      }
+    });
+    attr0.set(1);
+
+    assertEquals("subscribed attr0 1", this.events.remove(0));
+    assertEquals("updated attr0", this.events.remove(0));
+    assertEquals("published attr0 1", this.events.remove(0));
+    assertEquals("failed attr0 boom", this.events.remove(0));
+    assertEquals("unsubscribed attr0 0", this.events.remove(0));
+    assertEquals(0, this.events.size());
+    assertEquals(1, this.errors.get());
+  }
+
+  /**
+   * Derived and primitive attributes are measured.
+   */
+
+  @Test
+  public void testDerivedPrimitive()
+  {
+    final var attr0 = this.attributes.withInt(0);
+    final var attr1 = attr0.mapToInt(x -> x / 2);
+    this.names.put(attr0, "attr0");
+    this.names.put(attr1, "attr1");
+
+    attr1.subscribe((oldValue, newValue) -> {
+
+    });
+    attr0.set(2);
+
+    assertEquals("subscribed attr0 1", this.events.remove(0));
+    assertEquals("subscribed attr1 1", this.events.remove(0));
+    assertEquals("updated attr0", this.events.remove(0));
+    assertEquals("published attr0 1", this.events.remove(0));
+    assertEquals("updated attr1", this.events.remove(0));
+    assertEquals("published attr1 1", this.events.remove(0));
+    assertEquals("received attr1", this.events.remove(0));
+    assertEquals("received attr0", this.events.remove(0));
+    assertEquals(0, this.events.size());
+    assertEquals(0, this.errors.get());
+  }
+
+  /**
+   * Receivers are timed when values are delivered asynchronously,
+   * including the delivery of the initial value.
+   */
+
+  @Test
+  public void testAsynchronous()
+    throws Exception
+  {
+    final var executor = Executors.newFixedThreadPool(1);
+    try {
+      final var attr0 = this.attributes.withValue(0);
+      attr0.subscribe(executor, (oldValue, newValue) -> {
+
+      });
+      attr0.set(1);
+      attr0.set(2);
+    } finally {
+      executor.shutdown();
+      assertTrue(executor.awaitTermination(10L, TimeUnit.SECONDS));
+    }
+
+    assertEquals(3, this.timings.get());
+    assertEquals(0, this.errors.get());
+  }
+}
@@ -0,0 +1,295 @@
+/*
+ * Copyright © 2026 Mark Raynsford <code@io7m.com> https://www.io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+package com.io7m.jattribute.tests;
+
+import com.io7m.jattribute.core.AttributeSchedulerType;
+import com.io7m.jattribute.core.Attributes;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.PriorityQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public final class AttributePollerTest
+{
+  private static final Logger LOG =
+    LoggerFactory.getLogger(AttributePollerTest.class);
+
+  private static final Duration PERIOD =
+    Duration.ofMillis(100L);
+
+  private ArrayList<String> events;
+  private Attributes attributes;
+  private AtomicInteger errors;
+  private FakeScheduler scheduler;
+
+  @BeforeEach
+  public void setup()
+  {
+    this.events = new ArrayList<String>();
+    this.errors = new AtomicInteger(0);
+    this.scheduler = new FakeScheduler();
+    this.attributes =
+      Attributes.builder(throwable -> {
+          LOG.error("error: ", throwable);
+          this.errors.incrementAndGet();
+        })
+        .setScheduler(this.scheduler)
+        .build();
+  }
+
+  private record Task(
+    long time,
+    long sequence,
+    Runnable task)
+  {
+
+  }
+
+  private static final class FakeScheduler
+    implements AttributeSchedulerType
+  {
+    private final PriorityQueue<Task> tasks;
+    private long now;
+    private long sequence;
+
+    FakeScheduler()
+    {
+      this.tasks = new PriorityQueue<>(
+        Comparator.comparingLong(Task::time)
+          .thenComparingLong(Task::sequence)
+      );
+    }
+
+    @Override
+    public long nanoTime()
+    {
+      return this.now;
+    }
+
+    @Override
+    public void schedule(
+      final long delayNanos,
+      final Runnable task)
+    {
+      this.tasks.add(new Task(this.now + delayNanos, this.sequence++, task));
+    }
+
+    void advance(
+      final Duration duration)
+    {
+      final var target = this.now + duration.toNanos();
+      while (!this.tasks.isEmpty() && this.tasks.peek().time() <= target) {
+        final var task = this.tasks.poll();
+        this.now = task.time();
+        task.task().run();
+      }
+      this.now = target;
+    }
+
+    int pending()
+    {
+      return this.tasks.size();
+    }
+  }
+
+  /**
+   * Ticking a poller publishes only values that changed.
+   */
+
+  @Test
+  public void testTick()
+  {
+    final var calls = new AtomicInteger(0);
+    final var source = new AtomicInteger(1);
+    final var poller = this.attributes.poller();
+    final var attr0 = poller.fromFunction(() -> {
+      calls.incrementAndGet();
+      return Integer.valueOf(source.get());
+    });
+
+    attr0.subscribe((oldValue, newValue) -> {
+      this.events.add("attr0 s0 " + oldValue + " " + newValue);
+    });
+
+    poller.tick();
+    source.set(2);
+    assertEquals(1, attr0.get());
+    poller.tick();
+    assertEquals(2, attr0.get());
+    poller.tick();
+    assertEquals(4, calls.get());
+
+    assertEquals("attr0 s0 1 1", this.events.remove(0));
+    assertEquals("attr0 s0 1 2", this.events.remove(0));
+    assertEquals(0, this.events.size());
+    assertEquals(0, this.errors.get());
+  }
+
+  /**
+   * Ticking a poller whose sources do not change publishes nothing, with
+   * the default equivalence.
+   */
+
+  @Test
+  public void testTickStable()
+  {
+    final var poller =
+      Attributes.create(throwable -> this.errors.incrementAndGet())
+        .poller();
+    final var attr0 =
+      poller.fromFunction(() -> Integer.valueOf(42));
+
+    attr0.subscribe((oldValue, newValue) -> {
+      this.events.add("attr0 s0 " + oldValue + " " + newValue);
+    });
+    assertEquals("attr0 s0 42 42", this.events.remove(0));
+
+    poller.tick();
+    poller.tick();
+    poller.tick();
+    assertEquals(0, this.events.size());
+    assertEquals(0, this.errors.get());
+  }
+
+  /**
+   * Ticks do not evaluate the functions of unsubscribed attributes.
+   */
+
+  @Test
+  public void testTickUnsubscribed()
+  {
+    final var calls = new AtomicInteger(0);
+    final var poller = this.attributes.poller();
+    final var attr0 = poller.fromFunction(() -> {
+      return Integer.valueOf(calls.incrementAndGet());
+    });
+
+    poller.tick();
+    poller.tick();
+    assertEquals(0, calls.get());
+    assertEquals(1, attr0.get());
+    assertEquals(1, attr0.get());
+    poller.tick();
+    assertEquals(2, attr0.get());
+    assertEquals(0, this.errors.get());
+  }
+
+  /**
+   * A periodic poller polls many attributes with one scheduled task.
+   */
+
+  @Test
+  public void testPeriodic()
+  {
+    final var source = new AtomicInteger(1);
+    final var poller = this.attributes.poller(PERIOD);
+
+    for (int index = 0; index < 100; ++index) {
+      final var attr = poller.fromFunction(source::get);
+      final var name = "attr" + index;
+      attr.subscribe((oldValue, newValue) -> {
+        this.events.add(name + " " + oldValue + " " + newValue);
+      });
+    }
+    this.events.clear();
+    assertEquals(1, this.scheduler.pending());
+
+    source.set(2);
+    this.scheduler.advance(PERIOD.dividedBy(2L));
+    assertEquals(0, this.events.size());
+    this.scheduler.advance(PERIOD.dividedBy(2L));
+    assertEquals(100, this.events.size());
+    assertEquals("attr0 1 2", this.events.get(0));
+    assertEquals(1, this.scheduler.pending());
+
+    this.events.clear();
+    this.scheduler.advance(PERIOD.multipliedBy(3L));
+    assertEquals(0, this.events.size());
+
+    poller.close();
+    assertTrue(poller.isClosed());
+    source.set(3);
+    this.scheduler.advance(PERIOD.multipliedBy(3L));
+    assertEquals(0, this.events.size());
+    assertEquals(0, this.scheduler.pending());
+    assertEquals(0, this.errors.get());
+  }
+
+  /**
+   * Exceptions raised by functions are reported, and do not prevent other
+   * attributes from being polled.
+   */
+
+  @Test
+  public void testFunctionFails()
+  {
+    final var source = new AtomicInteger(1);
+    final var poller = this.attributes.poller();
+    final var attr0 = poller.fromFunction(() -> {
+      if (source.get() == 2) {
+        throw new IllegalStateException();
+      }
+      return Integer.valueOf(source.get());
+    });
+    final var attr1 = poller.fromFunction(source::get);
+
+    attr0.subscribe((oldValue, newValue) -> {
+      this.events.add("attr0 s0 " + oldValue + " " + newValue);
+    });
+    attr1.subscribe((oldValue, newValue) -> {
+      this.events.add("attr1 s0 " + oldValue + " " + newValue);
+    });
+
+    source.set(2);
+    poller.tick();
+    assertEquals(1, this.errors.get());
+
+    assertEquals("attr0 s0 1 1", this.events.remove(0));
+    assertEquals("attr1 s0 1 1", this.events.remove(0));
+    assertEquals("attr1 s0 1 2", this.events.remove(0));
+    assertEquals(0, this.events.size());
+  }
+
+  /**
+   * Closed pollers cannot create attributes, and periods must be positive.
+   */
+
+  @Test
+  public void testInvalid()
+  {
+    final var poller = this.attributes.poller();
+    poller.close();
+    poller.tick();
+
+    assertThrows(IllegalStateException.class, () -> {
+      poller.fromFunction(() -> 1);
+    });
+    assertThrows(IllegalArgumentException.class, () -> {
+      this.attributes.poller(Duration.ZERO);
+    });
+  }
+}
@@ -0,0 +1,279 @@
+/*
+ * Copyright © 2026 Mark Raynsford <code@io7m.com> https://www.io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+package com.io7m.jattribute.tests;
+
+import com.io7m.jattribute.core.Attributes;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public final class AttributePrimitiveTest
+{
+  private static final Logger LOG =
+    LoggerFactory.getLogger(AttributePrimitiveTest.class);
+
+  private ArrayList<String> events;
+  private Attributes attributes;
+  private AtomicInteger errors;
+
+  @BeforeEach
+  public void setup()
+  {
+    this.events = new ArrayList<String>();
+    this.errors = new AtomicInteger(0);
+    this.attributes = Attributes.create(throwable -> {
+      LOG.error("error: ", throwable);
+      this.errors.incrementAndGet();
+    });
+  }
+
+  /**
+   * Int attributes publish and update values.
+   */
+
+  @Test
+  public void testInt()
+  {
+    final var attr0 = this.attributes.withInt(23);
+
+    final var sub = attr0.subscribe((oldValue, newValue) -> {
+      this.events.add("attr0 s0 " + oldValue + " " + newValue);
+    });
+
+    assertEquals(23, attr0.set(25));
+    assertFalse(attr0.compareAndSet(23, 30));
+    assertTrue(attr0.compareAndSet(25, 30));
+    assertEquals(30, attr0.getAndAdd(2));
+    assertEquals(35, attr0.addAndGet(3));
+    assertEquals(35, attr0.getAndUpdate(x -> x * 2));
+    assertEquals(71, attr0.updateAndGet(x -> x + 1));
+    assertEquals(142, attr0.accumulateAndGet(2, (x, y) -> x * y));
+    sub.close();
+    attr0.set(0);
+
+    assertEquals("attr0 s0 23 23", this.events.remove(0));
+    assertEquals("attr0 s0 23 25", this.events.remove(0));
+    assertEquals("attr0 s0 25 30", this.events.remove(0));
+    assertEquals("attr0 s0 30 32", this.events.remove(0));
+    assertEquals("attr0 s0 32 35", this.events.remove(0));
+    assertEquals("attr0 s0 35 70", this.events.remove(0));
+    assertEquals("attr0 s0 70 71", this.events.remove(0));
+    assertEquals("attr0 s0 71 142", this.events.remove(0));
+    assertEquals(0, this.events.size());
+    assertEquals(0, this.errors.get());
+  }
+
+  /**
+   * Long attributes publish and update values.
+   */
+
+  @Test
+  public void testLong()
+  {
+    final var attr0 = this.attributes.withLong(1L);
+
+    attr0.subscribe((oldValue, newValue) -> {
+      this.events.add("attr0 s0 " + oldValue + " " + newValue);
+    });
+
+    assertEquals(1L, attr0.set(Long.MAX_VALUE));
+    assertEquals(Long.MIN_VALUE, attr0.addAndGet(1L));
+
+    assertEquals("attr0 s0 1 1", this.events.remove(0));
+    assertEquals("attr0 s0 1 " + Long.MAX_VALUE, this.events.remove(0));
+    assertEquals(
+      "attr0 s0 " + Long.MAX_VALUE + " " + Long.MIN_VALUE,
+      this.events.remove(0));
+    assertEquals(0, this.events.size());
+    assertEquals(0, this.errors.get());
+  }
+
+  /**
+   * Double attributes compare values bitwise.
+   */
+
+  @Test
+  public void testDouble()
+  {
+    final var attr0 = this.attributes.withDouble(Double.NaN);
+
+    attr0.subscribe((oldValue, newValue) -> {
+      this.events.add("attr0 s0 " + oldValue + " " + newValue);
+    });
+
+    assertTrue(attr0.compareAndSet(Double.NaN, 0.0));
+    assertFalse(attr0.compareAndSet(-0.0, 1.0));
+    assertEquals(0.5, attr0.addAndGet(0.5));
+
+    assertEquals("attr0 s0 NaN NaN", this.events.remove(0));
+    assertEquals("attr0 s0 NaN 0.0", this.events.remove(0));
+    assertEquals("attr0 s0 0.0 0.5", this.events.remove(0));
+    assertEquals(0, this.events.size());
+    assertEquals(0, this.errors.get());
+  }
+
+  /**
+   * Identical primitive values are neither stored nor published.
+   */
+
+  @Test
+  public void testUnchanged()
+  {
+    final var attr0 = this.attributes.withInt(23);
+    final var attr1 = this.attributes.withLong(1L);
+    final var attr2 = this.attributes.withDouble(Double.NaN);
+    final var attr3 = attr0.mapToInt(x -> x / 10);
+
+    attr0.subscribe((oldValue, newValue) -> {
+      this.events.add("attr0 s0 " + oldValue + " " + newValue);
+    });
+    attr1.subscribe((oldValue, newValue) -> {
+      this.events.add("attr1 s0 " + oldValue + " " + newValue);
+    });
+    attr2.subscribe((oldValue, newValue) -> {
+      this.events.add("attr2 s0 " + oldValue + " " + newValue);
+    });
+    attr3.subscribe((oldValue, newValue) -> {
+      this.events.add("attr3 s0 " + oldValue + " " + newValue);
+    });
+
+    assertEquals(23, attr0.set(23));
+    assertTrue(attr0.compareAndSet(23, 23));
+    assertFalse(attr0.compareAndSet(22, 22));
+    assertEquals(23, attr0.updateAndGet(x -> x));
+    assertEquals(0L, attr0.version());
+    assertEquals(23, attr0.set(24));
+    assertEquals(1L, attr1.set(1L));
+    assertEquals(1L, attr1.addAndGet(0L));
+    assertEquals(0L, attr1.version());
+    assertTrue(Double.isNaN(attr2.set(Double.NaN)));
+    assertEquals(0L, attr2.version());
+    attr2.set(0.0);
+    attr2.set(0.0);
+    attr2.set(-0.0);
+
+    assertEquals("attr0 s0 23 23", this.events.remove(0));
+    assertEquals("attr1 s0 1 1", this.events.remove(0));
+    assertEquals("attr2 s0 NaN NaN", this.events.remove(0));
+    assertEquals("attr3 s0 2 2", this.events.remove(0));
+    assertEquals("attr0 s0 23 24", this.events.remove(0));
+    assertEquals("attr2 s0 NaN 0.0", this.events.remove(0));
+    assertEquals("attr2 s0 0.0 -0.0", this.events.remove(0));
+    assertEquals(0, this.events.size());
+    assertEquals(0, this.errors.get());
+  }
+
+  /**
+   * Mapping between primitive types works, and derived attributes are
+   * subscribed lazily.
+   */
+
+  @Test
+  public void testMapPrimitive()
+  {
+    final var attr0 = this.attributes.withInt(2);
+    final var attr1 = attr0.mapToLong(x -> (long) x * 1000L);
+    final var attr2 = attr1.mapToDouble(x -> (double) x / 4.0);
+    final var attr3 = attr2.mapToObj(x -> "v" + x);
+
+    assertEquals(500.0, attr2.get());
+    assertEquals("v500.0", attr3.get());
+    attr0.set(4);
+    assertEquals(1000.0, attr2.get());
+
+    attr1.subscribe((oldValue, newValue) -> {
+      this.events.add("attr1 s0 " + oldValue + " " + newValue);
+    });
+    final var sub = attr3.subscribe((oldValue, newValue) -> {
+      this.events.add("attr3 s0 " + oldValue + " " + newValue);
+    });
+
+    attr0.set(8);
+    sub.close();
+    attr0.set(1);
+    assertEquals("v250.0", attr3.get());
+
+    assertEquals("attr1 s0 4000 4000", this.events.remove(0));
+    assertEquals("attr3 s0 v1000.0 v1000.0", this.events.remove(0));
+    assertEquals("attr1 s0 4000 8000", this.events.remove(0));
+    assertEquals("attr3 s0 v1000.0 v2000.0", this.events.remove(0));
+    assertEquals("attr1 s0 8000 1000", this.events.remove(0));
+    assertEquals(0, this.events.size());
+    assertEquals(0, this.errors.get());
+  }
+
+  /**
+   * Boxed attributes can be used with the generic API.
+   */
+
+  @Test
+  public void testBoxed()
+  {
+    final var attr0 = this.attributes.withInt(2);
+    final var attr1 = attr0.boxed().mapR(x -> x + 1);
+
+    attr1.subscribe((oldValue, newValue) -> {
+      this.events.add("attr1 s0 " + oldValue + " " + newValue);
+    });
+
+    attr0.set(3);
+
+    assertEquals("attr1 s0 3 3", this.events.remove(0));
+    assertEquals("attr1 s0 3 4", this.events.remove(0));
+    assertEquals(0, this.events.size());
+    assertEquals(0, this.errors.get());
+  }
+
+  /**
+   * Concurrent additions are not lost.
+   */
+
+  @Test
+  public void testConcurrentAdd()
+    throws Exception
+  {
+    final var attr0 = this.attributes.withLong(0L);
+    final var threads = 8;
+    final var iterations = 10000;
+    final var executor = Executors.newFixedThreadPool(threads);
+    try {
+      for (int t = 0; t < threads; ++t) {
+        executor.execute(() -> {
+          for (int index = 0; index < iterations; ++index) {
+            attr0.getAndAdd(1L);
+          }
+        });
+      }
+    } finally {
+      executor.shutdown();
+      assertTrue(executor.awaitTermination(60L, TimeUnit.SECONDS));
+    }
+
+    assertEquals((long) threads * iterations, attr0.get());
+    assertEquals(0, this.errors.get());
+  }
+}
@@ -0,0 +1,232 @@
+/*
+ * Copyright © 2026 Mark Raynsford <code@io7m.com> https://www.io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+package com.io7m.jattribute.tests;
+
+import com.io7m.jattribute.core.AttributeSlowReceiverAction;
+import com.io7m.jattribute.core.AttributeSlowReceiverException;
+import com.io7m.jattribute.core.Attributes;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public final class AttributeSlowReceiverTest
+{
+  private static final Logger LOG =
+    LoggerFactory.getLogger(AttributeSlowReceiverTest.class);
+
+  private static final Duration BUDGET =
+    Duration.ofMillis(5L);
+
+  private List<String> events;
+  private List<Throwable> errors;
+
+  @BeforeEach
+  public void setup()
+  {
+    this.events = Collections.synchronizedList(new ArrayList<String>());
+    this.errors = Collections.synchronizedList(new ArrayList<Throwable>());
+  }
+
+  private Attributes.Builder builder()
+  {
+    return Attributes.builder(throwable -> {
+      LOG.error("error: ", throwable);
+      this.errors.add(throwable);
+    });
+  }
+
+  private static void pause()
+  {
+    try {
+      Thread.sleep(BUDGET.toMillis() * 4L);
+    } catch (final InterruptedException e) {
+      Thread.currentThread().interrupt();
+    }
+  }
+
+  /**
+   * A slow receiver is reported, and continues to receive values.
+   */
+
+  @Test
+  public void testReport()
+  {
+    final var attributes =
+      this.builder()
+        .setSlowReceiverBudget(BUDGET, AttributeSlowReceiverAction.REPORT)
+        .build();
+
+    final var attr0 = attributes.withValue(0);
+    final var sub0 = attr0.subscribe((oldValue, newValue) -> {
+      if (newValue.intValue() == 1) {
+        pause();
+      }
+      this.events.add("attr0 s0 " + oldValue + " " + newValue);
+    });
+
+    attr0.set(1);
+    attr0.set(2);
+
+    assertEquals("attr0 s0 0 0", this.events.remove(0));
+    assertEquals("attr0 s0 0 1", this.events.remove(0));
+    assertEquals("attr0 s0 1 2", this.events.remove(0));
+    assertEquals(0, this.events.size());
+    assertFalse(sub0.isClosed());
+
+    assertEquals(1, this.errors.size());
+    final var e =
+      assertInstanceOf(AttributeSlowReceiverException.class, this.errors.get(0));
+    assertEquals(AttributeSlowReceiverAction.REPORT, e.action());
+    assertEquals(BUDGET, e.budget());
+    assertTrue(e.elapsed().compareTo(BUDGET) > 0);
+  }
+
+  /**
+   * A slow receiver is reported, and its subscription is closed.
+   */
+
+  @Test
+  public void testClose()
+  {
+    final var attributes =
+      this.builder()
+        .setSlowReceiverBudget(BUDGET, AttributeSlowReceiverAction.CLOSE)
+        .build();
+
+    final var attr0 = attributes.withInt(0);
+    final var sub0 = attr0.subscribe((oldValue, newValue) -> {
+      if (newValue == 1) {
+        pause();
+      }
+      this.events.add("attr0 s0 " + oldValue + " " + newValue);
+    });
+
+    attr0.set(1);
+    attr0.set(2);
+
+    assertEquals("attr0 s0 0 0", this.events.remove(0));
+    assertEquals("attr0 s0 0 1", this.events.remove(0));
+    assertEquals(0, this.events.size());
+    assertTrue(sub0.isClosed());
+
+    assertEquals(1, this.errors.size());
+    final var e =
+      assertInstanceOf(AttributeSlowReceiverException.class, this.errors.get(0));
+    assertEquals(AttributeSlowReceiverAction.CLOSE, e.action());
+  }
+
+  /**
+   * A slow receiver is moved to the slow receiver executor, and receives
+   * subsequent values in order; other receivers continue to be called on
+   * the publishing thread.
+   */
+
+  @Test
+  public void testIsolate()
+    throws Exception
+  {
+    final var caller = Thread.currentThread();
+    final var executor = Executors.newFixedThreadPool(1);
+
+    try {
+      final var attributes =
+        this.builder()
+          .setSlowReceiverBudget(BUDGET, AttributeSlowReceiverAction.ISOLATE)
+          .setSlowReceiverExecutor(executor)
+          .build();
+
+      final var attr0 = attributes.withValue(0);
+      final var slowThreads = Collections.synchronizedList(new ArrayList<>());
+
+      attr0.subscribe((oldValue, newValue) -> {
+        if (newValue.intValue() == 1) {
+          pause();
+        }
+        slowThreads.add(Thread.currentThread());
+        this.events.add("attr0 s0 " + oldValue + " " + newValue);
+      });
+      attr0.subscribe((oldValue, newValue) -> {
+        assertEquals(caller, Thread.currentThread());
+      });
+
+      attr0.set(1);
+      attr0.set(2);
+      attr0.set(3);
+
+      executor.shutdown();
+      assertTrue(executor.awaitTermination(10L, TimeUnit.SECONDS));
+
+      assertEquals("attr0 s0 0 0", this.events.remove(0));
+      assertEquals("attr0 s0 0 1", this.events.remove(0));
+      assertEquals("attr0 s0 1 2", this.events.remove(0));
+      assertEquals("attr0 s0 2 3", this.events.remove(0));
+      assertEquals(0, this.events.size());
+
+      assertEquals(caller, slowThreads.get(0));
+      assertEquals(caller, slowThreads.get(1));
+      assertNotEquals(caller, slowThreads.get(2));
+      assertNotEquals(caller, slowThreads.get(3));
+
+      assertEquals(1, this.errors.size());
+      final var e =
+        assertInstanceOf(
+          AttributeSlowReceiverException.class,
+          this.errors.get(0)
+        );
+      assertEquals(AttributeSlowReceiverAction.ISOLATE, e.action());
+    } finally {
+      executor.shutdownNow();
+    }
+  }
+
+  /**
+   * Invalid policies are rejected.
+   */
+
+  @Test
+  public void testInvalid()
+  {
+    assertThrows(IllegalArgumentException.class, () -> {
+      this.builder()
+        .setSlowReceiverBudget(
+          Duration.ofMillis(-1L),
+          AttributeSlowReceiverAction.REPORT
+        );
+    });
+
+    assertThrows(IllegalStateException.class, () -> {
+      this.builder()
+        .setSlowReceiverBudget(BUDGET, AttributeSlowReceiverAction.ISOLATE)
+        .build();
+    });
+  }
+}
@@ -149,8 +149,8 @@ public final class AttributeTest
 
     assertEquals("attr0 s0 23 23", this.events.remove(0));
     assertEquals("attr1 s1 23.0 23.0", this.events.remove(0));
-    assertEquals("attr1 s1 23.0 25.0", this.events.remove(0));
     assertEquals("attr0 s0 23 25", this.events.remove(0));
+    assertEquals("attr1 s1 23.0 25.0", this.events.remove(0));
     assertEquals("attr1 s1 25.0 26.0", this.events.remove(0));
     assertEquals(0, this.events.size());
     assertEquals(0, this.errors);
@@ -183,8 +183,8 @@ public final class AttributeTest
 
     assertEquals("attr0 s0 23 23", this.events.remove(0));
     assertEquals("attr1 s1 23.0 23.0", this.events.remove(0));
-    assertEquals("attr1 s1 23.0 25.0", this.events.remove(0));
     assertEquals("attr0 s0 23 25", this.events.remove(0));
+    assertEquals("attr1 s1 23.0 25.0", this.events.remove(0));
     assertEquals("attr1 s1 25.0 26.0", this.events.remove(0));
     assertEquals(0, this.events.size());
     assertEquals(0, this.errors);
@@ -218,8 +218,228 @@ public final class AttributeTest
 
     assertEquals("attr0 s0 23 23", this.events.remove(0));
     assertEquals("attr1 s1 1058 1058", this.events.remove(0));
-    assertEquals("attr1 s1 1058 1250", this.events.remove(0));
     assertEquals("attr0 s0 23 25", this.events.remove(0));
+    assertEquals("attr1 s1 1058 1250", this.events.remove(0));
+    assertEquals(0, this.events.size());
+    assertEquals(0, this.errors);
+  }
+
+  /**
+   * Mapped attributes evaluate their transform functions once per change,
+   * not once per read.
+   */
+
+  @Test
+  public void testAttributeMapMemoized()
+  {
+    final var calls =
+      new AtomicInteger(0);
+    final var attr0 =
+      this.attributes.withValue(23);
+    final var attr1 =
+      attr0.map(i -> {
+        calls.incrementAndGet();
+        return i * 2;
+      });
+
+    assertEquals(0, calls.get());
+
+    final var sub0 =
+      attr1.subscribe((oldValue, newValue) -> {
+        this.events.add("attr1 s0 " + oldValue + " " + newValue);
+      });
+
+    assertEquals(1, calls.get());
+
+    for (int index = 0; index < 100; ++index) {
+      assertEquals(46, attr1.get());
+    }
+    assertEquals(1, calls.get());
+
+    attr0.set(25);
+    assertEquals(2, calls.get());
+
+    for (int index = 0; index < 100; ++index) {
+      assertEquals(50, attr1.get());
+    }
+    assertEquals(2, calls.get());
+
+    assertEquals("attr1 s0 46 46", this.events.remove(0));
+    assertEquals("attr1 s0 46 50", this.events.remove(0));
+    assertEquals(0, this.events.size());
+    assertEquals(0, this.errors);
+  }
+
+  /**
+   * Mapped attributes are only subscribed to their base attributes whilst
+   * they have subscribers of their own.
+   */
+
+  @Test
+  public void testAttributeMapLazy()
+  {
+    final var calls =
+      new AtomicInteger(0);
+    final var attr0 =
+      this.attributes.withValue(23);
+    final var attr1 =
+      attr0.map(i -> {
+        calls.incrementAndGet();
+        return i * 2;
+      });
+
+    attr0.set(24);
+    attr0.set(25);
+    assertEquals(0, calls.get());
+    assertEquals(50, attr1.get());
+    assertEquals(50, attr1.get());
+    assertEquals(1, calls.get());
+
+    final var sub0 =
+      attr1.subscribe((oldValue, newValue) -> {
+        this.events.add("attr1 s0 " + oldValue + " " + newValue);
+      });
+    final var sub1 =
+      attr1.subscribe((oldValue, newValue) -> {
+        this.events.add("attr1 s1 " + oldValue + " " + newValue);
+      });
+
+    attr0.set(26);
+    sub0.close();
+    attr0.set(27);
+    sub1.close();
+
+    final var callsBefore = calls.get();
+    attr0.set(28);
+    attr0.set(29);
+    assertEquals(callsBefore, calls.get());
+    assertEquals(58, attr1.get());
+
+    assertEquals("attr1 s0 50 50", this.events.remove(0));
+    assertEquals("attr1 s1 50 50", this.events.remove(0));
+    assertEquals("attr1 s0 50 52", this.events.remove(0));
+    assertEquals("attr1 s1 50 52", this.events.remove(0));
+    assertEquals("attr1 s1 52 54", this.events.remove(0));
+    assertEquals(0, this.events.size());
+    assertEquals(0, this.errors);
+  }
+
+  /**
+   * Chains of unsubscribed mapped attributes are fused, and each stage is
+   * evaluated once per change; an intermediate attribute that is subscribed
+   * before it is mapped is not bypassed.
+   */
+
+  @Test
+  public void testAttributeMapFused()
+  {
+    final var calls =
+      new AtomicInteger(0);
+    final var attr0 =
+      this.attributes.withValue(1);
+    final var attr1 =
+      attr0.map(i -> {
+        calls.incrementAndGet();
+        return i + 1;
+      });
+    final var attr2 =
+      attr1.map(i -> {
+        calls.incrementAndGet();
+        return i * 10;
+      });
+    final var attr3 =
+      attr2.mapR(i -> {
+        calls.incrementAndGet();
+        return "v" + i;
+      });
+
+    final var sub0 =
+      attr3.subscribe((oldValue, newValue) -> {
+        this.events.add("attr3 s0 " + oldValue + " " + newValue);
+      });
+
+    calls.set(0);
+    attr0.set(2);
+    attr0.set(3);
+    assertEquals(6, calls.get());
+    assertEquals("v40", attr3.get());
+    assertEquals(6, calls.get());
+
+    final var sub1 =
+      attr2.subscribe((oldValue, newValue) -> {
+        this.events.add("attr2 s1 " + oldValue + " " + newValue);
+      });
+    final var attr4 =
+      attr2.mapR(i -> "w" + i);
+    final var sub2 =
+      attr4.subscribe((oldValue, newValue) -> {
+        this.events.add("attr4 s2 " + oldValue + " " + newValue);
+      });
+
+    attr0.set(4);
+    sub0.close();
+    sub1.close();
+    sub2.close();
+    attr0.set(5);
+    assertEquals("v60", attr3.get());
+    assertEquals("w60", attr4.get());
+
+    assertEquals("attr3 s0 v20 v20", this.events.remove(0));
+    assertEquals("attr3 s0 v20 v30", this.events.remove(0));
+    assertEquals("attr3 s0 v30 v40", this.events.remove(0));
+    assertEquals("attr2 s1 40 40", this.events.remove(0));
+    assertEquals("attr4 s2 w40 w40", this.events.remove(0));
+    assertEquals("attr3 s0 v40 v50", this.events.remove(0));
+    assertEquals("attr2 s1 40 50", this.events.remove(0));
+    assertEquals("attr4 s2 w40 w50", this.events.remove(0));
+    assertEquals(0, this.events.size());
+    assertEquals(0, this.errors);
+  }
+
+  /**
+   * Values set directly on the intermediate attributes of a fused chain
+   * reach the fused attributes that bypass them, as they would if the chain
+   * were not fused.
+   */
+
+  @Test
+  public void testAttributeMapFusedIntermediateSet()
+  {
+    final var attr0 =
+      this.attributes.withValue(1);
+    final var attr1 =
+      attr0.map(i -> i + 1);
+    final var attr2 =
+      attr1.map(i -> i * 10);
+    final var attr3 =
+      attr2.mapR(i -> "v" + i);
+
+    final var sub0 =
+      attr3.subscribe((oldValue, newValue) -> {
+        this.events.add("attr3 s0 " + oldValue + " " + newValue);
+      });
+
+    attr1.set(100);
+    attr2.set(7);
+    attr0.set(2);
+
+    final var sub1 =
+      attr2.subscribe((oldValue, newValue) -> {
+        this.events.add("attr2 s1 " + oldValue + " " + newValue);
+      });
+
+    attr1.set(5);
+    sub0.close();
+    sub1.close();
+    attr1.set(6);
+
+    assertEquals("attr3 s0 v20 v20", this.events.remove(0));
+    assertEquals("attr3 s0 v20 v1000", this.events.remove(0));
+    assertEquals("attr3 s0 v1000 v7", this.events.remove(0));
+    assertEquals("attr3 s0 v7 v30", this.events.remove(0));
+    assertEquals("attr2 s1 30 30", this.events.remove(0));
+    assertEquals("attr2 s1 30 50", this.events.remove(0));
+    assertEquals("attr3 s0 v30 v50", this.events.remove(0));
     assertEquals(0, this.events.size());
     assertEquals(0, this.errors);
   }
@@ -0,0 +1,319 @@
+/*
+ * Copyright © 2026 Mark Raynsford <code@io7m.com> https://www.io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+package com.io7m.jattribute.tests;
+
+import com.io7m.jattribute.core.AttributeSchedulerType;
+import com.io7m.jattribute.core.Attributes;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.PriorityQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+public final class AttributeTimedTest
+{
+  private static final Logger LOG =
+    LoggerFactory.getLogger(AttributeTimedTest.class);
+
+  private static final Duration PERIOD =
+    Duration.ofMillis(100L);
+
+  private ArrayList<String> events;
+  private Attributes attributes;
+  private AtomicInteger errors;
+  private FakeScheduler scheduler;
+
+  @BeforeEach
+  public void setup()
+  {
+    this.events = new ArrayList<String>();
+    this.errors = new AtomicInteger(0);
+    this.scheduler = new FakeScheduler();
+    this.attributes =
+      Attributes.builder(throwable -> {
+          LOG.error("error: ", throwable);
+          this.errors.incrementAndGet();
+        })
+        .setScheduler(this.scheduler)
+        .build();
+  }
+
+  private record Task(
+    long time,
+    long sequence,
+    Runnable task)
+  {
+
+  }
+
+  private static final class FakeScheduler
+    implements AttributeSchedulerType
+  {
+    private final PriorityQueue<Task> tasks;
+    private long now;
+    private long sequence;
+
+    FakeScheduler()
+    {
+      this.tasks = new PriorityQueue<>(
+        Comparator.comparingLong(Task::time)
+          .thenComparingLong(Task::sequence)
+      );
+    }
+
+    @Override
+    public long nanoTime()
+    {
+      return this.now;
+    }
+
+    @Override
+    public void schedule(
+      final long delayNanos,
+      final Runnable task)
+    {
+      this.tasks.add(new Task(this.now + delayNanos, this.sequence++, task));
+    }
+
+    void advance(
+      final Duration duration)
+    {
+      final var target = this.now + duration.toNanos();
+      while (!this.tasks.isEmpty() && this.tasks.peek().time() <= target) {
+        final var task = this.tasks.poll();
+        this.now = task.time();
+        task.task().run();
+      }
+      this.now = target;
+    }
+  }
+
+  /**
+   * Throttling publishes the first value immediately, and the latest value
+   * at the end of each window.
+   */
+
+  @Test
+  public void testThrottle()
+  {
+    final var attr0 = this.attributes.withValue(0);
+    final var attr1 = attr0.throttle(PERIOD);
+
+    attr1.subscribe((oldValue, newValue) -> {
+      this.events.add("attr1 s0 " + oldValue + " " + newValue);
+    });
+
+    attr0.set(1);
+    attr0.set(2);
+    attr0.set(3);
+    assertEquals(1, attr1.get());
+    this.scheduler.advance(PERIOD);
+    this.scheduler.advance(PERIOD);
+    attr0.set(4);
+
+    assertEquals("attr1 s0 0 0", this.events.remove(0));
+    assertEquals("attr1 s0 0 1", this.events.remove(0));
+    assertEquals("attr1 s0 1 3", this.events.remove(0));
+    assertEquals("attr1 s0 3 4", this.events.remove(0));
+    assertEquals(0, this.events.size());
+    assertEquals(0, this.errors.get());
+  }
+
+  /**
+   * Debouncing publishes the latest value once the source is quiet.
+   */
+
+  @Test
+  public void testDebounce()
+  {
+    final var attr0 = this.attributes.withValue(0);
+    final var attr1 = attr0.debounce(PERIOD);
+
+    attr1.subscribe((oldValue, newValue) -> {
+      this.events.add("attr1 s0 " + oldValue + " " + newValue);
+    });
+
+    attr0.set(1);
+    this.scheduler.advance(PERIOD.dividedBy(2L));
+    attr0.set(2);
+    this.scheduler.advance(PERIOD.dividedBy(2L));
+    assertEquals(0, attr1.get());
+    this.scheduler.advance(PERIOD.dividedBy(2L));
+    assertEquals(2, attr1.get());
+    this.scheduler.advance(PERIOD);
+
+    assertEquals("attr1 s0 0 0", this.events.remove(0));
+    assertEquals("attr1 s0 0 2", this.events.remove(0));
+    assertEquals(0, this.events.size());
+    assertEquals(0, this.errors.get());
+  }
+
+  /**
+   * Sampling publishes the latest value at the end of each period, and
+   * does nothing whilst the source is unchanged.
+   */
+
+  @Test
+  public void testSample()
+  {
+    final var attr0 = this.attributes.withValue(0);
+    final var attr1 = attr0.sample(PERIOD);
+
+    attr1.subscribe((oldValue, newValue) -> {
+      this.events.add("attr1 s0 " + oldValue + " " + newValue);
+    });
+
+    attr0.set(1);
+    attr0.set(2);
+    this.scheduler.advance(PERIOD);
+    this.scheduler.advance(PERIOD);
+    attr0.set(3);
+    this.scheduler.advance(PERIOD);
+
+    assertEquals("attr1 s0 0 0", this.events.remove(0));
+    assertEquals("attr1 s0 0 2", this.events.remove(0));
+    assertEquals("attr1 s0 2 3", this.events.remove(0));
+    assertEquals(0, this.events.size());
+    assertEquals(0, this.errors.get());
+  }
+
+  /**
+   * Outstanding timers do nothing once the attribute is unsubscribed, and
+   * an unsubscribed attribute returns the value of its source.
+   */
+
+  @Test
+  public void testUnsubscribed()
+  {
+    final var attr0 = this.attributes.withValue(0);
+    final var attr1 = attr0.throttle(PERIOD);
+
+    final var sub = attr1.subscribe((oldValue, newValue) -> {
+      this.events.add("attr1 s0 " + oldValue + " " + newValue);
+    });
+
+    attr0.set(1);
+    attr0.set(2);
+    sub.close();
+    this.scheduler.advance(PERIOD);
+    assertEquals(2, attr1.get());
+
+    assertEquals("attr1 s0 0 0", this.events.remove(0));
+    assertEquals("attr1 s0 0 1", this.events.remove(0));
+    assertEquals(0, this.events.size());
+    assertEquals(0, this.errors.get());
+  }
+
+  /**
+   * Timers scheduled by a closed subscription do nothing once the attribute
+   * has been subscribed again.
+   */
+
+  @Test
+  public void testResubscribed()
+  {
+    final var attr0 = this.attributes.withValue(0);
+    final var attr1 = attr0.sample(PERIOD);
+
+    final var sub = attr1.subscribe((oldValue, newValue) -> {
+      this.events.add("attr1 s0 " + oldValue + " " + newValue);
+    });
+
+    attr0.set(1);
+    sub.close();
+
+    attr1.subscribe((oldValue, newValue) -> {
+      this.events.add("attr1 s1 " + oldValue + " " + newValue);
+    });
+
+    this.scheduler.advance(PERIOD.dividedBy(2L));
+    attr0.set(2);
+    this.scheduler.advance(PERIOD.dividedBy(2L));
+    assertEquals(1, attr1.get());
+    this.scheduler.advance(PERIOD);
+    assertEquals(2, attr1.get());
+
+    assertEquals("attr1 s0 0 0", this.events.remove(0));
+    assertEquals("attr1 s1 1 1", this.events.remove(0));
+    assertEquals("attr1 s1 1 2", this.events.remove(0));
+    assertEquals(0, this.events.size());
+    assertEquals(0, this.errors.get());
+  }
+
+  /**
+   * Receivers do not run whilst the attribute's lock is held, and so a
+   * receiver can wait for another thread that updates the source.
+   */
+
+  @Test
+  public void testReceiverUnlocked()
+    throws Exception
+  {
+    final var attr0 = this.attributes.withValue(0);
+    final var attr1 = attr0.throttle(PERIOD);
+    final var blocked = new AtomicInteger(0);
+
+    attr1.subscribe((oldValue, newValue) -> {
+      this.events.add("attr1 s0 " + oldValue + " " + newValue);
+      if (newValue.intValue() == 1) {
+        final var thread = new Thread(() -> attr0.set(2));
+        thread.start();
+        try {
+          thread.join(10_000L);
+        } catch (final InterruptedException e) {
+          Thread.currentThread().interrupt();
+        }
+        if (thread.isAlive()) {
+          blocked.incrementAndGet();
+        }
+      }
+    });
+
+    attr0.set(1);
+    assertEquals(0, blocked.get());
+    this.scheduler.advance(PERIOD);
+
+    assertEquals("attr1 s0 0 0", this.events.remove(0));
+    assertEquals("attr1 s0 0 1", this.events.remove(0));
+    assertEquals("attr1 s0 1 2", this.events.remove(0));
+    assertEquals(0, this.events.size());
+    assertEquals(0, this.errors.get());
+  }
+
+  /**
+   * Negative periods are rejected.
+   */
+
+  @Test
+  public void testNegative()
+  {
+    final var attr0 = this.attributes.withValue(0);
+    final var negative = Duration.ofMillis(-1L);
+
+    assertThrows(IllegalArgumentException.class, () -> attr0.throttle(negative));
+    assertThrows(IllegalArgumentException.class, () -> attr0.debounce(negative));
+    assertThrows(IllegalArgumentException.class, () -> attr0.sample(negative));
+  }
+}
@@ -0,0 +1,289 @@
+/*
+ * Copyright © 2026 Mark Raynsford <code@io7m.com> https://www.io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+package com.io7m.jattribute.tests;
+
+import com.io7m.jattribute.core.AttributeEquivalenceType;
+import com.io7m.jattribute.core.Attributes;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+public final class AttributeTransactionTest
+{
+  private static final Logger LOG =
+    LoggerFactory.getLogger(AttributeTransactionTest.class);
+
+  private ArrayList<String> events;
+  private Attributes attributes;
+  private AtomicInteger errors;
+
+  @BeforeEach
+  public void setup()
+  {
+    this.events = new ArrayList<String>();
+    this.errors = new AtomicInteger(0);
+    this.attributes = Attributes.create(throwable -> {
+      LOG.error("error: ", throwable);
+      this.errors.incrementAndGet();
+    });
+  }
+
+  /**
+   * Updates in a transaction are published once when the transaction
+   * completes.
+   */
+
+  @Test
+  public void testTransaction()
+  {
+    final var attr0 = this.attributes.withValue(0);
+    final var attr1 = this.attributes.withInt(10);
+
+    attr0.subscribe((oldValue, newValue) -> {
+      this.events.add("attr0 s0 " + oldValue + " " + newValue);
+    });
+    attr1.subscribe((oldValue, newValue) -> {
+      this.events.add("attr1 s0 " + oldValue + " " + newValue);
+    });
+
+    this.attributes.transaction(() -> {
+      attr0.set(1);
+      attr1.set(11);
+      attr0.set(2);
+      attr1.addAndGet(1);
+      attr0.set(3);
+
+      assertEquals(3, attr0.get());
+      assertEquals(12, attr1.get());
+      assertEquals(2, this.events.size());
+    });
+
+    assertEquals("attr0 s0 0 0", this.events.remove(0));
+    assertEquals("attr1 s0 10 10", this.events.remove(0));
+    assertEquals("attr0 s0 0 3", this.events.remove(0));
+    assertEquals("attr1 s0 10 12", this.events.remove(0));
+    assertEquals(0, this.events.size());
+    assertEquals(0, this.errors.get());
+  }
+
+  /**
+   * Nested transactions publish when the outermost transaction completes.
+   */
+
+  @Test
+  public void testTransactionNested()
+  {
+    final var attr0 = this.attributes.withValue(0);
+
+    attr0.subscribe((oldValue, newValue) -> {
+      this.events.add("attr0 s0 " + oldValue + " " + newValue);
+    });
+
+    this.attributes.transaction(() -> {
+      attr0.set(1);
+      this.attributes.transaction(() -> attr0.set(2));
+      assertEquals(1, this.events.size());
+      attr0.set(3);
+    });
+
+    assertEquals("attr0 s0 0 0", this.events.remove(0));
+    assertEquals("attr0 s0 0 3", this.events.remove(0));
+    assertEquals(0, this.events.size());
+    assertEquals(0, this.errors.get());
+  }
+
+  /**
+   * Derived attributes are evaluated once per transaction.
+   */
+
+  @Test
+  public void testTransactionDerived()
+  {
+    final var attr0 = this.attributes.withValue(0);
+    final var calls = new AtomicInteger(0);
+    final var attr1 = attr0.mapR(x -> {
+      calls.incrementAndGet();
+      return x * 2;
+    });
+
+    attr1.subscribe((oldValue, newValue) -> {
+      this.events.add("attr1 s0 " + oldValue + " " + newValue);
+    });
+    assertEquals(1, calls.get());
+
+    this.attributes.transaction(() -> {
+      for (int index = 1; index <= 100; ++index) {
+        attr0.set(index);
+      }
+    });
+
+    assertEquals(2, calls.get());
+    assertEquals("attr1 s0 0 0", this.events.remove(0));
+    assertEquals("attr1 s0 0 200", this.events.remove(0));
+    assertEquals(0, this.events.size());
+    assertEquals(0, this.errors.get());
+  }
+
+  /**
+   * Connected derived attributes read inside a transaction reflect the
+   * updates already made in the transaction, and are published once when
+   * the transaction completes.
+   */
+
+  @Test
+  public void testTransactionDerivedReadsOwnWrites()
+  {
+    final var attr0 = this.attributes.withValue(1);
+    final var attr1 = this.attributes.withInt(2);
+    final var attr2 = attr0.map(x -> x * 10);
+    final var attr3 = this.attributes.combine(attr0, attr2, Integer::sum);
+    final var attr4 = attr1.mapToInt(x -> x * 100);
+    final var attr5 = attr0.filter(x -> x > 0);
+
+    attr2.subscribe((oldValue, newValue) -> {
+      this.events.add("attr2 s0 " + oldValue + " " + newValue);
+    });
+    attr3.subscribe((oldValue, newValue) -> {
+      this.events.add("attr3 s0 " + oldValue + " " + newValue);
+    });
+    attr4.subscribe((oldValue, newValue) -> {
+      this.events.add("attr4 s0 " + oldValue + " " + newValue);
+    });
+    attr5.subscribe((oldValue, newValue) -> {
+      this.events.add("attr5 s0 " + oldValue + " " + newValue);
+    });
+
+    this.attributes.transaction(() -> {
+      attr0.set(2);
+      attr1.set(3);
+
+      assertEquals(2, attr0.get());
+      assertEquals(20, attr2.get());
+      assertEquals(22, attr3.get());
+      assertEquals(300, attr4.get());
+      assertEquals(2, attr5.get());
+      assertEquals(4, this.events.size());
+    });
+
+    assertEquals(20, attr2.get());
+    assertEquals(22, attr3.get());
+    assertEquals(300, attr4.get());
+    assertEquals(2, attr5.get());
+
+    assertEquals("attr2 s0 10 10", this.events.remove(0));
+    assertEquals("attr3 s0 11 11", this.events.remove(0));
+    assertEquals("attr4 s0 200 200", this.events.remove(0));
+    assertEquals("attr5 s0 1 1", this.events.remove(0));
+    assertEquals("attr2 s0 10 20", this.events.remove(0));
+    assertEquals("attr5 s0 1 2", this.events.remove(0));
+    assertEquals("attr4 s0 200 300", this.events.remove(0));
+    assertEquals("attr3 s0 11 22", this.events.remove(0));
+    assertEquals(0, this.events.size());
+    assertEquals(0, this.errors.get());
+  }
+
+  /**
+   * Attributes that end a transaction with an equivalent value are not
+   * published.
+   */
+
+  @Test
+  public void testTransactionEquivalent()
+  {
+    final var attr0 =
+      this.attributes.withValue(0, AttributeEquivalenceType.equality());
+
+    attr0.subscribe((oldValue, newValue) -> {
+      this.events.add("attr0 s0 " + oldValue + " " + newValue);
+    });
+
+    this.attributes.transaction(() -> {
+      attr0.set(1);
+      attr0.set(0);
+    });
+
+    assertEquals("attr0 s0 0 0", this.events.remove(0));
+    assertEquals(0, this.events.size());
+    assertEquals(0, this.errors.get());
+  }
+
+  /**
+   * Updates are published if a transaction raises an exception.
+   */
+
+  @Test
+  public void testTransactionException()
+  {
+    final var attr0 = this.attributes.withValue(0);
+
+    attr0.subscribe((oldValue, newValue) -> {
+      this.events.add("attr0 s0 " + oldValue + " " + newValue);
+    });
+
+    assertThrows(IllegalStateException.class, () -> {
+      this.attributes.transaction(() -> {
+        attr0.set(1);
+        throw new IllegalStateException();
+      });
+    });
+
+    attr0.set(2);
+
+    assertEquals("attr0 s0 0 0", this.events.remove(0));
+    assertEquals("attr0 s0 0 1", this.events.remove(0));
+    assertEquals("attr0 s0 1 2", this.events.remove(0));
+    assertEquals(0, this.events.size());
+    assertEquals(0, this.errors.get());
+  }
+
+  /**
+   * Transactions only affect the attributes of their own attributes
+   * instance.
+   */
+
+  @Test
+  public void testTransactionOtherInstance()
+  {
+    final var other = Attributes.create(throwable -> {
+      LOG.error("error: ", throwable);
+      this.errors.incrementAndGet();
+    });
+
+    final var attr0 = other.withValue(0);
+
+    attr0.subscribe((oldValue, newValue) -> {
+      this.events.add("attr0 s0 " + oldValue + " " + newValue);
+    });
+
+    this.attributes.transaction(() -> {
+      attr0.set(1);
+      assertEquals(2, this.events.size());
+    });
+
+    assertEquals("attr0 s0 0 0", this.events.remove(0));
+    assertEquals("attr0 s0 0 1", this.events.remove(0));
+    assertEquals(0, this.events.size());
+    assertEquals(0, this.errors.get());
+  }
+}
@@ -0,0 +1,276 @@
+/*
+ * Copyright © 2026 Mark Raynsford <code@io7m.com> https://www.io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+package com.io7m.jattribute.tests;
+
+import com.io7m.jattribute.core.AttributeEquivalenceType;
+import com.io7m.jattribute.core.Attributes;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public final class AttributeVersionTest
+{
+  private static final Logger LOG =
+    LoggerFactory.getLogger(AttributeVersionTest.class);
+
+  private ArrayList<String> events;
+  private Attributes attributes;
+  private AtomicInteger errors;
+
+  @BeforeEach
+  public void setup()
+  {
+    this.events = new ArrayList<String>();
+    this.errors = new AtomicInteger(0);
+    this.attributes = Attributes.create(throwable -> {
+      LOG.error("error: ", throwable);
+      this.errors.incrementAndGet();
+    });
+  }
+
+  /**
+   * The version of an attribute increases each time a value is stored, and
+   * not when an equivalent value is suppressed.
+   */
+
+  @Test
+  public void testVersionIncreases()
+  {
+    final var attr0 =
+      this.attributes.withValue("x", AttributeEquivalenceType.equality());
+    assertEquals(0L, attr0.version());
+
+    attr0.set("y");
+    assertEquals(1L, attr0.version());
+    attr0.set("y");
+    assertEquals(1L, attr0.version());
+    attr0.set("z");
+    assertEquals(2L, attr0.version());
+
+    attr0.compareAndSet("x", "w");
+    assertEquals(2L, attr0.version());
+    attr0.compareAndSet("z", "w");
+    assertEquals(3L, attr0.version());
+    attr0.updateAndGet(x -> x + "w");
+    assertEquals(4L, attr0.version());
+
+    final var versioned = attr0.getVersioned();
+    assertEquals("ww", versioned.value());
+    assertEquals(4L, versioned.version());
+    assertEquals(0, this.errors.get());
+  }
+
+  /**
+   * The versions of derived attributes follow the versions of their
+   * sources, whether or not the derived attributes are subscribed.
+   */
+
+  @Test
+  public void testDerivedVersions()
+  {
+    final var attr0 = this.attributes.withValue(1);
+    final var attr1 = this.attributes.withValue(10);
+    final var map0 = attr0.map(x -> x * 2);
+    final var combined = this.attributes.combine(map0, attr1, Integer::sum);
+
+    assertEquals(0L, map0.version());
+    assertEquals(0L, combined.version());
+
+    attr0.set(2);
+    assertEquals(1L, map0.version());
+    assertEquals(1L, combined.version());
+    assertEquals(14, combined.getVersioned().value());
+
+    try (var ignored = combined.subscribe((oldValue, newValue) -> {
+      this.events.add("combined " + oldValue + " " + newValue);
+    })) {
+      attr1.set(20);
+      assertEquals(1L, map0.version());
+      assertEquals(2L, combined.version());
+      assertEquals(24, combined.getVersioned().value());
+    }
+
+    attr0.set(3);
+    assertEquals(2L, map0.version());
+    assertEquals(3L, combined.version());
+    assertEquals(26, combined.getVersioned().value());
+
+    assertEquals("combined 14 14", this.events.remove(0));
+    assertEquals("combined 14 24", this.events.remove(0));
+    assertEquals(0, this.events.size());
+    assertEquals(0, this.errors.get());
+  }
+
+  /**
+   * The versions of primitive attributes and the attributes derived from
+   * them increase with each update.
+   */
+
+  @Test
+  public void testPrimitiveVersions()
+  {
+    final var attr0 = this.attributes.withInt(1);
+    final var mapped = attr0.mapToLong(x -> x * 3L);
+    final var boxed = mapped.boxed();
+
+    attr0.set(2);
+    attr0.addAndGet(3);
+    attr0.compareAndSet(0, 1);
+    assertEquals(2L, attr0.version());
+    assertEquals(2L, mapped.version());
+    assertEquals(2L, boxed.version());
+
+    final var versioned = boxed.getVersioned();
+    assertEquals(15L, versioned.value());
+    assertEquals(2L, versioned.version());
+    assertEquals(0, this.errors.get());
+  }
+
+  /**
+   * A versioned read is consistent whilst the attribute is being updated
+   * concurrently: the value read is exactly the value stored at the version
+   * read.
+   */
+
+  @Test
+  public void testVersionedConsistent()
+    throws Exception
+  {
+    final var iterations = 100_000;
+    final var attr0 = this.attributes.withLong(0L);
+    final var derived = attr0.mapToObj(x -> List.of(x, x));
+    final var done = new AtomicBoolean(false);
+    final var inconsistent = new AtomicInteger(0);
+
+    final var executor = Executors.newFixedThreadPool(2);
+    try {
+      final var start = new CountDownLatch(1);
+      executor.execute(() -> {
+        try {
+          start.await();
+        } catch (final InterruptedException e) {
+          Thread.currentThread().interrupt();
+        }
+        for (int index = 0; index < iterations; ++index) {
+          attr0.addAndGet(1L);
+        }
+        done.set(true);
+      });
+      executor.execute(() -> {
+        try {
+          start.await();
+        } catch (final InterruptedException e) {
+          Thread.currentThread().interrupt();
+        }
+        long last = 0L;
+        while (!done.get()) {
+          final var versioned = derived.getVersioned();
+          final var value = versioned.value().get(0).longValue();
+          if (value != versioned.version() || versioned.version() < last) {
+            inconsistent.incrementAndGet();
+          }
+          last = versioned.version();
+        }
+      });
+      start.countDown();
+    } finally {
+      executor.shutdown();
+      assertTrue(executor.awaitTermination(60L, TimeUnit.SECONDS));
+    }
+
+    assertEquals(0, inconsistent.get());
+    assertEquals(iterations, attr0.version());
+    assertEquals(0, this.errors.get());
+  }
+
+  /**
+   * Concurrent writers each advance the version exactly once per stored
+   * value, and a versioned read always observes a value together with the
+   * version at which it was stored.
+   */
+
+  @Test
+  public void testVersionedConcurrentWriters()
+    throws Exception
+  {
+    final var writers = 4;
+    final var iterations = 25_000;
+    final var attr0 = this.attributes.withValue(Integer.valueOf(0));
+    final var attr1 = this.attributes.withInt(0);
+    final var remaining = new CountDownLatch(writers);
+    final var inconsistent = new AtomicInteger(0);
+
+    final var executor = Executors.newFixedThreadPool(writers + 1);
+    try {
+      final var start = new CountDownLatch(1);
+      for (int writer = 0; writer < writers; ++writer) {
+        executor.execute(() -> {
+          try {
+            start.await();
+          } catch (final InterruptedException e) {
+            Thread.currentThread().interrupt();
+          }
+          for (int index = 0; index < iterations; ++index) {
+            attr0.updateAndGet(x -> Integer.valueOf(x.intValue() + 1));
+            attr1.addAndGet(1);
+          }
+          remaining.countDown();
+        });
+      }
+      executor.execute(() -> {
+        try {
+          start.await();
+        } catch (final InterruptedException e) {
+          Thread.currentThread().interrupt();
+        }
+        while (remaining.getCount() > 0L) {
+          final var v0 = attr0.getVersioned();
+          if (v0.value().intValue() != v0.version()) {
+            inconsistent.incrementAndGet();
+          }
+          final var v1 = attr1.getVersioned();
+          if (v1.value().intValue() != v1.version()) {
+            inconsistent.incrementAndGet();
+          }
+        }
+      });
+      start.countDown();
+    } finally {
+      executor.shutdown();
+      assertTrue(executor.awaitTermination(60L, TimeUnit.SECONDS));
+    }
+
+    assertEquals(0, inconsistent.get());
+    assertEquals(writers * iterations, attr0.get().intValue());
+    assertEquals(writers * iterations, attr0.version());
+    assertEquals(writers * iterations, attr1.get());
+    assertEquals(writers * iterations, attr1.version());
+    assertEquals(0, this.errors.get());
+  }
+}
@@ -0,0 +1,195 @@
+/*
+ * Copyright © 2026 Mark Raynsford <code@io7m.com> https://www.io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+package com.io7m.jattribute.tests;
+
+import com.io7m.jattribute.core.AttributeMetricsType;
+import com.io7m.jattribute.core.AttributeReadableType;
+import com.io7m.jattribute.core.Attributes;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.lang.ref.WeakReference;
+import java.util.WeakHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public final class AttributeWeakTest
+{
+  private static final Logger LOG =
+    LoggerFactory.getLogger(AttributeWeakTest.class);
+
+  private int errors;
+  private Attributes.Builder builder;
+
+  @BeforeEach
+  public void setup()
+  {
+    this.errors = 0;
+    this.builder = Attributes.builder(throwable -> {
+      LOG.error("error: ", throwable);
+      ++this.errors;
+    });
+  }
+
+  private static boolean collect(
+    final WeakReference<?> ref)
+  {
+    for (int index = 0; index < 100; ++index) {
+      System.gc();
+      if (ref.refersTo(null)) {
+        return true;
+      }
+      try {
+        Thread.sleep(10L);
+      } catch (final InterruptedException e) {
+        Thread.currentThread().interrupt();
+      }
+    }
+    return false;
+  }
+
+  private static WeakReference<AttributeReadableType<Integer>> subscribeAndDrop(
+    final AttributeReadableType<Integer> base,
+    final AtomicInteger received)
+  {
+    final var mapped =
+      base.mapR(x -> x * 2)
+        .mapR(x -> x + 1);
+
+    mapped.subscribe((oldValue, newValue) -> received.incrementAndGet());
+    return new WeakReference<>(mapped);
+  }
+
+  /**
+   * Weakly held derived attributes are collected once unreachable, and
+   * their links are removed from the base attribute's subscribers on the
+   * next publish.
+   */
+
+  @Test
+  public void testWeakDerivedCollected()
+  {
+    /*
+     * Attributes use identity equality, and the counts must not keep the
+     * derived attributes reachable.
+     */
+
+    final var subscribers = new WeakHashMap<Object, Integer>();
+    final var attributes =
+      this.builder.setWeakDerivedAttributes(true)
+        .setMetrics(new AttributeMetricsType()
+        {
+          @Override
+          public void onSubscribed(
+            final Object attribute,
+            final int count)
+          {
+            synchronized (subscribers) {
+              subscribers.put(attribute, Integer.valueOf(count));
+            }
+          }
+
+          @Override
+          public void onUnsubscribed(
+            final Object attribute,
+            final int count)
+          {
+            synchronized (subscribers) {
+              subscribers.put(attribute, Integer.valueOf(count));
+            }
+          }
+        })
+        .build();
+
+    final var received = new AtomicInteger(0);
+    final var attr0 = attributes.withValue(23);
+    final var ref = subscribeAndDrop(attr0, received);
+    assertEquals(1, received.get());
+    synchronized (subscribers) {
+      assertEquals(Integer.valueOf(1), subscribers.get(attr0));
+    }
+
+    assertTrue(collect(ref));
+    attr0.set(24);
+    attr0.set(25);
+    assertEquals(1, received.get());
+    synchronized (subscribers) {
+      assertEquals(Integer.valueOf(0), subscribers.get(attr0));
+    }
+    assertEquals(0, this.errors);
+  }
+
+  /**
+   * Weakly held derived attributes remain reachable whilst a subscription
+   * is held.
+   */
+
+  @Test
+  public void testWeakDerivedHeldBySubscription()
+  {
+    final var attributes =
+      this.builder.setWeakDerivedAttributes(true)
+        .build();
+
+    final var received = new AtomicInteger(0);
+    final var attr0 = attributes.withValue(23);
+    final var sub =
+      attr0.mapR(x -> x * 2)
+        .subscribe((oldValue, newValue) -> received.incrementAndGet());
+
+    for (int index = 0; index < 10; ++index) {
+      System.gc();
+    }
+
+    attr0.set(24);
+    assertNotNull(sub);
+    assertFalse(sub.isClosed());
+    assertEquals(2, received.get());
+    assertEquals(0, this.errors);
+  }
+
+  /**
+   * Strongly held derived attributes are not collected whilst the base
+   * attribute is reachable.
+   */
+
+  @Test
+  public void testStrongDerivedRetained()
+  {
+    final var attributes =
+      this.builder.build();
+
+    final var received = new AtomicInteger(0);
+    final var attr0 = attributes.withValue(23);
+    final var ref = subscribeAndDrop(attr0, received);
+
+    for (int index = 0; index < 10; ++index) {
+      System.gc();
+    }
+
+    assertFalse(ref.refersTo(null));
+    attr0.set(24);
+    assertEquals(2, received.get());
+    assertEquals(0, this.errors);
+  }
+}